@@ -169,6 +169,7 @@ const OAuthCallbackPage = () => {
     useEffect(() => {
         const params = getOAuthParams(location);
         const code = params.get("code") || params.get("authorization_code") || params.get("auth_code");
+        const state = params.get("state");
         const accessToken = params.get("access_token");
         const idToken = params.get("id_token");
         const errorParam = params.get("error") || params.get("error_description");
@@ -188,7 +189,8 @@ const OAuthCallbackPage = () => {
 
                 const backendBase = window.location.pathname.replace(/\/callback.*$/, "");
                 const response = await fetch(
-                    `${window.location.origin}${backendBase}/init/processAuth?code=${encodeURIComponent(code!)}`,
+                    `${window.location.origin}${backendBase}/init/processAuth?code=${encodeURIComponent(code!)}`
+                    + `&state=${encodeURIComponent(state ?? "")}`,
                     {method: "GET"}
                 );
                 if (!response.ok) {
@@ -46,10 +46,12 @@ const PaymentForm = ({banksWithAllAccounts, payeeData, banksList}: PaymentFormPr
 
     const [isConfirming, setIsConfirming] = useState(false);
     const [formDataToSubmit, setFormDataToSubmit] = useState<PaymentFormData | null>(null);
+    const [idempotencyKey, setIdempotencyKey] = useState<string | null>(null);
     const [isRedirecting, setIsRedirecting] = useState(false);
     const disabledBankNames = new Set(banksList.slice(0, 2).map((b) => b.name));
     const onSubmit = (data: PaymentFormData) => {
         setFormDataToSubmit(data);
+        setIdempotencyKey(crypto.randomUUID());
         setIsConfirming(true);
     };
     const handleConfirmedAndRedirect = async () => {
@@ -62,7 +64,10 @@ const PaymentForm = ({banksWithAllAccounts, payeeData, banksList}: PaymentFormPr
                 `${backendBase}/init/payment`,
                 {
                     method: "POST",
-                    headers: {"Content-Type": "application/json"},
+                    headers: {
+                        "Content-Type": "application/json",
+                        ...(idempotencyKey ? {"Idempotency-Key": idempotencyKey} : {})
+                    },
                     body: JSON.stringify({
                         userAccount: formDataToSubmit.userAccount,
                         payeeAccount: formDataToSubmit.payeeAccount,
@@ -27,11 +27,18 @@ public final class ApiConstants {
     public static final String STATUS_ACCOUNTS = "accounts";
     public static final String STATUS_PAYMENTS = "payments";
 
+    // Request headers
+    public static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+
     // Response field keys
-    public static final String FIELD_TYPE    = "type";
-    public static final String FIELD_STATUS  = "status";
-    public static final String FIELD_SUCCESS = "success";
-    public static final String FIELD_ERROR   = "error";
+    public static final String FIELD_TYPE           = "type";
+    public static final String FIELD_STATUS         = "status";
+    public static final String FIELD_SUCCESS        = "success";
+    public static final String FIELD_ERROR          = "error";
+    public static final String FIELD_CONSENT_ID     = "consentId";
+    public static final String FIELD_AGGREGATION_ID = "aggregationId";
+    public static final String FIELD_PAYMENT_HANDLE = "paymentHandle";
+    public static final String FIELD_BATCH_ID       = "batchId";
 
     // Response values
     public static final String VALUE_SUCCESS = "success";
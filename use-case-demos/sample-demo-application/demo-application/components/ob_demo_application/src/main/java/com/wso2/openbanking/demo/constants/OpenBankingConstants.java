@@ -27,6 +27,13 @@ public final class OpenBankingConstants {
     public static final String FIELD_DATA = "Data";
     public static final String FIELD_RISK = "Risk";
 
+    // Paging fields and query parameters
+    public static final String FIELD_LINKS                  = "Links";
+    public static final String FIELD_NEXT                   = "Next";
+    public static final String FIELD_META                   = "Meta";
+    public static final String FIELD_TOTAL_PAGES            = "TotalPages";
+    public static final String PARAM_FROM_BOOKING_DATE_TIME = "fromBookingDateTime";
+
     // Account JSON fields
     public static final String FIELD_ACCOUNT    = "Account";
     public static final String FIELD_ACCOUNT_ID = "AccountId";
@@ -58,6 +65,8 @@ public final class OpenBankingConstants {
     public static final String FIELD_IDENTIFICATION             = "Identification";
     public static final String FIELD_SECONDARY_IDENTIFICATION   = "SecondaryIdentification";
     public static final String FIELD_INITIATION                 = "Initiation";
+    public static final String FIELD_DOMESTIC_PAYMENT_ID        = "DomesticPaymentId";
+    public static final String FIELD_PAYMENT_STATUS             = "Status";
 
     // Open Banking scheme identifiers
     public static final String SCHEME_SORT_CODE_ACCOUNT_NUMBER = "OB.SortCodeAccountNumber";
@@ -87,6 +96,7 @@ public final class OpenBankingConstants {
     // Fallback display strings
     public static final String DEFAULT_ACCOUNT_NAME   = "Open Banking Account";
     public static final String DEFAULT_STANDARD_ACCOUNT = "Standard Account";
+    public static final String DEFAULT_BANK_ID          = "default";
 
     // Payment ID prefixes
     public static final String PAYMENT_INSTRUCTION_PREFIX  = "INST-";
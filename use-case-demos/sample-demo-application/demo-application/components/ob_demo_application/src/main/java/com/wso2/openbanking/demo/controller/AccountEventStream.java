@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.wso2.openbanking.demo.constants.ApiConstants;
+import com.wso2.openbanking.demo.models.Account;
+import com.wso2.openbanking.demo.models.AuthFlowResult;
+import com.wso2.openbanking.demo.service.AsyncRequestExecutor;
+import com.wso2.openbanking.demo.service.AuthService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Completes an authorization flow while streaming its progress as Server-Sent Events.
+ * An {@code account} event is sent as soon as each account finishes loading, followed by a single
+ * {@code complete} event, or an {@code error} event if the flow fails or runs past its deadline.
+ * The flow runs on the {@link AsyncRequestExecutor}, so it counts towards the in-flight request cap;
+ * the response thread only writes the events the flow queues. If the deadline passes or the client
+ * disconnects, the bank calls still in flight are aborted.
+ */
+final class AccountEventStream implements StreamingOutput {
+
+    static final String MEDIA_TYPE = "text/event-stream";
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccountEventStream.class);
+
+    private static final String EVENT_ACCOUNT  = "account";
+    private static final String EVENT_COMPLETE = "complete";
+    private static final String EVENT_ERROR    = "error";
+
+    /** Queued after the last event of the flow. */
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private final AuthService authService;
+    private final String code;
+    private final String state;
+    private final BlockingQueue<byte[]> events = new LinkedBlockingQueue<>();
+    private volatile CompletableFuture<AuthFlowResult> flow;
+    private volatile boolean timedOut;
+
+    /** Writes the JSON payload of a single event. */
+    @FunctionalInterface
+    private interface EventData {
+
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * Creates an event stream for the flow identified by the given state.
+     *
+     * @param authService service that completes the flow
+     * @param code        authorization code received from the OAuth callback
+     * @param state       OAuth state identifying the flow
+     */
+    AccountEventStream(AuthService authService, String code, String state) {
+        this.authService = authService;
+        this.code = code;
+        this.state = state;
+    }
+
+    /**
+     * Starts completing the flow on the request executor. Once the timeout has passed the flow is
+     * cancelled, which aborts its outbound bank calls, and the stream ends with an {@code error} event.
+     *
+     * @param executor       executor that runs the flow and bounds the requests in flight
+     * @param timeoutSeconds time the flow may take before it is cancelled
+     * @return false if the executor already has too many requests in flight and the flow was not started
+     */
+    boolean start(AsyncRequestExecutor executor, int timeoutSeconds) {
+        CompletableFuture<AuthFlowResult> started = executor.submit(() -> authService
+                .processAuthorizationCallback(code, state, this::queueAccount));
+        if (started.isCompletedExceptionally()
+                && started.handle((result, error) -> error instanceof RejectedExecutionException).join()) {
+            return false;
+        }
+        flow = started;
+        started.whenComplete(this::finish);
+        CompletableFuture.delayedExecutor(timeoutSeconds, TimeUnit.SECONDS).execute(() -> {
+            if (!started.isDone()) {
+                timedOut = true;
+                started.cancel(true);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        try {
+            for (byte[] event = events.take(); event != END_OF_STREAM; event = events.take()) {
+                output.write(event);
+                output.flush();
+            }
+        } catch (IOException e) {
+            flow.cancel(true);
+            LOG.debug("Event stream closed by the client before the flow completed.");
+            throw e;
+        } catch (InterruptedException e) {
+            flow.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while streaming authorization events");
+        }
+    }
+
+    /**
+     * Queues an account event. Called from the account fetch threads.
+     *
+     * @param account loaded account
+     */
+    private void queueAccount(Account account) {
+        queueEvent(EVENT_ACCOUNT, generator -> AccountsJsonWriter.writeAccountFields(generator, account));
+    }
+
+    /**
+     * Queues the final event of the flow followed by the end of the stream. Nothing but the end is
+     * queued when the client has gone away.
+     *
+     * @param result flow result, or null if the flow failed
+     * @param error  failure of the flow, or null if it succeeded
+     */
+    private void finish(AuthFlowResult result, Throwable error) {
+        if (error == null) {
+            queueEvent(EVENT_COMPLETE, generator -> writeResult(generator, result));
+        } else if (!(error instanceof CancellationException)) {
+            queueError(error.getMessage());
+        } else if (timedOut) {
+            queueError("Request timed out");
+        }
+        events.add(END_OF_STREAM);
+    }
+
+    private static void writeResult(JsonGenerator generator, AuthFlowResult result) throws IOException {
+        generator.writeStringField(ApiConstants.FIELD_TYPE, result.getType());
+        generator.writeStringField(ApiConstants.FIELD_STATUS, ApiConstants.VALUE_SUCCESS);
+        if (ApiConstants.STATUS_PAYMENTS.equals(result.getType())) {
+            generator.writeBooleanField(ApiConstants.FIELD_SUCCESS, result.isPaymentSuccess());
+            if (result.getConsentId() != null) {
+                generator.writeStringField(ApiConstants.FIELD_CONSENT_ID, result.getConsentId());
+            }
+            if (result.getPaymentHandle() != null) {
+                generator.writeStringField(ApiConstants.FIELD_PAYMENT_HANDLE, result.getPaymentHandle());
+            }
+        } else {
+            generator.writeNumberField("count", result.getAccounts().size());
+            if (result.getAggregationId() != null) {
+                generator.writeStringField(ApiConstants.FIELD_AGGREGATION_ID, result.getAggregationId());
+            }
+        }
+    }
+
+    private void queueError(String message) {
+        queueEvent(EVENT_ERROR, generator -> {
+            generator.writeStringField(ApiConstants.FIELD_STATUS, ApiConstants.FIELD_ERROR);
+            generator.writeStringField("message", message);
+        });
+    }
+
+    /**
+     * Encodes a single event whose data is one JSON object and queues it for the response thread.
+     *
+     * @param event event name
+     * @param data  writer of the JSON object fields
+     */
+    private void queueEvent(String event, EventData data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            buffer.write(("event: " + event + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+            try (JsonGenerator generator = AccountsJsonWriter.createGenerator(buffer)) {
+                generator.writeStartObject();
+                data.write(generator);
+                generator.writeEndObject();
+            }
+            buffer.write(new byte[]{'\n', '\n'});
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        events.add(buffer.toByteArray());
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.wso2.openbanking.demo.constants.ApiConstants;
+import com.wso2.openbanking.demo.constants.OpenBankingConstants;
+import com.wso2.openbanking.demo.models.Account;
+import com.wso2.openbanking.demo.models.AggregatedAccounts;
+import com.wso2.openbanking.demo.models.Transaction;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Writes account responses straight to the output stream with a streaming JSON generator,
+ * without building intermediate maps or JSON trees. Null fields are omitted and numbers are
+ * formatted as org.json formats them, so the payload matches the previous map-based output.
+ */
+final class AccountsJsonWriter {
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private AccountsJsonWriter() {
+        /* This utility class should not be instantiated */
+    }
+
+    /**
+     * Returns a streaming entity that writes the accounts response for a completed account flow.
+     *
+     * @param accounts      accounts fetched by the flow
+     * @param aggregationId aggregation the flow's consent was linked into, or null
+     * @return entity writing the response body on demand
+     */
+    static StreamingOutput accountsResponse(List<Account> accounts, String aggregationId) {
+        List<Account> snapshot = new ArrayList<>(accounts);
+        return output -> {
+            try (JsonGenerator generator = createGenerator(output)) {
+                generator.writeStartObject();
+                generator.writeStringField(ApiConstants.FIELD_TYPE, ApiConstants.STATUS_ACCOUNTS);
+                generator.writeStringField(ApiConstants.FIELD_STATUS, ApiConstants.VALUE_SUCCESS);
+                if (aggregationId != null) {
+                    generator.writeStringField(ApiConstants.FIELD_AGGREGATION_ID, aggregationId);
+                }
+                generator.writeArrayFieldStart("accounts");
+                for (Account account : snapshot) {
+                    writeAccount(generator, account);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+    }
+
+    /**
+     * Returns a streaming entity that writes the accounts of all linked banks with the outcome of each bank.
+     *
+     * @param aggregated accounts and per-bank outcomes of an aggregation
+     * @return entity writing the response body on demand
+     */
+    static StreamingOutput aggregatedResponse(AggregatedAccounts aggregated) {
+        List<Account> accounts = aggregated.getAccounts();
+        List<AggregatedAccounts.BankStatus> banks = aggregated.getBanks();
+        boolean complete = aggregated.isComplete();
+        return output -> {
+            try (JsonGenerator generator = createGenerator(output)) {
+                generator.writeStartObject();
+                generator.writeStringField(ApiConstants.FIELD_TYPE, ApiConstants.STATUS_ACCOUNTS);
+                generator.writeBooleanField("complete", complete);
+                generator.writeArrayFieldStart("banks");
+                for (AggregatedAccounts.BankStatus bank : banks) {
+                    generator.writeStartObject();
+                    generator.writeStringField("id", bank.getBankId());
+                    generator.writeStringField(OpenBankingConstants.FIELD_NAME, bank.getBankName());
+                    generator.writeStringField(ApiConstants.FIELD_STATUS, bank.getStatus());
+                    generator.writeNumberField("accounts", bank.getAccountCount());
+                    generator.writeNumberField("elapsedMillis", bank.getElapsedMillis());
+                    writeOptionalString(generator, ApiConstants.FIELD_ERROR, bank.getError());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("accounts");
+                for (Account account : accounts) {
+                    writeAccount(generator, account);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+    }
+
+    /**
+     * Creates a generator that writes compact UTF-8 JSON to the given stream and leaves it open when closed.
+     *
+     * @param output stream to write to
+     * @return new JSON generator
+     * @throws IOException if the generator cannot be created
+     */
+    static JsonGenerator createGenerator(OutputStream output) throws IOException {
+        return JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8);
+    }
+
+    /**
+     * Writes a single account with its transactions as a JSON object.
+     *
+     * @param generator generator to write to
+     * @param account   account to write
+     * @throws IOException if writing fails
+     */
+    static void writeAccount(JsonGenerator generator, Account account) throws IOException {
+        generator.writeStartObject();
+        writeAccountFields(generator, account);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the fields of an account, including its transactions, into the current JSON object.
+     *
+     * @param generator generator positioned inside a JSON object
+     * @param account   account to write
+     * @throws IOException if writing fails
+     */
+    static void writeAccountFields(JsonGenerator generator, Account account) throws IOException {
+        writeOptionalString(generator, "id", account.getId());
+        writeOptionalString(generator, OpenBankingConstants.FIELD_NAME, account.getName());
+        if (account.getBalance() != null) {
+            generator.writeFieldName("balance");
+            generator.writeNumber(JSONObject.numberToString(account.getBalance()));
+        }
+        writeOptionalString(generator, OpenBankingConstants.FIELD_CONSENT_ID, account.getConsentId());
+        writeOptionalString(generator, "bank", account.getBank());
+        generator.writeArrayFieldStart("transactions");
+        List<Transaction> transactions = account.getTransactions();
+        if (transactions != null) {
+            for (Transaction txn : transactions) {
+                writeTransaction(generator, txn);
+            }
+        }
+        generator.writeEndArray();
+        writeOptionalString(generator, "consentId", account.getConsentId());
+    }
+
+    /**
+     * Writes a single transaction as a JSON object.
+     *
+     * @param generator generator to write to
+     * @param txn       transaction to write
+     * @throws IOException if writing fails
+     */
+    private static void writeTransaction(JsonGenerator generator, Transaction txn) throws IOException {
+        generator.writeStartObject();
+        writeOptionalString(generator, OpenBankingConstants.FIELD_TRANSACTION_ID,         txn.getId());
+        writeOptionalString(generator, "date",                                             txn.getDate());
+        writeOptionalString(generator, OpenBankingConstants.FIELD_REFERENCE,              txn.getReference());
+        writeOptionalString(generator, OpenBankingConstants.FIELD_ACCOUNT,                txn.getAccount());
+        writeOptionalString(generator, OpenBankingConstants.FIELD_AMOUNT,                 txn.getAmount());
+        writeOptionalString(generator, OpenBankingConstants.FIELD_CURRENCY,               txn.getCurrency());
+        writeOptionalString(generator, OpenBankingConstants.FIELD_CREDIT_DEBIT_INDICATOR, txn.getCreditDebitStatus());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes a string field, skipping it when the value is null.
+     *
+     * @param generator generator to write to
+     * @param name      field name
+     * @param value     field value
+     * @throws IOException if writing fails
+     */
+    private static void writeOptionalString(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+}
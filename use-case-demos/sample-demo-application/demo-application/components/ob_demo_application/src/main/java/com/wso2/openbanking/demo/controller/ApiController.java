@@ -19,17 +19,31 @@
 package com.wso2.openbanking.demo.controller;
 
 import com.wso2.openbanking.demo.constants.ApiConstants;
-import com.wso2.openbanking.demo.constants.OpenBankingConstants;
 import com.wso2.openbanking.demo.exceptions.AuthorizationException;
 import com.wso2.openbanking.demo.exceptions.BankInfoLoadException;
+import com.wso2.openbanking.demo.exceptions.PaymentException;
 import com.wso2.openbanking.demo.exceptions.SSLContextCreationException;
-import com.wso2.openbanking.demo.models.Account;
+import com.wso2.openbanking.demo.http.OutboundCallScope;
+import com.wso2.openbanking.demo.http.OutboundMetrics;
+import com.wso2.openbanking.demo.http.ResilientTransport;
+import com.wso2.openbanking.demo.http.TlsMaterialRegistry;
+import com.wso2.openbanking.demo.models.AggregatedAccounts;
+import com.wso2.openbanking.demo.models.AuthFlow;
+import com.wso2.openbanking.demo.models.AuthFlowResult;
+import com.wso2.openbanking.demo.models.BankProfile;
+import com.wso2.openbanking.demo.models.BatchPaymentRequest;
+import com.wso2.openbanking.demo.models.BatchPaymentResult;
 import com.wso2.openbanking.demo.models.Payment;
-import com.wso2.openbanking.demo.models.Transaction;
+import com.wso2.openbanking.demo.models.PaymentStatus;
+import com.wso2.openbanking.demo.service.AccessTokenCache;
 import com.wso2.openbanking.demo.service.AccountService;
+import com.wso2.openbanking.demo.service.AsyncRequestExecutor;
 import com.wso2.openbanking.demo.service.AuthService;
 import com.wso2.openbanking.demo.service.HttpTlsClient;
+import com.wso2.openbanking.demo.service.IdempotencyLedger;
+import com.wso2.openbanking.demo.service.JwtTokenService;
 import com.wso2.openbanking.demo.service.PaymentService;
+import com.wso2.openbanking.demo.service.RequestHedger;
 import com.wso2.openbanking.demo.utils.ConfigLoader;
 import org.json.JSONObject;
 import org.slf4j.Logger;
@@ -37,19 +51,24 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -59,16 +78,23 @@ public final class ApiController {
 
     private static final Logger log = LoggerFactory.getLogger(ApiController.class);
 
+    private static final int HTTP_UNPROCESSABLE_ENTITY  = 422;
+    private static final int MIN_IDEMPOTENCY_KEY_LENGTH = 16;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private AccountService accountService;
     private AuthService authService;
     private PaymentService paymentService;
+    private HttpTlsClient httpClient;
+    private AsyncRequestExecutor requestExecutor;
+    private JwtTokenService jwtTokenService;
     private boolean initialized;
 
     /** Initializes services needed for accounts, payments, and authorization. */
     public ApiController() {
 
         try {
-            HttpTlsClient httpClient = new HttpTlsClient(
+            this.httpClient = new HttpTlsClient(
                     ConfigLoader.getCertificatePath(),
                     ConfigLoader.getKeyPath()
             );
@@ -76,6 +102,9 @@ public final class ApiController {
             this.accountService = AccountService.create(httpClient);
             this.paymentService = PaymentService.create(httpClient);
             this.authService = AuthService.create(accountService, paymentService, httpClient);
+            this.requestExecutor = new AsyncRequestExecutor(
+                    ConfigLoader.getApiAsyncThreads(), ConfigLoader.getApiAsyncMaxInFlight());
+            this.jwtTokenService = JwtTokenService.getInstance();
             initialized = true;
 
         } catch (SSLContextCreationException | GeneralSecurityException | IOException | BankInfoLoadException e) {
@@ -95,72 +124,405 @@ public final class ApiController {
                 .build();
     }
 
+    /**
+     * Returns a 503 Service Unavailable response when too many requests are already in flight.
+     *
+     * @return 503 response indicating the service is busy
+     */
+    private Response serviceBusy() {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"Too many requests in flight\"}")
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    /**
+     * Returns a 504 Gateway Timeout response when a request did not complete in time.
+     *
+     * @param body JSON body describing the timeout
+     * @return 504 response indicating the request timed out
+     */
+    private Response requestTimedOut(String body) {
+        return Response.status(Response.Status.GATEWAY_TIMEOUT)
+                .entity(body)
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    /**
+     * Returns a 400 Bad Request response for an OAuth callback without a state parameter.
+     *
+     * @return 400 response indicating the state is missing
+     */
+    private Response stateRequired() {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"state is required\"}")
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    /**
+     * Returns a 404 Not Found response for a batch ID that was not issued or has expired.
+     *
+     * @return 404 response indicating the batch is unknown
+     */
+    private Response unknownBatch() {
+        return Response.status(Response.Status.NOT_FOUND)
+                .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"Unknown batch\"}")
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    /**
+     * Runs the blocking work of a request off the container thread and resumes the suspended
+     * response with its result. If the work does not finish within the configured timeout the
+     * response is resumed with 504 and the outbound bank calls still in flight are aborted.
+     *
+     * @param asyncResponse suspended response to resume
+     * @param work          blocking work producing the response
+     */
+    private void respondAsync(AsyncResponse asyncResponse, OutboundCallScope.ScopedCall<Response, Exception> work) {
+        respondAsync(asyncResponse, work, "{\"" + ApiConstants.FIELD_ERROR + "\":\"Request timed out\"}");
+    }
+
+    /**
+     * Runs the blocking work of a request off the container thread as {@link #respondAsync(AsyncResponse,
+     * OutboundCallScope.ScopedCall)} does, resuming the response with the given body on timeout.
+     *
+     * @param asyncResponse suspended response to resume
+     * @param work          blocking work producing the response
+     * @param timeoutBody   JSON body of the 504 response
+     */
+    private void respondAsync(AsyncResponse asyncResponse, OutboundCallScope.ScopedCall<Response, Exception> work,
+                              String timeoutBody) {
+        CompletableFuture<Response> future = requestExecutor.submit(work);
+        asyncResponse.setTimeoutHandler(timedOut -> {
+            future.cancel(true);
+            timedOut.resume(requestTimedOut(timeoutBody));
+        });
+        asyncResponse.setTimeout(ConfigLoader.getApiRequestTimeoutSeconds(), TimeUnit.SECONDS);
+        future.whenComplete((response, error) -> {
+            if (error == null) {
+                asyncResponse.resume(response);
+            } else if (error instanceof RejectedExecutionException) {
+                asyncResponse.resume(serviceBusy());
+            } else if (!(error instanceof CancellationException)) {
+                asyncResponse.resume(error);
+            }
+        });
+    }
+
     /**
      * Initiates the account addition flow and returns a redirect URL.
      *
-     * @param requestBody map containing request parameters for adding an account
-     * @return 200 response with the redirect URL for the account addition flow
+     * @param requestBody   map containing request parameters for adding an account; an optional
+     *                      {@code bankId} selects the configured bank to add accounts from, and an
+     *                      optional {@code aggregationId} returned by an earlier account flow links
+     *                      the new bank into the same aggregation
+     * @param asyncResponse suspended response resumed with 200 and the redirect URL and aggregation
+     *                      ID of the account addition flow, or 400 if the bank or aggregation is unknown
      */
     @POST
     @Path("/add-accounts")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response selectAccountToAdd(Map<String, String> requestBody) throws Exception {
+    public void selectAccountToAdd(Map<String, String> requestBody, @Suspended AsyncResponse asyncResponse) {
         if (!initialized) {
-            return serviceUnavailable();
+            asyncResponse.resume(serviceUnavailable());
+            return;
+        }
+        String bankId = requestBody == null ? null : requestBody.get("bankId");
+        BankProfile bank = accountService.getBank(bankId);
+        if (bank == null) {
+            asyncResponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"Unknown bank\"}")
+                    .type(MediaType.APPLICATION_JSON)
+                    .build());
+            return;
+        }
+        String aggregationId = requestBody == null ? null : requestBody.get(ApiConstants.FIELD_AGGREGATION_ID);
+        if (aggregationId != null && !accountService.isAggregationOpen(aggregationId)) {
+            asyncResponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"Unknown or expired aggregationId\"}")
+                    .type(MediaType.APPLICATION_JSON)
+                    .build());
+            return;
         }
-        String redirectUrl = accountService.processAddAccount();
-        authService.setRequestStatus(ApiConstants.STATUS_ACCOUNTS);
-        return Response.ok(createRedirectResponse(redirectUrl)).build();
+        respondAsync(asyncResponse, () -> {
+            AuthFlow flow = authService.startAccountFlow(bank, aggregationId);
+            Map<String, String> response = createRedirectResponse(flow.getRedirectUrl());
+            response.put(ApiConstants.FIELD_AGGREGATION_ID, flow.getAggregationId());
+            return Response.ok(response).build();
+        });
     }
 
     /**
-     * Processes a payment request and returns a redirect URL.
+     * Processes a payment request and returns a redirect URL. A client that may retry the request,
+     * for example after a timeout, sends a unique {@code Idempotency-Key} header; retries carrying
+     * the same key and payment reuse the payment consent created by the first attempt.
      *
-     * @param payment payment object containing the payment details
-     * @return 200 response with the redirect URL for the payment flow
+     * @param payment        payment object containing the payment details
+     * @param idempotencyKey optional key identifying this payment across retries, 16 to 255 characters
+     * @param asyncResponse  suspended response resumed with 200 and the redirect URL and payment handle of
+     *                       the payment flow, 400 if the key is malformed, or 422 if the key was used for a
+     *                       different payment
      */
     @POST
     @Path("/payment")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response makePayment(Payment payment) throws Exception {
+    public void makePayment(Payment payment, @HeaderParam(ApiConstants.HEADER_IDEMPOTENCY_KEY) String idempotencyKey,
+                            @Suspended AsyncResponse asyncResponse) {
+        if (!initialized) {
+            asyncResponse.resume(serviceUnavailable());
+            return;
+        }
+        if (idempotencyKey != null && !isValidIdempotencyKey(idempotencyKey)) {
+            asyncResponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"Idempotency-Key must be 16 to "
+                            + MAX_IDEMPOTENCY_KEY_LENGTH + " printable ASCII characters\"}")
+                    .type(MediaType.APPLICATION_JSON)
+                    .build());
+            return;
+        }
+        respondAsync(asyncResponse, () -> {
+            try {
+                AuthFlow flow = authService.startPaymentFlow(payment, idempotencyKey);
+                Map<String, String> response = createRedirectResponse(flow.getRedirectUrl());
+                response.put(ApiConstants.FIELD_PAYMENT_HANDLE, flow.getPaymentHandle());
+                return Response.ok(response).build();
+            } catch (PaymentException e) {
+                return Response.status(HTTP_UNPROCESSABLE_ENTITY)
+                        .entity(new JSONObject().put(ApiConstants.FIELD_ERROR, e.getMessage()).toString())
+                        .type(MediaType.APPLICATION_JSON)
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Returns whether a client idempotency key is long enough to be unguessable and made of
+     * printable ASCII characters only.
+     *
+     * @param key key from the request header
+     * @return true if the key can be used
+     */
+    private static boolean isValidIdempotencyKey(String key) {
+        if (key.length() < MIN_IDEMPOTENCY_KEY_LENGTH || key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c <= ' ' || c > '~') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a payment consent for every payment of a batch and returns the authorization
+     * redirect URL of each. A new batch is issued an unguessable batch ID, which only its submitter
+     * receives, before any consent is created; the ID is in the response even when it times out.
+     * Resubmitting under that ID is safe: payments already under way are reported as they are,
+     * and only those whose consent creation failed are retried. Progress can be read with
+     * {@code GET /payments/batch}.
+     *
+     * @param request       payments of the batch, with the batch ID issued earlier when resubmitting
+     * @param asyncResponse suspended response resumed with 200 and the outcome of every payment,
+     *                      400 if the payments are missing or too many, 404 if the batch ID is
+     *                      unknown or has expired, or 504 with the batch ID on timeout
+     */
+    @POST
+    @Path("/payments/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void makeBatchPayment(BatchPaymentRequest request, @Suspended AsyncResponse asyncResponse) {
+        if (!initialized) {
+            asyncResponse.resume(serviceUnavailable());
+            return;
+        }
+        if (request == null || request.getPayments() == null || request.getPayments().isEmpty()) {
+            asyncResponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"payments are required\"}")
+                    .type(MediaType.APPLICATION_JSON)
+                    .build());
+            return;
+        }
+        String batchId = request.getBatchId();
+        if (batchId == null || batchId.isEmpty()) {
+            try {
+                batchId = authService.openBatch(request.getPayments());
+            } catch (PaymentException e) {
+                asyncResponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new JSONObject().put(ApiConstants.FIELD_ERROR, e.getMessage()).toString())
+                        .type(MediaType.APPLICATION_JSON)
+                        .build());
+                return;
+            }
+        }
+        String issuedBatchId = batchId;
+        String timeoutBody = new JSONObject()
+                .put(ApiConstants.FIELD_ERROR, "Request timed out")
+                .put(ApiConstants.FIELD_BATCH_ID, issuedBatchId)
+                .toString();
+        respondAsync(asyncResponse, () -> {
+            try {
+                BatchPaymentResult result = authService.startBatchPaymentFlow(issuedBatchId, request.getPayments());
+                if (result == null) {
+                    return unknownBatch();
+                }
+                return Response.ok(new JSONObject(result).toString()).build();
+            } catch (PaymentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new JSONObject().put(ApiConstants.FIELD_ERROR, e.getMessage()).toString())
+                        .type(MediaType.APPLICATION_JSON)
+                        .build();
+            }
+        }, timeoutBody);
+    }
+
+    /**
+     * Returns the last known bank status of a submitted payment. Statuses are polled from the bank
+     * in the background, so the client never has to poll the bank itself. The payment handle is an
+     * unguessable value issued only to the client that started the payment flow.
+     *
+     * @param paymentHandle handle returned when the payment flow was started
+     * @return 200 response with the payment status, 400 if the payment handle is missing, or 404 if
+     *         no payment is tracked under the handle
+     */
+    @GET
+    @Path("/payments/status")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPaymentStatus(@QueryParam("paymentHandle") String paymentHandle) {
+        if (!initialized) {
+            return serviceUnavailable();
+        }
+        if (paymentHandle == null || paymentHandle.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"paymentHandle is required\"}")
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
+        }
+        PaymentStatus status = paymentService.getPaymentStatus(paymentHandle);
+        if (status == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"No payment for this handle\"}")
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
+        }
+        return Response.ok(new JSONObject(status).toString()).build();
+    }
+
+    /**
+     * Returns the current outcome of every payment of a batch. The batch ID is an unguessable value
+     * issued only to the batch's submitter, so presenting it is what proves ownership of the batch.
+     *
+     * @param batchId batch ID issued when the batch was submitted
+     * @return 200 response with the outcome of every payment, 400 if the batch ID is missing,
+     *         or 404 if the batch is unknown or has expired
+     */
+    @GET
+    @Path("/payments/batch")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getBatchPayment(@QueryParam("batchId") String batchId) {
         if (!initialized) {
             return serviceUnavailable();
         }
-        String redirectUrl = paymentService.processPaymentRequest(payment);
-        authService.setRequestStatus(ApiConstants.STATUS_PAYMENTS);
-        return Response.ok(createRedirectResponse(redirectUrl)).build();
+        if (batchId == null || batchId.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"batchId is required\"}")
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
+        }
+        BatchPaymentResult result = authService.getBatchResult(batchId);
+        if (result == null) {
+            return unknownBatch();
+        }
+        return Response.ok(new JSONObject(result).toString()).build();
     }
 
     /**
      * Handles the OAuth callback and returns account or payment status.
      *
-     * @param code authorization code received from the OAuth callback
-     * @return 200 response with account or payment status, or 500 on authorization failure
+     * @param code          authorization code received from the OAuth callback
+     * @param state         OAuth state identifying the flow being completed
+     * @param asyncResponse suspended response resumed with 200 and the account or payment status,
+     *                      400 if the state is missing, 500 on authorization failure, or 504 on timeout
      */
     @GET
     @Path("/processAuth")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response processAuth(@QueryParam("code") String code) throws IOException {
+    public void processAuth(@QueryParam("code") String code,
+                            @QueryParam("state") String state,
+                            @Suspended AsyncResponse asyncResponse) {
+        if (!initialized) {
+            asyncResponse.resume(serviceUnavailable());
+            return;
+        }
+        if (state == null || state.isEmpty()) {
+            asyncResponse.resume(stateRequired());
+            return;
+        }
+        respondAsync(asyncResponse, () -> completeAuthorization(code, state));
+    }
+
+    /**
+     * Handles the OAuth callback and streams its progress as Server-Sent Events: one
+     * {@code account} event per account as soon as it has loaded, then a {@code complete} event.
+     *
+     * @param code  authorization code received from the OAuth callback
+     * @param state OAuth state identifying the flow being completed
+     * @return 200 event stream, 400 if the state is missing, or 503 if too many requests are in flight
+     */
+    @GET
+    @Path("/processAuth/stream")
+    @Produces(AccountEventStream.MEDIA_TYPE)
+    public Response processAuthStream(@QueryParam("code") String code,
+                                      @QueryParam("state") String state) {
         if (!initialized) {
             return serviceUnavailable();
         }
+        if (state == null || state.isEmpty()) {
+            return stateRequired();
+        }
+        AccountEventStream stream = new AccountEventStream(authService, code, state);
+        if (!stream.start(requestExecutor, ConfigLoader.getApiRequestTimeoutSeconds())) {
+            return serviceBusy();
+        }
+        return Response.ok(stream)
+                .type(AccountEventStream.MEDIA_TYPE)
+                .header("Cache-Control", "no-cache")
+                .build();
+    }
+
+    /**
+     * Completes the authorization flow and builds the account or payment status response.
+     *
+     * @param code  authorization code received from the OAuth callback
+     * @param state OAuth state identifying the flow being completed
+     * @return 200 response with account or payment status, or 500 on authorization failure
+     * @throws IOException if an API call fails during handling
+     */
+    private Response completeAuthorization(String code, String state) throws IOException {
         try {
-            authService.processAuthorizationCallback(code);
+            AuthFlowResult result = authService.processAuthorizationCallback(code, state);
 
-            String status = authService.getRequestStatus();
+            String status = result.getType();
 
             if (ApiConstants.STATUS_ACCOUNTS.equals(status)) {
-                Map<String, Object> response = getStringObjectMap();
-                return Response.ok(new JSONObject(response).toString()).build();
+                return Response.ok(AccountsJsonWriter.accountsResponse(result.getAccounts(), result.getAggregationId()))
+                        .type(MediaType.APPLICATION_JSON)
+                        .build();
 
             } else if (ApiConstants.STATUS_PAYMENTS.equals(status)) {
-                boolean success = authService.isLastPaymentSuccess();
+                boolean success = result.isPaymentSuccess();
 
                 Map<String, Object> response = new LinkedHashMap<>();
-                response.put(ApiConstants.FIELD_TYPE,    ApiConstants.STATUS_PAYMENTS);
-                response.put(ApiConstants.FIELD_STATUS,  ApiConstants.VALUE_SUCCESS);
-                response.put(ApiConstants.FIELD_SUCCESS, success);
+                response.put(ApiConstants.FIELD_TYPE,           ApiConstants.STATUS_PAYMENTS);
+                response.put(ApiConstants.FIELD_STATUS,         ApiConstants.VALUE_SUCCESS);
+                response.put(ApiConstants.FIELD_SUCCESS,        success);
+                response.put(ApiConstants.FIELD_CONSENT_ID,     result.getConsentId());
+                response.put(ApiConstants.FIELD_PAYMENT_HANDLE, result.getPaymentHandle());
 
                 return Response.ok(new JSONObject(response).toString()).build();
             }
@@ -175,34 +537,48 @@ public final class ApiController {
                     .entity("{\"" + ApiConstants.FIELD_STATUS + "\":\"" + ApiConstants.FIELD_ERROR
                             + "\",\"message\":\"" + e.getMessage() + "\"}")
                     .build();
-        } catch (IOException e) {
-            throw new IOException(e);
         }
     }
 
     /**
      * Revokes the consent for a linked bank account.
      *
-     * @param accountId unique identifier of the account to revoke consent for
-     * @param bankName  name of the bank associated with the account
-     * @param consentId unique identifier of the consent to revoke
-     * @return 200 if revoked, 400 if params missing, 404 if not found, 500 on error
+     * @param accountId     unique identifier of the account to revoke consent for
+     * @param bankName      name of the bank associated with the account
+     * @param consentId     unique identifier of the consent to revoke
+     * @param asyncResponse suspended response resumed with 200 if revoked, 400 if params missing,
+     *                      404 if not found, 500 on error, or 504 on timeout
      */
     @DELETE
     @Path("/revoke-consent")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response revokeConsent(@QueryParam("accountId") String accountId,
-                                  @QueryParam("bankName") String bankName,
-                                  @QueryParam("consentId") String consentId) {
+    public void revokeConsent(@QueryParam("accountId") String accountId,
+                              @QueryParam("bankName") String bankName,
+                              @QueryParam("consentId") String consentId,
+                              @Suspended AsyncResponse asyncResponse) {
         if (!initialized) {
-            return serviceUnavailable();
+            asyncResponse.resume(serviceUnavailable());
+            return;
+        }
+        if (accountId == null || accountId.isEmpty() || bankName == null || bankName.isEmpty()) {
+            asyncResponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"accountId and bankName are required\"}")
+                    .build());
+            return;
         }
+        respondAsync(asyncResponse, () -> revokeAccountConsent(accountId, bankName, consentId));
+    }
+
+    /**
+     * Revokes the consent for a linked bank account and builds the result response.
+     *
+     * @param accountId unique identifier of the account to revoke consent for
+     * @param bankName  name of the bank associated with the account
+     * @param consentId unique identifier of the consent to revoke
+     * @return 200 if revoked, 404 if not found, 500 on error
+     */
+    private Response revokeAccountConsent(String accountId, String bankName, String consentId) {
         try {
-            if (accountId == null || accountId.isEmpty() || bankName == null || bankName.isEmpty()) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"accountId and bankName are required\"}")
-                        .build();
-            }
             boolean success = accountService.revokeAccountConsent(accountId, bankName, consentId);
             if (success) {
                 return Response.ok("{\"" + ApiConstants.FIELD_STATUS + "\":\"" + ApiConstants.VALUE_REVOKED + "\"}")
@@ -220,56 +596,121 @@ public final class ApiController {
     }
 
     /**
-     * Wraps a redirect URL into a response map.
+     * Loads the accounts of every bank linked in an aggregation at the same time. Banks that fail
+     * or exceed their timeout are reported with their status while the other banks' accounts are
+     * still returned.
      *
-     * @param url the redirect URL to wrap
-     * @return map with the redirect URL keyed as "redirect"
+     * @param aggregationId aggregation returned by the account flows whose banks are loaded
+     * @param asyncResponse suspended response resumed with 200 and the combined accounts with
+     *                      per-bank status, 400 if the aggregation ID is missing, 404 if the
+     *                      aggregation is unknown or has expired, or 504 on timeout
      */
-    private Map<String, String> createRedirectResponse(String url) {
-        Map<String, String> response = new HashMap<>();
-        response.put("redirect", url);
-        return response;
+    @GET
+    @Path("/accounts/aggregate")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void aggregateAccounts(@QueryParam("aggregationId") String aggregationId,
+                                  @Suspended AsyncResponse asyncResponse) {
+        if (!initialized) {
+            asyncResponse.resume(serviceUnavailable());
+            return;
+        }
+        if (aggregationId == null || aggregationId.isEmpty()) {
+            asyncResponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"aggregationId is required\"}")
+                    .type(MediaType.APPLICATION_JSON)
+                    .build());
+            return;
+        }
+        respondAsync(asyncResponse, () -> {
+            AggregatedAccounts aggregated = accountService.aggregateAccounts(aggregationId);
+            if (aggregated == null) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"Unknown or expired aggregation\"}")
+                        .type(MediaType.APPLICATION_JSON)
+                        .build();
+            }
+            return Response.ok(AccountsJsonWriter.aggregatedResponse(aggregated))
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
+        });
     }
 
     /**
-     * Builds a response map of accounts with their transactions.
+     * Returns the spending analytics of the accounts last loaded under a consent. The consent must
+     * be linked in the given aggregation, which only the user who authorized it was issued.
      *
-     * @return map containing account list with nested transaction details
+     * @param aggregationId aggregation returned by the account flow that linked the consent
+     * @param consentId     consent to report on
+     * @return 200 response with the daily, monthly, and counterparty breakdown per currency,
+     *         400 if the aggregation or consent ID is missing, or 404 if the consent is not linked
+     *         in the aggregation or no accounts have been loaded under it
      */
-    private Map<String, Object> getStringObjectMap() {
-        List<Account> accounts = authService.getLastFetchedAccounts();
-
-        List<Map<String, Object>> accountsList = new ArrayList<>();
-        for (Account acc : accounts) {
-            List<Map<String, Object>> txnList = new ArrayList<>();
-            if (acc.getTransactions() != null) {
-                for (Transaction txn : acc.getTransactions()) {
-                    Map<String, Object> t = new LinkedHashMap<>();
-                    t.put(OpenBankingConstants.FIELD_TRANSACTION_ID,         txn.getId());
-                    t.put("date",                                             txn.getDate());
-                    t.put(OpenBankingConstants.FIELD_REFERENCE,              txn.getReference());
-                    t.put(OpenBankingConstants.FIELD_ACCOUNT,                txn.getAccount());
-                    t.put(OpenBankingConstants.FIELD_AMOUNT,                 txn.getAmount());
-                    t.put(OpenBankingConstants.FIELD_CURRENCY,               txn.getCurrency());
-                    t.put(OpenBankingConstants.FIELD_CREDIT_DEBIT_INDICATOR, txn.getCreditDebitStatus());
-
-                    txnList.add(t);
-                }
-            }
-            Map<String, Object> a = new LinkedHashMap<>();
-            a.put("id",                                      acc.getId());
-            a.put(OpenBankingConstants.FIELD_NAME,           acc.getName());
-            a.put("balance",                                 acc.getBalance());
-            a.put(OpenBankingConstants.FIELD_CONSENT_ID,     acc.getConsentId());
-            a.put("transactions",                            txnList);
-            a.put("consentId", acc.getConsentId());
-            accountsList.add(a);
+    @GET
+    @Path("/analytics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getSpendingAnalytics(@QueryParam("aggregationId") String aggregationId,
+                                         @QueryParam("consentId") String consentId) {
+        if (!initialized) {
+            return serviceUnavailable();
+        }
+        if (aggregationId == null || aggregationId.isEmpty() || consentId == null || consentId.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"aggregationId and consentId are required\"}")
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
         }
+        Map<String, Object> report = accountService.getSpendingReport(aggregationId, consentId);
+        if (report == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"" + ApiConstants.FIELD_ERROR + "\":\"No analytics for this consent\"}")
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
+        }
+        return Response.ok(new JSONObject(report).toString()).build();
+    }
 
+    /**
+     * Returns runtime metrics of the service and its outbound bank connections, one section per component.
+     *
+     * @return 200 response with the service metrics
+     */
+    @GET
+    @Path("/metrics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getMetrics() {
+        if (!initialized) {
+            return serviceUnavailable();
+        }
         Map<String, Object> response = new LinkedHashMap<>();
-        response.put(ApiConstants.FIELD_TYPE,     ApiConstants.STATUS_ACCOUNTS);
-        response.put(ApiConstants.FIELD_STATUS,   ApiConstants.VALUE_SUCCESS);
-        response.put("accounts",                  accountsList);
+        response.put("transport", httpClient.getPoolMetrics().toMap());
+        response.put("tls", TlsMaterialRegistry.getStats());
+        response.put("tokenCache", AccessTokenCache.getInstance().getStats());
+        response.put("authFlows", authService.getFlowStats());
+        response.put("requests", requestExecutor.getStats());
+        response.put("transactions", accountService.getTransactionStats());
+        response.put("accountCache", accountService.getCacheStats());
+        response.put("analytics", accountService.getAnalyticsStats());
+        response.put("banks", accountService.getAggregationStats());
+        response.put("paymentBatches", paymentService.getBatchStats());
+        response.put("idempotency", IdempotencyLedger.getInstance().getStats());
+        response.put("paymentStatus", paymentService.getStatusStats());
+        response.put("outbound", OutboundMetrics.getStats());
+        response.put("resilience", ResilientTransport.getStats());
+        response.put("hedging", RequestHedger.getInstance().getStats());
+        response.put("clientAssertions", jwtTokenService.getClientAssertionStats());
+        response.put("config", ConfigLoader.getConfigStats());
+        return Response.ok(new JSONObject(response).toString()).build();
+    }
+
+    /**
+     * Wraps a redirect URL into a response map.
+     *
+     * @param url the redirect URL to wrap
+     * @return map with the redirect URL keyed as "redirect"
+     */
+    private Map<String, String> createRedirectResponse(String url) {
+        Map<String, String> response = new HashMap<>();
+        response.put("redirect", url);
         return response;
     }
 }
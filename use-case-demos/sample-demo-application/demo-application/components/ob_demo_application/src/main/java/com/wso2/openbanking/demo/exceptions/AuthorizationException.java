@@ -21,6 +21,10 @@ package com.wso2.openbanking.demo.exceptions;
 /** AuthorizationException implementation. */
 public class AuthorizationException extends Exception {
 
+    public AuthorizationException(String message) {
+        super(message);
+    }
+
     public AuthorizationException(String message, Throwable cause) {
         super(message, cause);
     }
@@ -21,6 +21,10 @@ package com.wso2.openbanking.demo.exceptions;
 /** PaymentException implementation. */
 public class PaymentException extends Exception {
 
+    public PaymentException(String message) {
+        super(message);
+    }
+
     public PaymentException(String message, Throwable cause) {
         super(message, cause);
     }
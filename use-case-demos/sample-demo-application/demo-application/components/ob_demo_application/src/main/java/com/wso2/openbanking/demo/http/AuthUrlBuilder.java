@@ -31,16 +31,17 @@ public class AuthUrlBuilder {
      * @param requestObjectJwt signed JWT included as the {@code request} query parameter
      * @param clientId         OAuth client ID
      * @param scope            requested OAuth scopes
+     * @param state            OAuth state identifying the authorization flow
      * @return fully constructed authorization URL
      */
-    public static String build(String requestObjectJwt, String clientId, String scope) {
+    public static String build(String requestObjectJwt, String clientId, String scope, String state) {
         StringBuilder url = new StringBuilder(ConfigLoader.getAuthorizeUrl());
 
         url.append("?response_type=").append(urlEncode(ConfigLoader.getResponseType()));
         url.append("&client_id=").append(clientId);
         url.append("&scope=").append(urlEncode(scope));
         url.append("&redirect_uri=").append(urlEncode(ConfigLoader.getRedirectUri()));
-        url.append("&state=").append(urlEncode(ConfigLoader.getOAuthState()));
+        url.append("&state=").append(urlEncode(state));
         url.append("&request=").append(urlEncode(requestObjectJwt));
         url.append("&prompt=").append(urlEncode(ConfigLoader.getOAuthPrompt()));
         url.append("&nonce=").append(urlEncode(ConfigLoader.getOAuthNonce()));
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker guarding the requests sent to one host. After a run of consecutive failures the
+ * breaker opens and rejects requests without sending them; once the open period has passed a
+ * single trial request is let through, which closes the breaker if it succeeds and reopens it if
+ * it fails.
+ */
+final class CircuitBreaker {
+
+    /** Breaker states. */
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMillis;
+    private boolean trialInFlight;
+    private long opened;
+    private long rejected;
+
+    /**
+     * Creates a closed breaker.
+     *
+     * @param failureThreshold consecutive failures after which the breaker opens
+     * @param openMillis       time the breaker stays open before letting a trial request through
+     */
+    CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Asks permission to send a request. Every granted request must be reported through
+     * {@link #onSuccess}, {@link #onFailure}, or {@link #onAbandoned}.
+     *
+     * @return true if the request may be sent
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAtMillis < openMillis) {
+                rejected++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                rejected++;
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    /** Records a request the host answered normally. */
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /** Records a request that failed because of the host or the network. */
+    synchronized void onFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAtMillis = System.currentTimeMillis();
+            opened++;
+        }
+    }
+
+    /** Records a request that ended without telling anything about the host, such as a cancelled one. */
+    synchronized void onAbandoned() {
+        trialInFlight = false;
+    }
+
+    /**
+     * Returns the time until the breaker lets a trial request through.
+     *
+     * @return remaining open time in milliseconds, or 0 if requests are let through
+     */
+    synchronized long retryAfterMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, openMillis - (System.currentTimeMillis() - openedAtMillis));
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns the breaker state and counters.
+     *
+     * @return ordered map of statistic names to values
+     */
+    synchronized Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("state",               state.name());
+        map.put("consecutiveFailures", consecutiveFailures);
+        map.put("opened",              opened);
+        map.put("rejected",            rejected);
+        return map;
+    }
+}
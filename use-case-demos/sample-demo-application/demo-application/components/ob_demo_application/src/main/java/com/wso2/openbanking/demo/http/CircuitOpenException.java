@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import java.io.IOException;
+
+/** Signals a request that was not sent because the circuit breaker of its host is open. */
+public class CircuitOpenException extends IOException {
+
+    private final String host;
+    private final long retryAfterMillis;
+
+    /**
+     * Creates a CircuitOpenException for the given host.
+     *
+     * @param host             host whose circuit breaker rejected the request
+     * @param retryAfterMillis time until the breaker lets a trial request through
+     */
+    public CircuitOpenException(String host, long retryAfterMillis) {
+        super("Circuit breaker open for " + host + "; retry after " + retryAfterMillis + " ms");
+        this.host = host;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * SSLSocketFactory decorator that counts the TLS handshakes completed on the sockets it creates,
+ * distinguishing full handshakes from abbreviated ones that resumed a cached session.
+ */
+public final class HandshakeTrackingSocketFactory extends SSLSocketFactory {
+
+    private final SSLSocketFactory delegate;
+    private final AtomicLong handshakes = new AtomicLong();
+    private final AtomicLong resumedHandshakes = new AtomicLong();
+
+    /**
+     * Creates a tracking factory around the given socket factory.
+     *
+     * @param delegate socket factory that creates the underlying TLS sockets
+     */
+    public HandshakeTrackingSocketFactory(SSLSocketFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns the number of TLS handshakes completed on sockets created by this factory.
+     *
+     * @return completed handshake count
+     */
+    public long getHandshakeCount() {
+        return handshakes.get();
+    }
+
+    /**
+     * Returns the number of completed handshakes that resumed a previously established session.
+     *
+     * @return resumed handshake count
+     */
+    public long getResumedHandshakeCount() {
+        return resumedHandshakes.get();
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+        return delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+        return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+        return track(delegate.createSocket());
+    }
+
+    @Override
+    public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException {
+        return track(delegate.createSocket(socket, host, port, autoClose));
+    }
+
+    @Override
+    public Socket createSocket(Socket socket, InputStream consumed, boolean autoClose) throws IOException {
+        return track(delegate.createSocket(socket, consumed, autoClose));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        return track(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+        return track(delegate.createSocket(host, port, localHost, localPort));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+        return track(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort)
+            throws IOException {
+        return track(delegate.createSocket(address, port, localAddress, localPort));
+    }
+
+    /**
+     * Registers a handshake listener on the socket if it is a TLS socket.
+     * A session created before the socket itself can only have come from the session cache,
+     * so such a handshake is counted as resumed. Handshake time is measured from the creation of
+     * the TLS socket; for a socket layered over an established connection, as the pooled
+     * transport creates them, that is the handshake alone.
+     *
+     * @param socket socket returned by the delegate factory
+     * @return the same socket
+     */
+    private Socket track(Socket socket) {
+        if (socket instanceof SSLSocket) {
+            long createdAt = System.currentTimeMillis();
+            long startNanos = System.nanoTime();
+            TlsHandshakeEvent handshake = new TlsHandshakeEvent();
+            handshake.begin();
+            ((SSLSocket) socket).addHandshakeCompletedListener(event -> {
+                boolean resumed = event.getSession().getCreationTime() < createdAt;
+                handshakes.incrementAndGet();
+                if (resumed) {
+                    resumedHandshakes.incrementAndGet();
+                }
+                OutboundMetrics.recordHandshake(resumed, System.nanoTime() - startNanos);
+                handshake.end();
+                if (handshake.shouldCommit()) {
+                    handshake.host = event.getSession().getPeerHost();
+                    handshake.protocol = event.getSession().getProtocol();
+                    handshake.cipherSuite = event.getCipherSuite();
+                    handshake.resumed = resumed;
+                    handshake.commit();
+                }
+            });
+        }
+        return socket;
+    }
+}
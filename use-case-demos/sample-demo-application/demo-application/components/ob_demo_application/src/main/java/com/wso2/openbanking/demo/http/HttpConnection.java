@@ -18,39 +18,38 @@
 
 package com.wso2.openbanking.demo.http;
 
-import java.io.BufferedReader;
+import com.wso2.openbanking.demo.utils.ConfigLoader;
+
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
-import javax.net.ssl.HttpsURLConnection;
-import javax.net.ssl.SSLContext;
-
 /** Builds and executes HTTPS requests with configurable method, headers, and body. */
 public class HttpConnection {
 
+    private static final String DEFAULT_ENDPOINT = "default";
+
     private final String url;
-    private final SSLContext sslContext;
+    private final HttpTransport transport;
     private final String method;
     private final Map<String, String> headers;
     private String body;
     private boolean followRedirects = true;
+    private int connectTimeoutMillis = ConfigLoader.getHttpConnectTimeoutMillis();
+    private int readTimeoutMillis = ConfigLoader.getHttpReadTimeoutMillis();
+    private String endpoint = DEFAULT_ENDPOINT;
 
     /**
-     * Creates an HttpConnection with the given URL, SSL context, and HTTP method.
+     * Creates an HttpConnection with the given URL, transport, and HTTP method.
      *
-     * @param url        target URL for the request
-     * @param sslContext SSL context used for the secure connection
-     * @param method     HTTP method (e.g. GET, POST, DELETE)
+     * @param url       target URL for the request
+     * @param transport transport used to send the request
+     * @param method    HTTP method (e.g. GET, POST, DELETE)
      */
-    private HttpConnection(String url, SSLContext sslContext, String method) {
+    private HttpConnection(String url, HttpTransport transport, String method) {
         this.url = url;
-        this.sslContext = sslContext;
+        this.transport = transport;
         this.method = method;
         this.headers = new HashMap<>();
         this.body = null;
@@ -59,34 +58,34 @@ public class HttpConnection {
     /**
      * Creates a POST request to the given URL.
      *
-     * @param url        target URL
-     * @param sslContext SSL context for the connection
+     * @param url       target URL
+     * @param transport transport used to send the request
      * @return new HttpConnection configured for POST
      */
-    public static HttpConnection post(String url, SSLContext sslContext) {
-        return new HttpConnection(url, sslContext, "POST");
+    public static HttpConnection post(String url, HttpTransport transport) {
+        return new HttpConnection(url, transport, "POST");
     }
 
     /**
      * Creates a GET request to the given URL.
      *
-     * @param url        target URL
-     * @param sslContext SSL context for the connection
+     * @param url       target URL
+     * @param transport transport used to send the request
      * @return new HttpConnection configured for GET
      */
-    public static HttpConnection get(String url, SSLContext sslContext) {
-        return new HttpConnection(url, sslContext, "GET");
+    public static HttpConnection get(String url, HttpTransport transport) {
+        return new HttpConnection(url, transport, "GET");
     }
 
     /**
      * Creates a DELETE request to the given URL.
      *
-     * @param url        target URL
-     * @param sslContext SSL context for the connection
+     * @param url       target URL
+     * @param transport transport used to send the request
      * @return new HttpConnection configured for DELETE
      */
-    public static HttpConnection delete(String url, SSLContext sslContext) {
-        return new HttpConnection(url, sslContext, "DELETE");
+    public static HttpConnection delete(String url, HttpTransport transport) {
+        return new HttpConnection(url, transport, "DELETE");
     }
 
     /**
@@ -112,6 +111,32 @@ public class HttpConnection {
         return this;
     }
 
+    /**
+     * Names the logical endpoint the request is sent to, and applies the connect and read timeouts
+     * configured for it. The name also labels the request in the outbound call metrics.
+     *
+     * @param endpoint endpoint name used in the timeout property keys
+     * @return this HttpConnection instance for chaining
+     */
+    public HttpConnection forEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+        return withTimeouts(ConfigLoader.getHttpConnectTimeoutMillis(endpoint),
+                ConfigLoader.getHttpReadTimeoutMillis(endpoint));
+    }
+
+    /**
+     * Sets the connect and read timeouts, replacing the configured defaults.
+     *
+     * @param connectTimeoutMillis time allowed to obtain and establish a connection
+     * @param readTimeoutMillis    longest time allowed between two packets of the response
+     * @return this HttpConnection instance for chaining
+     */
+    public HttpConnection withTimeouts(int connectTimeoutMillis, int readTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        return this;
+    }
+
     /**
      * Executes the request and returns the response body.
      *
@@ -119,11 +144,7 @@ public class HttpConnection {
      * @throws IOException if the request fails
      */
     public String execute() throws IOException {
-        HttpsURLConnection connection = createConnection();
-        if (body != null) {
-            writeBody(connection);
-        }
-        return readResponse(connection);
+        return transport.send(this).getBody();
     }
 
     /**
@@ -133,72 +154,60 @@ public class HttpConnection {
      * @throws IOException if the request fails
      */
     public int executeAndGetStatus() throws IOException {
-        HttpsURLConnection connection = createConnection();
-        if (body != null) {
-            writeBody(connection);
-        }
-        return connection.getResponseCode();
+        return transport.send(this).getStatusCode();
     }
 
     /**
-     * Creates and configures the underlying HTTPS connection.
+     * Executes the request and returns the full response including status and headers.
      *
-     * @return configured HttpsURLConnection ready for use
-     * @throws IOException if the connection cannot be opened
+     * @return response received from the remote server
+     * @throws IOException if the request fails
      */
-    private HttpsURLConnection createConnection() throws IOException {
-        URL urlObj = new URL(url);
-        HttpsURLConnection connection = (HttpsURLConnection) urlObj.openConnection();
-        connection.setSSLSocketFactory(sslContext.getSocketFactory());
-        connection.setRequestMethod(method);
-        connection.setInstanceFollowRedirects(followRedirects);
-        connection.setDoInput(true);
-        if (body != null || "POST".equals(method)) {
-            connection.setDoOutput(true);
-        }
-        for (Map.Entry<String, String> header : headers.entrySet()) {
-            connection.setRequestProperty(header.getKey(), header.getValue());
-        }
-        return connection;
+    public TransportResponse executeForResponse() throws IOException {
+        return transport.send(this);
     }
 
     /**
-     * Writes the request body to the connection output stream.
+     * Executes the request and hands the response to the reader while the body is being received.
      *
-     * @param connection the open HTTPS connection to write to
-     * @throws IOException if writing the body fails
+     * @param reader reader consuming the response
+     * @param <T>    type of the value read from the response
+     * @return value returned by the reader
+     * @throws IOException if the request fails or the response cannot be read
      */
-    private void writeBody(HttpsURLConnection connection) throws IOException {
-        if (body == null) {
-            return;
-        }
-        try (OutputStream os = connection.getOutputStream()) {
-            byte[] input = body.getBytes(StandardCharsets.UTF_8);
-            os.write(input, 0, input.length);
-        }
+    public <T> T executeAndRead(HttpTransport.ResponseReader<T> reader) throws IOException {
+        return transport.send(this, reader);
     }
 
-    /**
-     * Reads the response body from the connection.
-     *
-     * @param connection the open HTTPS connection to read from
-     * @return response body as a string
-     * @throws IOException if reading the response fails
-     */
-    private String readResponse(HttpsURLConnection connection) throws IOException {
-        int responseCode = connection.getResponseCode();
-        InputStream is = (responseCode >= 200 && responseCode < 300)
-                ? connection.getInputStream()
-                : connection.getErrorStream();
-
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(is, StandardCharsets.UTF_8))) {
-            StringBuilder sb = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sb.append(line).append("\n");
-            }
-            return sb.toString();
-        }
+    String getUrl() {
+        return url;
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    String getBody() {
+        return body;
+    }
+
+    boolean isFollowRedirects() {
+        return followRedirects;
+    }
+
+    int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    String getEndpoint() {
+        return endpoint;
     }
 }
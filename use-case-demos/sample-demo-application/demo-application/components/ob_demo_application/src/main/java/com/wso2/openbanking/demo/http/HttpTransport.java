@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/** Sends prepared {@link HttpConnection} requests over an underlying HTTPS transport. */
+public interface HttpTransport extends Closeable {
+
+    /** Consumes a response while its body is still being received. */
+    @FunctionalInterface
+    interface ResponseReader<T> {
+
+        /**
+         * Reads the response. The body stream is closed by the transport once this returns.
+         *
+         * @param statusCode HTTP response status code
+         * @param headers    response headers; names are matched case-insensitively
+         * @param body       response body stream, empty if the response had none
+         * @return value read from the response
+         * @throws IOException if the response cannot be read
+         */
+        T read(int statusCode, Map<String, String> headers, InputStream body) throws IOException;
+    }
+
+    /**
+     * Sends the given request and returns the response status, headers, and body.
+     *
+     * @param request fully configured request to send
+     * @return response received from the remote server
+     * @throws IOException if the request cannot be sent or the response cannot be read
+     */
+    default TransportResponse send(HttpConnection request) throws IOException {
+        return send(request, (statusCode, headers, body) ->
+                new TransportResponse(statusCode, headers, new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Sends the given request and hands the response body to the reader as it arrives, without
+     * buffering it in memory first.
+     *
+     * @param request fully configured request to send
+     * @param reader  reader consuming the response
+     * @param <T>     type of the value read from the response
+     * @return value returned by the reader
+     * @throws IOException if the request cannot be sent or the response cannot be read
+     */
+    <T> T send(HttpConnection request, ResponseReader<T> reader) throws IOException;
+
+    /**
+     * Returns a point-in-time snapshot of the connection usage of this transport.
+     *
+     * @return current pool and handshake metrics
+     */
+    PoolMetrics getPoolMetrics();
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import com.wso2.openbanking.demo.utils.ConfigLoader;
+
+import javax.net.ssl.SSLContext;
+
+/** Creates the {@link HttpTransport} selected by the {@code http.transport} property. */
+public final class HttpTransportFactory {
+
+    public static final String TRANSPORT_POOLED        = "pooled";
+    public static final String TRANSPORT_URLCONNECTION = "urlconnection";
+
+    private HttpTransportFactory() {
+        /* This utility class should not be instantiated */
+    }
+
+    /**
+     * Creates the configured transport for the given SSL context, guarded by the configured
+     * retries and circuit breakers. Each attempt is measured separately when instrumentation is on.
+     *
+     * @param sslContext SSL context used to secure outbound connections
+     * @return new pooled transport, or a per-request connection transport if configured
+     */
+    public static HttpTransport create(SSLContext sslContext) {
+        return new ResilientTransport(
+                createBase(sslContext),
+                ConfigLoader.getHttpRetryMaxAttempts(),
+                ConfigLoader.getHttpRetryInitialBackoffMillis(),
+                ConfigLoader.getHttpRetryMaxBackoffMillis(),
+                ConfigLoader.isHttpCircuitBreakerEnabled() ? ConfigLoader.getHttpCircuitBreakerFailureThreshold() : 0,
+                ConfigLoader.getHttpCircuitBreakerOpenSeconds());
+    }
+
+    private static HttpTransport createBase(SSLContext sslContext) {
+        HttpTransport transport;
+        if (TRANSPORT_URLCONNECTION.equalsIgnoreCase(ConfigLoader.getHttpTransport())) {
+            transport = new UrlConnectionTransport(sslContext);
+        } else {
+            transport = new PooledHttpTransport(
+                    sslContext,
+                    ConfigLoader.getHttpPoolMaxTotal(),
+                    ConfigLoader.getHttpPoolMaxPerRoute(),
+                    ConfigLoader.getHttpPoolIdleTimeoutSeconds(),
+                    ConfigLoader.getHttpKeepAliveSeconds());
+        }
+        return ConfigLoader.isHttpInstrumentationEnabled() ? new InstrumentedTransport(transport) : transport;
+    }
+}
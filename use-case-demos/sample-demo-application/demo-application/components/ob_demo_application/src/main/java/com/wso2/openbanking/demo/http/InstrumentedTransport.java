@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Transport that measures every request sent through another transport: its latency, body sizes,
+ * and response status are added to the {@link OutboundMetrics}, and an {@link OutboundCallEvent}
+ * is written while a flight recording is running.
+ */
+public final class InstrumentedTransport implements HttpTransport {
+
+    private final HttpTransport delegate;
+
+    /**
+     * Creates an instrumented transport around the given transport.
+     *
+     * @param delegate transport that sends the requests
+     */
+    public InstrumentedTransport(HttpTransport delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public <T> T send(HttpConnection request, ResponseReader<T> reader) throws IOException {
+        OutboundCallEvent event = new OutboundCallEvent();
+        event.begin();
+        CountingReader<T> counting = new CountingReader<>(reader);
+        long bytesOut = utf8Length(request.getBody());
+        long start = System.nanoTime();
+        String failure = null;
+        try {
+            return delegate.send(request, counting);
+        } catch (IOException | RuntimeException e) {
+            failure = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            long bytesIn = counting.body == null ? 0 : counting.body.count;
+            OutboundMetrics.recordCall(request.getEndpoint(), request.getMethod(), counting.statusCode,
+                    bytesOut, bytesIn, nanos);
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = request.getEndpoint();
+                event.method = request.getMethod();
+                event.host = hostOf(request.getUrl());
+                event.statusCode = counting.statusCode;
+                event.bytesOut = bytesOut;
+                event.bytesIn = bytesIn;
+                event.failure = failure;
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public PoolMetrics getPoolMetrics() {
+        return delegate.getPoolMetrics();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    /**
+     * Returns the number of bytes a string takes in UTF-8, without encoding it.
+     *
+     * @param value string to measure, or null
+     * @return encoded length, 0 for null
+     */
+    private static long utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long length = 0;
+        int chars = value.length();
+        for (int i = 0; i < chars; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static String hostOf(String url) {
+        try {
+            return URI.create(url).getAuthority();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** Reader that records the response status and counts the body bytes the caller's reader consumes. */
+    private static final class CountingReader<T> implements ResponseReader<T> {
+
+        private final ResponseReader<T> reader;
+        private int statusCode;
+        private CountingInputStream body;
+
+        private CountingReader(ResponseReader<T> reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public T read(int statusCode, Map<String, String> headers, InputStream body) throws IOException {
+            this.statusCode = statusCode;
+            this.body = new CountingInputStream(body);
+            return reader.read(statusCode, headers, this.body);
+        }
+    }
+
+    /** Input stream that counts the bytes read through it. */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of recent request latencies. Latencies are counted in logarithmic buckets, eight per
+ * power of two, so a percentile is accurate to within about twelve percent whatever its size.
+ * Samples are kept for between one and two windows: the buckets rotate once per window and
+ * percentiles are read over the current and the previous window.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS * 22;
+
+    private final long windowMillis;
+    private volatile AtomicLongArray current = new AtomicLongArray(BUCKETS);
+    private volatile AtomicLongArray previous = new AtomicLongArray(BUCKETS);
+    private volatile long windowStartMillis = System.currentTimeMillis();
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param windowMillis length of one sampling window
+     */
+    public LatencyHistogram(long windowMillis) {
+        this.windowMillis = Math.max(1, windowMillis);
+    }
+
+    /**
+     * Records a request latency.
+     *
+     * @param latencyMillis time the request took
+     */
+    public void record(long latencyMillis) {
+        rotate(System.currentTimeMillis());
+        current.incrementAndGet(bucketOf(Math.max(0, latencyMillis)));
+    }
+
+    /**
+     * Returns the number of latencies in the current and previous window.
+     *
+     * @return sample count
+     */
+    public long count() {
+        rotate(System.currentTimeMillis());
+        AtomicLongArray now = current;
+        AtomicLongArray before = previous;
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += now.get(i) + before.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the latency below which the given share of the recent requests completed.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return upper bound of the bucket holding the percentile, or -1 if there are no samples
+     */
+    public long percentile(double percentile) {
+        rotate(System.currentTimeMillis());
+        AtomicLongArray now = current;
+        AtomicLongArray before = previous;
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = now.get(i) + before.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return -1;
+        }
+        long rank = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Returns the sample count and the common percentiles.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("samples",   count());
+        map.put("p50Millis", percentile(50));
+        map.put("p90Millis", percentile(90));
+        map.put("p99Millis", percentile(99));
+        return map;
+    }
+
+    /**
+     * Starts a new window once the current one has run its length; after a quiet period longer
+     * than two windows both windows are cleared.
+     *
+     * @param now current time
+     */
+    private void rotate(long now) {
+        if (now - windowStartMillis < windowMillis) {
+            return;
+        }
+        synchronized (this) {
+            long elapsed = now - windowStartMillis;
+            if (elapsed < windowMillis) {
+                return;
+            }
+            previous = elapsed < 2 * windowMillis ? current : new AtomicLongArray(BUCKETS);
+            current = new AtomicLongArray(BUCKETS);
+            windowStartMillis = now;
+        }
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int index = (shift + 1) * SUB_BUCKETS + (int) (value >> shift) - SUB_BUCKETS;
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long base = SUB_BUCKETS + bucket % SUB_BUCKETS;
+        return ((base + 1) << shift) - 1;
+    }
+}
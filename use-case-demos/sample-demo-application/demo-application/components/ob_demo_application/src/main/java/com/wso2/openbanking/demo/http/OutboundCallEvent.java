@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight recorder event written for every outbound HTTP request. */
+@Name("com.wso2.openbanking.demo.OutboundCall")
+@Label("Outbound HTTP Call")
+@Description("HTTP request sent to a bank or to the identity server")
+@Category({"Open Banking", "HTTP"})
+@StackTrace(false)
+final class OutboundCallEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Method")
+    String method;
+
+    @Label("Host")
+    String host;
+
+    @Label("Status Code")
+    int statusCode;
+
+    @Label("Bytes Sent")
+    @DataAmount
+    long bytesOut;
+
+    @Label("Bytes Received")
+    @DataAmount
+    long bytesIn;
+
+    @Label("Failure")
+    String failure;
+}
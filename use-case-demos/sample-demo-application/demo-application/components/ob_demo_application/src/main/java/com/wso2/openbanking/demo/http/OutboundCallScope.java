@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import java.io.InterruptedIOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cancellation scope shared by all outbound requests made on behalf of one inbound request.
+ * Transports register an abort action for every request they send while a scope is bound to the
+ * current thread; cancelling the scope aborts those requests and fails any that start afterwards.
+ */
+public final class OutboundCallScope {
+
+    private static final ThreadLocal<OutboundCallScope> CURRENT = new ThreadLocal<>();
+
+    private final Set<Runnable> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    /** Work executed with a scope bound to the current thread. */
+    @FunctionalInterface
+    public interface ScopedCall<T, E extends Exception> {
+
+        /**
+         * Performs the work.
+         *
+         * @return work result
+         * @throws E if the work fails
+         */
+        T call() throws E;
+    }
+
+    /** Handle that removes a registered abort action once its request has finished. */
+    public interface Registration extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Returns the scope bound to the current thread.
+     *
+     * @return current scope, or null if none is bound
+     */
+    public static OutboundCallScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs the call with the given scope bound to the current thread, restoring the previous
+     * binding afterwards. Passing null runs the call outside of any scope.
+     *
+     * @param scope scope to bind, or null to unbind
+     * @param call  work to run
+     * @param <T>   result type
+     * @param <E>   failure type
+     * @return call result
+     * @throws E if the call fails
+     */
+    public static <T, E extends Exception> T callWithin(OutboundCallScope scope, ScopedCall<T, E> call) throws E {
+        OutboundCallScope previous = CURRENT.get();
+        bind(scope);
+        try {
+            return call.call();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    /**
+     * Creates a scope that can be cancelled on its own and is also cancelled when the parent is.
+     *
+     * @param parent scope whose cancellation is propagated, or null for an independent scope
+     * @return new child scope
+     */
+    public static OutboundCallScope childOf(OutboundCallScope parent) {
+        OutboundCallScope child = new OutboundCallScope();
+        if (parent != null) {
+            parent.inFlight.add(child::cancel);
+            if (parent.cancelled) {
+                child.cancel();
+            }
+        }
+        return child;
+    }
+
+    /**
+     * Registers the abort action of a request about to be sent in the current scope.
+     *
+     * @param abort action that aborts the request
+     * @return registration to close once the request has finished
+     * @throws InterruptedIOException if the current scope has already been cancelled
+     */
+    static Registration register(Runnable abort) throws InterruptedIOException {
+        OutboundCallScope scope = CURRENT.get();
+        if (scope == null) {
+            return () -> { };
+        }
+        scope.inFlight.add(abort);
+        if (scope.cancelled) {
+            scope.inFlight.remove(abort);
+            throw new InterruptedIOException("Outbound call cancelled");
+        }
+        return () -> scope.inFlight.remove(abort);
+    }
+
+    /** Cancels the scope, aborting every request currently in flight within it. */
+    public void cancel() {
+        cancelled = true;
+        for (Runnable abort : inFlight) {
+            if (inFlight.remove(abort)) {
+                abort.run();
+            }
+        }
+    }
+
+    /**
+     * Returns whether the scope has been cancelled.
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Binds the scope to the current thread, or clears the binding if the scope is null.
+     *
+     * @param scope scope to bind
+     */
+    private static void bind(OutboundCallScope scope) {
+        if (scope == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(scope);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import com.wso2.openbanking.demo.utils.ConfigLoader;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of the outbound HTTP requests, per endpoint and method, and of
+ * the TLS handshakes made to send them. Latencies cover the recent sampling windows; counters
+ * accumulate from startup.
+ */
+public final class OutboundMetrics {
+
+    private static final long WINDOW_MILLIS = TimeUnit.SECONDS.toMillis(ConfigLoader.getHttpMetricsWindowSeconds());
+
+    private static final ConcurrentMap<String, EndpointMetrics> ENDPOINTS = new ConcurrentHashMap<>();
+    private static final LatencyHistogram FULL_HANDSHAKES    = new LatencyHistogram(WINDOW_MILLIS);
+    private static final LatencyHistogram RESUMED_HANDSHAKES = new LatencyHistogram(WINDOW_MILLIS);
+
+    private OutboundMetrics() {
+        /* This utility class should not be instantiated */
+    }
+
+    /**
+     * Records a finished request.
+     *
+     * @param endpoint   logical endpoint the request was sent to
+     * @param method     HTTP method
+     * @param statusCode response status, or 0 if no response was received
+     * @param bytesOut   request body size
+     * @param bytesIn    response body bytes read
+     * @param nanos      time from sending the request until the response was read or the request failed
+     */
+    static void recordCall(String endpoint, String method, int statusCode, long bytesOut, long bytesIn, long nanos) {
+        EndpointMetrics metrics = ENDPOINTS.computeIfAbsent(endpoint + ' ' + method, key -> new EndpointMetrics());
+        metrics.requests.increment();
+        if (statusCode == 0) {
+            metrics.failures.increment();
+        } else {
+            metrics.statusCodes.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+        }
+        metrics.bytesOut.add(bytesOut);
+        metrics.bytesIn.add(bytesIn);
+        metrics.latency.record(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Records a completed TLS handshake.
+     *
+     * @param resumed whether the handshake resumed a cached session
+     * @param nanos   time from creating the TLS socket until the handshake completed
+     */
+    static void recordHandshake(boolean resumed, long nanos) {
+        (resumed ? RESUMED_HANDSHAKES : FULL_HANDSHAKES).record(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Returns the request metrics of every endpoint and the handshake latencies.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public static Map<String, Object> getStats() {
+        Map<String, Object> endpoints = new TreeMap<>();
+        ENDPOINTS.forEach((endpoint, metrics) -> endpoints.put(endpoint, metrics.toMap()));
+        Map<String, Object> handshakes = new LinkedHashMap<>();
+        handshakes.put("full",    FULL_HANDSHAKES.toMap());
+        handshakes.put("resumed", RESUMED_HANDSHAKES.toMap());
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("endpoints",     endpoints);
+        stats.put("tlsHandshakes", handshakes);
+        return stats;
+    }
+
+    /** Metrics of the requests sent with one method to one endpoint. */
+    private static final class EndpointMetrics {
+
+        private final LatencyHistogram latency = new LatencyHistogram(WINDOW_MILLIS);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder bytesOut = new LongAdder();
+        private final LongAdder bytesIn = new LongAdder();
+        private final ConcurrentMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> codes = new TreeMap<>();
+            statusCodes.forEach((code, count) -> codes.put(String.valueOf(code), count.sum()));
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("requests",    requests.sum());
+            map.put("failures",    failures.sum());
+            map.put("statusCodes", codes);
+            map.put("bytesOut",    bytesOut.sum());
+            map.put("bytesIn",     bytesIn.sum());
+            map.put("latency",     latency.toMap());
+            return map;
+        }
+    }
+}
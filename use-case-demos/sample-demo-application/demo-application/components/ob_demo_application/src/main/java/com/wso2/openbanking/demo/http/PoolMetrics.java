@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Snapshot of connection pool usage and TLS handshake counts for an {@link HttpTransport}. */
+public final class PoolMetrics {
+
+    private final String transport;
+    private final int leased;
+    private final int idle;
+    private final int pending;
+    private final int maxTotal;
+    private final long handshakes;
+    private final long resumedHandshakes;
+
+    /**
+     * Creates a PoolMetrics snapshot.
+     *
+     * @param transport         name of the transport the snapshot was taken from
+     * @param leased            connections currently in use by a request
+     * @param idle              open connections available for reuse
+     * @param pending           requests waiting for a connection to become available
+     * @param maxTotal          upper bound on open connections, or 0 if unbounded
+     * @param handshakes        TLS handshakes completed since the transport was created
+     * @param resumedHandshakes completed handshakes that resumed a cached TLS session
+     */
+    public PoolMetrics(String transport, int leased, int idle, int pending, int maxTotal,
+                       long handshakes, long resumedHandshakes) {
+        this.transport = transport;
+        this.leased = leased;
+        this.idle = idle;
+        this.pending = pending;
+        this.maxTotal = maxTotal;
+        this.handshakes = handshakes;
+        this.resumedHandshakes = resumedHandshakes;
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    public int getLeased() {
+        return leased;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public long getHandshakes() {
+        return handshakes;
+    }
+
+    public long getResumedHandshakes() {
+        return resumedHandshakes;
+    }
+
+    /**
+     * Returns the snapshot as an ordered map suitable for JSON serialization.
+     *
+     * @return map of metric names to values
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("transport",         transport);
+        map.put("leased",            leased);
+        map.put("idle",              idle);
+        map.put("pending",           pending);
+        map.put("maxTotal",          maxTotal);
+        map.put("handshakes",        handshakes);
+        map.put("resumedHandshakes", resumedHandshakes);
+        return map;
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+
+/**
+ * Transport backed by a bounded pool of keep-alive connections.
+ * Connections are reused across requests to the same host, so the mutual TLS handshake is paid
+ * once per pooled connection instead of once per request.
+ */
+public final class PooledHttpTransport implements HttpTransport {
+
+    private static final String NAME = "pooled";
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final HandshakeTrackingSocketFactory socketFactory;
+
+    /**
+     * Creates a pooled transport that secures connections with the given SSL context.
+     *
+     * @param sslContext         SSL context used for the secure connections
+     * @param maxTotal           maximum number of open connections across all hosts
+     * @param maxPerRoute        maximum number of open connections to a single host
+     * @param idleTimeoutSeconds idle time after which a pooled connection is evicted
+     * @param keepAliveSeconds   upper bound on how long a connection is kept alive for reuse
+     */
+    public PooledHttpTransport(SSLContext sslContext, int maxTotal, int maxPerRoute,
+                               int idleTimeoutSeconds, int keepAliveSeconds) {
+        this.socketFactory = new HandshakeTrackingSocketFactory(sslContext.getSocketFactory());
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("https", new SSLConnectionSocketFactory(socketFactory,
+                        SSLConnectionSocketFactory.getDefaultHostnameVerifier()))
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .build();
+
+        this.connectionManager = new PoolingHttpClientConnectionManager(registry);
+        this.connectionManager.setMaxTotal(maxTotal);
+        this.connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+        // Connections authenticated with a client certificate carry the TLS principal as their
+        // state; without disabling connection state they would never be handed out again.
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(keepAliveStrategy(keepAliveSeconds))
+                .evictIdleConnections(idleTimeoutSeconds, TimeUnit.SECONDS)
+                .evictExpiredConnections()
+                .disableConnectionState()
+                .disableCookieManagement()
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Override
+    public <T> T send(HttpConnection request, ResponseReader<T> reader) throws IOException {
+        HttpRequestBase httpRequest = createRequest(request);
+        try (OutboundCallScope.Registration ignored = OutboundCallScope.register(httpRequest::abort);
+             CloseableHttpResponse response = httpClient.execute(httpRequest)) {
+            HttpEntity entity = response.getEntity();
+            try (InputStream body = entity == null ? InputStream.nullInputStream() : entity.getContent()) {
+                T result = reader.read(response.getStatusLine().getStatusCode(), readHeaders(response), body);
+                // Drain anything the reader left unread so the connection can return to the pool.
+                EntityUtils.consume(entity);
+                return result;
+            }
+        }
+    }
+
+    @Override
+    public PoolMetrics getPoolMetrics() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return new PoolMetrics(NAME, stats.getLeased(), stats.getAvailable(), stats.getPending(),
+                stats.getMax(), socketFactory.getHandshakeCount(), socketFactory.getResumedHandshakeCount());
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    /**
+     * Builds the HttpClient request for the given method, URL, headers, body, and timeouts.
+     *
+     * @param request request to translate
+     * @return HttpClient request ready to execute
+     * @throws IOException if the HTTP method is not supported
+     */
+    private HttpRequestBase createRequest(HttpConnection request) throws IOException {
+        HttpRequestBase httpRequest;
+        switch (request.getMethod()) {
+            case "GET":
+                httpRequest = new HttpGet(request.getUrl());
+                break;
+            case "DELETE":
+                httpRequest = new HttpDelete(request.getUrl());
+                break;
+            case "POST":
+                HttpPost post = new HttpPost(request.getUrl());
+                if (request.getBody() != null) {
+                    post.setEntity(new ByteArrayEntity(request.getBody().getBytes(StandardCharsets.UTF_8)));
+                }
+                httpRequest = post;
+                break;
+            default:
+                throw new IOException("Unsupported HTTP method: " + request.getMethod());
+        }
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            httpRequest.setHeader(header.getKey(), header.getValue());
+        }
+        httpRequest.setConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(request.getConnectTimeoutMillis())
+                .setConnectTimeout(request.getConnectTimeoutMillis())
+                .setSocketTimeout(request.getReadTimeoutMillis())
+                .build());
+        return httpRequest;
+    }
+
+    /**
+     * Collects the response headers, keeping the first value of each header.
+     *
+     * @param response response to read the headers from
+     * @return map of header names to values
+     */
+    private Map<String, String> readHeaders(CloseableHttpResponse response) {
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Header header : response.getAllHeaders()) {
+            headers.putIfAbsent(header.getName(), header.getValue());
+        }
+        return headers;
+    }
+
+    /**
+     * Returns a keep-alive strategy that honours the server's Keep-Alive header but never
+     * keeps a connection longer than the configured limit.
+     *
+     * @param keepAliveSeconds upper bound on the keep-alive duration
+     * @return keep-alive strategy for the client
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(int keepAliveSeconds) {
+        long maxKeepAliveMillis = TimeUnit.SECONDS.toMillis(keepAliveSeconds);
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, maxKeepAliveMillis) : maxKeepAliveMillis;
+        };
+    }
+}
@@ -0,0 +1,298 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transport that guards another transport with a circuit breaker per host and retries failed
+ * GET requests. A GET that fails before its response reaches the reader, or is answered with a
+ * transient status, is sent again after an exponentially growing, jittered delay; other methods
+ * are never retried. Breakers are shared by all transports, since they describe the health of the
+ * remote host rather than of a client identity.
+ */
+public final class ResilientTransport implements HttpTransport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResilientTransport.class);
+
+    private static final ConcurrentMap<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+    private static final AtomicLong REQUESTS  = new AtomicLong();
+    private static final AtomicLong RETRIES   = new AtomicLong();
+    private static final AtomicLong RECOVERED = new AtomicLong();
+    private static final AtomicLong EXHAUSTED = new AtomicLong();
+    private static final AtomicLong TIMEOUTS  = new AtomicLong();
+    private static final AtomicLong REJECTED  = new AtomicLong();
+
+    private final HttpTransport delegate;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    /**
+     * Creates a resilient transport around the given transport.
+     *
+     * @param delegate             transport that sends the requests
+     * @param maxAttempts          attempts made for a GET request, including the first
+     * @param initialBackoffMillis delay before the first retry
+     * @param maxBackoffMillis     longest delay before a retry
+     * @param failureThreshold     consecutive failures that open a host's breaker, or 0 to disable breakers
+     * @param openSeconds          time an open breaker rejects requests before letting a trial through
+     */
+    public ResilientTransport(HttpTransport delegate, int maxAttempts, long initialBackoffMillis,
+                              long maxBackoffMillis, int failureThreshold, int openSeconds) {
+        this.delegate = delegate;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+        this.failureThreshold = failureThreshold;
+        this.openMillis = TimeUnit.SECONDS.toMillis(openSeconds);
+    }
+
+    @Override
+    public <T> T send(HttpConnection request, ResponseReader<T> reader) throws IOException {
+        REQUESTS.incrementAndGet();
+        String host = hostOf(request.getUrl());
+        CircuitBreaker breaker = failureThreshold > 0
+                ? BREAKERS.computeIfAbsent(host, key -> new CircuitBreaker(failureThreshold, openMillis))
+                : null;
+        int attempts = "GET".equals(request.getMethod()) ? maxAttempts : 1;
+        for (int attempt = 1; ; attempt++) {
+            if (breaker != null && !breaker.tryAcquire()) {
+                REJECTED.incrementAndGet();
+                throw new CircuitOpenException(host, breaker.retryAfterMillis());
+            }
+            AttemptReader<T> attemptReader = new AttemptReader<>(reader, attempt < attempts);
+            IOException failure;
+            try {
+                T result = delegate.send(request, attemptReader);
+                recordStatus(breaker, attemptReader.statusCode);
+                if (attempt > 1) {
+                    RECOVERED.incrementAndGet();
+                }
+                return result;
+            } catch (TransientStatusException e) {
+                recordStatus(breaker, e.statusCode);
+                failure = e;
+            } catch (RuntimeException e) {
+                if (breaker != null) {
+                    breaker.onAbandoned();
+                }
+                throw e;
+            } catch (IOException e) {
+                if (isCancelled()) {
+                    if (breaker != null) {
+                        breaker.onAbandoned();
+                    }
+                    throw e;
+                }
+                if (attemptReader.statusCode != 0) {
+                    // The response was already handed to the reader, so the request is not repeated.
+                    recordStatus(breaker, attemptReader.statusCode);
+                    throw e;
+                }
+                if (breaker != null) {
+                    breaker.onFailure();
+                }
+                if (e instanceof InterruptedIOException) {
+                    TIMEOUTS.incrementAndGet();
+                }
+                if (attempt >= attempts) {
+                    if (attempt > 1) {
+                        EXHAUSTED.incrementAndGet();
+                    }
+                    throw e;
+                }
+                failure = e;
+            }
+            long delay = backoffMillis(attempt);
+            RETRIES.incrementAndGet();
+            LOG.debug("Retrying {} {} in {} ms after attempt {} failed: {}",
+                    request.getMethod(), request.getUrl(), delay, attempt, failure.getMessage());
+            sleep(delay);
+        }
+    }
+
+    @Override
+    public PoolMetrics getPoolMetrics() {
+        return delegate.getPoolMetrics();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    /**
+     * Returns retry counters and the state of every host's circuit breaker.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public static Map<String, Object> getStats() {
+        Map<String, Object> breakers = new TreeMap<>();
+        BREAKERS.forEach((host, breaker) -> breakers.put(host, breaker.toMap()));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests",          REQUESTS.get());
+        stats.put("retries",           RETRIES.get());
+        stats.put("recoveredByRetry",  RECOVERED.get());
+        stats.put("retriesExhausted",  EXHAUSTED.get());
+        stats.put("timeouts",          TIMEOUTS.get());
+        stats.put("rejectedByBreaker", REJECTED.get());
+        stats.put("breakers",          breakers);
+        return stats;
+    }
+
+    /**
+     * Reports a received response to the breaker; server errors count as failures.
+     *
+     * @param breaker    breaker of the request's host, or null
+     * @param statusCode HTTP status of the response
+     */
+    private static void recordStatus(CircuitBreaker breaker, int statusCode) {
+        if (breaker == null) {
+            return;
+        }
+        if (statusCode >= 500) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    /**
+     * Returns the delay before the retry following the given attempt: the initial delay doubled
+     * for every earlier retry, capped at the maximum, and spread randomly over its upper half so
+     * that clients failing together do not retry together.
+     *
+     * @param attempt number of the attempt that failed
+     * @return delay in milliseconds
+     */
+    private long backoffMillis(int attempt) {
+        long ceiling = initialBackoffMillis << Math.min(attempt - 1, 20);
+        long delay = Math.min(maxBackoffMillis, ceiling);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Waits before a retry, giving up if the calling request is cancelled meanwhile.
+     *
+     * @param millis time to wait
+     * @throws InterruptedIOException if the thread is interrupted or the call scope is cancelled
+     */
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+        if (isCancelled()) {
+            throw new InterruptedIOException("Outbound call cancelled");
+        }
+    }
+
+    /**
+     * Returns whether the current request was given up by its caller rather than failed by the host.
+     *
+     * @return true if the thread is interrupted or its call scope is cancelled
+     */
+    private static boolean isCancelled() {
+        OutboundCallScope scope = OutboundCallScope.current();
+        return Thread.currentThread().isInterrupted() || (scope != null && scope.isCancelled());
+    }
+
+    /**
+     * Returns the host and port a URL points to.
+     *
+     * @param url request URL
+     * @return authority of the URL, or the URL itself if it cannot be parsed
+     */
+    private static String hostOf(String url) {
+        try {
+            String authority = URI.create(url).getAuthority();
+            return authority == null ? url : authority;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    /**
+     * Returns whether a response status is worth retrying: the host was overloaded, unavailable,
+     * or timed out behind a gateway.
+     *
+     * @param statusCode HTTP status of the response
+     * @return true for 429, 502, 503, and 504
+     */
+    private static boolean isTransient(int statusCode) {
+        return statusCode == 429 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    /**
+     * Reader that records the response status and, while retries remain, turns a transient status
+     * into a failure before the caller's reader sees the response.
+     */
+    private static final class AttemptReader<T> implements ResponseReader<T> {
+
+        private final ResponseReader<T> reader;
+        private final boolean retryable;
+        private int statusCode;
+
+        private AttemptReader(ResponseReader<T> reader, boolean retryable) {
+            this.reader = reader;
+            this.retryable = retryable;
+        }
+
+        @Override
+        public T read(int statusCode, Map<String, String> headers, InputStream body) throws IOException {
+            if (retryable && isTransient(statusCode)) {
+                throw new TransientStatusException(statusCode);
+            }
+            this.statusCode = statusCode;
+            return reader.read(statusCode, headers, body);
+        }
+    }
+
+    /** Failure raised for a transient response status that will be retried. */
+    private static final class TransientStatusException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int statusCode;
+
+        private TransientStatusException(int statusCode) {
+            super("Transient response status " + statusCode);
+            this.statusCode = statusCode;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight recorder event written for every completed outbound TLS handshake. */
+@Name("com.wso2.openbanking.demo.TlsHandshake")
+@Label("Outbound TLS Handshake")
+@Description("TLS handshake on a connection to a bank or to the identity server, timed from socket creation")
+@Category({"Open Banking", "HTTP"})
+@StackTrace(false)
+final class TlsHandshakeEvent extends Event {
+
+    @Label("Host")
+    String host;
+
+    @Label("Protocol")
+    String protocol;
+
+    @Label("Cipher Suite")
+    String cipherSuite;
+
+    @Label("Resumed")
+    boolean resumed;
+}
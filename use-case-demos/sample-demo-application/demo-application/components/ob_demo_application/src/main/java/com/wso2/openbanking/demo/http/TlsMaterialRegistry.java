@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import com.wso2.openbanking.demo.exceptions.SSLContextCreationException;
+import com.wso2.openbanking.demo.utils.ConfigLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+
+/**
+ * Holds one {@link SSLContext} per client identity (certificate and key pair), so all clients
+ * presenting the same identity share key material and a single TLS session cache.
+ */
+public final class TlsMaterialRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TlsMaterialRegistry.class);
+
+    private static final ConcurrentMap<String, SSLContext> CONTEXTS = new ConcurrentHashMap<>();
+    private static final AtomicLong CREATED        = new AtomicLong();
+    private static final AtomicLong REUSED         = new AtomicLong();
+    private static final AtomicLong CREATION_NANOS = new AtomicLong();
+
+    private TlsMaterialRegistry() {
+        /* This utility class should not be instantiated */
+    }
+
+    /**
+     * Returns the SSL context for the given identity, creating it on first use.
+     * When the registry is disabled a new context is created on every call.
+     *
+     * @param certPath path to the PEM-encoded certificate file
+     * @param keyPath  path to the PEM-encoded private key file
+     * @return SSL context with a tuned client session cache
+     * @throws SSLContextCreationException if the context has to be created and creation fails
+     */
+    public static SSLContext getSslContext(String certPath, String keyPath) throws SSLContextCreationException {
+        if (!isEnabled()) {
+            return createTuned(certPath, keyPath);
+        }
+        String identity = certPath + '|' + keyPath;
+        SSLContext existing = CONTEXTS.get(identity);
+        if (existing != null) {
+            REUSED.incrementAndGet();
+            return existing;
+        }
+        synchronized (CONTEXTS) {
+            existing = CONTEXTS.get(identity);
+            if (existing != null) {
+                REUSED.incrementAndGet();
+                return existing;
+            }
+            SSLContext sslContext = createTuned(certPath, keyPath);
+            CONTEXTS.put(identity, sslContext);
+            return sslContext;
+        }
+    }
+
+    /**
+     * Returns whether SSL contexts are shared between clients.
+     *
+     * @return true if the registry is enabled
+     */
+    public static boolean isEnabled() {
+        return ConfigLoader.isSslContextRegistryEnabled();
+    }
+
+    /**
+     * Returns context creation statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public static Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("registryEnabled", isEnabled());
+        stats.put("contextsCreated", CREATED.get());
+        stats.put("contextsReused",  REUSED.get());
+        stats.put("creationMillis",  TimeUnit.NANOSECONDS.toMillis(CREATION_NANOS.get()));
+        return stats;
+    }
+
+    /**
+     * Creates an SSL context and applies the configured client session cache size and timeout.
+     *
+     * @param certPath path to the PEM-encoded certificate file
+     * @param keyPath  path to the PEM-encoded private key file
+     * @return new SSL context
+     * @throws SSLContextCreationException if context creation fails
+     */
+    private static SSLContext createTuned(String certPath, String keyPath) throws SSLContextCreationException {
+        long start = System.nanoTime();
+        SSLContext sslContext = SSLContextFactory.create(certPath, keyPath);
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        sessionContext.setSessionCacheSize(ConfigLoader.getSslSessionCacheSize());
+        sessionContext.setSessionTimeout(ConfigLoader.getSslSessionTimeoutSeconds());
+        long elapsed = System.nanoTime() - start;
+        CREATED.incrementAndGet();
+        CREATION_NANOS.addAndGet(elapsed);
+        LOG.debug("Created SSL context for {} in {} ms", certPath, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return sslContext;
+    }
+}
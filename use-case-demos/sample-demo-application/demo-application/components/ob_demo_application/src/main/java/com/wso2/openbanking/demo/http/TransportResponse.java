@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Immutable HTTP response returned by an {@link HttpTransport}. */
+public final class TransportResponse {
+
+    private final int statusCode;
+    private final Map<String, String> headers;
+    private final String body;
+
+    /**
+     * Creates a TransportResponse with the given status, headers, and body.
+     *
+     * @param statusCode HTTP response status code
+     * @param headers    response headers; names are matched case-insensitively
+     * @param body       response body, or an empty string if the response had none
+     */
+    public TransportResponse(int statusCode, Map<String, String> headers, String body) {
+        this.statusCode = statusCode;
+        Map<String, String> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        copy.putAll(headers);
+        this.headers = Collections.unmodifiableMap(copy);
+        this.body = body == null ? "" : body;
+    }
+
+    /**
+     * Returns the HTTP response status code.
+     *
+     * @return status code
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns whether the status code is in the 2xx range.
+     *
+     * @return true if the response indicates success
+     */
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * Returns the value of a response header.
+     *
+     * @param name header name, matched case-insensitively
+     * @return header value, or null if the header was not present
+     */
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    /**
+     * Returns all response headers.
+     *
+     * @return unmodifiable, case-insensitive header map
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the response body.
+     *
+     * @return response body as a string
+     */
+    public String getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+
+/** Transport that opens a new {@link HttpsURLConnection} for every request. */
+public final class UrlConnectionTransport implements HttpTransport {
+
+    private static final String NAME = "urlconnection";
+
+    private final HandshakeTrackingSocketFactory socketFactory;
+
+    /**
+     * Creates an UrlConnectionTransport that secures connections with the given SSL context.
+     *
+     * @param sslContext SSL context used for the secure connections
+     */
+    public UrlConnectionTransport(SSLContext sslContext) {
+        this.socketFactory = new HandshakeTrackingSocketFactory(sslContext.getSocketFactory());
+    }
+
+    @Override
+    public <T> T send(HttpConnection request, ResponseReader<T> reader) throws IOException {
+        HttpsURLConnection connection = createConnection(request);
+        try (OutboundCallScope.Registration ignored = OutboundCallScope.register(connection::disconnect)) {
+            if (request.getBody() != null) {
+                writeBody(connection, request.getBody());
+            }
+            int responseCode = connection.getResponseCode();
+            try (InputStream body = openBody(connection, responseCode)) {
+                return reader.read(responseCode, readHeaders(connection), body);
+            }
+        }
+    }
+
+    @Override
+    public PoolMetrics getPoolMetrics() {
+        return new PoolMetrics(NAME, 0, 0, 0, 0,
+                socketFactory.getHandshakeCount(), socketFactory.getResumedHandshakeCount());
+    }
+
+    @Override
+    public void close() {
+        // Connections are not pooled, so there is nothing to release.
+    }
+
+    /**
+     * Creates and configures the underlying HTTPS connection.
+     *
+     * @param request request whose URL, method, headers, and timeouts are applied
+     * @return configured HttpsURLConnection ready for use
+     * @throws IOException if the connection cannot be opened
+     */
+    private HttpsURLConnection createConnection(HttpConnection request) throws IOException {
+        URL urlObj = new URL(request.getUrl());
+        HttpsURLConnection connection = (HttpsURLConnection) urlObj.openConnection();
+        connection.setSSLSocketFactory(socketFactory);
+        connection.setRequestMethod(request.getMethod());
+        connection.setInstanceFollowRedirects(request.isFollowRedirects());
+        connection.setConnectTimeout(request.getConnectTimeoutMillis());
+        connection.setReadTimeout(request.getReadTimeoutMillis());
+        connection.setDoInput(true);
+        if (request.getBody() != null || "POST".equals(request.getMethod())) {
+            connection.setDoOutput(true);
+        }
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            connection.setRequestProperty(header.getKey(), header.getValue());
+        }
+        return connection;
+    }
+
+    /**
+     * Writes the request body to the connection output stream.
+     *
+     * @param connection the open HTTPS connection to write to
+     * @param body       request body to write
+     * @throws IOException if writing the body fails
+     */
+    private void writeBody(HttpsURLConnection connection, String body) throws IOException {
+        try (OutputStream os = connection.getOutputStream()) {
+            byte[] input = body.getBytes(StandardCharsets.UTF_8);
+            os.write(input, 0, input.length);
+        }
+    }
+
+    /**
+     * Collects the response headers, keeping the first value of each header.
+     *
+     * @param connection the HTTPS connection the response was received on
+     * @return map of header names to values
+     */
+    private Map<String, String> readHeaders(HttpsURLConnection connection) {
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
+            if (header.getKey() != null && !header.getValue().isEmpty()) {
+                headers.put(header.getKey(), header.getValue().get(0));
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Opens the response body stream of the connection.
+     *
+     * @param connection   the open HTTPS connection to read from
+     * @param responseCode status code of the response
+     * @return response body stream, empty if the response had none
+     * @throws IOException if the stream cannot be opened
+     */
+    private InputStream openBody(HttpsURLConnection connection, int responseCode) throws IOException {
+        InputStream is = (responseCode >= 200 && responseCode < 300)
+                ? connection.getInputStream()
+                : connection.getErrorStream();
+        return is == null ? InputStream.nullInputStream() : is;
+    }
+}
@@ -29,6 +29,7 @@ public class Account {
     private String id;
     private String name;
     private Double balance;
+    private String balanceCurrency;
     private List<Transaction> transactions;
     private List<StandingOrder> standingOrders;
     private String bank;
@@ -99,6 +100,21 @@ public class Account {
         this.balance = balance;
     }
 
+    /**
+     * Executes the getBalanceCurrency operation and modify the payload if necessary.
+     */
+    public String getBalanceCurrency() {
+        return balanceCurrency;
+    }
+    /**
+     * Executes the setBalanceCurrency operation and modify the payload if necessary.
+     *
+     * @param balanceCurrency The balanceCurrency parameter
+     */
+    public void setBalanceCurrency(String balanceCurrency) {
+        this.balanceCurrency = balanceCurrency;
+    }
+
     /**
      * Executes the getTransactions operation and modify the payload if necessary.
      */
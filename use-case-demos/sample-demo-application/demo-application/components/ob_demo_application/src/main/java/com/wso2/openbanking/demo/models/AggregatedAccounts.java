@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Accounts loaded from every configured bank, with the outcome of each bank's load. */
+public final class AggregatedAccounts {
+
+    private final List<Account> accounts;
+    private final List<BankStatus> banks;
+
+    /**
+     * Creates an AggregatedAccounts result.
+     *
+     * @param accounts accounts of the banks that loaded in time
+     * @param banks    outcome of every configured bank, in configuration order
+     */
+    public AggregatedAccounts(List<Account> accounts, List<BankStatus> banks) {
+        this.accounts = new ArrayList<>(accounts);
+        this.banks = new ArrayList<>(banks);
+    }
+
+    public List<Account> getAccounts() {
+        return new ArrayList<>(accounts);
+    }
+
+    public List<BankStatus> getBanks() {
+        return new ArrayList<>(banks);
+    }
+
+    /**
+     * Returns whether every linked bank loaded successfully.
+     *
+     * @return false if any linked bank failed or timed out
+     */
+    public boolean isComplete() {
+        for (BankStatus bank : banks) {
+            if (!BankStatus.OK.equals(bank.getStatus()) && !BankStatus.NOT_LINKED.equals(bank.getStatus())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Outcome of loading the accounts of one bank. */
+    public static final class BankStatus {
+
+        public static final String OK         = "ok";
+        public static final String NOT_LINKED = "not_linked";
+        public static final String TIMEOUT    = "timeout";
+        public static final String FAILED     = "failed";
+
+        private final String bankId;
+        private final String bankName;
+        private final String status;
+        private final int accountCount;
+        private final long elapsedMillis;
+        private final String error;
+
+        /**
+         * Creates a BankStatus.
+         *
+         * @param bankId        configured bank identifier
+         * @param bankName      bank display name
+         * @param status        one of {@link #OK}, {@link #NOT_LINKED}, {@link #TIMEOUT}, or {@link #FAILED}
+         * @param accountCount  number of accounts loaded from the bank
+         * @param elapsedMillis time spent on the bank
+         * @param error         failure message, or null
+         */
+        public BankStatus(String bankId, String bankName, String status, int accountCount, long elapsedMillis,
+                          String error) {
+            this.bankId = bankId;
+            this.bankName = bankName;
+            this.status = status;
+            this.accountCount = accountCount;
+            this.elapsedMillis = elapsedMillis;
+            this.error = error;
+        }
+
+        public String getBankId() {
+            return bankId;
+        }
+
+        public String getBankName() {
+            return bankName;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public int getAccountCount() {
+            return accountCount;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
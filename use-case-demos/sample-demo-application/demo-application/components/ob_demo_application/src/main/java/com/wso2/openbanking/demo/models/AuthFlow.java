@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.models;
+
+import com.wso2.openbanking.demo.constants.ApiConstants;
+
+/** Immutable state of a single authorization flow, from consent creation until the OAuth callback. */
+public final class AuthFlow {
+
+    private final String state;
+    private final String type;
+    private final String consentId;
+    private final Payment payment;
+    private final String redirectUrl;
+    private final String bankId;
+    private final String batchId;
+    private final int batchIndex;
+    private final String aggregationId;
+    private final String initiation;
+    private final String paymentHandle;
+
+    private AuthFlow(String state, String type, String consentId, Payment payment, String redirectUrl,
+                     String bankId, String batchId, int batchIndex, String aggregationId, String initiation,
+                     String paymentHandle) {
+        this.state = state;
+        this.type = type;
+        this.consentId = consentId;
+        this.payment = payment != null ? new Payment(payment) : null;
+        this.redirectUrl = redirectUrl;
+        this.bankId = bankId;
+        this.batchId = batchId;
+        this.batchIndex = batchIndex;
+        this.aggregationId = aggregationId;
+        this.initiation = initiation;
+        this.paymentHandle = paymentHandle;
+    }
+
+    /**
+     * Creates the state of an account consent flow.
+     *
+     * @param state         OAuth state identifying the flow
+     * @param consentId     account consent ID awaiting authorization
+     * @param redirectUrl   authorization URL the user is sent to
+     * @param bankId        configured bank the consent was created at
+     * @param aggregationId aggregation the consent is linked into once authorized, or null
+     * @return new account flow
+     */
+    public static AuthFlow forAccounts(String state, String consentId, String redirectUrl, String bankId,
+                                       String aggregationId) {
+        return new AuthFlow(state, ApiConstants.STATUS_ACCOUNTS, consentId, null, redirectUrl, bankId, null, -1,
+                aggregationId, null, null);
+    }
+
+    /**
+     * Creates the state of a payment consent flow.
+     *
+     * @param state         OAuth state identifying the flow
+     * @param consentId     payment consent ID awaiting authorization
+     * @param payment       payment to submit once the consent is authorized
+     * @param redirectUrl   authorization URL the user is sent to
+     * @param initiation    initiation the consent was created with, which the submission repeats
+     * @param paymentHandle server-issued handle the submitted payment's status is read under
+     * @return new payment flow
+     */
+    public static AuthFlow forPayment(String state, String consentId, Payment payment, String redirectUrl,
+                                      String initiation, String paymentHandle) {
+        return new AuthFlow(state, ApiConstants.STATUS_PAYMENTS, consentId, payment, redirectUrl, null, null, -1,
+                null, initiation, paymentHandle);
+    }
+
+    /**
+     * Creates the state of the consent flow of one payment in a batch.
+     *
+     * @param state       OAuth state identifying the flow
+     * @param consentId   payment consent ID awaiting authorization
+     * @param payment     payment to submit once the consent is authorized
+     * @param redirectUrl authorization URL the user is sent to
+     * @param batchId     batch the payment belongs to
+     * @param batchIndex  position of the payment in the batch
+     * @return new payment flow
+     */
+    public static AuthFlow forBatchPayment(String state, String consentId, Payment payment, String redirectUrl,
+                                           String batchId, int batchIndex) {
+        return new AuthFlow(state, ApiConstants.STATUS_PAYMENTS, consentId, payment, redirectUrl, null,
+                batchId, batchIndex, null, null, null);
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getConsentId() {
+        return consentId;
+    }
+
+    public Payment getPayment() {
+        return payment != null ? new Payment(payment) : null;
+    }
+
+    public String getRedirectUrl() {
+        return redirectUrl;
+    }
+
+    public String getBankId() {
+        return bankId;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public int getBatchIndex() {
+        return batchIndex;
+    }
+
+    public String getAggregationId() {
+        return aggregationId;
+    }
+
+    public String getInitiation() {
+        return initiation;
+    }
+
+    public String getPaymentHandle() {
+        return paymentHandle;
+    }
+}
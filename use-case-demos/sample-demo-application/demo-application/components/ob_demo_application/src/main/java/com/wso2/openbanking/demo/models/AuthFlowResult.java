@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.models;
+
+import com.wso2.openbanking.demo.constants.ApiConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Outcome of a completed authorization flow. */
+public final class AuthFlowResult {
+
+    private final String type;
+    private final List<Account> accounts;
+    private final boolean paymentSuccess;
+    private final String consentId;
+    private final String aggregationId;
+    private final String paymentHandle;
+
+    private AuthFlowResult(String type, List<Account> accounts, boolean paymentSuccess, String consentId,
+                           String aggregationId, String paymentHandle) {
+        this.type = type;
+        this.accounts = new ArrayList<>(accounts);
+        this.paymentSuccess = paymentSuccess;
+        this.consentId = consentId;
+        this.aggregationId = aggregationId;
+        this.paymentHandle = paymentHandle;
+    }
+
+    /**
+     * Creates the result of an account flow.
+     *
+     * @param accounts      accounts fetched under the authorized consent
+     * @param aggregationId aggregation the consent was linked into, used to aggregate the user's banks
+     * @return account flow result
+     */
+    public static AuthFlowResult forAccounts(List<Account> accounts, String aggregationId) {
+        return new AuthFlowResult(ApiConstants.STATUS_ACCOUNTS, accounts, false, null, aggregationId, null);
+    }
+
+    /**
+     * Creates the result of a payment flow.
+     *
+     * @param paymentSuccess whether the payment was submitted successfully
+     * @param consentId      consent the payment was submitted under
+     * @param paymentHandle  handle issued to the flow, used to look up the payment's status
+     * @return payment flow result
+     */
+    public static AuthFlowResult forPayment(boolean paymentSuccess, String consentId, String paymentHandle) {
+        return new AuthFlowResult(ApiConstants.STATUS_PAYMENTS, new ArrayList<>(), paymentSuccess, consentId,
+                null, paymentHandle);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public List<Account> getAccounts() {
+        return new ArrayList<>(accounts);
+    }
+
+    public boolean isPaymentSuccess() {
+        return paymentSuccess;
+    }
+
+    public String getConsentId() {
+        return consentId;
+    }
+
+    public String getAggregationId() {
+        return aggregationId;
+    }
+
+    public String getPaymentHandle() {
+        return paymentHandle;
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.models;
+
+/** Configured bank (ASPSP) whose account API the demo can read from. */
+public final class BankProfile {
+
+    private final String id;
+    private final String name;
+    private final String accountBaseUrl;
+    private final int timeoutSeconds;
+
+    /**
+     * Creates a BankProfile.
+     *
+     * @param id             identifier used in configuration and requests
+     * @param name           display name recorded on the bank's accounts
+     * @param accountBaseUrl base URL of the bank's account information API
+     * @param timeoutSeconds time allowed for loading the bank's accounts during aggregation
+     */
+    public BankProfile(String id, String name, String accountBaseUrl, int timeoutSeconds) {
+        this.id = id;
+        this.name = name;
+        this.accountBaseUrl = accountBaseUrl;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getAccountBaseUrl() {
+        return accountBaseUrl;
+    }
+
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch of payments submitted together. The batch ID is left out on first submission and set to
+ * the ID issued in the response to resubmit the same batch.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchPaymentRequest {
+    private String batchId;
+    private List<Payment> payments;
+
+    public BatchPaymentRequest() {
+    }
+
+    /**
+     * Executes the getBatchId operation and modify the payload if necessary.
+     */
+    public String getBatchId() {
+        return batchId;
+    }
+
+    /**
+     * Executes the setBatchId operation and modify the payload if necessary.
+     *
+     * @param batchId         The batchId parameter
+     */
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    /**
+     * Executes the getPayments operation and modify the payload if necessary.
+     */
+    public List<Payment> getPayments() {
+        return payments == null ? null : new ArrayList<>(payments);
+    }
+
+    /**
+     * Executes the setPayments operation and modify the payload if necessary.
+     *
+     * @param payments        The payments parameter
+     */
+    public void setPayments(List<Payment> payments) {
+        this.payments = payments != null ? new ArrayList<>(payments) : null;
+    }
+}
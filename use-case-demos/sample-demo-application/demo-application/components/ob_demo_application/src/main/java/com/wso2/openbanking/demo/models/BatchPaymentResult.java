@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Per-payment outcome of a payment batch. */
+public final class BatchPaymentResult {
+
+    private final String batchId;
+    private final List<Item> items;
+
+    /**
+     * Creates a BatchPaymentResult.
+     *
+     * @param batchId batch the results belong to
+     * @param items   outcome of each payment, in batch order
+     */
+    public BatchPaymentResult(String batchId, List<Item> items) {
+        this.batchId = batchId;
+        this.items = new ArrayList<>(items);
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public List<Item> getItems() {
+        return new ArrayList<>(items);
+    }
+
+    /** Outcome of one payment in a batch. */
+    public static final class Item {
+
+        public static final String CREATING_CONSENT       = "creating_consent";
+        public static final String AWAITING_AUTHORIZATION = "awaiting_authorization";
+        public static final String SUBMITTING             = "submitting";
+        public static final String SUBMITTED              = "submitted";
+        public static final String CONSENT_FAILED         = "consent_failed";
+        public static final String SUBMISSION_FAILED      = "submission_failed";
+        public static final String CONFLICT               = "conflict";
+
+        private final int index;
+        private final String status;
+        private final String idempotencyKey;
+        private final String consentId;
+        private final String redirect;
+        private final String paymentId;
+        private final String error;
+
+        /**
+         * Creates an Item.
+         *
+         * @param index          position of the payment in the batch
+         * @param status         current status of the payment
+         * @param idempotencyKey key identifying the payment across retries of the batch
+         * @param consentId      payment consent ID, or null if not created yet
+         * @param redirect       authorization URL for the consent, or null
+         * @param paymentId      bank payment ID once submitted, or null
+         * @param error          failure message, or null
+         */
+        public Item(int index, String status, String idempotencyKey, String consentId, String redirect,
+                    String paymentId, String error) {
+            this.index = index;
+            this.status = status;
+            this.idempotencyKey = idempotencyKey;
+            this.consentId = consentId;
+            this.redirect = redirect;
+            this.paymentId = paymentId;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getIdempotencyKey() {
+            return idempotencyKey;
+        }
+
+        public String getConsentId() {
+            return consentId;
+        }
+
+        public String getRedirect() {
+            return redirect;
+        }
+
+        public String getPaymentId() {
+            return paymentId;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
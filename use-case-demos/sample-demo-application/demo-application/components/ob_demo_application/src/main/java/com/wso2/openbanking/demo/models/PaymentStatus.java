@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.models;
+
+/** Last known bank status of a submitted payment. */
+public final class PaymentStatus {
+
+    public static final String PENDING                      = "Pending";
+    public static final String ACCEPTED_SETTLEMENT_COMPLETE = "AcceptedSettlementCompleted";
+    public static final String ACCEPTED_CREDIT_SETTLEMENT   = "AcceptedCreditSettlementCompleted";
+    public static final String ACCEPTED_WITHOUT_POSTING     = "AcceptedWithoutPosting";
+    public static final String REJECTED                     = "Rejected";
+
+    private final String consentId;
+    private final String paymentId;
+    private final String status;
+    private final boolean finalStatus;
+    private final boolean polling;
+    private final int polls;
+    private final long updatedAtMillis;
+    private final String error;
+
+    /**
+     * Creates a PaymentStatus.
+     *
+     * @param consentId       consent the payment was submitted under
+     * @param paymentId       bank payment ID
+     * @param status          last status reported by the bank
+     * @param finalStatus     whether the status will no longer change
+     * @param polling         whether the bank is still being polled for the status
+     * @param polls           number of status responses received from the bank
+     * @param updatedAtMillis time the status was last read from the bank
+     * @param error           failure of the last status request, or null
+     */
+    public PaymentStatus(String consentId, String paymentId, String status, boolean finalStatus, boolean polling,
+                         int polls, long updatedAtMillis, String error) {
+        this.consentId = consentId;
+        this.paymentId = paymentId;
+        this.status = status;
+        this.finalStatus = finalStatus;
+        this.polling = polling;
+        this.polls = polls;
+        this.updatedAtMillis = updatedAtMillis;
+        this.error = error;
+    }
+
+    /**
+     * Returns whether a bank payment status is final.
+     *
+     * @param status payment status reported by the bank
+     * @return true if the payment was settled or rejected
+     */
+    public static boolean isFinal(String status) {
+        return ACCEPTED_SETTLEMENT_COMPLETE.equals(status)
+                || ACCEPTED_CREDIT_SETTLEMENT.equals(status)
+                || ACCEPTED_WITHOUT_POSTING.equals(status)
+                || REJECTED.equals(status);
+    }
+
+    public String getConsentId() {
+        return consentId;
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public boolean isFinalStatus() {
+        return finalStatus;
+    }
+
+    public boolean isPolling() {
+        return polling;
+    }
+
+    public int getPolls() {
+        return polls;
+    }
+
+    public long getUpdatedAtMillis() {
+        return updatedAtMillis;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,570 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Immutable, column-oriented store of the transactions of one account.
+ * Amounts are kept as long minor units with their decimal scale, dates as epoch days, currencies
+ * as indexes into a per-store code table, and the credit/debit indicator as a bit. Identifiers
+ * and references are packed into shared UTF-8 byte arrays, with repeated references stored once.
+ * A transaction whose fields cannot be encoded so that they read back exactly is kept as given.
+ * {@link #asList()} presents the store as {@link Transaction} objects, created on access.
+ */
+public final class TransactionStore {
+
+    private static final String CREDIT = "Credit";
+    private static final String DEBIT  = "Debit";
+    private static final int MAX_SCALE = 18;
+
+    private static final TransactionStore EMPTY = new Builder(null).build();
+
+    private final String accountId;
+    private final int size;
+    private final PackedStrings ids;
+    private final int[] referenceIndexes;
+    private final PackedStrings references;
+    private final long[] amountsMinor;
+    private final byte[] amountScales;
+    private final int[] epochDays;
+    private final byte[] currencyIndexes;
+    private final String[] currencies;
+    private final BitSet credits;
+    private final Map<Integer, Transaction> irregular;
+
+    private TransactionStore(Builder builder) {
+        this.accountId = builder.accountId;
+        this.size = builder.size;
+        this.ids = builder.ids.trim();
+        this.referenceIndexes = Arrays.copyOf(builder.referenceIndexes, size);
+        this.references = builder.references.trim();
+        this.amountsMinor = Arrays.copyOf(builder.amountsMinor, size);
+        this.amountScales = Arrays.copyOf(builder.amountScales, size);
+        this.epochDays = Arrays.copyOf(builder.epochDays, size);
+        this.currencyIndexes = Arrays.copyOf(builder.currencyIndexes, size);
+        this.currencies = builder.currencies.toArray(new String[0]);
+        this.credits = (BitSet) builder.credits.clone();
+        this.irregular = builder.irregular.isEmpty()
+                ? Collections.emptyMap()
+                : new HashMap<>(builder.irregular);
+    }
+
+    /**
+     * Returns an empty store.
+     *
+     * @return store without transactions
+     */
+    public static TransactionStore empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a store holding the given transactions in order.
+     *
+     * @param accountId    account the transactions belong to
+     * @param transactions transactions to store
+     * @return new store
+     */
+    public static TransactionStore of(String accountId, List<Transaction> transactions) {
+        Builder builder = new Builder(accountId);
+        for (Transaction transaction : transactions) {
+            builder.add(transaction);
+        }
+        return builder.build();
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the transaction ID at the given position without creating a Transaction.
+     *
+     * @param index position in the store
+     * @return transaction ID
+     */
+    public String getId(int index) {
+        Transaction kept = irregular.get(index);
+        return kept != null ? kept.getId() : ids.get(index);
+    }
+
+    /**
+     * Returns whether the amount, date, currency, and indicator at the given position are held in
+     * encoded form, so the primitive accessors below apply to it.
+     *
+     * @param index position in the store
+     * @return true if the transaction is encoded
+     */
+    public boolean isEncoded(int index) {
+        return !irregular.containsKey(index);
+    }
+
+    /**
+     * Returns the amount at the given position in minor units of its scale.
+     *
+     * @param index position of an encoded transaction
+     * @return unscaled amount
+     */
+    public long getAmountMinor(int index) {
+        return amountsMinor[index];
+    }
+
+    /**
+     * Returns the number of decimal places of the amount at the given position.
+     *
+     * @param index position of an encoded transaction
+     * @return amount scale
+     */
+    public int getAmountScale(int index) {
+        return amountScales[index];
+    }
+
+    /**
+     * Returns the booking date at the given position.
+     *
+     * @param index position of an encoded transaction
+     * @return days since 1970-01-01
+     */
+    public int getEpochDay(int index) {
+        return epochDays[index];
+    }
+
+    /**
+     * Returns the currency code at the given position.
+     *
+     * @param index position of an encoded transaction
+     * @return ISO currency code
+     */
+    public String getCurrency(int index) {
+        return currencies[currencyIndexes[index]];
+    }
+
+    /**
+     * Returns whether the transaction at the given position is a credit.
+     *
+     * @param index position of an encoded transaction
+     * @return true for a credit, false for a debit
+     */
+    public boolean isCredit(int index) {
+        return credits.get(index);
+    }
+
+    /**
+     * Creates the Transaction at the given position.
+     *
+     * @param index position in the store
+     * @return new Transaction with the stored values
+     */
+    public Transaction get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        Transaction kept = irregular.get(index);
+        if (kept != null) {
+            return copy(kept);
+        }
+        Transaction transaction = new Transaction(ids.get(index),
+                LocalDate.ofEpochDay(epochDays[index]).toString(),
+                references.get(referenceIndexes[index]),
+                formatAmount(amountsMinor[index], amountScales[index]),
+                currencies[currencyIndexes[index]],
+                credits.get(index) ? CREDIT : DEBIT);
+        transaction.setAccount(accountId);
+        return transaction;
+    }
+
+    /**
+     * Returns a read-only list view of the store. Each access creates a new Transaction.
+     *
+     * @return list view of the transactions
+     */
+    public List<Transaction> asList() {
+        return new TransactionListView();
+    }
+
+    /**
+     * Formats an unscaled amount with the given number of decimal places.
+     *
+     * @param minor unscaled amount
+     * @param scale number of decimal places
+     * @return decimal string
+     */
+    private static String formatAmount(long minor, int scale) {
+        if (scale == 0) {
+            return Long.toString(minor);
+        }
+        StringBuilder digits = new StringBuilder(Long.toString(Math.abs(minor)));
+        while (digits.length() <= scale) {
+            digits.insert(0, '0');
+        }
+        digits.insert(digits.length() - scale, '.');
+        if (minor < 0) {
+            digits.insert(0, '-');
+        }
+        return digits.toString();
+    }
+
+    private static Transaction copy(Transaction source) {
+        Transaction transaction = new Transaction(source.getId(), source.getDate(), source.getReference(),
+                source.getAmount(), source.getCurrency(), source.getCreditDebitStatus());
+        transaction.setAccount(source.getAccount());
+        return transaction;
+    }
+
+    /** Read-only list view creating transactions on access. */
+    private final class TransactionListView extends AbstractList<Transaction> implements RandomAccess {
+
+        @Override
+        public Transaction get(int index) {
+            return TransactionStore.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /** Builds a {@link TransactionStore} one transaction at a time. */
+    public static final class Builder {
+
+        private final String accountId;
+        private int size;
+        private final PackedStrings ids = new PackedStrings();
+        private int[] referenceIndexes = new int[16];
+        private final PackedStrings references = new PackedStrings();
+        private final Map<String, Integer> referenceTable = new HashMap<>();
+        private long[] amountsMinor = new long[16];
+        private byte[] amountScales = new byte[16];
+        private int[] epochDays = new int[16];
+        private byte[] currencyIndexes = new byte[16];
+        private final List<String> currencies = new ArrayList<>();
+        private final BitSet credits = new BitSet();
+        private final Map<Integer, Transaction> irregular = new HashMap<>();
+
+        /**
+         * Creates a builder for the transactions of an account.
+         *
+         * @param accountId account the transactions belong to
+         */
+        public Builder(String accountId) {
+            this.accountId = accountId;
+        }
+
+        /**
+         * Returns the number of transactions added so far.
+         *
+         * @return transaction count
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Adds a transaction.
+         *
+         * @param transaction transaction to add
+         * @return this builder
+         */
+        public Builder add(Transaction transaction) {
+            return add(transaction.getId(), transaction.getDate(), transaction.getReference(), transaction.getAmount(),
+                    transaction.getCurrency(), transaction.getCreditDebitStatus(), transaction.getAccount());
+        }
+
+        /**
+         * Adds a transaction from its field values.
+         *
+         * @param id                   transaction ID
+         * @param date                 booking date in yyyy-MM-dd format
+         * @param reference            transaction reference
+         * @param amount               decimal amount
+         * @param currency             ISO currency code
+         * @param creditDebitIndicator {@code Credit} or {@code Debit}
+         * @return this builder
+         */
+        public Builder add(String id, String date, String reference, String amount, String currency,
+                           String creditDebitIndicator) {
+            return add(id, date, reference, amount, currency, creditDebitIndicator, accountId);
+        }
+
+        /**
+         * Adds the transaction at the given position of another store without creating a Transaction.
+         *
+         * @param store source store
+         * @param index position in the source store
+         * @return this builder
+         */
+        public Builder add(TransactionStore store, int index) {
+            Transaction kept = store.irregular.get(index);
+            int currencyIndex = kept == null ? currencyIndex(store.currencies[store.currencyIndexes[index]]) : -1;
+            if (currencyIndex < 0) {
+                return add(store.get(index));
+            }
+            int row = nextRow();
+            ids.add(store.ids.get(index));
+            referenceIndexes[row] = referenceIndex(store.references.get(store.referenceIndexes[index]));
+            amountsMinor[row] = store.amountsMinor[index];
+            amountScales[row] = store.amountScales[index];
+            epochDays[row] = store.epochDays[index];
+            currencyIndexes[row] = (byte) currencyIndex;
+            credits.set(row, store.credits.get(index));
+            return this;
+        }
+
+        /**
+         * Adds every transaction of another store.
+         *
+         * @param store source store
+         * @return this builder
+         */
+        public Builder addAll(TransactionStore store) {
+            for (int i = 0; i < store.size; i++) {
+                add(store, i);
+            }
+            return this;
+        }
+
+        /**
+         * Creates the store.
+         *
+         * @return immutable store of the added transactions
+         */
+        public TransactionStore build() {
+            return new TransactionStore(this);
+        }
+
+        private Builder add(String id, String date, String reference, String amount, String currency,
+                            String creditDebitIndicator, String account) {
+            long[] encodedAmount = encodeAmount(amount);
+            int epochDay = encodeDate(date);
+            int currencyIndex = currency == null ? -1 : currencyIndex(currency);
+            boolean indicatorKnown = CREDIT.equals(creditDebitIndicator) || DEBIT.equals(creditDebitIndicator);
+            boolean sameAccount = accountId == null ? account == null : accountId.equals(account);
+            int row = nextRow();
+            if (!isPackable(id) || !isPackable(reference) || encodedAmount == null || epochDay == Integer.MIN_VALUE
+                    || currencyIndex < 0 || !indicatorKnown || !sameAccount) {
+                Transaction kept = new Transaction(id, date, reference, amount, currency, creditDebitIndicator);
+                kept.setAccount(account);
+                irregular.put(row, kept);
+                ids.add("");
+                return this;
+            }
+            ids.add(id);
+            referenceIndexes[row] = referenceIndex(reference);
+            amountsMinor[row] = encodedAmount[0];
+            amountScales[row] = (byte) encodedAmount[1];
+            epochDays[row] = epochDay;
+            currencyIndexes[row] = (byte) currencyIndex;
+            credits.set(row, CREDIT.equals(creditDebitIndicator));
+            return this;
+        }
+
+        /**
+         * Returns whether a string reads back unchanged after UTF-8 packing, which is not the case
+         * for null or for text containing an unpaired surrogate.
+         *
+         * @param value string to check
+         * @return true if the string can be packed
+         */
+        private static boolean isPackable(String value) {
+            if (value == null) {
+                return false;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int nextRow() {
+            if (size == amountsMinor.length) {
+                int capacity = size * 2;
+                referenceIndexes = Arrays.copyOf(referenceIndexes, capacity);
+                amountsMinor = Arrays.copyOf(amountsMinor, capacity);
+                amountScales = Arrays.copyOf(amountScales, capacity);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                currencyIndexes = Arrays.copyOf(currencyIndexes, capacity);
+            }
+            return size++;
+        }
+
+        private int referenceIndex(String reference) {
+            Integer index = referenceTable.get(reference);
+            if (index == null) {
+                index = referenceTable.size();
+                referenceTable.put(reference, index);
+                references.add(reference);
+            }
+            return index;
+        }
+
+        /**
+         * Returns the index of a currency in the code table, adding it if needed.
+         *
+         * @param currency currency code
+         * @return table index, or -1 if the table is full
+         */
+        private int currencyIndex(String currency) {
+            int index = currencies.indexOf(currency);
+            if (index >= 0) {
+                return index;
+            }
+            if (currencies.size() > Byte.MAX_VALUE) {
+                return -1;
+            }
+            currencies.add(currency);
+            return currencies.size() - 1;
+        }
+
+        /**
+         * Encodes a decimal amount as minor units and scale.
+         *
+         * @param amount decimal amount
+         * @return unscaled value and scale, or null if the amount would not read back unchanged
+         */
+        private static long[] encodeAmount(String amount) {
+            if (amount == null || amount.isEmpty()) {
+                return null;
+            }
+            int pos = amount.charAt(0) == '-' ? 1 : 0;
+            long unscaled = 0;
+            int scale = -1;
+            boolean digitSeen = false;
+            try {
+                for (; pos < amount.length(); pos++) {
+                    char c = amount.charAt(pos);
+                    if (c == '.' && scale < 0) {
+                        scale = 0;
+                    } else if (c >= '0' && c <= '9') {
+                        unscaled = Math.addExact(Math.multiplyExact(unscaled, 10), c - '0');
+                        digitSeen = true;
+                        if (scale >= 0) {
+                            scale++;
+                        }
+                    } else {
+                        return null;
+                    }
+                }
+            } catch (ArithmeticException e) {
+                return null;
+            }
+            if (!digitSeen || scale == 0 || scale > MAX_SCALE) {
+                return null;
+            }
+            long minor = amount.charAt(0) == '-' ? -unscaled : unscaled;
+            int encodedScale = Math.max(scale, 0);
+            return amount.equals(formatAmount(minor, encodedScale)) ? new long[]{minor, encodedScale} : null;
+        }
+
+        /**
+         * Encodes a yyyy-MM-dd date as an epoch day.
+         *
+         * @param date date string
+         * @return epoch day, or {@link Integer#MIN_VALUE} if the date would not read back unchanged
+         */
+        private static int encodeDate(String date) {
+            if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+                return Integer.MIN_VALUE;
+            }
+            int year = 0;
+            int month = 0;
+            int day = 0;
+            for (int i = 0; i < 10; i++) {
+                char c = date.charAt(i);
+                if (i == 4 || i == 7) {
+                    continue;
+                }
+                if (c < '0' || c > '9') {
+                    return Integer.MIN_VALUE;
+                }
+                if (i < 4) {
+                    year = year * 10 + (c - '0');
+                } else if (i < 7) {
+                    month = month * 10 + (c - '0');
+                } else {
+                    day = day * 10 + (c - '0');
+                }
+            }
+            if (month < 1 || month > 12 || day < 1 || day > 31) {
+                return Integer.MIN_VALUE;
+            }
+            try {
+                LocalDate parsed = LocalDate.of(year, month, day);
+                return parsed.toString().equals(date) ? (int) parsed.toEpochDay() : Integer.MIN_VALUE;
+            } catch (DateTimeException e) {
+                return Integer.MIN_VALUE;
+            }
+        }
+    }
+
+    /** Strings packed back to back into one UTF-8 byte array. */
+    private static final class PackedStrings {
+
+        private byte[] data = new byte[64];
+        private int[] offsets = new int[17];
+        private int count;
+
+        private void add(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int start = offsets[count];
+            if (start + bytes.length > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, start + bytes.length));
+            }
+            System.arraycopy(bytes, 0, data, start, bytes.length);
+            if (count + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[++count] = start + bytes.length;
+        }
+
+        private String get(int index) {
+            return new String(data, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+        }
+
+        private PackedStrings trim() {
+            PackedStrings trimmed = new PackedStrings();
+            trimmed.count = count;
+            trimmed.offsets = Arrays.copyOf(offsets, count + 1);
+            trimmed.data = Arrays.copyOf(data, offsets[count]);
+            return trimmed;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.exceptions.AuthorizationException;
+import com.wso2.openbanking.demo.http.OutboundCallScope;
+import com.wso2.openbanking.demo.utils.ConfigLoader;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches client credentials token responses by scope.
+ * A cached token is served until a safety margin before it expires and is refreshed in the
+ * background shortly before that. Concurrent callers that miss the cache share a single
+ * in-flight token request.
+ */
+public final class AccessTokenCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccessTokenCache.class);
+
+    private static AccessTokenCache instance;
+
+    private final ConcurrentMap<String, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<CachedToken>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher;
+    private final long safetyMarginMillis;
+    private final long refreshAheadMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    /** Loads a fresh token response for a scope from the token endpoint. */
+    @FunctionalInterface
+    public interface TokenLoader {
+
+        /**
+         * Requests a new token for the given scope.
+         *
+         * @param scope OAuth scope to request the token for
+         * @return raw token response JSON string
+         * @throws AuthorizationException if the token request fails
+         */
+        String load(String scope) throws AuthorizationException;
+    }
+
+    /**
+     * Creates a token cache with the given expiry margins.
+     *
+     * @param safetyMarginSeconds time before expiry after which a cached token is no longer served
+     * @param refreshAheadSeconds time before expiry at which a background refresh is started
+     */
+    private AccessTokenCache(long safetyMarginSeconds, long refreshAheadSeconds) {
+        this.safetyMarginMillis = TimeUnit.SECONDS.toMillis(safetyMarginSeconds);
+        this.refreshAheadMillis = TimeUnit.SECONDS.toMillis(Math.max(refreshAheadSeconds, safetyMarginSeconds));
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the shared token cache, creating it from configuration if it does not exist.
+     *
+     * @return shared AccessTokenCache instance
+     */
+    public static synchronized AccessTokenCache getInstance() {
+        if (instance == null) {
+            instance = new AccessTokenCache(
+                    ConfigLoader.getTokenCacheSafetyMarginSeconds(),
+                    ConfigLoader.getTokenCacheRefreshAheadSeconds());
+        }
+        return instance;
+    }
+
+    /**
+     * Returns a cached token response for the scope, loading one if none is usable.
+     *
+     * @param scope  OAuth scope of the token
+     * @param loader loader used when the cache has no usable token
+     * @return raw token response JSON string
+     * @throws AuthorizationException if a token had to be loaded and the request failed
+     */
+    public String get(String scope, TokenLoader loader) throws AuthorizationException {
+        CachedToken cached = tokens.get(scope);
+        if (cached != null && cached.isUsable(System.currentTimeMillis(), safetyMarginMillis)) {
+            hits.incrementAndGet();
+            return cached.response;
+        }
+        misses.incrementAndGet();
+        return load(scope, loader).response;
+    }
+
+    /**
+     * Removes the cached token for a scope so the next request loads a fresh one.
+     *
+     * @param scope OAuth scope of the token to discard
+     */
+    public void invalidate(String scope) {
+        tokens.remove(scope);
+    }
+
+    /**
+     * Returns the cache counters.
+     *
+     * @return ordered map of counter names to values
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits",         hits.get());
+        stats.put("misses",       misses.get());
+        stats.put("coalesced",    coalesced.get());
+        stats.put("refreshes",    refreshes.get());
+        stats.put("cachedScopes", tokens.size());
+        return stats;
+    }
+
+    /**
+     * Loads a token for the scope, joining an in-flight request for the same scope if one exists.
+     *
+     * @param scope  OAuth scope of the token
+     * @param loader loader used to request the token
+     * @return loaded token
+     * @throws AuthorizationException if the token request failed
+     */
+    private CachedToken load(String scope, TokenLoader loader) throws AuthorizationException {
+        CompletableFuture<CachedToken> request = new CompletableFuture<>();
+        CompletableFuture<CachedToken> existing = inFlight.putIfAbsent(scope, request);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+        try {
+            // The token is shared with other callers, so its request is not cancelled along with
+            // the inbound request that happened to start it.
+            String response = OutboundCallScope.callWithin(null, () -> loader.load(scope));
+            CachedToken token = CachedToken.parse(response, System.currentTimeMillis());
+            if (token.expiresAtMillis > 0) {
+                tokens.put(scope, token);
+                scheduleRefresh(scope, token, loader);
+            }
+            request.complete(token);
+            return token;
+        } catch (AuthorizationException | RuntimeException e) {
+            request.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scope, request);
+        }
+    }
+
+    /**
+     * Waits for an in-flight token request started by another caller.
+     *
+     * @param request in-flight token request
+     * @return loaded token
+     * @throws AuthorizationException if the shared request failed or the wait was interrupted
+     */
+    private CachedToken await(CompletableFuture<CachedToken> request) throws AuthorizationException {
+        try {
+            return request.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthorizationException("Interrupted waiting for token request", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AuthorizationException) {
+                throw (AuthorizationException) e.getCause();
+            }
+            throw new AuthorizationException("Token request failed", e.getCause());
+        }
+    }
+
+    /**
+     * Schedules a background refresh of the token shortly before it stops being served.
+     *
+     * @param scope  OAuth scope of the token
+     * @param token  token that was just cached
+     * @param loader loader used to request the replacement token
+     */
+    private void scheduleRefresh(String scope, CachedToken token, TokenLoader loader) {
+        long delay = token.expiresAtMillis - refreshAheadMillis - System.currentTimeMillis();
+        if (delay <= 0) {
+            return;
+        }
+        refresher.schedule(() -> {
+            if (tokens.get(scope) != token) {
+                return;
+            }
+            try {
+                load(scope, loader);
+                refreshes.incrementAndGet();
+            } catch (AuthorizationException | RuntimeException e) {
+                LOG.warn("Background token refresh failed for scope '{}': {}", scope, e.getMessage());
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /** A token response together with its absolute expiry time. */
+    private static final class CachedToken {
+
+        private final String response;
+        private final long expiresAtMillis;
+
+        private CachedToken(String response, long expiresAtMillis) {
+            this.response = response;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        /**
+         * Reads {@code expires_in} from a token response.
+         *
+         * @param response  raw token response JSON string
+         * @param nowMillis time at which the response was received
+         * @return token with its expiry, or with an expiry of 0 if the response carries none
+         */
+        private static CachedToken parse(String response, long nowMillis) {
+            try {
+                long expiresIn = new JSONObject(response).optLong("expires_in", 0);
+                return new CachedToken(response, expiresIn > 0 ? nowMillis + TimeUnit.SECONDS.toMillis(expiresIn) : 0);
+            } catch (JSONException e) {
+                return new CachedToken(response, 0);
+            }
+        }
+
+        private boolean isUsable(long nowMillis, long safetyMarginMillis) {
+            return nowMillis < expiresAtMillis - safetyMarginMillis;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.http.HttpTransport;
+import com.wso2.openbanking.demo.http.OutboundCallScope;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of decoded account API responses keyed by consent, account, and resource.
+ * Entries are served without a bank call until their resource's time to live has passed. A stale
+ * entry that carried an {@code ETag} or {@code Last-Modified} header is revalidated with a
+ * conditional request, and a 304 response keeps the cached value. Concurrent reads of the same
+ * missing or stale entry share a single bank call. The least recently used entries are evicted once
+ * the size cap is reached.
+ */
+public final class AccountDataCache {
+
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    private final ConditionalGet client;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Map<Resource, Long> ttlNanos;
+    private final Map<String, Entry> entries;
+    private final ConcurrentMap<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidated = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    /** Decodes a response body into the value held by the cache. */
+    @FunctionalInterface
+    public interface BodyDecoder<T> {
+
+        /**
+         * Decodes the body while it is being received.
+         *
+         * @param body response body stream
+         * @return decoded value
+         * @throws IOException if the body cannot be read or decoded
+         */
+        T decode(InputStream body) throws IOException;
+    }
+
+    /** Conditional GET against a bank, as performed by {@link HttpTlsClient#getWithAuthConditional}. */
+    interface ConditionalGet {
+
+        /**
+         * Sends the request, adding {@code If-None-Match} and {@code If-Modified-Since} when given.
+         *
+         * @param url          resource URL
+         * @param accessToken  access token issued for the consent
+         * @param etag         ETag to revalidate, or null
+         * @param lastModified Last-Modified value to revalidate, or null
+         * @param reader       reader consuming the response
+         * @param <T>          value type produced by the reader
+         * @return value produced by the reader
+         * @throws IOException if the request fails or the reader fails
+         */
+        <T> T get(String url, String accessToken, String etag, String lastModified,
+                  HttpTransport.ResponseReader<T> reader) throws IOException;
+    }
+
+    /** Account API resources held in the cache, each with its own time to live. */
+    public enum Resource {
+        ACCOUNT,
+        BALANCES,
+        TRANSACTIONS
+    }
+
+    /**
+     * Creates an AccountDataCache.
+     *
+     * @param client     TLS HTTP client used for bank reads
+     * @param enabled    whether responses are cached; when false every read goes to the bank
+     * @param maxEntries maximum number of responses kept at once
+     * @param ttlSeconds time to live of each resource, in seconds
+     */
+    public AccountDataCache(HttpTlsClient client, boolean enabled, int maxEntries, Map<Resource, Integer> ttlSeconds) {
+        this(client::getWithAuthConditional, enabled, maxEntries, ttlSeconds);
+    }
+
+    /**
+     * Creates an AccountDataCache reading through the given request function.
+     *
+     * @param client     conditional GET used for bank reads
+     * @param enabled    whether responses are cached; when false every read goes to the bank
+     * @param maxEntries maximum number of responses kept at once
+     * @param ttlSeconds time to live of each resource, in seconds
+     */
+    AccountDataCache(ConditionalGet client, boolean enabled, int maxEntries, Map<Resource, Integer> ttlSeconds) {
+        this.client = client;
+        this.enabled = enabled && maxEntries > 0;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = new EnumMap<>(Resource.class);
+        for (Resource resource : Resource.values()) {
+            this.ttlNanos.put(resource, TimeUnit.SECONDS.toNanos(ttlSeconds.getOrDefault(resource, 0)));
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns an account resource, from the cache when possible. The response body is decoded
+     * while it is being received, and the decoded value is what the cache holds.
+     *
+     * @param consentId   consent the resource is read under
+     * @param accountId   account the resource belongs to
+     * @param resource    kind of resource
+     * @param url         resource URL; distinguishes pages and query variants of the same resource
+     * @param accessToken access token issued for the consent
+     * @param decoder     decoder turning the response body into the returned value
+     * @param <T>         decoded value type
+     * @return decoded resource
+     * @throws IOException if the bank call fails, returns an error status, or cannot be decoded
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String consentId, String accountId, Resource resource, String url, String accessToken,
+                     BodyDecoder<T> decoder) throws IOException {
+        if (!enabled) {
+            return client.get(url, accessToken, null, null, (status, headers, body) -> {
+                requireSuccess(url, status);
+                return decoder.decode(body);
+            });
+        }
+        String key = consentId + '|' + accountId + '|' + resource + '|' + url;
+        Entry fresh = freshEntry(key);
+        if (fresh != null) {
+            return (T) fresh.value;
+        }
+        while (true) {
+            CompletableFuture<Entry> load = new CompletableFuture<>();
+            CompletableFuture<Entry> existing = loading.putIfAbsent(key, load);
+            if (existing == null) {
+                return (T) load(key, resource, url, accessToken, decoder, load).value;
+            }
+            coalesced.incrementAndGet();
+            try {
+                Entry shared = existing.get();
+                bytesSaved.addAndGet(shared.bodyBytes);
+                return (T) shared.value;
+            } catch (CancellationException e) {
+                // The caller that started the load was cancelled; load the entry for this caller instead.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for bank call");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("Bank call failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Returns the entry for the key if it has not yet expired, counting the hit.
+     *
+     * @param key cache key
+     * @return fresh entry, or null if the entry is missing or stale
+     */
+    private Entry freshEntry(String key) {
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached == null || System.nanoTime() - cached.expiresAtNanos >= 0) {
+            return null;
+        }
+        hits.incrementAndGet();
+        bytesSaved.addAndGet(cached.bodyBytes);
+        return cached;
+    }
+
+    /**
+     * Loads a missing or stale entry from the bank on behalf of every caller waiting on the load.
+     * If the calling request is cancelled, the load is cancelled too so that waiting callers retry
+     * it under their own requests.
+     *
+     * @param key         cache key
+     * @param resource    kind of resource
+     * @param url         resource URL
+     * @param accessToken access token issued for the consent
+     * @param decoder     decoder turning the response body into the cached value
+     * @param load        in-flight load registered for the key, completed with the stored entry
+     * @return stored entry
+     * @throws IOException if the bank call fails, returns an error status, or cannot be decoded
+     */
+    private Entry load(String key, Resource resource, String url, String accessToken, BodyDecoder<?> decoder,
+                       CompletableFuture<Entry> load) throws IOException {
+        try {
+            // Another load of the key may have finished between the cache lookup and registering this one.
+            Entry entry = freshEntry(key);
+            if (entry == null) {
+                entry = fetch(key, resource, url, accessToken, decoder);
+            }
+            load.complete(entry);
+            return entry;
+        } catch (IOException | RuntimeException e) {
+            OutboundCallScope scope = OutboundCallScope.current();
+            if (scope != null && scope.isCancelled()) {
+                load.cancel(false);
+            } else {
+                load.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    /**
+     * Reads an entry from the bank, revalidating the stale cached entry when it has validators,
+     * and stores the result.
+     *
+     * @param key         cache key
+     * @param resource    kind of resource
+     * @param url         resource URL
+     * @param accessToken access token issued for the consent
+     * @param decoder     decoder turning the response body into the cached value
+     * @return stored entry
+     * @throws IOException if the bank call fails, returns an error status, or cannot be decoded
+     */
+    private Entry fetch(String key, Resource resource, String url, String accessToken, BodyDecoder<?> decoder)
+            throws IOException {
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        boolean revalidate = cached != null && (cached.etag != null || cached.lastModified != null);
+        Entry fetched = client.get(url, accessToken,
+                revalidate ? cached.etag : null, revalidate ? cached.lastModified : null,
+                (status, headers, body) -> revalidate && status == HTTP_NOT_MODIFIED
+                        ? null
+                        : decode(url, status, headers, body, decoder));
+        long expiresAt = System.nanoTime() + ttlNanos.get(resource);
+        if (fetched == null) {
+            revalidated.incrementAndGet();
+            bytesSaved.addAndGet(cached.bodyBytes);
+            return store(key, new Entry(cached.value, cached.bodyBytes, cached.etag, cached.lastModified, expiresAt));
+        }
+        misses.incrementAndGet();
+        return store(key, new Entry(fetched.value, fetched.bodyBytes, fetched.etag, fetched.lastModified, expiresAt));
+    }
+
+    /**
+     * Discards every cached response read under the given consent.
+     *
+     * @param consentId consent whose responses are discarded
+     */
+    public void invalidateConsent(String consentId) {
+        String prefix = consentId + '|';
+        synchronized (entries) {
+            Iterator<String> keys = entries.keySet().iterator();
+            while (keys.hasNext()) {
+                if (keys.next().startsWith(prefix)) {
+                    keys.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns cache statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public Map<String, Object> getStats() {
+        long served = hits.get() + revalidated.get();
+        long total = served + misses.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled",       enabled);
+        stats.put("entries",       size);
+        stats.put("maxEntries",    maxEntries);
+        stats.put("hits",          hits.get());
+        stats.put("revalidated",   revalidated.get());
+        stats.put("misses",        misses.get());
+        stats.put("coalesced",     coalesced.get());
+        stats.put("hitRatio",      total == 0 ? 0.0 : (double) served / total);
+        stats.put("bytesSaved",    bytesSaved.get());
+        stats.put("evictions",     evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    /**
+     * Decodes a successful response into an entry holding the value and the response validators.
+     *
+     * @param url     resource URL, for error reporting
+     * @param status  HTTP response status code
+     * @param headers response headers
+     * @param body    response body stream
+     * @param decoder decoder for the body
+     * @return entry without an expiry time
+     * @throws IOException if the status is not 2xx or the body cannot be decoded
+     */
+    private static Entry decode(String url, int status, Map<String, String> headers, InputStream body,
+                                BodyDecoder<?> decoder) throws IOException {
+        requireSuccess(url, status);
+        CountingInputStream counting = new CountingInputStream(body);
+        Object value = decoder.decode(counting);
+        return new Entry(value, counting.count, headers.get("ETag"), headers.get("Last-Modified"), 0L);
+    }
+
+    /**
+     * Fails unless the status code is in the 2xx range.
+     *
+     * @param url    resource URL, for error reporting
+     * @param status HTTP response status code
+     * @throws IOException if the status is not 2xx
+     */
+    private static void requireSuccess(String url, int status) throws IOException {
+        if (status < 200 || status >= 300) {
+            throw new IOException("Bank returned HTTP " + status + " for " + url);
+        }
+    }
+
+    /**
+     * Stores an entry, evicting the least recently used entries if the cache is full.
+     *
+     * @param key   cache key
+     * @param entry entry to store
+     * @return the stored entry
+     */
+    private Entry store(String key, Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+            Iterator<String> eldest = entries.keySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        return entry;
+    }
+
+    /** Cached decoded value with its response size, validators, and expiry time. */
+    private static final class Entry {
+
+        private final Object value;
+        private final long bodyBytes;
+        private final String etag;
+        private final String lastModified;
+        private final long expiresAtNanos;
+
+        private Entry(Object value, long bodyBytes, String etag, String lastModified, long expiresAtNanos) {
+            this.value = value;
+            this.bodyBytes = bodyBytes;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    /** Stream wrapper that counts the bytes read through it. */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -22,18 +22,25 @@ import com.wso2.openbanking.demo.constants.OpenBankingConstants;
 import com.wso2.openbanking.demo.exceptions.BankInfoLoadException;
 import com.wso2.openbanking.demo.exceptions.SSLContextCreationException;
 import com.wso2.openbanking.demo.models.Account;
+import com.wso2.openbanking.demo.models.AggregatedAccounts;
+import com.wso2.openbanking.demo.models.AuthFlow;
+import com.wso2.openbanking.demo.models.BankProfile;
 import com.wso2.openbanking.demo.models.Transaction;
 import com.wso2.openbanking.demo.utils.ConfigLoader;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
-import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.reflections.Reflections.log;
 
@@ -42,23 +49,54 @@ public final class AccountService {
 
     private final HttpTlsClient client;
     private final OAuthTokenService oauthService;
-    private String accessToken;
-    private String currentConsentId;
+    private final ConcurrentAccountFetcher fetcher;
+    private final TransactionFetcher transactionFetcher;
+    private final AccountDataCache cache;
+    private final SpendingAnalytics analytics;
+    private final List<BankProfile> banks;
+    private final MultiBankAggregator aggregator;
+
+    /** Listener that ignores loaded accounts. */
+    static final AccountListener NO_LISTENER = account -> { };
 
     private static final DateTimeFormatter ISO_DATETIME_FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
-    private static final DateTimeFormatter DATE_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    /** Receives each account as soon as it has been fully loaded. */
+    @FunctionalInterface
+    public interface AccountListener {
+
+        /**
+         * Called once for every account that loaded successfully, possibly from several threads at once.
+         *
+         * @param account loaded account with its balance and transactions
+         */
+        void onAccount(Account account);
+    }
 
     /**
      * Creates an AccountService with the given HTTP client and OAuth service.
      *
-     * @param client       TLS HTTP client for making API calls
-     * @param oauthService service for obtaining and managing OAuth tokens
+     * @param client             TLS HTTP client for making API calls
+     * @param oauthService       service for obtaining and managing OAuth tokens
+     * @param fetcher            executor for concurrent per-account bank calls
+     * @param transactionFetcher pager for account transactions
+     * @param cache              read-through cache for account reads
+     * @param analytics          spending analytics over loaded accounts, or null if disabled
+     * @param banks              configured banks; the first one is used when no bank is named
+     * @param aggregator         concurrent loader of the accounts of all linked banks
      */
-    private AccountService(HttpTlsClient client, OAuthTokenService oauthService) {
+    private AccountService(HttpTlsClient client, OAuthTokenService oauthService, ConcurrentAccountFetcher fetcher,
+                           TransactionFetcher transactionFetcher, AccountDataCache cache,
+                           SpendingAnalytics analytics, List<BankProfile> banks, MultiBankAggregator aggregator) {
         this.client = client;
         this.oauthService = oauthService;
+        this.fetcher = fetcher;
+        this.transactionFetcher = transactionFetcher;
+        this.cache = cache;
+        this.analytics = analytics;
+        this.banks = new ArrayList<>(banks);
+        this.aggregator = aggregator;
     }
 
     /**
@@ -71,7 +109,33 @@ public final class AccountService {
     public static AccountService create(HttpTlsClient client) throws BankInfoLoadException {
         try {
             OAuthTokenService oauthService = new OAuthTokenService(client);
-            return new AccountService(client, oauthService);
+            ConcurrentAccountFetcher fetcher = new ConcurrentAccountFetcher(
+                    ConfigLoader.getAccountFetchThreads(),
+                    ConfigLoader.getAccountFetchMaxConcurrencyPerBank());
+            Map<AccountDataCache.Resource, Integer> cacheTtls = new EnumMap<>(AccountDataCache.Resource.class);
+            cacheTtls.put(AccountDataCache.Resource.ACCOUNT,      ConfigLoader.getAccountCacheAccountTtlSeconds());
+            cacheTtls.put(AccountDataCache.Resource.BALANCES,     ConfigLoader.getAccountCacheBalancesTtlSeconds());
+            cacheTtls.put(AccountDataCache.Resource.TRANSACTIONS, ConfigLoader.getAccountCacheTransactionsTtlSeconds());
+            AccountDataCache cache = new AccountDataCache(client, ConfigLoader.isAccountCacheEnabled(),
+                    ConfigLoader.getAccountCacheMaxEntries(), cacheTtls);
+            TransactionFetcher transactionFetcher = new TransactionFetcher(cache, fetcher,
+                    ConfigLoader.getTransactionMaxPages(),
+                    ConfigLoader.getTransactionPagesInFlight(),
+                    ConfigLoader.isTransactionDeltaSyncEnabled()
+                            ? new FlowStateStore<>(ConfigLoader.getTransactionSyncTtlSeconds(),
+                                    ConfigLoader.getTransactionSyncMaxAccounts())
+                            : null);
+            SpendingAnalytics analytics = ConfigLoader.isAnalyticsEnabled()
+                    ? new SpendingAnalytics(ConfigLoader.getAnalyticsParallelism(),
+                            ConfigLoader.getAnalyticsTtlSeconds(), ConfigLoader.getAnalyticsMaxConsents(),
+                            ConfigLoader.getAnalyticsTopCounterparties())
+                    : null;
+            List<BankProfile> banks = loadBankProfiles();
+            MultiBankAggregator aggregator = new MultiBankAggregator(banks,
+                    ConfigLoader.getBankAggregateThreads(), ConfigLoader.getBankSessionTtlSeconds(),
+                    ConfigLoader.getBankSessionMaxEntries());
+            return new AccountService(client, oauthService, fetcher, transactionFetcher, cache, analytics,
+                    banks, aggregator);
         } catch (GeneralSecurityException | IOException e) {
             throw new BankInfoLoadException("OAuth token service initialization failed.", e);
         } catch (SSLContextCreationException e) {
@@ -80,52 +144,232 @@ public final class AccountService {
     }
 
     /**
-     * Sets the OAuth access token for authenticated API requests.
+     * Fetches all accounts and their transactions for an authorized consent.
+     *
+     * @param accessToken access token issued for the consent
+     * @param consentId   consent ID the accounts are fetched under
+     * @return list of accounts with transaction data
+     * @throws IOException if any API call fails
+     */
+    public List<Account> createBankInContext(String accessToken, String consentId) throws IOException {
+        return createBankInContext(accessToken, consentId, NO_LISTENER);
+    }
+
+    /**
+     * Fetches all accounts and their transactions for an authorized consent at the default bank,
+     * notifying the listener as each account finishes loading.
      *
-     * @param accessToken valid OAuth access token
+     * @param accessToken access token issued for the consent
+     * @param consentId   consent ID the accounts are fetched under
+     * @param listener    listener notified of each loaded account
+     * @return list of accounts with transaction data
+     * @throws IOException if any API call fails
      */
-    public void setAccessToken(String accessToken) {
-        this.accessToken = accessToken;
+    public List<Account> createBankInContext(String accessToken, String consentId, AccountListener listener)
+            throws IOException {
+        return createBankInContext(getBank(null), accessToken, consentId, null, listener);
     }
 
     /**
-     * Fetches all accounts and their transactions for the current consent.
+     * Fetches all accounts and their transactions for a consent authorized at the given bank,
+     * notifying the listener as each account finishes loading. Every notification happens before
+     * this method returns. The consent is then linked to the bank in the given aggregation, unless
+     * the aggregation has expired in the meantime.
      *
+     * @param bank          bank the consent was authorized at
+     * @param accessToken   access token issued for the consent
+     * @param consentId     consent ID the accounts are fetched under
+     * @param aggregationId aggregation to link the consent into, or null to not link it
+     * @param listener      listener notified of each loaded account
      * @return list of accounts with transaction data
      * @throws IOException if any API call fails
      */
-    public List<Account> createBankInContext() throws IOException {
-        List<String> fetchedAccountIds = fetchAccountIds();
-        return fetchAccountsWithTransactions(fetchedAccountIds);
+    public List<Account> createBankInContext(BankProfile bank, String accessToken, String consentId,
+                                             String aggregationId, AccountListener listener) throws IOException {
+        List<Account> accounts = loadAccounts(bank, accessToken, consentId, listener);
+        if (aggregationId != null && !aggregator.link(aggregationId, bank, accessToken, consentId)) {
+            log.warn("Aggregation expired before consent {} was authorized; the consent is not linked.", consentId);
+        }
+        return accounts;
+    }
+
+    /**
+     * Issues a new aggregation that the banks authorized by one user are linked into.
+     *
+     * @return unguessable aggregation ID
+     */
+    public String openAggregation() {
+        return aggregator.open();
     }
 
     /**
-     * Creates an account consent and returns the OAuth authorization URL.
+     * Returns whether an aggregation was issued by this service and has not expired.
      *
-     * @return authorization redirect URL for the account consent flow
+     * @param aggregationId aggregation ID supplied by the client
+     * @return true if the aggregation is live
+     */
+    public boolean isAggregationOpen(String aggregationId) {
+        return aggregator.isOpen(aggregationId);
+    }
+
+    /**
+     * Loads the accounts of every bank linked in an aggregation at the same time. A bank that
+     * fails or exceeds its timeout is reported in the result instead of failing the whole
+     * aggregation.
+     *
+     * @param aggregationId aggregation to load
+     * @return accounts of the banks that loaded and the outcome of every configured bank, or null
+     *         if the aggregation is unknown or has expired
+     * @throws IOException if interrupted while waiting for the banks
+     */
+    public AggregatedAccounts aggregateAccounts(String aggregationId) throws IOException {
+        return aggregator.aggregate(aggregationId, (bank, accessToken, consentId) ->
+                loadAccounts(bank, accessToken, consentId, NO_LISTENER));
+    }
+
+    /**
+     * Returns the configured bank with the given ID.
+     *
+     * @param bankId bank ID, or null or empty for the default bank
+     * @return bank profile, or null if no bank has the ID
+     */
+    public BankProfile getBank(String bankId) {
+        if (bankId == null || bankId.isEmpty()) {
+            return banks.get(0);
+        }
+        for (BankProfile bank : banks) {
+            if (bank.getId().equals(bankId)) {
+                return bank;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns multi-bank aggregation statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public Map<String, Object> getAggregationStats() {
+        return aggregator.getStats();
+    }
+
+    /**
+     * Fetches the accounts of a consent and brings the consent's spending analytics up to date.
+     *
+     * @param bank        bank the consent was authorized at
+     * @param accessToken access token issued for the consent
+     * @param consentId   consent ID the accounts are fetched under
+     * @param listener    listener notified of each loaded account
+     * @return list of accounts with transaction data
+     * @throws IOException if any API call fails
+     */
+    private List<Account> loadAccounts(BankProfile bank, String accessToken, String consentId,
+                                       AccountListener listener) throws IOException {
+        List<String> fetchedAccountIds = fetchAccountIds(bank, accessToken);
+        List<Account> accounts = fetchAccountsWithTransactions(bank, fetchedAccountIds, accessToken, consentId,
+                listener);
+        if (analytics != null) {
+            try {
+                analytics.update(consentId, accounts);
+            } catch (RuntimeException e) {
+                log.warn("Failed to update spending analytics for consent {}: {}", consentId, e.getMessage());
+            }
+        }
+        return accounts;
+    }
+
+    /**
+     * Returns transaction paging and delta sync statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public Map<String, Object> getTransactionStats() {
+        return transactionFetcher.getStats();
+    }
+
+    /**
+     * Returns account data cache statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public Map<String, Object> getCacheStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Returns the spending report of the accounts last loaded under a consent. The consent must be
+     * linked in the given aggregation, which is issued by this service to the user who authorized
+     * it, so the bank's consent ID alone does not give access to the report.
+     *
+     * @param aggregationId aggregation the consent is linked in
+     * @param consentId     consent to report on
+     * @return report as an ordered map, or null if analytics are disabled, the consent is not
+     *         linked in the aggregation, or no accounts have been loaded under the consent
+     */
+    public Map<String, Object> getSpendingReport(String aggregationId, String consentId) {
+        if (analytics == null || !aggregator.isLinked(aggregationId, consentId)) {
+            return null;
+        }
+        return analytics.getReport(consentId);
+    }
+
+    /**
+     * Returns spending analytics statistics.
+     *
+     * @return ordered map of statistic names to values, with only {@code enabled} when analytics are disabled
+     */
+    public Map<String, Object> getAnalyticsStats() {
+        if (analytics == null) {
+            return Collections.singletonMap("enabled", false);
+        }
+        return analytics.getStats();
+    }
+
+    /**
+     * Creates an account consent at the default bank and returns the flow awaiting its authorization.
+     *
+     * @param state OAuth state identifying the new flow
+     * @return account flow holding the consent ID and authorization redirect URL
      * @throws Exception if consent creation or authorization fails
      */
-    public String processAddAccount() throws Exception {
-        String addAccountUrl = ConfigLoader.getAccountBaseUrl() + OpenBankingConstants.PATH_ACCOUNT_CONSENTS;
+    public AuthFlow processAddAccount(String state) throws Exception {
+        return processAddAccount(state, getBank(null), null);
+    }
+
+    /**
+     * Creates an account consent at the given bank and returns the flow awaiting its authorization.
+     *
+     * @param state         OAuth state identifying the new flow
+     * @param bank          bank to create the consent at
+     * @param aggregationId aggregation the consent is linked into once authorized, or null
+     * @return account flow holding the bank, consent ID, and authorization redirect URL
+     * @throws Exception if consent creation or authorization fails
+     */
+    public AuthFlow processAddAccount(String state, BankProfile bank, String aggregationId) throws Exception {
+        String addAccountUrl = bank.getAccountBaseUrl() + OpenBankingConstants.PATH_ACCOUNT_CONSENTS;
         String consentBody = createAccountConsentBody();
         String token = oauthService.getToken(OpenBankingConstants.SCOPE_ACCOUNTS);
         String consentResponse = oauthService.initializeConsent(token, consentBody, addAccountUrl);
-        currentConsentId = new JSONObject(consentResponse)
+        String consentId = new JSONObject(consentResponse)
                 .getJSONObject(OpenBankingConstants.FIELD_DATA)
                 .getString(OpenBankingConstants.FIELD_CONSENT_ID);
-        return oauthService.authorizeConsent(consentResponse, OpenBankingConstants.SCOPE_ACCOUNTS);
+        String redirectUrl = oauthService.authorizeConsent(consentResponse, OpenBankingConstants.SCOPE_ACCOUNTS, state);
+        return AuthFlow.forAccounts(state, consentId, redirectUrl, bank.getId(), aggregationId);
     }
 
     /**
-     * Fetches the list of account IDs available under the current access token.
+     * Fetches the list of account IDs available under the given access token.
      *
+     * @param bank        bank to read from
+     * @param accessToken access token issued for the consent
      * @return list of account ID strings
      * @throws IOException if the API call fails
      */
-    private List<String> fetchAccountIds() throws IOException {
+    private List<String> fetchAccountIds(BankProfile bank, String accessToken) throws IOException {
         String response = client.getWithAuth(
-                ConfigLoader.getAccountBaseUrl() + OpenBankingConstants.PATH_ACCOUNTS.stripTrailing(),
-                this.accessToken);
+                bank.getAccountBaseUrl() + OpenBankingConstants.PATH_ACCOUNTS.stripTrailing(),
+                accessToken);
         JSONArray accountsArray = new JSONObject(response)
                 .getJSONObject(OpenBankingConstants.FIELD_DATA)
                 .getJSONArray(OpenBankingConstants.FIELD_ACCOUNT);
@@ -138,36 +382,117 @@ public final class AccountService {
 
     /**
      * Fetches full account details and transactions for each account ID.
+     * The name, balance, and transaction calls of every account run concurrently, bounded by the
+     * per-bank concurrency limit. Accounts whose calls fail are left out of the result.
      *
-     * @param accountIds list of account IDs to fetch
-     * @return list of Account objects with transactions
-     * @throws IOException if any API call fails
+     * @param bank        bank to read from
+     * @param accountIds  list of account IDs to fetch
+     * @param accessToken access token issued for the consent
+     * @param consentId   consent ID the accounts are fetched under
+     * @param listener    listener notified of each loaded account
+     * @return list of Account objects with transactions, in the order of the given IDs
+     * @throws IOException if every account failed to load
      */
-    private List<Account> fetchAccountsWithTransactions(List<String> accountIds) throws IOException {
-        List<Account> accounts = new ArrayList<>();
+    private List<Account> fetchAccountsWithTransactions(BankProfile bank, List<String> accountIds,
+                                                        String accessToken, String consentId,
+                                                        AccountListener listener)
+            throws IOException {
+        List<CompletableFuture<Account>> pending = new ArrayList<>();
         for (String accountId : accountIds) {
-            String accountName = fetchAccountName(accountId);
-            double balance = fetchAccountBalance(accountId);
-            List<Transaction> transactions = fetchAccountTransactions(accountId);
-            Account account = new Account(accountId, accountName, balance, transactions);
-            account.setConsentId(currentConsentId);
-            accounts.add(account);
+            pending.add(fetchAccount(bank, accountId, accessToken, consentId).thenApply(account -> {
+                notifyListener(listener, account);
+                return account;
+            }));
+        }
+        List<Account> accounts = new ArrayList<>();
+        IOException firstFailure = null;
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                accounts.add(fetcher.await(pending.get(i)));
+            } catch (IOException e) {
+                log.warn("Failed to load account {}: {}", accountIds.get(i), e.getMessage());
+                if (firstFailure == null) {
+                    firstFailure = e;
+                }
+            }
+        }
+        if (accounts.isEmpty() && firstFailure != null) {
+            throw firstFailure;
         }
-        currentConsentId = null;
         return accounts;
     }
 
+    /**
+     * Schedules the name, balance, and transaction calls of an account and combines their results.
+     *
+     * @param bank        bank to read from
+     * @param accountId   account ID to fetch
+     * @param accessToken access token issued for the consent
+     * @param consentId   consent ID the account was fetched under
+     * @return future completed with the populated Account
+     */
+    private CompletableFuture<Account> fetchAccount(BankProfile bank, String accountId, String accessToken,
+                                                    String consentId) {
+        String bankKey = bank.getAccountBaseUrl();
+        CompletableFuture<String> name =
+                fetcher.submit(bankKey, () -> fetchAccountName(bankKey, accountId, accessToken, consentId));
+        CompletableFuture<Balance> balance =
+                fetcher.submit(bankKey, () -> fetchAccountBalance(bankKey, accountId, accessToken, consentId));
+        CompletableFuture<List<Transaction>> transactions =
+                transactionFetcher.fetch(bankKey, accountId, accessToken, consentId);
+        return name.thenCombine(balance, (accountName, accountBalance) -> {
+                    Account account = new Account(accountId, accountName, accountBalance.amount, null);
+                    account.setBalanceCurrency(accountBalance.currency);
+                    return account;
+                })
+                .thenCombine(transactions, (account, accountTransactions) -> {
+                    account.setTransactions(accountTransactions);
+                    account.setConsentId(consentId);
+                    account.setBank(bank.getName());
+                    return account;
+                });
+    }
+
+    /**
+     * Passes a loaded account to the listener, logging rather than propagating listener failures
+     * so that a faulty listener cannot drop the account from the result.
+     *
+     * @param listener listener to notify
+     * @param account  loaded account
+     */
+    private void notifyListener(AccountListener listener, Account account) {
+        try {
+            listener.onAccount(account);
+        } catch (RuntimeException e) {
+            log.warn("Account listener failed for account {}: {}", account.getId(), e.getMessage());
+        }
+    }
+
     /**
      * Fetches the display name of an account by its ID.
      *
-     * @param accountId account ID to look up
+     * @param baseUrl     account API base URL of the bank
+     * @param accountId   account ID to look up
+     * @param accessToken access token issued for the consent
+     * @param consentId   consent ID the account is read under
      * @return account name or a default value if not found
      * @throws IOException if the API call fails
      */
-    private String fetchAccountName(String accountId) throws IOException {
-        String url = ConfigLoader.getAccountBaseUrl() + OpenBankingConstants.PATH_ACCOUNTS + accountId;
-        String response = client.getWithAuth(url, this.accessToken);
-        JSONObject accountDataNode = new JSONObject(response)
+    private String fetchAccountName(String baseUrl, String accountId, String accessToken, String consentId)
+            throws IOException {
+        String url = baseUrl + OpenBankingConstants.PATH_ACCOUNTS + accountId;
+        return cache.get(consentId, accountId, AccountDataCache.Resource.ACCOUNT, url, accessToken,
+                body -> parseAccountName(new JSONObject(new JSONTokener(body))));
+    }
+
+    /**
+     * Extracts the display name from an account details response.
+     *
+     * @param root account details response
+     * @return account name or a default value if not found
+     */
+    private String parseAccountName(JSONObject root) {
+        JSONObject accountDataNode = root
                 .getJSONObject(OpenBankingConstants.FIELD_DATA)
                 .getJSONArray(OpenBankingConstants.FIELD_ACCOUNT)
                 .getJSONObject(0);
@@ -182,89 +507,35 @@ public final class AccountService {
     /**
      * Fetches the current balance of an account by its ID.
      *
-     * @param accountId account ID to look up
-     * @return account balance as a double
+     * @param baseUrl     account API base URL of the bank
+     * @param accountId   account ID to look up
+     * @param accessToken access token issued for the consent
+     * @param consentId   consent ID the account is read under
+     * @return account balance with the currency it is held in
      * @throws IOException if the API call fails
      */
-    private double fetchAccountBalance(String accountId) throws IOException {
-        String url = ConfigLoader.getAccountBaseUrl() + OpenBankingConstants.PATH_ACCOUNTS
+    private Balance fetchAccountBalance(String baseUrl, String accountId, String accessToken, String consentId)
+            throws IOException {
+        String url = baseUrl + OpenBankingConstants.PATH_ACCOUNTS
                 + accountId + OpenBankingConstants.PATH_BALANCES;
-        String response = client.getWithAuth(url, this.accessToken);
-        String amount = new JSONObject(response)
-                .getJSONObject(OpenBankingConstants.FIELD_DATA)
-                .getJSONArray(OpenBankingConstants.FIELD_BALANCE)
-                .getJSONObject(0)
-                .getJSONObject(OpenBankingConstants.FIELD_AMOUNT)
-                .getString(OpenBankingConstants.FIELD_AMOUNT);
-        return Double.parseDouble(amount);
-    }
-
-    /**
-     * Fetches the transaction list for an account by its ID.
-     *
-     * @param accountId account ID to fetch transactions for
-     * @return list of Transaction objects, or empty list if none found
-     * @throws IOException if the API call fails
-     */
-    private List<Transaction> fetchAccountTransactions(String accountId) throws IOException {
-        String url = ConfigLoader.getAccountBaseUrl() + OpenBankingConstants.PATH_ACCOUNTS
-                + accountId + OpenBankingConstants.PATH_TRANSACTIONS;
-        String response = client.getWithAuth(url, this.accessToken);
-        JSONObject root = new JSONObject(response);
-        if (!root.has(OpenBankingConstants.FIELD_DATA)
-                || !root.getJSONObject(OpenBankingConstants.FIELD_DATA)
-                .has(OpenBankingConstants.FIELD_TRANSACTION)) {
-            return new ArrayList<>();
-        }
-        JSONArray transactionsArray = root.getJSONObject(OpenBankingConstants.FIELD_DATA)
-                .getJSONArray(OpenBankingConstants.FIELD_TRANSACTION);
-        List<Transaction> transactions = new ArrayList<>();
-        for (int i = 0; i < transactionsArray.length(); i++) {
-            transactions.add(parseTransaction(transactionsArray.getJSONObject(i), accountId));
-        }
-        return transactions;
-    }
-
-    /**
-     * Parses a JSON transaction object into a Transaction model.
-     *
-     * @param txn       JSON object representing a single transaction
-     * @param accountId account ID the transaction belongs to
-     * @return populated Transaction object
-     */
-    private Transaction parseTransaction(JSONObject txn, String accountId) {
-        Transaction transaction = new Transaction();
-        transaction.setId(txn.getString(OpenBankingConstants.FIELD_TRANSACTION_ID));
-        transaction.setDate(convertIsoDateTimeToDate(txn.getString(OpenBankingConstants.FIELD_BOOKING_DATE_TIME)));
-        transaction.setReference(txn.getString(OpenBankingConstants.FIELD_TRANSACTION_INFORMATION));
-        JSONObject amountObj = txn.getJSONObject(OpenBankingConstants.FIELD_AMOUNT);
-        transaction.setAmount(amountObj.getString(OpenBankingConstants.FIELD_AMOUNT));
-        transaction.setCurrency(amountObj.getString(OpenBankingConstants.FIELD_CURRENCY));
-        transaction.setCreditDebitStatus(txn.getString(OpenBankingConstants.FIELD_CREDIT_DEBIT_INDICATOR));
-        transaction.setAccount(accountId);
-        return transaction;
+        return cache.get(consentId, accountId, AccountDataCache.Resource.BALANCES, url, accessToken,
+                body -> parseBalance(new JSONObject(new JSONTokener(body))));
     }
 
     /**
-     * Converts an ISO datetime string to a plain date string (yyyy-MM-dd).
+     * Extracts the amount and currency of the first balance in a balances response.
      *
-     * @param isoDateTime ISO 8601 datetime string to convert
-     * @return date string in yyyy-MM-dd format, or the original value on failure
+     * @param root balances response
+     * @return account balance, with a null currency if the bank did not report one
      */
-    private String convertIsoDateTimeToDate(String isoDateTime) {
-        try {
-            return ZonedDateTime.parse(isoDateTime, ISO_DATETIME_FORMATTER).format(DATE_FORMATTER);
-        } catch (Exception e1) {
-            try {
-                return LocalDateTime.parse(isoDateTime, DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-                        .format(DATE_FORMATTER);
-            } catch (Exception e2) {
-                if (isoDateTime.length() >= 10) {
-                    return isoDateTime.substring(0, 10);
-                }
-                return isoDateTime;
-            }
-        }
+    private Balance parseBalance(JSONObject root) {
+        JSONObject amount = root
+                .getJSONObject(OpenBankingConstants.FIELD_DATA)
+                .getJSONArray(OpenBankingConstants.FIELD_BALANCE)
+                .getJSONObject(0)
+                .getJSONObject(OpenBankingConstants.FIELD_AMOUNT);
+        return new Balance(Double.parseDouble(amount.getString(OpenBankingConstants.FIELD_AMOUNT)),
+                amount.optString(OpenBankingConstants.FIELD_CURRENCY, null));
     }
 
     /**
@@ -303,11 +574,64 @@ public final class AccountService {
                 accountId, bankName, consentId);
         String tokenResponse = oauthService.getToken(OpenBankingConstants.SCOPE_ACCOUNTS);
         String token = new JSONObject(tokenResponse).getString("access_token");
-        String revokeUrl = ConfigLoader.getAccountBaseUrl()
+        String revokeUrl = findBankByName(bankName).getAccountBaseUrl()
                 + OpenBankingConstants.PATH_ACCOUNT_CONSENTS + "/" + consentId;
         log.info("[DELETE] Calling revoke URL: {}", revokeUrl);
         boolean success = client.deleteWithAuth(revokeUrl, token);
         log.info("[DELETE] OB backend revocation success: {}", success);
+        if (success) {
+            cache.invalidateConsent(consentId);
+            if (analytics != null) {
+                analytics.invalidateConsent(consentId);
+            }
+            aggregator.unlink(consentId);
+        }
         return success;
     }
+
+    /**
+     * Returns the configured bank whose display name or ID matches the given name.
+     *
+     * @param bankName bank name recorded on an account
+     * @return matching bank, or the default bank if none matches
+     */
+    private BankProfile findBankByName(String bankName) {
+        for (BankProfile bank : banks) {
+            if (bank.getName().equals(bankName) || bank.getId().equals(bankName)) {
+                return bank;
+            }
+        }
+        return banks.get(0);
+    }
+
+    /**
+     * Reads the configured banks. When no banks are listed, a single default bank is built from
+     * the account base URL.
+     *
+     * @return configured banks in configuration order
+     */
+    private static List<BankProfile> loadBankProfiles() {
+        List<BankProfile> banks = new ArrayList<>();
+        for (String bankId : ConfigLoader.getBankIds()) {
+            banks.add(new BankProfile(bankId, ConfigLoader.getBankName(bankId),
+                    ConfigLoader.getBankAccountBaseUrl(bankId), ConfigLoader.getBankTimeoutSeconds(bankId)));
+        }
+        if (banks.isEmpty()) {
+            banks.add(new BankProfile(OpenBankingConstants.DEFAULT_BANK_ID, OpenBankingConstants.DEFAULT_BANK_ID,
+                    ConfigLoader.getAccountBaseUrl(), ConfigLoader.getBankDefaultTimeoutSeconds()));
+        }
+        return banks;
+    }
+
+    /** Amount of an account balance and the currency it is held in. */
+    private static final class Balance {
+
+        private final double amount;
+        private final String currency;
+
+        private Balance(double amount, String currency) {
+            this.amount = amount;
+            this.currency = currency;
+        }
+    }
 }
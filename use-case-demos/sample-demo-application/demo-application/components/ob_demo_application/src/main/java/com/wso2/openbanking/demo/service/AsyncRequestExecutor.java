@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.http.OutboundCallScope;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the blocking work of inbound API requests off the servlet container threads.
+ * The number of requests in flight is bounded, and cancelling a returned future aborts the
+ * outbound bank calls the request has in progress.
+ */
+public final class AsyncRequestExecutor {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    /**
+     * Creates an executor backed by virtual threads when the runtime supports them, or by a fixed
+     * pool of platform threads otherwise.
+     *
+     * @param threads     number of platform threads used when virtual threads are unavailable
+     * @param maxInFlight maximum number of requests running or queued at once
+     */
+    public AsyncRequestExecutor(int threads, int maxInFlight) {
+        this.executor = ConcurrentAccountFetcher.createExecutor(threads, "api-request-");
+        this.permits = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Schedules the work of a request in a new outbound call scope.
+     *
+     * @param call blocking work producing the request result
+     * @param <T>  result type
+     * @return future completed with the result, or exceptionally with the failure; fails with
+     *         {@link RejectedExecutionException} if too many requests are already in flight
+     */
+    public <T> CompletableFuture<T> submit(OutboundCallScope.ScopedCall<T, Exception> call) {
+        if (!permits.tryAcquire()) {
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many requests in flight"));
+        }
+        OutboundCallScope scope = new OutboundCallScope();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                cancelled.incrementAndGet();
+                scope.cancel();
+            }
+        });
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!result.isDone()) {
+                        result.complete(OutboundCallScope.callWithin(scope, call));
+                    }
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            rejected.incrementAndGet();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Returns executor statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight",    maxInFlight - permits.availablePermits());
+        stats.put("maxInFlight", maxInFlight);
+        stats.put("rejected",    rejected.get());
+        stats.put("cancelled",   cancelled.get());
+        return stats;
+    }
+}
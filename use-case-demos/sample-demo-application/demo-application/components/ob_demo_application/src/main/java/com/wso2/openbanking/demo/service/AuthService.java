@@ -21,29 +21,39 @@ package com.wso2.openbanking.demo.service;
 import com.wso2.openbanking.demo.exceptions.AuthorizationException;
 import com.wso2.openbanking.demo.exceptions.PaymentException;
 import com.wso2.openbanking.demo.exceptions.SSLContextCreationException;
+import com.wso2.openbanking.demo.constants.ApiConstants;
 import com.wso2.openbanking.demo.models.Account;
+import com.wso2.openbanking.demo.models.AuthFlow;
+import com.wso2.openbanking.demo.models.AuthFlowResult;
+import com.wso2.openbanking.demo.models.BankProfile;
+import com.wso2.openbanking.demo.models.BatchPaymentResult;
+import com.wso2.openbanking.demo.models.Payment;
 import com.wso2.openbanking.demo.utils.ConfigLoader;
-import com.wso2.openbanking.demo.utils.JwtUtils;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 
-/** Handles OAuth authorization callbacks for account and payment flows. */
+/**
+ * Starts account and payment authorization flows and completes them on the OAuth callback.
+ * Each flow is tracked under its own OAuth state, so concurrent users never share flow data.
+ */
 public final class AuthService {
 
     private static final Logger LOG = LoggerFactory.getLogger(AuthService.class);
+    private static final SecureRandom STATE_RANDOM = new SecureRandom();
+    private static final int STATE_BYTES = 16;
 
     private final AccountService accountService;
     private final PaymentService paymentService;
     private final HttpTlsClient client;
-    private String requestStatus = "accounts";
-    private List<Account> lastFetchedAccounts = new ArrayList<>();
-    private boolean lastPaymentSuccess = false;
+    private final FlowStateStore<AuthFlow> flows;
 
     /**
      * Creates an AuthService with the given account, payment, and HTTP client dependencies.
@@ -59,6 +69,7 @@ public final class AuthService {
         this.accountService = accountService;
         this.paymentService = paymentService;
         this.client = client.deepCopy();
+        this.flows = new FlowStateStore<>(ConfigLoader.getAuthFlowTtlSeconds(), ConfigLoader.getAuthFlowMaxEntries());
         LOG.debug("AuthService instance created successfully.");
     }
 
@@ -79,27 +90,142 @@ public final class AuthService {
     }
 
     /**
-     * Sets the current request status to track the active flow type.
+     * Creates an account consent at the default bank under a new flow and returns the authorization redirect URL.
+     *
+     * @return authorization redirect URL carrying the state of the new flow
+     * @throws Exception if consent creation or authorization fails
+     */
+    public String startAccountFlow() throws Exception {
+        return startAccountFlow(accountService.getBank(null), null).getRedirectUrl();
+    }
+
+    /**
+     * Creates an account consent at the given bank under a new flow. Once authorized, the consent
+     * is linked into the given aggregation, or into a newly issued one if none is given.
+     *
+     * @param bank          bank to create the consent at
+     * @param aggregationId live aggregation issued by an earlier account flow, or null to issue one
+     * @return new flow holding the authorization redirect URL and the aggregation ID
+     * @throws Exception if consent creation or authorization fails
+     */
+    public AuthFlow startAccountFlow(BankProfile bank, String aggregationId) throws Exception {
+        String aggregation = aggregationId != null ? aggregationId : accountService.openAggregation();
+        AuthFlow flow = accountService.processAddAccount(generateState(), bank, aggregation);
+        flows.put(flow.getState(), flow);
+        LOG.debug("Account flow started. Active flows: {}", flows.size());
+        return flow;
+    }
+
+    /**
+     * Creates a payment consent under a new flow. The flow is issued an unguessable payment handle,
+     * under which the payment's status can be read once it has been submitted.
+     *
+     * @param payment        payment to submit once the consent is authorized
+     * @param idempotencyKey key chosen by the client so that a retry reuses the same consent, or null
+     * @return new flow holding the authorization redirect URL and the payment handle
+     * @throws AuthorizationException if consent creation or signing fails
+     * @throws PaymentException       if the idempotency key was already used for a different payment
+     */
+    public AuthFlow startPaymentFlow(Payment payment, String idempotencyKey)
+            throws AuthorizationException, PaymentException {
+        AuthFlow flow = paymentService.processPaymentRequest(payment, generateState(), generateState(),
+                idempotencyKey);
+        flows.put(flow.getState(), flow);
+        LOG.debug("Payment flow started. Active flows: {}", flows.size());
+        return flow;
+    }
+
+    /**
+     * Issues an unguessable ID for a new batch of payments and registers the batch under it.
+     * No consents are created until the batch is submitted with {@link #startBatchPaymentFlow}.
+     *
+     * @param payments payments of the batch, in order
+     * @return batch ID
+     * @throws PaymentException if the batch is too large
+     */
+    public String openBatch(List<Payment> payments) throws PaymentException {
+        String batchId = generateState();
+        paymentService.openBatch(batchId, payments);
+        return batchId;
+    }
+
+    /**
+     * Creates a payment consent under a new flow for every payment of a batch. Submitting again
+     * under the same batch ID starts flows only for the payments whose consent has not been
+     * created yet.
      *
-     * @param status flow type identifier (e.g. "accounts" or "payments")
+     * @param batchId  ID issued by {@link #openBatch}
+     * @param payments payments of the batch, in order
+     * @return outcome of every payment, with the authorization redirect URL of each created consent,
+     *         or null if the given batch is unknown or has expired
+     * @throws PaymentException       if the batch is too large or consent creation is interrupted
+     * @throws AuthorizationException if no token can be obtained for the consents
      */
-    public void setRequestStatus(String status) {
-        LOG.debug("Request status updated: {}", status);
-        this.requestStatus = status;
+    public BatchPaymentResult startBatchPaymentFlow(String batchId, List<Payment> payments)
+            throws PaymentException, AuthorizationException {
+        BatchPaymentResult result = paymentService.processBatchPaymentRequest(
+                batchId, payments, AuthService::generateState, flow -> flows.put(flow.getState(), flow));
+        LOG.debug("Batch payment flows started. Active flows: {}", flows.size());
+        return result;
     }
 
     /**
-     * Processes the OAuth callback code and triggers account or payment handling.
+     * Returns the current outcome of every payment of a batch.
      *
-     * @param code authorization code received from the OAuth callback
-     * @throws AuthorizationException if token exchange or handling fails
+     * @param batchId batch ID issued when the batch was first submitted
+     * @return batch result, or null if the batch is unknown or has expired
+     */
+    public BatchPaymentResult getBatchResult(String batchId) {
+        return paymentService.getBatchResult(batchId);
+    }
+
+    /**
+     * Completes the flow identified by the given state using the OAuth callback code.
+     * A flow can be completed only once; its state is discarded before the code is exchanged.
+     *
+     * @param code  authorization code received from the OAuth callback
+     * @param state OAuth state received with the callback
+     * @return fetched accounts or payment outcome of the flow
+     * @throws AuthorizationException if the state is unknown or expired, or token exchange or handling fails
+     * @throws IOException            if an API call fails during handling
+     */
+    public AuthFlowResult processAuthorizationCallback(String code, String state)
+            throws AuthorizationException, IOException {
+        return processAuthorizationCallback(code, state, AccountService.NO_LISTENER);
+    }
+
+    /**
+     * Completes the flow identified by the given state, notifying the listener of each account as
+     * soon as it has loaded. The listener is not called for payment flows.
+     *
+     * @param code     authorization code received from the OAuth callback
+     * @param state    OAuth state received with the callback
+     * @param listener listener notified of each loaded account
+     * @return fetched accounts or payment outcome of the flow
+     * @throws AuthorizationException if the state is unknown or expired, or token exchange or handling fails
      * @throws IOException            if an API call fails during handling
      */
-    public void processAuthorizationCallback(String code) throws AuthorizationException, IOException {
-        LOG.debug("Processing authorization callback. Request status: {}", requestStatus);
+    public AuthFlowResult processAuthorizationCallback(String code, String state,
+                                                       AccountService.AccountListener listener)
+            throws AuthorizationException, IOException {
+        AuthFlow flow = state == null ? null : flows.take(state);
+        if (flow == null) {
+            LOG.warn("Authorization callback received for an unknown or expired flow.");
+            throw new AuthorizationException("Unknown or expired authorization state");
+        }
+        LOG.debug("Processing authorization callback. Flow type: {}", flow.getType());
         String accessToken = exchangeCodeForToken(code);
         LOG.debug("Access token obtained successfully. Proceeding to handle authorization.");
-        handleAuthorizationSuccess(accessToken);
+        return handleAuthorizationSuccess(accessToken, flow, listener);
+    }
+
+    /**
+     * Returns statistics of the in-flight authorization flows.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public Map<String, Object> getFlowStats() {
+        return flows.getStats();
     }
 
     /**
@@ -112,7 +238,7 @@ public final class AuthService {
     private String exchangeCodeForToken(String code) throws AuthorizationException {
         LOG.debug("Exchanging authorization code for access token.");
         try {
-            String clientAssertion = JwtTokenService.getInstance().createClientAssertion(JwtUtils.generateJti());
+            String clientAssertion = JwtTokenService.getInstance().takeClientAssertion();
             LOG.debug("Client assertion created successfully.");
             String body = buildTokenRequestBody(code, clientAssertion);
             String response = client.postAccessToken(ConfigLoader.getTokenUrl(), body);
@@ -163,24 +289,37 @@ public final class AuthService {
      * Handles post-authorization logic by fetching accounts or processing a payment.
      *
      * @param accessToken valid OAuth access token from the token exchange
-     * @throws AuthorizationException if payment processing fails
+     * @param flow        flow whose consent was authorized
+     * @param listener    listener notified of each loaded account
+     * @return fetched accounts or payment outcome of the flow
+     * @throws AuthorizationException if payment processing fails or the flow type is unknown
      * @throws IOException            if an API call fails
      */
-    private void handleAuthorizationSuccess(String accessToken) throws AuthorizationException, IOException {
-        LOG.debug("Handling authorization success. Request status: {}", requestStatus);
-        accountService.setAccessToken(accessToken);
+    private AuthFlowResult handleAuthorizationSuccess(String accessToken, AuthFlow flow,
+                                                      AccountService.AccountListener listener)
+            throws AuthorizationException, IOException {
+        LOG.debug("Handling authorization success. Flow type: {}", flow.getType());
         try {
-            if ("accounts".equals(requestStatus)) {
+            if (ApiConstants.STATUS_ACCOUNTS.equals(flow.getType())) {
                 LOG.debug("Fetching accounts from bank context.");
-                lastFetchedAccounts = accountService.createBankInContext();
-                LOG.debug("Accounts fetched successfully. Count: {}", lastFetchedAccounts.size());
-            } else if ("payments".equals(requestStatus)) {
+                List<Account> accounts = accountService.createBankInContext(bankOf(flow), accessToken,
+                        flow.getConsentId(), flow.getAggregationId(), listener);
+                // An aggregation that expired while the user was at the bank is not revived, so its
+                // ID is not returned either.
+                String aggregationId = accountService.isAggregationOpen(flow.getAggregationId())
+                        ? flow.getAggregationId()
+                        : null;
+                AuthFlowResult result = AuthFlowResult.forAccounts(accounts, aggregationId);
+                LOG.debug("Accounts fetched successfully. Count: {}", result.getAccounts().size());
+                return result;
+            } else if (ApiConstants.STATUS_PAYMENTS.equals(flow.getType())) {
                 LOG.debug("Processing payment authorization.");
-                lastPaymentSuccess = paymentService.processPaymentAuthorization(accessToken);
-                LOG.debug("Payment authorization completed. Success: {}", lastPaymentSuccess);
-            } else {
-                LOG.warn("Unrecognized request status during authorization handling: {}", requestStatus);
+                boolean success = paymentService.processPaymentAuthorization(accessToken, flow);
+                LOG.debug("Payment authorization completed. Success: {}", success);
+                return AuthFlowResult.forPayment(success, flow.getConsentId(), flow.getPaymentHandle());
             }
+            LOG.warn("Unrecognized flow type during authorization handling: {}", flow.getType());
+            throw new AuthorizationException("Unrecognized flow type: " + flow.getType());
         } catch (PaymentException e) {
             LOG.error("Failed to process payment after successful authorization: {}", e.getMessage(), e);
             throw new AuthorizationException("Failed to add payment after successful authorization", e);
@@ -191,29 +330,24 @@ public final class AuthService {
     }
 
     /**
-     * Returns the current request status.
-     *
-     * @return current flow type identifier
-     */
-    public String getRequestStatus() {
-        return this.requestStatus;
-    }
-
-    /**
-     * Returns a copy of the last fetched accounts list.
+     * Returns the bank an account flow was started at.
      *
-     * @return list of accounts fetched in the last authorization flow
+     * @param flow account flow
+     * @return the flow's bank, or the default bank if it is no longer configured
      */
-    public List<Account> getLastFetchedAccounts() {
-        return new ArrayList<>(lastFetchedAccounts);
+    private BankProfile bankOf(AuthFlow flow) {
+        BankProfile bank = accountService.getBank(flow.getBankId());
+        return bank != null ? bank : accountService.getBank(null);
     }
 
     /**
-     * Returns whether the last payment was processed successfully.
+     * Generates an unguessable OAuth state value for a new flow.
      *
-     * @return true if the last payment succeeded, false otherwise
+     * @return URL-safe random state string
      */
-    public boolean isLastPaymentSuccess() {
-        return lastPaymentSuccess;
+    private static String generateState() {
+        byte[] bytes = new byte[STATE_BYTES];
+        STATE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 }
@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.utils.JwtUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.GeneralSecurityException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of signed client assertions kept ready by a background producer, so that a token request
+ * takes an assertion instead of waiting for a signature. Every assertion is handed out once and is
+ * dropped when too little of its validity remains. The pool grows when requests find it empty and
+ * shrinks when its assertions expire unused.
+ */
+final class ClientAssertionPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClientAssertionPool.class);
+
+    private final AssertionSigner signer;
+    private final int minSize;
+    private final int maxSize;
+    private final long validitySeconds;
+    private final long minRemainingMillis;
+    private final ConcurrentLinkedDeque<Assertion> assertions = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean refillQueued = new AtomicBoolean();
+    private final ScheduledExecutorService producer;
+    private volatile int targetSize;
+    private volatile long signNanos;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong signed = new AtomicLong();
+    private final AtomicLong savedNanos = new AtomicLong();
+    private final AtomicLong windowMisses = new AtomicLong();
+    private final AtomicLong windowExpired = new AtomicLong();
+
+    /** Signs a client assertion. */
+    @FunctionalInterface
+    interface AssertionSigner {
+
+        /**
+         * Creates a signed client assertion.
+         *
+         * @param jti             unique JWT ID of the assertion
+         * @param validitySeconds time from issue until the assertion expires
+         * @return signed client assertion JWT
+         * @throws GeneralSecurityException if signing fails
+         */
+        String sign(String jti, long validitySeconds) throws GeneralSecurityException;
+    }
+
+    /**
+     * Creates a pool and starts filling it.
+     *
+     * @param signer              signs the assertions
+     * @param minSize             smallest number of assertions kept ready
+     * @param maxSize             largest number of assertions kept ready
+     * @param validitySeconds     validity of a pooled assertion
+     * @param minRemainingSeconds validity an assertion must still have to be handed out
+     * @param adjustSeconds       interval at which the pool size is adjusted to demand
+     */
+    ClientAssertionPool(AssertionSigner signer, int minSize, int maxSize, long validitySeconds,
+                        long minRemainingSeconds, long adjustSeconds) {
+        this.signer = signer;
+        this.minSize = Math.max(1, minSize);
+        this.maxSize = Math.max(this.minSize, maxSize);
+        this.validitySeconds = validitySeconds;
+        this.minRemainingMillis = TimeUnit.SECONDS.toMillis(minRemainingSeconds);
+        this.targetSize = this.minSize;
+        this.producer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "client-assertion-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.producer.scheduleWithFixedDelay(this::adjust, adjustSeconds, adjustSeconds, TimeUnit.SECONDS);
+        requestRefill();
+    }
+
+    /**
+     * Takes a ready assertion, or signs one on the calling thread if the pool has none.
+     *
+     * @return signed client assertion JWT, never handed out before
+     * @throws GeneralSecurityException if the pool is empty and signing fails
+     */
+    String take() throws GeneralSecurityException {
+        long now = System.currentTimeMillis();
+        Assertion assertion;
+        while ((assertion = assertions.pollFirst()) != null) {
+            size.decrementAndGet();
+            if (assertion.usableUntilMillis > now) {
+                hits.incrementAndGet();
+                savedNanos.addAndGet(signNanos);
+                requestRefill();
+                return assertion.jwt;
+            }
+            expired.incrementAndGet();
+            windowExpired.incrementAndGet();
+        }
+        misses.incrementAndGet();
+        windowMisses.incrementAndGet();
+        requestRefill();
+        return sign().jwt;
+    }
+
+    /**
+     * Discards every pre-signed assertion and signs new ones, so that assertions carrying settings
+     * from before a configuration change are not handed out. Runs on the producer thread, after any
+     * refill already in progress.
+     */
+    void discardAll() {
+        producer.execute(() -> {
+            while (assertions.pollFirst() != null) {
+                size.decrementAndGet();
+            }
+            refill();
+        });
+    }
+
+    /**
+     * Returns pool statistics, including the signing time taken off token requests.
+     *
+     * @return ordered map of statistic names to values
+     */
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled",     true);
+        stats.put("ready",       size.get());
+        stats.put("targetSize",  targetSize);
+        stats.put("hits",        hits.get());
+        stats.put("misses",      misses.get());
+        stats.put("expired",     expired.get());
+        stats.put("signed",      signed.get());
+        stats.put("signMicros",  TimeUnit.NANOSECONDS.toMicros(signNanos));
+        stats.put("savedMillis", TimeUnit.NANOSECONDS.toMillis(savedNanos.get()));
+        return stats;
+    }
+
+    /** Schedules a refill unless one is already waiting to run. */
+    private void requestRefill() {
+        if (refillQueued.compareAndSet(false, true)) {
+            producer.execute(this::refill);
+        }
+    }
+
+    /** Drops the assertions that can no longer be handed out and signs new ones up to the target size. */
+    private void refill() {
+        refillQueued.set(false);
+        long now = System.currentTimeMillis();
+        Assertion oldest;
+        while ((oldest = assertions.peekFirst()) != null && oldest.usableUntilMillis <= now) {
+            if (assertions.remove(oldest)) {
+                size.decrementAndGet();
+                expired.incrementAndGet();
+                windowExpired.incrementAndGet();
+            }
+        }
+        try {
+            while (size.get() < targetSize) {
+                assertions.addLast(sign());
+                size.incrementAndGet();
+            }
+        } catch (GeneralSecurityException | RuntimeException e) {
+            LOG.warn("Unable to pre-sign client assertions: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Resizes the pool to the demand seen since the last adjustment: doubles the target when
+     * requests found the pool empty, and lowers it by one when assertions expired unused.
+     */
+    private void adjust() {
+        long missed = windowMisses.getAndSet(0);
+        long wasted = windowExpired.getAndSet(0);
+        int target = targetSize;
+        if (missed > 0) {
+            target = (int) Math.min(maxSize, Math.max(target * 2L, target + missed));
+        } else if (wasted > 0) {
+            target = Math.max(minSize, target - 1);
+        }
+        if (target != targetSize) {
+            LOG.debug("Client assertion pool target resized from {} to {}.", targetSize, target);
+            targetSize = target;
+        }
+        refill();
+    }
+
+    /**
+     * Signs a new assertion and updates the moving average of the signing time.
+     *
+     * @return signed assertion
+     * @throws GeneralSecurityException if signing fails
+     */
+    private Assertion sign() throws GeneralSecurityException {
+        long start = System.nanoTime();
+        long issuedAt = System.currentTimeMillis();
+        String jwt = signer.sign(JwtUtils.generateJti(), validitySeconds);
+        long elapsed = System.nanoTime() - start;
+        long previous = signNanos;
+        signNanos = previous == 0 ? elapsed : previous + (elapsed - previous) / 8;
+        signed.incrementAndGet();
+        long usableUntil = issuedAt + TimeUnit.SECONDS.toMillis(validitySeconds) - minRemainingMillis;
+        return new Assertion(jwt, usableUntil);
+    }
+
+    /** Signed assertion and the time until which it may be handed out. */
+    private static final class Assertion {
+
+        private final String jwt;
+        private final long usableUntilMillis;
+
+        private Assertion(String jwt, long usableUntilMillis) {
+            this.jwt = jwt;
+            this.usableUntilMillis = usableUntilMillis;
+        }
+    }
+}
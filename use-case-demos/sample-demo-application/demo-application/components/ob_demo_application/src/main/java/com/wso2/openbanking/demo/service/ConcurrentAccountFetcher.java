@@ -0,0 +1,238 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.http.OutboundCallScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking bank calls concurrently on a bounded executor while limiting how many calls
+ * are in flight against each bank at the same time. Calls over a bank's limit wait in a queue of
+ * that bank rather than on an executor thread, so a slow bank cannot hold threads other banks need.
+ */
+public final class ConcurrentAccountFetcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConcurrentAccountFetcher.class);
+
+    private final ExecutorService executor;
+    private final int maxConcurrentPerBank;
+    private final ConcurrentMap<String, BankLane> bankLanes = new ConcurrentHashMap<>();
+
+    /** A single blocking call against a bank API. */
+    @FunctionalInterface
+    public interface BankCall<T> {
+
+        /**
+         * Performs the call.
+         *
+         * @return call result
+         * @throws IOException if the call fails
+         */
+        T call() throws IOException;
+    }
+
+    /**
+     * Creates a fetcher backed by virtual threads when the runtime supports them, or by a fixed
+     * pool of platform threads otherwise.
+     *
+     * @param threads              number of platform threads used when virtual threads are unavailable
+     * @param maxConcurrentPerBank maximum number of calls in flight against a single bank
+     */
+    public ConcurrentAccountFetcher(int threads, int maxConcurrentPerBank) {
+        this.executor = createExecutor(threads, "account-fetch-");
+        this.maxConcurrentPerBank = maxConcurrentPerBank;
+    }
+
+    /** A scheduled call together with the future it completes. */
+    private static final class QueuedCall {
+
+        private final Runnable task;
+        private final CompletableFuture<?> result;
+
+        QueuedCall(Runnable task, CompletableFuture<?> result) {
+            this.task = task;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Calls of a single bank. At most {@code maxConcurrentPerBank} of them are handed to the
+     * executor at once; the rest wait here and are started one by one as running calls finish.
+     */
+    private final class BankLane {
+
+        private final Queue<QueuedCall> waiting = new ArrayDeque<>();
+        private int running;
+
+        /**
+         * Starts the call if the bank has a free slot, or queues it until one frees up.
+         *
+         * @param call call to run
+         */
+        void schedule(QueuedCall call) {
+            synchronized (this) {
+                if (running >= maxConcurrentPerBank) {
+                    waiting.add(call);
+                    return;
+                }
+                running++;
+            }
+            start(call);
+        }
+
+        /**
+         * Hands a call holding a slot to the executor. When it finishes, its slot passes to the next
+         * waiting call. A call the executor refuses fails and passes its slot on straight away.
+         *
+         * @param call call holding a slot
+         */
+        private void start(QueuedCall call) {
+            while (call != null) {
+                QueuedCall current = call;
+                try {
+                    executor.execute(() -> {
+                        try {
+                            current.task.run();
+                        } finally {
+                            start(release());
+                        }
+                    });
+                    return;
+                } catch (RejectedExecutionException e) {
+                    current.result.completeExceptionally(e);
+                    call = release();
+                }
+            }
+        }
+
+        /**
+         * Frees the slot of a finished call.
+         *
+         * @return next waiting call, which takes over the slot, or null if none is waiting
+         */
+        private synchronized QueuedCall release() {
+            QueuedCall next = waiting.poll();
+            if (next == null) {
+                running--;
+            }
+            return next;
+        }
+    }
+
+    /**
+     * Schedules a bank call, waiting for a free slot in the bank's concurrency limit before it runs.
+     * The call runs in the caller's outbound call scope, so cancelling the caller's request aborts it.
+     *
+     * @param bankKey identifier of the bank the call is made against
+     * @param call    blocking call to perform
+     * @param <T>     call result type
+     * @return future completed with the call result, or exceptionally with the call failure
+     */
+    public <T> CompletableFuture<T> submit(String bankKey, BankCall<T> call) {
+        return submit(bankKey, OutboundCallScope.current(), call);
+    }
+
+    /**
+     * Schedules a bank call in the given outbound call scope. Used when the call is scheduled from a
+     * completion stage, where the scope of the originating request is no longer bound to the thread.
+     *
+     * @param bankKey identifier of the bank the call is made against
+     * @param scope   scope to run the call in, or null to run it outside of any scope
+     * @param call    blocking call to perform
+     * @param <T>     call result type
+     * @return future completed with the call result, or exceptionally with the call failure
+     */
+    public <T> CompletableFuture<T> submit(String bankKey, OutboundCallScope scope, BankCall<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(OutboundCallScope.callWithin(scope, call::call));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+        bankLanes.computeIfAbsent(bankKey, key -> new BankLane()).schedule(new QueuedCall(task, result));
+        return result;
+    }
+
+    /**
+     * Waits for a scheduled call and returns its result, unwrapping the original failure.
+     *
+     * @param future future returned by {@link #submit(String, BankCall)}
+     * @param <T>    call result type
+     * @return call result
+     * @throws IOException if the call failed or the wait was interrupted
+     */
+    public <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new InterruptedIOException("Interrupted waiting for bank call");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Bank call failed", cause);
+        }
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor if available, falling back to a fixed thread pool.
+     *
+     * @param threads          size of the fallback thread pool
+     * @param threadNamePrefix name prefix of the fallback pool threads
+     * @return executor for blocking calls
+     */
+    static ExecutorService createExecutor(int threads, String threadNamePrefix) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            LOG.debug("Using virtual threads for {} tasks.", threadNamePrefix);
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOG.debug("Virtual threads unavailable, using a pool of {} threads for {} tasks.", threads, threadNamePrefix);
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, threadNamePrefix + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
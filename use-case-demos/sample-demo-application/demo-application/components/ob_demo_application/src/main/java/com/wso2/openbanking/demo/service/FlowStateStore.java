@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, concurrent store of short-lived state, such as in-flight authorization flows keyed by
+ * the OAuth {@code state}. Entries expire after a fixed time to live, and once the store
+ * reaches its size cap the oldest entries are evicted first.
+ *
+ * @param <V> type of the stored flow state
+ */
+public final class FlowStateStore<V> {
+
+    private final ConcurrentHashMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry<V>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    /**
+     * Creates a FlowStateStore with the given time to live and size cap.
+     *
+     * @param ttlSeconds time after which an entry is discarded
+     * @param maxEntries maximum number of entries kept at once
+     */
+    public FlowStateStore(long ttlSeconds, int maxEntries) {
+        if (ttlSeconds <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("Flow TTL and size cap must be positive");
+        }
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Stores the value under the given key, replacing any existing entry.
+     * Expired entries are purged first, and the oldest entries are evicted if the store is full.
+     *
+     * @param key   flow identifier
+     * @param value flow state to store
+     */
+    public void put(String key, V value) {
+        Entry<V> entry = new Entry<>(key, value, System.nanoTime() + ttlNanos);
+        entries.put(key, entry);
+        track(entry);
+    }
+
+    /**
+     * Returns the value stored under the given key without removing it.
+     *
+     * @param key flow identifier
+     * @return stored value, or null if absent or expired
+     */
+    public V get(String key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            if (entries.remove(key, entry)) {
+                expired.incrementAndGet();
+            }
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Removes and returns the value stored under the given key, so that each flow can be
+     * completed at most once.
+     *
+     * @param key flow identifier
+     * @return stored value, or null if absent or expired
+     */
+    public V take(String key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            expired.incrementAndGet();
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Returns the number of entries currently held, including any not yet purged after expiring.
+     *
+     * @return entry count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns store statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active",     entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("expired",    expired.get());
+        stats.put("evicted",    evicted.get());
+        return stats;
+    }
+
+    /**
+     * Records a newly stored entry for expiry and eviction, purging expired entries and evicting
+     * the oldest ones if the store is over its size cap.
+     *
+     * @param entry entry just stored
+     */
+    private void track(Entry<V> entry) {
+        insertionOrder.add(entry);
+        purgeExpired();
+        while (entries.size() > maxEntries) {
+            Entry<V> oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            if (entries.remove(oldest.key, oldest)) {
+                evicted.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drops entries from the head of the insertion queue that have expired or were already removed.
+     * All entries share one time to live, so insertion order is also expiry order.
+     */
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        Entry<V> head;
+        while ((head = insertionOrder.peek()) != null) {
+            boolean live = entries.get(head.key) == head;
+            if (live && !head.isExpired(now)) {
+                return;
+            }
+            if (insertionOrder.remove(head) && live && entries.remove(head.key, head)) {
+                expired.incrementAndGet();
+            }
+        }
+    }
+
+    /** Stored value together with its key and expiry time. */
+    private static final class Entry<V> {
+
+        private final String key;
+        private final V value;
+        private final long expiresAtNanos;
+
+        private Entry(String key, V value, long expiresAtNanos) {
+            this.key = key;
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -21,13 +21,16 @@ package com.wso2.openbanking.demo.service;
 import com.wso2.openbanking.demo.exceptions.SSLContextCreationException;
 import com.wso2.openbanking.demo.http.AuthUrlBuilder;
 import com.wso2.openbanking.demo.http.HttpConnection;
-import com.wso2.openbanking.demo.http.SSLContextFactory;
+import com.wso2.openbanking.demo.http.HttpTransport;
+import com.wso2.openbanking.demo.http.HttpTransportFactory;
+import com.wso2.openbanking.demo.http.PoolMetrics;
+import com.wso2.openbanking.demo.http.TlsMaterialRegistry;
 import com.wso2.openbanking.demo.utils.ConfigLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.nio.charset.StandardCharsets;
 
 import javax.net.ssl.SSLContext;
 
@@ -36,11 +39,13 @@ public final class HttpTlsClient {
 
     private static final Logger logger = LoggerFactory.getLogger(HttpTlsClient.class);
 
-    private static final String HEADER_CONTENT_TYPE  = "Content-Type";
-    private static final String HEADER_ACCEPT        = "Accept";
-    private static final String HEADER_AUTHORIZATION = "Authorization";
-    private static final String HEADER_FAPI_ID       = "x-fapi-financial-id";
-    private static final String HEADER_IDEMPOTENCY   = "x-idempotency-key";
+    private static final String HEADER_CONTENT_TYPE      = "Content-Type";
+    private static final String HEADER_ACCEPT            = "Accept";
+    private static final String HEADER_AUTHORIZATION     = "Authorization";
+    private static final String HEADER_FAPI_ID           = "x-fapi-financial-id";
+    private static final String HEADER_IDEMPOTENCY       = "x-idempotency-key";
+    private static final String HEADER_IF_NONE_MATCH     = "If-None-Match";
+    private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
 
     private static final String MEDIA_JSON            = "application/json";
     private static final String MEDIA_JSON_UTF8       = "application/json; charset=UTF-8";
@@ -48,9 +53,15 @@ public final class HttpTlsClient {
 
     private static final String BEARER_PREFIX = "Bearer ";
 
+    private static final String ENDPOINT_TOKEN    = "token";
+    private static final String ENDPOINT_CONSENT  = "consent";
+    private static final String ENDPOINT_ACCOUNTS = "accounts";
+    private static final String ENDPOINT_PAYMENTS = "payments";
+    private static final String ENDPOINT_REVOKE   = "revoke";
+
     private final String certPath;
     private final String keyPath;
-    private final SSLContext sslContext;
+    private final HttpTransport transport;
 
     /**
      * Creates an {@link HttpTlsClient} using the provided certificate and private key paths.
@@ -61,25 +72,50 @@ public final class HttpTlsClient {
      */
     public HttpTlsClient(String certPath, String keyPath)
             throws SSLContextCreationException {
+        this(certPath, keyPath,
+                HttpTransportFactory.create(TlsMaterialRegistry.getSslContext(certPath, keyPath)));
+    }
+
+    /**
+     * Creates an {@link HttpTlsClient} that sends requests over an existing transport.
+     *
+     * @param certPath  path to the PEM-encoded certificate file
+     * @param keyPath   path to the PEM-encoded private key file
+     * @param transport transport bound to the SSL context of the given identity
+     */
+    private HttpTlsClient(String certPath, String keyPath, HttpTransport transport) {
         this.certPath = certPath;
         this.keyPath = keyPath;
-        this.sslContext = SSLContextFactory.create(certPath, keyPath);
+        this.transport = transport;
     }
 
     /**
      * Creates a new {@link HttpTlsClient} instance using the same TLS credentials as this instance.
-     * Since {@link SSLContext} is not cloneable, a fresh context is initialized from the
-     * stored credential paths, ensuring the caller retains no shared mutable reference.
+     * While the {@link TlsMaterialRegistry} is enabled the copy shares this client's transport,
+     * and with it the {@link SSLContext}, connection pool, and TLS session cache. Otherwise a
+     * fresh context is initialized from the stored credential paths.
      *
-     * @return a new {@link HttpTlsClient} backed by a fresh {@link SSLContext}
-     * @throws SSLContextCreationException if the TLS context fails to initialize
+     * @return a new {@link HttpTlsClient} for the same identity
+     * @throws SSLContextCreationException if a fresh TLS context fails to initialize
      */
     public HttpTlsClient deepCopy() throws SSLContextCreationException {
+        if (TlsMaterialRegistry.isEnabled()) {
+            return new HttpTlsClient(this.certPath, this.keyPath, this.transport);
+        }
         return new HttpTlsClient(this.certPath, this.keyPath);
     }
 
+    /**
+     * Returns the connection pool and handshake metrics of the underlying transport.
+     *
+     * @return current transport metrics
+     */
+    public PoolMetrics getPoolMetrics() {
+        return transport.getPoolMetrics();
+    }
+
     public String postJwt(String url, String body) throws IOException {
-        return HttpConnection.post(url, sslContext)
+        return HttpConnection.post(url, transport).forEndpoint(ENDPOINT_TOKEN)
                 .addHeader(HEADER_CONTENT_TYPE, MEDIA_FORM_URLENCODED)
                 .addHeader(HEADER_ACCEPT, MEDIA_JSON)
                 .withBody(body)
@@ -87,7 +123,7 @@ public final class HttpTlsClient {
     }
 
     public String postAccessToken(String url, String body) throws IOException {
-        return HttpConnection.post(url, sslContext)
+        return HttpConnection.post(url, transport).forEndpoint(ENDPOINT_TOKEN)
                 .addHeader(HEADER_CONTENT_TYPE, MEDIA_FORM_URLENCODED)
                 .addHeader("Cache-Control", "no-cache")
                 .withBody(body)
@@ -96,93 +132,156 @@ public final class HttpTlsClient {
 
     public String postConsentInit(String url, String body, String token) throws IOException {
         String fapiId = ConfigLoader.getFapiFinancialId();
-        if (logger.isInfoEnabled()) {
-            logger.info("Consent initiation request send {}", url);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Consent initiation request send {}", url);
         }
-        String response = HttpConnection.post(url, sslContext)
+        String response = HttpConnection.post(url, transport).forEndpoint(ENDPOINT_CONSENT)
                 .addHeader(HEADER_AUTHORIZATION, BEARER_PREFIX + token)
                 .addHeader(HEADER_FAPI_ID, fapiId)
                 .addHeader(HEADER_CONTENT_TYPE, MEDIA_JSON)
                 .withBody(body)
                 .execute();
-        if (logger.isInfoEnabled()) {
-            logger.info("Consent initiation response received {}", url);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Consent initiation response received {}", url);
         }
         return response;
     }
 
-    public String postConsentAuthRequest(String requestObjectJwt, String clientId, String scope) {
-        return AuthUrlBuilder.build(requestObjectJwt, clientId, scope);
+    public String postConsentAuthRequest(String requestObjectJwt, String clientId, String scope, String state) {
+        return AuthUrlBuilder.build(requestObjectJwt, clientId, scope, state);
     }
 
     public String getWithAuth(String url, String token) throws IOException {
         String fapiId = ConfigLoader.getFapiFinancialId();
-        if (logger.isInfoEnabled()) {
-            logger.info("Request send, {}", url);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Request send, {}", url);
         }
-        String response = HttpConnection.get(url, sslContext)
+        HttpConnection request = HttpConnection.get(url, transport).forEndpoint(ENDPOINT_ACCOUNTS)
                 .addHeader(HEADER_FAPI_ID, fapiId)
                 .addHeader(HEADER_AUTHORIZATION, BEARER_PREFIX + token)
                 .addHeader(HEADER_ACCEPT, MEDIA_JSON)
-                .addHeader(HEADER_CONTENT_TYPE, MEDIA_JSON_UTF8)
-                .execute();
-        if (logger.isInfoEnabled()) {
-            logger.info("Response received from bank, {}", url);
+                .addHeader(HEADER_CONTENT_TYPE, MEDIA_JSON_UTF8);
+        String response = RequestHedger.getInstance().send(url, request,
+                (statusCode, headers, body) -> new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Response received from bank, {}", url);
         }
         return response;
     }
 
-    public String postPaymentConsentInit(String url, String body, String token) throws IOException {
-        String idempotencyKey = UUID.randomUUID().toString();
+    /**
+     * Sends an authenticated GET that the bank may answer with 304 Not Modified when the resource
+     * still matches the given validators. The response body is streamed to the reader.
+     *
+     * @param url          resource URL
+     * @param token        bearer access token
+     * @param etag         entity tag of the cached copy, or null
+     * @param lastModified Last-Modified value of the cached copy, or null
+     * @param reader       reader consuming the response status, validator headers, and body
+     * @param <T>          type of the value read from the response
+     * @return value returned by the reader
+     * @throws IOException if the request fails or the response cannot be read
+     */
+    public <T> T getWithAuthConditional(String url, String token, String etag, String lastModified,
+                                        HttpTransport.ResponseReader<T> reader) throws IOException {
         String fapiId = ConfigLoader.getFapiFinancialId();
-        if (logger.isInfoEnabled()) {
-            logger.info("Payment consent request send, {}", url);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Conditional request send, {}", url);
         }
-        String response = HttpConnection.post(url, sslContext)
-                .addHeader(HEADER_AUTHORIZATION, BEARER_PREFIX + token)
+        HttpConnection request = HttpConnection.get(url, transport).forEndpoint(ENDPOINT_ACCOUNTS)
                 .addHeader(HEADER_FAPI_ID, fapiId)
-                .addHeader(HEADER_CONTENT_TYPE, MEDIA_JSON)
-                .addHeader(HEADER_IDEMPOTENCY, idempotencyKey)
-                .withBody(body)
-                .execute();
-        if (logger.isInfoEnabled()) {
-            logger.info("Payment consent response received, {}", url);
+                .addHeader(HEADER_AUTHORIZATION, BEARER_PREFIX + token)
+                .addHeader(HEADER_ACCEPT, MEDIA_JSON)
+                .addHeader(HEADER_CONTENT_TYPE, MEDIA_JSON_UTF8);
+        if (etag != null) {
+            request.addHeader(HEADER_IF_NONE_MATCH, etag);
+        }
+        if (lastModified != null) {
+            request.addHeader(HEADER_IF_MODIFIED_SINCE, lastModified);
+        }
+        T result = RequestHedger.getInstance().send(url, request, reader);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Conditional response received from bank, {}", url);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a payment consent under the given idempotency key, so that a retried request with the
+     * same key and body is recognised by the bank instead of creating a second consent. A request
+     * whose response is already in the {@link IdempotencyLedger} is answered from the ledger.
+     *
+     * @param url            payment consent endpoint URL
+     * @param body           consent request body
+     * @param token          client credentials access token
+     * @param idempotencyKey value sent as {@code x-idempotency-key}
+     * @return consent response body
+     * @throws IOException if the request fails
+     */
+    public String postPaymentConsentInit(String url, String body, String token, String idempotencyKey)
+            throws IOException {
+        String fapiId = ConfigLoader.getFapiFinancialId();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Payment consent request send, {}", url);
+        }
+        String response = IdempotencyLedger.getInstance().execute(idempotencyKey, url, body,
+                () -> HttpConnection.post(url, transport).forEndpoint(ENDPOINT_CONSENT)
+                        .addHeader(HEADER_AUTHORIZATION, BEARER_PREFIX + token)
+                        .addHeader(HEADER_FAPI_ID, fapiId)
+                        .addHeader(HEADER_CONTENT_TYPE, MEDIA_JSON)
+                        .addHeader(HEADER_IDEMPOTENCY, idempotencyKey)
+                        .withBody(body)
+                        .executeForResponse());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Payment consent response received, {}", url);
         }
         return response;
     }
 
-    public String postPayments(String url, String body, String token) throws IOException {
-        String idempotencyKey = UUID.randomUUID().toString();
+    /**
+     * Submits a payment under the given idempotency key, so that a retried submission with the same
+     * key and body is recognised by the bank instead of paying twice. A submission whose response
+     * is already in the {@link IdempotencyLedger} is answered from the ledger.
+     *
+     * @param url            payment submission endpoint URL
+     * @param body           payment request body
+     * @param token          access token authorized for the payment consent
+     * @param idempotencyKey value sent as {@code x-idempotency-key}
+     * @return payment response body
+     * @throws IOException if the request fails
+     */
+    public String postPayments(String url, String body, String token, String idempotencyKey) throws IOException {
         String fapiId = ConfigLoader.getFapiFinancialId();
-        if (logger.isInfoEnabled()) {
-            logger.info("Payment request send, {}", url);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Payment request send, {}", url);
         }
-        String response = HttpConnection.post(url, sslContext)
-                .addHeader(HEADER_FAPI_ID, fapiId)
-                .addHeader(HEADER_AUTHORIZATION, BEARER_PREFIX + token)
-                .addHeader(HEADER_ACCEPT, MEDIA_JSON)
-                .addHeader(HEADER_CONTENT_TYPE, MEDIA_JSON_UTF8)
-                .addHeader(HEADER_IDEMPOTENCY, idempotencyKey)
-                .withBody(body)
-                .execute();
-        if (logger.isInfoEnabled()) {
-            logger.info("Payment submission response received, {}", url);
+        String response = IdempotencyLedger.getInstance().execute(idempotencyKey, url, body,
+                () -> HttpConnection.post(url, transport).forEndpoint(ENDPOINT_PAYMENTS)
+                        .addHeader(HEADER_FAPI_ID, fapiId)
+                        .addHeader(HEADER_AUTHORIZATION, BEARER_PREFIX + token)
+                        .addHeader(HEADER_ACCEPT, MEDIA_JSON)
+                        .addHeader(HEADER_CONTENT_TYPE, MEDIA_JSON_UTF8)
+                        .addHeader(HEADER_IDEMPOTENCY, idempotencyKey)
+                        .withBody(body)
+                        .executeForResponse());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Payment submission response received, {}", url);
         }
         return response;
     }
 
     public boolean deleteWithAuth(String url, String token) throws IOException {
         String fapiId = ConfigLoader.getFapiFinancialId();
-        if (logger.isInfoEnabled()) {
-            logger.info("Consent revocation request send, {}", url);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Consent revocation request send, {}", url);
         }
-        int statusCode = HttpConnection.delete(url, sslContext)
+        int statusCode = HttpConnection.delete(url, transport).forEndpoint(ENDPOINT_REVOKE)
                 .addHeader(HEADER_FAPI_ID, fapiId)
                 .addHeader(HEADER_AUTHORIZATION, BEARER_PREFIX + token)
                 .addHeader(HEADER_ACCEPT, MEDIA_JSON)
                 .executeAndGetStatus();
-        if (logger.isInfoEnabled()) {
-            logger.info("Consent revocation response received, {}", url);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Consent revocation response received, {}", url);
         }
         return statusCode >= 200 && statusCode < 300;
     }
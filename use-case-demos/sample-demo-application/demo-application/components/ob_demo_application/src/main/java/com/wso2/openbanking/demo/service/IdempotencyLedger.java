@@ -0,0 +1,471 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.exceptions.IdempotencyConflictException;
+import com.wso2.openbanking.demo.http.TransportResponse;
+import com.wso2.openbanking.demo.utils.ConfigLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the successful responses of idempotent payment requests by idempotency key.
+ * A request repeated under a recorded key is answered from the ledger without a network call,
+ * and concurrent requests under the same key share a single call. Records are appended to a
+ * file so they survive a restart; each time the file has doubled in size since it was last
+ * compacted it is rewritten without the expired records. The file holds full payment consent and
+ * submission responses, so it is only written where it was explicitly configured, and on POSIX
+ * file systems it and its directories are readable by the owner only.
+ */
+public final class IdempotencyLedger {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyLedger.class);
+
+    private static final char FIELD_SEPARATOR = '\t';
+    private static final char KEY_SEPARATOR = '\u001f';
+    private static final int COMPACTION_FACTOR = 2;
+    private static final Set<PosixFilePermission> OWNER_FILE = PosixFilePermissions.fromString("rw-------");
+    private static final Set<PosixFilePermission> OWNER_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+
+    private static IdempotencyLedger instance;
+
+    private final ConcurrentMap<String, Record> records = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final Path path;
+    private final boolean fsync;
+    private final int compactionThreshold;
+    private final Object fileLock = new Object();
+    private FileChannel channel;
+    private int fileRecords;
+    private int nextCompaction;
+
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+
+    /** Sends a request under an idempotency key. */
+    @FunctionalInterface
+    public interface Exchange {
+
+        /**
+         * Sends the request.
+         *
+         * @return response received from the bank
+         * @throws IOException if the request fails
+         */
+        TransportResponse send() throws IOException;
+    }
+
+    /**
+     * Creates a ledger.
+     *
+     * @param path                file records are appended to, or null to keep them in memory only
+     * @param ttlSeconds          time a recorded response is replayed for
+     * @param fsync               whether every record is forced to disk before the response is returned
+     * @param compactionThreshold minimum number of records in the file before it is compacted
+     */
+    IdempotencyLedger(Path path, long ttlSeconds, boolean fsync, int compactionThreshold) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.fsync = fsync;
+        this.compactionThreshold = compactionThreshold;
+        this.path = path != null ? open(path) : null;
+    }
+
+    /**
+     * Returns the shared ledger, creating it from configuration if it does not exist.
+     *
+     * @return shared IdempotencyLedger instance
+     */
+    public static synchronized IdempotencyLedger getInstance() {
+        if (instance == null) {
+            boolean enabled = ConfigLoader.isIdempotencyLedgerEnabled();
+            String configured = enabled ? ConfigLoader.getIdempotencyLedgerPath() : null;
+            if (enabled && configured == null) {
+                LOG.warn("No idempotency ledger path is configured; recorded payment responses are kept in memory "
+                        + "only and do not survive a restart.");
+            }
+            Path path = configured != null ? Paths.get(configured) : null;
+            instance = new IdempotencyLedger(path,
+                    ConfigLoader.getIdempotencyTtlSeconds(),
+                    ConfigLoader.isIdempotencyLedgerFsync(),
+                    ConfigLoader.getIdempotencyCompactionThreshold());
+        }
+        return instance;
+    }
+
+    /**
+     * Derives an idempotency key from values that stay the same when a request is retried.
+     *
+     * @param parts values identifying the request, such as a consent ID and the payment initiation
+     * @return name-based UUID string
+     */
+    public static String deriveKey(String... parts) {
+        String name = String.join(String.valueOf(KEY_SEPARATOR), parts);
+        return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Sends a request under an idempotency key unless a response for it is already recorded.
+     * Only successful responses are recorded; a failed request may be retried under the same key.
+     *
+     * @param key      idempotency key sent with the request
+     * @param url      request URL
+     * @param body     request body
+     * @param exchange sends the request when no response is recorded
+     * @return recorded or received response body
+     * @throws IdempotencyConflictException if the key was recorded for a different request
+     * @throws IOException                  if the request fails
+     */
+    public String execute(String key, String url, String body, Exchange exchange) throws IOException {
+        String fingerprint = fingerprint(url, body);
+        while (true) {
+            Record record = lookup(key);
+            if (record != null) {
+                if (!record.fingerprint.equals(fingerprint)) {
+                    conflicts.incrementAndGet();
+                    throw new IdempotencyConflictException(
+                            "Idempotency key " + key + " was already used for a different request");
+                }
+                replayed.incrementAndGet();
+                return record.response;
+            }
+            CompletableFuture<Void> call = new CompletableFuture<>();
+            CompletableFuture<Void> existing = inFlight.putIfAbsent(key, call);
+            if (existing != null) {
+                coalesced.incrementAndGet();
+                await(existing);
+                continue;
+            }
+            try {
+                TransportResponse response = exchange.send();
+                if (response.isSuccessful()) {
+                    record(key, new Record(fingerprint, response.getBody(), System.currentTimeMillis()));
+                }
+                return response.getBody();
+            } finally {
+                inFlight.remove(key, call);
+                call.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Returns ledger statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("persistent",  path != null);
+        stats.put("records",     records.size());
+        stats.put("replayed",    replayed.get());
+        stats.put("coalesced",   coalesced.get());
+        stats.put("recorded",    recorded.get());
+        stats.put("conflicts",   conflicts.get());
+        stats.put("compactions", compactions.get());
+        return stats;
+    }
+
+    /**
+     * Returns the unexpired record for a key.
+     *
+     * @param key idempotency key
+     * @return record, or null if none is recorded or it has expired
+     */
+    private Record lookup(String key) {
+        Record record = records.get(key);
+        if (record != null && record.isExpired(System.currentTimeMillis(), ttlMillis)) {
+            records.remove(key, record);
+            return null;
+        }
+        return record;
+    }
+
+    /**
+     * Waits for a call started under the same key by another caller.
+     *
+     * @param call in-flight call
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    private static void await(CompletableFuture<Void> call) throws InterruptedIOException {
+        try {
+            call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for idempotent request");
+        } catch (ExecutionException e) {
+            // The call never completes exceptionally; the caller re-checks the ledger either way.
+        }
+    }
+
+    /**
+     * Records a response and appends it to the ledger file.
+     *
+     * @param key    idempotency key
+     * @param record response to record
+     */
+    private void record(String key, Record record) {
+        records.put(key, record);
+        recorded.incrementAndGet();
+        if (path == null) {
+            return;
+        }
+        synchronized (fileLock) {
+            try {
+                write(channel, key, record);
+                if (fsync) {
+                    channel.force(false);
+                }
+                if (++fileRecords >= nextCompaction) {
+                    compact();
+                }
+            } catch (IOException e) {
+                LOG.warn("Failed to append to idempotency ledger {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Loads the records of the ledger file and opens it for appending. The ledger falls back to
+     * memory only if the file cannot be used.
+     *
+     * @param file ledger file
+     * @return the file, or null if it cannot be used
+     */
+    private Path open(Path file) {
+        synchronized (fileLock) {
+            try {
+                if (file.getParent() != null) {
+                    if (isPosix(file.getParent())) {
+                        Files.createDirectories(file.getParent(),
+                                PosixFilePermissions.asFileAttribute(OWNER_DIRECTORY));
+                    } else {
+                        Files.createDirectories(file.getParent());
+                    }
+                }
+                if (Files.exists(file) && isPosix(file)) {
+                    Files.setPosixFilePermissions(file, OWNER_FILE);
+                }
+                load(file);
+                channel = openOwnerOnly(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+                LOG.debug("Idempotency ledger {} opened with {} records.", file, records.size());
+                return file;
+            } catch (IOException e) {
+                LOG.warn("Idempotency ledger {} is unavailable, keeping records in memory only: {}",
+                        file, e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Reads the unexpired records of the ledger file. A line torn by a crash while it was being
+     * written is skipped.
+     *
+     * @param file ledger file
+     * @throws IOException if the file cannot be read
+     */
+    private void load(Path file) throws IOException {
+        long now = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                fileRecords++;
+                String[] fields = line.split(String.valueOf(FIELD_SEPARATOR), -1);
+                if (fields.length != 4) {
+                    continue;
+                }
+                try {
+                    Record record = new Record(fields[1],
+                            new String(Base64.getDecoder().decode(fields[3]), StandardCharsets.UTF_8),
+                            Long.parseLong(fields[2]));
+                    if (!record.isExpired(now, ttlMillis)) {
+                        records.put(fields[0], record);
+                    }
+                } catch (IllegalArgumentException e) {
+                    LOG.debug("Skipping unreadable idempotency ledger record.");
+                }
+            }
+        } catch (NoSuchFileException e) {
+            nextCompaction = compactionThreshold;
+            return;
+        }
+        compactTo(file);
+    }
+
+    /**
+     * Rewrites the ledger file with only the unexpired records and reopens it for appending.
+     *
+     * @throws IOException if the file cannot be rewritten
+     */
+    private void compact() throws IOException {
+        channel.close();
+        try {
+            compactTo(path);
+        } finally {
+            channel = openOwnerOnly(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * Writes the unexpired records to a temporary file and atomically replaces the ledger file with it.
+     *
+     * @param file ledger file
+     * @throws IOException if the file cannot be rewritten
+     */
+    private void compactTo(Path file) throws IOException {
+        long now = System.currentTimeMillis();
+        Path temp = file.resolveSibling(file.getFileName() + ".compact");
+        List<Map.Entry<String, Record>> live = new ArrayList<>(records.entrySet());
+        int written = 0;
+        Files.deleteIfExists(temp);
+        try (FileChannel out = openOwnerOnly(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            for (Map.Entry<String, Record> entry : live) {
+                if (entry.getValue().isExpired(now, ttlMillis)) {
+                    records.remove(entry.getKey(), entry.getValue());
+                } else {
+                    write(out, entry.getKey(), entry.getValue());
+                    written++;
+                }
+            }
+            out.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        fileRecords = written;
+        nextCompaction = Math.max(compactionThreshold, COMPACTION_FACTOR * written);
+        compactions.incrementAndGet();
+        LOG.debug("Idempotency ledger {} compacted to {} records.", file, written);
+    }
+
+    /**
+     * Opens a file channel, creating the file readable and writable by its owner only where the
+     * file system supports POSIX permissions.
+     *
+     * @param file    file to open
+     * @param options open options
+     * @return open channel
+     * @throws IOException if the file cannot be opened
+     */
+    private static FileChannel openOwnerOnly(Path file, OpenOption... options) throws IOException {
+        Set<OpenOption> openOptions = new HashSet<>(Arrays.asList(options));
+        if (isPosix(file)) {
+            FileAttribute<Set<PosixFilePermission>> ownerOnly = PosixFilePermissions.asFileAttribute(OWNER_FILE);
+            return FileChannel.open(file, openOptions, ownerOnly);
+        }
+        return FileChannel.open(file, openOptions);
+    }
+
+    private static boolean isPosix(Path file) {
+        return file.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    /**
+     * Appends one record as a single line.
+     *
+     * @param out    channel to write to
+     * @param key    idempotency key
+     * @param record record to write
+     * @throws IOException if the write fails
+     */
+    private static void write(FileChannel out, String key, Record record) throws IOException {
+        String line = key + FIELD_SEPARATOR + record.fingerprint + FIELD_SEPARATOR + record.recordedAtMillis
+                + FIELD_SEPARATOR
+                + Base64.getEncoder().encodeToString(record.response.getBytes(StandardCharsets.UTF_8)) + '\n';
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * Returns a digest of a request, used to tell a repeated request from a different one under the same key.
+     *
+     * @param url  request URL
+     * @param body request body
+     * @return Base64-encoded SHA-256 digest of the URL and body
+     */
+    private static String fingerprint(String url, String body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(url.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(body.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /** Response recorded for an idempotency key, with a digest of the request that produced it. */
+    private static final class Record {
+
+        private final String fingerprint;
+        private final String response;
+        private final long recordedAtMillis;
+
+        private Record(String fingerprint, String response, long recordedAtMillis) {
+            this.fingerprint = fingerprint;
+            this.response = response;
+            this.recordedAtMillis = recordedAtMillis;
+        }
+
+        private boolean isExpired(long nowMillis, long ttlMillis) {
+            return nowMillis - recordedAtMillis >= ttlMillis;
+        }
+    }
+}
@@ -33,6 +33,15 @@ public class JwtHeader {
         this.typ = typ;
     }
 
+    /**
+     * Returns a key that is equal for headers with the same alg, kid, and typ values.
+     *
+     * @return cache key for the encoded form of this header
+     */
+    String cacheKey() {
+        return alg + '\u0000' + kid + '\u0000' + typ;
+    }
+
     public String toJson() {
         return new JSONObject()
                 .put("alg", alg)
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Signs compact JWTs with RSA-PSS using a pool of pre-initialised {@link Signature} instances.
+ * Encoded header segments are cached, since the same few headers are used for every token.
+ */
+final class JwtSigner {
+
+    private static final String SIGNATURE_ALGORITHM = "RSASSA-PSS";
+    private static final String HASH_ALGORITHM      = "SHA-256";
+    private static final String MGF_ALGORITHM       = "MGF1";
+    private static final int    SALT_LENGTH         = 32;
+    private static final int    TRAILER_FIELD       = 1;
+    private static final int    MAX_IDLE_SIGNERS    = 16;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final PrivateKey privateKey;
+    private final Queue<Signature> idleSigners = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final ConcurrentMap<String, String> encodedHeaders = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a signer for the given private key.
+     *
+     * @param privateKey RSA key used to sign tokens
+     * @throws GeneralSecurityException if RSA-PSS signing is unavailable or the key is unusable
+     */
+    JwtSigner(PrivateKey privateKey) throws GeneralSecurityException {
+        this.privateKey = privateKey;
+        release(newSignature());
+    }
+
+    /**
+     * Builds a signed JWT from the given header and payload JSON.
+     *
+     * @param header      JWT header
+     * @param payloadJson JSON string representing the JWT payload
+     * @return signed JWT in the format {@code header.payload.signature}
+     * @throws GeneralSecurityException if signing fails
+     */
+    String sign(JwtHeader header, String payloadJson) throws GeneralSecurityException {
+        String encodedHeader  = encodedHeaders.computeIfAbsent(header.cacheKey(),
+                key -> encode(header.toJson().getBytes(StandardCharsets.UTF_8)));
+        String encodedPayload = encode(payloadJson.getBytes(StandardCharsets.UTF_8));
+        String signingInput   = encodedHeader + "." + encodedPayload;
+        return signingInput + "." + encode(signBytes(signingInput.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Signs the given bytes with a pooled signature instance.
+     * An instance that fails mid-operation is in an unknown state and is not returned to the pool.
+     *
+     * @param data bytes to sign
+     * @return raw RSA-PSS signature
+     * @throws GeneralSecurityException if signing fails
+     */
+    private byte[] signBytes(byte[] data) throws GeneralSecurityException {
+        Signature signature = acquire();
+        signature.update(data);
+        byte[] signed = signature.sign();
+        release(signature);
+        return signed;
+    }
+
+    private Signature acquire() throws GeneralSecurityException {
+        Signature signature = idleSigners.poll();
+        if (signature == null) {
+            return newSignature();
+        }
+        idleCount.decrementAndGet();
+        return signature;
+    }
+
+    private void release(Signature signature) {
+        if (idleCount.incrementAndGet() <= MAX_IDLE_SIGNERS) {
+            idleSigners.offer(signature);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Creates a signature instance configured for PS256 and initialised with the private key.
+     * After {@link Signature#sign()} the instance returns to this initialised state, so it can be reused.
+     *
+     * @return signature ready for {@code update}/{@code sign}
+     * @throws GeneralSecurityException if the algorithm or parameters are unsupported
+     */
+    private Signature newSignature() throws GeneralSecurityException {
+        Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+        signature.setParameter(new PSSParameterSpec(
+                HASH_ALGORITHM,
+                MGF_ALGORITHM,
+                new MGF1ParameterSpec(HASH_ALGORITHM),
+                SALT_LENGTH,
+                TRAILER_FIELD
+        ));
+        signature.initSign(privateKey);
+        return signature;
+    }
+
+    private static String encode(byte[] bytes) {
+        return ENCODER.encodeToString(bytes);
+    }
+}
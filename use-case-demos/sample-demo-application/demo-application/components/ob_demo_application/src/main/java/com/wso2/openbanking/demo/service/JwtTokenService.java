@@ -19,33 +19,27 @@
 package com.wso2.openbanking.demo.service;
 
 import com.wso2.openbanking.demo.utils.ConfigLoader;
+import com.wso2.openbanking.demo.utils.JwtUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
-import java.security.Signature;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.MGF1ParameterSpec;
-import java.security.spec.PSSParameterSpec;
-import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /** Singleton service for creating and signing JWTs for OAuth client assertions and request objects. */
 public final class JwtTokenService {
 
     private static final String SIGNING_KEY_PATH      = "/obsigning.key";
-    private static final String SIGNATURE_ALGORITHM   = "RSASSA-PSS";
-    private static final String HASH_ALGORITHM        = "SHA-256";
-    private static final String MGF_ALGORITHM         = "MGF1";
-    private static final int    SALT_LENGTH           = 32;
-    private static final int    TRAILER_FIELD         = 1;
     private static final long   TOKEN_VALIDITY_MINUTES = 5;
 
     private static JwtTokenService instance;
-    private final PrivateKey privateKey;
+    private final JwtSigner signer;
+    private final ClientAssertionPool assertionPool;
 
     /**
      * Initializes the service by loading the private signing key from the classpath.
@@ -54,7 +48,18 @@ public final class JwtTokenService {
      * @throws IOException              if the key file cannot be read
      */
     private JwtTokenService() throws GeneralSecurityException, IOException {
-        this.privateKey = loadPrivateKey();
+        this.signer = new JwtSigner(loadPrivateKey());
+        this.assertionPool = ConfigLoader.isClientAssertionPoolEnabled()
+                ? new ClientAssertionPool(this::signClientAssertion,
+                        ConfigLoader.getClientAssertionPoolMinSize(),
+                        ConfigLoader.getClientAssertionPoolMaxSize(),
+                        ConfigLoader.getClientAssertionPoolValiditySeconds(),
+                        ConfigLoader.getClientAssertionPoolMinRemainingSeconds(),
+                        ConfigLoader.getClientAssertionPoolAdjustSeconds())
+                : null;
+        if (assertionPool != null) {
+            ConfigLoader.addReloadListener(snapshot -> assertionPool.discardAll());
+        }
     }
 
     /**
@@ -82,8 +87,44 @@ public final class JwtTokenService {
      */
     public String createClientAssertion(String jti)
             throws GeneralSecurityException, IOException {
+        return signClientAssertion(jti, TimeUnit.MINUTES.toSeconds(TOKEN_VALIDITY_MINUTES));
+    }
+
+    /**
+     * Returns a single-use signed client assertion with a fresh JTI. While the assertion pool is
+     * enabled the assertion is taken from the pre-signed pool, so the caller does not wait for
+     * the signature.
+     *
+     * @return signed client assertion JWT string
+     * @throws GeneralSecurityException if an assertion has to be signed and signing fails
+     */
+    public String takeClientAssertion() throws GeneralSecurityException {
+        if (assertionPool == null) {
+            return signClientAssertion(JwtUtils.generateJti(), TimeUnit.MINUTES.toSeconds(TOKEN_VALIDITY_MINUTES));
+        }
+        return assertionPool.take();
+    }
+
+    /**
+     * Returns client assertion pool statistics.
+     *
+     * @return ordered map of statistic names to values, or only the enabled flag if the pool is off
+     */
+    public Map<String, Object> getClientAssertionStats() {
+        return assertionPool == null ? Collections.singletonMap("enabled", false) : assertionPool.getStats();
+    }
+
+    /**
+     * Signs a client assertion with the given JTI and validity.
+     *
+     * @param jti             unique JWT ID for the assertion
+     * @param validitySeconds time from issue until the assertion expires
+     * @return signed client assertion JWT string
+     * @throws GeneralSecurityException if JWT signing fails
+     */
+    private String signClientAssertion(String jti, long validitySeconds) throws GeneralSecurityException {
         long issuedAt = getCurrentTimeSeconds();
-        long expiration = issuedAt + TimeUnit.MINUTES.toSeconds(TOKEN_VALIDITY_MINUTES);
+        long expiration = issuedAt + validitySeconds;
 
         JwtHeader header = new JwtHeader(
                 ConfigLoader.getOAuthAlgorithm(),
@@ -100,17 +141,18 @@ public final class JwtTokenService {
                 ConfigLoader.getTokenUrl()
         );
 
-        return buildJwt(header.toJson(), payload.toJson());
+        return signer.sign(header, payload.toJson());
     }
 
     /**
      * Creates a signed JWT request object containing the authorization claims for the given consent ID.
      *
      * @param consentId consent ID to include in the request object payload
+     * @param state     OAuth state identifying the authorization flow
      * @return signed JWT string representing the request object
      * @throws GeneralSecurityException if JWT signing fails
      */
-    public String createRequestObject(String consentId)
+    public String createRequestObject(String consentId, String state)
             throws GeneralSecurityException {
         long currentTime = getCurrentTimeSeconds();
         long expiration = currentTime + TimeUnit.MINUTES.toSeconds(TOKEN_VALIDITY_MINUTES);
@@ -125,7 +167,7 @@ public final class JwtTokenService {
                 .iss(ConfigLoader.getClientId())
                 .responseType(ConfigLoader.getResponseType())
                 .redirectUri(ConfigLoader.getRedirectUri())
-                .state(ConfigLoader.getOAuthState())
+                .state(state)
                 .nonce(ConfigLoader.getOAuthNonce())
                 .aud(ConfigLoader.getTokenUrl())
                 .nbf(currentTime)
@@ -134,44 +176,7 @@ public final class JwtTokenService {
                 .consentId(consentId)
                 .build();
 
-        return buildJwt(header.toJson(), payload.toJson());
-    }
-
-    /**
-     * Builds a signed JWT string from the given header and payload JSON.
-     *
-     * @param headerJson  JSON string representing the JWT header
-     * @param payloadJson JSON string representing the JWT payload
-     * @return signed JWT in the format {@code header.payload.signature}
-     * @throws GeneralSecurityException if signing the JWT fails
-     */
-    private String buildJwt(String headerJson, String payloadJson)
-            throws GeneralSecurityException {
-        String encodedHeader  = base64UrlEncode(headerJson.getBytes(StandardCharsets.UTF_8));
-        String encodedPayload = base64UrlEncode(payloadJson.getBytes(StandardCharsets.UTF_8));
-        String signingInput   = encodedHeader + "." + encodedPayload;
-        return signingInput + "." + signData(signingInput);
-    }
-
-    /**
-     * Signs the given data using RSA-PSS and returns the Base64URL-encoded signature.
-     *
-     * @param data string to be signed
-     * @return Base64URL-encoded RSA-PSS signature
-     * @throws GeneralSecurityException if signing fails or the algorithm is unavailable
-     */
-    private String signData(String data) throws GeneralSecurityException {
-        Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
-        signature.setParameter(new PSSParameterSpec(
-                HASH_ALGORITHM,
-                MGF_ALGORITHM,
-                new MGF1ParameterSpec(HASH_ALGORITHM),
-                SALT_LENGTH,
-                TRAILER_FIELD
-        ));
-        signature.initSign(privateKey);
-        signature.update(data.getBytes(StandardCharsets.US_ASCII));
-        return base64UrlEncode(signature.sign());
+        return signer.sign(header, payload.toJson());
     }
 
     /**
@@ -191,16 +196,6 @@ public final class JwtTokenService {
         return KeyReader.loadPrivateKeyFromStream(keyStream);
     }
 
-    /**
-     * Encodes the given bytes to a Base64URL string without padding.
-     *
-     * @param bytes byte array to encode
-     * @return Base64URL-encoded string without padding
-     */
-    private String base64UrlEncode(byte[] bytes) {
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
-    }
-
     /**
      * Returns the current time in seconds since the Unix epoch.
      *
@@ -0,0 +1,331 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.http.OutboundCallScope;
+import com.wso2.openbanking.demo.models.Account;
+import com.wso2.openbanking.demo.models.AggregatedAccounts;
+import com.wso2.openbanking.demo.models.AggregatedAccounts.BankStatus;
+import com.wso2.openbanking.demo.models.BankProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the accounts of every linked bank at the same time and combines them. Consents are linked
+ * under an aggregation ID issued by the server to one user, so an aggregation only ever reads the
+ * banks that user authorized. Each bank is given its own time budget; a bank that fails or runs
+ * out of time has its outbound calls aborted and is reported with its status while the accounts of
+ * the other banks are still returned.
+ */
+final class MultiBankAggregator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MultiBankAggregator.class);
+    private static final SecureRandom ID_RANDOM = new SecureRandom();
+    private static final int ID_BYTES = 16;
+
+    private final List<BankProfile> banks;
+    private final FlowStateStore<Aggregation> aggregations;
+    private final FlowStateStore<String> consentAggregations;
+    private final ExecutorService executor;
+
+    private final AtomicLong aggregateCalls = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /** Loads the accounts of one bank under a consent authorized for it. */
+    @FunctionalInterface
+    interface BankLoader {
+
+        /**
+         * Loads the bank's accounts with their balances and transactions.
+         *
+         * @param bank        bank to load from
+         * @param accessToken access token issued for the consent
+         * @param consentId   consent the accounts are read under
+         * @return loaded accounts
+         * @throws IOException if the accounts cannot be loaded
+         */
+        List<Account> load(BankProfile bank, String accessToken, String consentId) throws IOException;
+    }
+
+    /**
+     * Creates a MultiBankAggregator.
+     *
+     * @param banks           configured banks, in the order they are reported
+     * @param threads         number of platform threads used when virtual threads are unavailable
+     * @param ttlSeconds      time an aggregation is kept after a consent was last linked into it
+     * @param maxAggregations maximum number of aggregations kept at once
+     */
+    MultiBankAggregator(List<BankProfile> banks, int threads, long ttlSeconds, int maxAggregations) {
+        this.banks = new ArrayList<>(banks);
+        this.aggregations = new FlowStateStore<>(ttlSeconds, maxAggregations);
+        this.consentAggregations = new FlowStateStore<>(ttlSeconds, maxAggregations);
+        this.executor = ConcurrentAccountFetcher.createExecutor(threads, "bank-aggregate-");
+    }
+
+    /**
+     * Issues a new, empty aggregation.
+     *
+     * @return unguessable aggregation ID
+     */
+    String open() {
+        byte[] bytes = new byte[ID_BYTES];
+        ID_RANDOM.nextBytes(bytes);
+        String aggregationId = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        aggregations.put(aggregationId, new Aggregation());
+        return aggregationId;
+    }
+
+    /**
+     * Returns whether an aggregation was issued and has not expired.
+     *
+     * @param aggregationId aggregation ID
+     * @return true if the aggregation is live
+     */
+    boolean isOpen(String aggregationId) {
+        return aggregationId != null && aggregations.get(aggregationId) != null;
+    }
+
+    /**
+     * Returns whether a consent is linked in a live aggregation.
+     *
+     * @param aggregationId aggregation ID
+     * @param consentId     consent ID
+     * @return true if the aggregation is live and one of its banks is linked under the consent
+     */
+    boolean isLinked(String aggregationId, String consentId) {
+        Aggregation aggregation = aggregationId == null ? null : aggregations.get(aggregationId);
+        if (aggregation == null || consentId == null) {
+            return false;
+        }
+        for (LinkedBank linked : aggregation.linked.values()) {
+            if (linked.consentId.equals(consentId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records the consent authorized for a bank in an aggregation, replacing any earlier consent
+     * of that bank in the same aggregation, and restarts the aggregation's time to live. An
+     * aggregation that has expired is not revived: its ID may have been handed out long ago, so
+     * the consent is left unlinked instead.
+     *
+     * @param aggregationId aggregation issued when the flow was started
+     * @param bank          bank the consent was authorized for
+     * @param accessToken   access token issued for the consent
+     * @param consentId     consent ID
+     * @return true if the consent was linked, false if the aggregation is unknown or has expired
+     */
+    boolean link(String aggregationId, BankProfile bank, String accessToken, String consentId) {
+        Aggregation aggregation = aggregationId == null ? null : aggregations.get(aggregationId);
+        if (aggregation == null) {
+            return false;
+        }
+        aggregation.linked.put(bank.getId(), new LinkedBank(accessToken, consentId));
+        aggregations.put(aggregationId, aggregation);
+        consentAggregations.put(consentId, aggregationId);
+        return true;
+    }
+
+    /**
+     * Forgets the bank linked under the given consent, if any.
+     *
+     * @param consentId revoked consent ID
+     */
+    void unlink(String consentId) {
+        String aggregationId = consentAggregations.take(consentId);
+        Aggregation aggregation = aggregationId == null ? null : aggregations.get(aggregationId);
+        if (aggregation != null) {
+            aggregation.linked.values().removeIf(linked -> linked.consentId.equals(consentId));
+        }
+    }
+
+    /**
+     * Loads the accounts of the banks linked in an aggregation concurrently, waiting for each no
+     * longer than its timeout. Banks are loaded in scopes derived from the caller's scope, so
+     * cancelling the caller also aborts the bank calls.
+     *
+     * @param aggregationId aggregation to load
+     * @param loader        loader performing the bank calls
+     * @return accounts of the banks that loaded and the outcome of every configured bank, or null
+     *         if the aggregation is unknown or has expired
+     * @throws InterruptedIOException if interrupted while waiting for the banks
+     */
+    AggregatedAccounts aggregate(String aggregationId, BankLoader loader) throws InterruptedIOException {
+        Aggregation aggregation = aggregationId == null ? null : aggregations.get(aggregationId);
+        if (aggregation == null) {
+            return null;
+        }
+        aggregateCalls.incrementAndGet();
+        OutboundCallScope parent = OutboundCallScope.current();
+        List<PendingBank> pending = new ArrayList<>();
+        for (BankProfile bank : banks) {
+            LinkedBank linked = aggregation.linked.get(bank.getId());
+            pending.add(linked == null ? new PendingBank(bank, null, null) : start(bank, linked, loader, parent));
+        }
+        List<Account> accounts = new ArrayList<>();
+        List<BankStatus> statuses = new ArrayList<>();
+        try {
+            for (PendingBank bank : pending) {
+                statuses.add(await(bank, accounts));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (PendingBank bank : pending) {
+                if (bank.scope != null) {
+                    bank.scope.cancel();
+                }
+            }
+            throw new InterruptedIOException("Interrupted waiting for banks");
+        }
+        return new AggregatedAccounts(accounts, statuses);
+    }
+
+    /**
+     * Returns aggregation statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("banks",        banks.size());
+        stats.put("sessions",     aggregations.size());
+        stats.put("aggregations", aggregateCalls.get());
+        stats.put("timeouts",     timeouts.get());
+        stats.put("failures",     failures.get());
+        return stats;
+    }
+
+    /**
+     * Starts loading a linked bank in its own scope.
+     *
+     * @param bank   bank to load
+     * @param linked consent linked for the bank
+     * @param loader loader performing the bank calls
+     * @param parent scope of the caller, or null
+     * @return bank being loaded
+     */
+    private PendingBank start(BankProfile bank, LinkedBank linked, BankLoader loader, OutboundCallScope parent) {
+        OutboundCallScope scope = OutboundCallScope.childOf(parent);
+        CompletableFuture<List<Account>> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return OutboundCallScope.callWithin(scope,
+                        () -> loader.load(bank, linked.accessToken, linked.consentId));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+        return new PendingBank(bank, scope, future);
+    }
+
+    /**
+     * Waits for a bank until its deadline and records the outcome.
+     *
+     * @param bank     bank being loaded
+     * @param accounts list the bank's accounts are added to if it loaded in time
+     * @return outcome of the bank
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private BankStatus await(PendingBank bank, List<Account> accounts) throws InterruptedException {
+        BankProfile profile = bank.profile;
+        if (bank.future == null) {
+            return new BankStatus(profile.getId(), profile.getName(), BankStatus.NOT_LINKED, 0, 0L, null);
+        }
+        long remaining = bank.deadlineNanos - System.nanoTime();
+        try {
+            List<Account> loaded = bank.future.get(Math.max(0L, remaining), TimeUnit.NANOSECONDS);
+            accounts.addAll(loaded);
+            return new BankStatus(profile.getId(), profile.getName(), BankStatus.OK, loaded.size(),
+                    bank.elapsedMillis(), null);
+        } catch (TimeoutException e) {
+            bank.scope.cancel();
+            bank.future.cancel(true);
+            timeouts.incrementAndGet();
+            LOG.warn("Bank {} did not load within {} seconds.", profile.getId(), profile.getTimeoutSeconds());
+            return new BankStatus(profile.getId(), profile.getName(), BankStatus.TIMEOUT, 0,
+                    bank.elapsedMillis(), "Timed out after " + profile.getTimeoutSeconds() + " seconds");
+        } catch (ExecutionException e) {
+            failures.incrementAndGet();
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause()
+                    : e.getCause();
+            LOG.warn("Bank {} failed to load: {}", profile.getId(), cause.getMessage());
+            return new BankStatus(profile.getId(), profile.getName(), BankStatus.FAILED, 0,
+                    bank.elapsedMillis(), cause.getMessage());
+        }
+    }
+
+    /** Banks linked by one user, keyed by bank ID. */
+    private static final class Aggregation {
+
+        private final Map<String, LinkedBank> linked = new ConcurrentHashMap<>();
+    }
+
+    /** Consent most recently authorized for a bank. */
+    private static final class LinkedBank {
+
+        private final String accessToken;
+        private final String consentId;
+
+        private LinkedBank(String accessToken, String consentId) {
+            this.accessToken = accessToken;
+            this.consentId = consentId;
+        }
+    }
+
+    /** Bank whose accounts are being loaded, with the scope its calls run in and its deadline. */
+    private static final class PendingBank {
+
+        private final BankProfile profile;
+        private final OutboundCallScope scope;
+        private final CompletableFuture<List<Account>> future;
+        private final long startedNanos = System.nanoTime();
+        private final long deadlineNanos;
+
+        private PendingBank(BankProfile profile, OutboundCallScope scope, CompletableFuture<List<Account>> future) {
+            this.profile = profile;
+            this.scope = scope;
+            this.future = future;
+            this.deadlineNanos = startedNanos + TimeUnit.SECONDS.toNanos(profile.getTimeoutSeconds());
+        }
+
+        private long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+        }
+    }
+}
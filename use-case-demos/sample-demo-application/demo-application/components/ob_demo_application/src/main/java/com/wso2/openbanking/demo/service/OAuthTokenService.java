@@ -21,7 +21,6 @@ package com.wso2.openbanking.demo.service;
 import com.wso2.openbanking.demo.exceptions.AuthorizationException;
 import com.wso2.openbanking.demo.exceptions.SSLContextCreationException;
 import com.wso2.openbanking.demo.utils.ConfigLoader;
-import com.wso2.openbanking.demo.utils.JwtUtils;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -33,6 +32,7 @@ public final class OAuthTokenService {
 
     private final HttpTlsClient client;
     private final JwtTokenService jwtTokenService;
+    private final AccessTokenCache tokenCache;
 
     /**
      * Creates an OAuthTokenService using the given TLS client.
@@ -46,18 +46,31 @@ public final class OAuthTokenService {
             throws GeneralSecurityException, IOException, SSLContextCreationException {
         this.client = client.deepCopy();
         this.jwtTokenService = JwtTokenService.getInstance();
+        this.tokenCache = AccessTokenCache.getInstance();
     }
 
     /**
-     * Requests a client credentials access token for the given scope.
+     * Returns a client credentials access token for the given scope, served from the token cache
+     * while the cached token is still valid.
      *
      * @param scope OAuth scope to request the token for
      * @return raw token response JSON string
      * @throws AuthorizationException if the token request or signing fails
      */
     public String getToken(String scope) throws AuthorizationException {
+        return tokenCache.get(scope, this::requestToken);
+    }
+
+    /**
+     * Requests a new client credentials access token for the given scope from the token endpoint.
+     *
+     * @param scope OAuth scope to request the token for
+     * @return raw token response JSON string
+     * @throws AuthorizationException if the token request or signing fails
+     */
+    private String requestToken(String scope) throws AuthorizationException {
         try {
-            String clientAssertion = jwtTokenService.createClientAssertion(JwtUtils.generateJti());
+            String clientAssertion = jwtTokenService.takeClientAssertion();
             String body = buildTokenRequestBody(scope, clientAssertion);
             return client.postJwt(ConfigLoader.getTokenUrl(), body);
         } catch (IOException e) {
@@ -84,19 +97,20 @@ public final class OAuthTokenService {
     }
 
     /**
-     * Initializes a payment consent using the given token and request body.
+     * Initializes a payment consent under a caller-chosen idempotency key.
      *
-     * @param token       raw token response JSON containing the access token
-     * @param consentBody JSON request body for the payment consent
-     * @param url         payment consent endpoint URL
+     * @param token          raw token response JSON containing the access token
+     * @param consentBody    JSON request body for the payment consent
+     * @param url            payment consent endpoint URL
+     * @param idempotencyKey idempotency key that stays the same when the request is retried
      * @return payment consent response JSON string
      * @throws IOException   if the API call fails
      * @throws JSONException if the token response cannot be parsed
      */
-    public String initializePaymentConsent(String token, String consentBody, String url)
+    public String initializePaymentConsent(String token, String consentBody, String url, String idempotencyKey)
             throws IOException, JSONException {
         String accessToken = new JSONObject(token).getString("access_token");
-        return client.postPaymentConsentInit(url, consentBody, accessToken);
+        return client.postPaymentConsentInit(url, consentBody, accessToken, idempotencyKey);
     }
 
     /**
@@ -104,15 +118,16 @@ public final class OAuthTokenService {
      *
      * @param consentResponse consent response JSON from the consent initialization step
      * @param scope           OAuth scope for the authorization request
+     * @param state           OAuth state identifying the authorization flow
      * @return authorization redirect URL string
      * @throws GeneralSecurityException if request object signing fails
      * @throws IOException              if the API call fails
      */
-    public String authorizeConsent(String consentResponse, String scope)
+    public String authorizeConsent(String consentResponse, String scope, String state)
             throws GeneralSecurityException, IOException {
         String consentId = extractConsentId(consentResponse);
-        String requestObject = jwtTokenService.createRequestObject(consentId);
-        return client.postConsentAuthRequest(requestObject, ConfigLoader.getClientId(), scope);
+        String requestObject = jwtTokenService.createRequestObject(consentId, state);
+        return client.postConsentAuthRequest(requestObject, ConfigLoader.getClientId(), scope, state);
     }
 
     /**
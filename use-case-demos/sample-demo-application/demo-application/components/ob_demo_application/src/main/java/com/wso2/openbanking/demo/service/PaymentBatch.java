@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.models.BatchPaymentResult;
+import com.wso2.openbanking.demo.models.Payment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress of the payments of one batch. Every payment is identified by keys derived from the
+ * server-issued batch ID, its position, and its content, so resubmitting the same batch yields the
+ * same idempotency keys and finds the payments already in progress instead of starting them again.
+ */
+final class PaymentBatch {
+
+    private static final char SEPARATOR = '\u001f';
+
+    private final String batchId;
+    private final Item[] items;
+
+    /**
+     * Creates the progress record of a batch.
+     *
+     * @param batchId  server-issued batch ID
+     * @param payments payments of the batch, in order
+     */
+    PaymentBatch(String batchId, List<Payment> payments) {
+        this.batchId = batchId;
+        this.items = new Item[payments.size()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item(batchId, i, payments.get(i));
+        }
+    }
+
+    String getBatchId() {
+        return batchId;
+    }
+
+    /**
+     * Returns the payment at the given position.
+     *
+     * @param index position in the batch
+     * @return payment progress, or null if the batch has no such position
+     */
+    Item item(int index) {
+        return index >= 0 && index < items.length ? items[index] : null;
+    }
+
+    /**
+     * Returns the current outcome of every payment.
+     *
+     * @return batch result in batch order
+     */
+    BatchPaymentResult toResult() {
+        List<BatchPaymentResult.Item> results = new ArrayList<>(items.length);
+        for (Item item : items) {
+            results.add(item.toResult());
+        }
+        return new BatchPaymentResult(batchId, results);
+    }
+
+    /**
+     * Returns the content fingerprint of a payment.
+     *
+     * @param payment payment to fingerprint
+     * @return fields of the payment joined by a separator that cannot appear in them
+     */
+    static String fingerprint(Payment payment) {
+        return String.valueOf(payment.getUserAccount()) + SEPARATOR + payment.getPayeeAccount() + SEPARATOR
+                + payment.getAmount() + SEPARATOR + payment.getCurrency() + SEPARATOR + payment.getReference();
+    }
+
+    /**
+     * Derives a stable UUID-formatted key from the given name.
+     *
+     * @param name name to derive the key from
+     * @return name-based UUID string
+     */
+    private static String deriveKey(String name) {
+        return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /** Progress of one payment of a batch through consent creation, authorization, and submission. */
+    static final class Item {
+
+        private final int index;
+        private final Payment payment;
+        private final String fingerprint;
+        private final String idempotencyKey;
+        private final String consentKey;
+        private final String submissionKey;
+
+        private boolean started;
+        private String status = BatchPaymentResult.Item.CREATING_CONSENT;
+        private String initiation;
+        private String consentId;
+        private String redirectUrl;
+        private String paymentId;
+        private String error;
+
+        private Item(String batchId, int index, Payment payment) {
+            this.index = index;
+            this.payment = new Payment(payment);
+            this.fingerprint = fingerprint(payment);
+            this.idempotencyKey = deriveKey(batchId + SEPARATOR + index + SEPARATOR + fingerprint);
+            this.consentKey = deriveKey(idempotencyKey + SEPARATOR + "consent");
+            this.submissionKey = deriveKey(idempotencyKey + SEPARATOR + "payment");
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        Payment getPayment() {
+            return new Payment(payment);
+        }
+
+        String getIdempotencyKey() {
+            return idempotencyKey;
+        }
+
+        String getConsentKey() {
+            return consentKey;
+        }
+
+        String getSubmissionKey() {
+            return submissionKey;
+        }
+
+        /**
+         * Returns whether the given payment has the same content as this one.
+         *
+         * @param other payment submitted at this position
+         * @return true if all payment fields match
+         */
+        boolean matches(Payment other) {
+            return fingerprint.equals(fingerprint(other));
+        }
+
+        /**
+         * Claims consent creation for this payment unless it is already under way or done.
+         * A payment whose consent creation failed may be claimed again.
+         *
+         * @return true if the caller should create the consent
+         */
+        synchronized boolean claimConsentCreation() {
+            if (started && !BatchPaymentResult.Item.CONSENT_FAILED.equals(status)) {
+                return false;
+            }
+            started = true;
+            status = BatchPaymentResult.Item.CREATING_CONSENT;
+            error = null;
+            return true;
+        }
+
+        /**
+         * Returns the payment initiation sent with the consent, which the submission must repeat.
+         *
+         * @return initiation JSON, or null if none has been built yet
+         */
+        synchronized String getInitiation() {
+            return initiation;
+        }
+
+        /**
+         * Records the initiation built for this payment so that retries send the same body.
+         *
+         * @param initiation initiation JSON
+         */
+        synchronized void setInitiation(String initiation) {
+            this.initiation = initiation;
+        }
+
+        synchronized String getConsentId() {
+            return consentId;
+        }
+
+        synchronized void consentCreated(String consentId, String redirectUrl) {
+            this.consentId = consentId;
+            this.redirectUrl = redirectUrl;
+            this.status = BatchPaymentResult.Item.AWAITING_AUTHORIZATION;
+        }
+
+        synchronized void consentFailed(String error) {
+            this.status = BatchPaymentResult.Item.CONSENT_FAILED;
+            this.error = error;
+        }
+
+        /**
+         * Claims submission of this payment once its consent has been authorized. A payment whose
+         * submission failed may be claimed again; it is resent under the same idempotency key.
+         *
+         * @return true if the caller should submit the payment
+         */
+        synchronized boolean claimSubmission() {
+            if (!BatchPaymentResult.Item.AWAITING_AUTHORIZATION.equals(status)
+                    && !BatchPaymentResult.Item.SUBMISSION_FAILED.equals(status)) {
+                return false;
+            }
+            status = BatchPaymentResult.Item.SUBMITTING;
+            error = null;
+            return true;
+        }
+
+        synchronized boolean isSubmitted() {
+            return BatchPaymentResult.Item.SUBMITTED.equals(status);
+        }
+
+        synchronized void submitted(String paymentId) {
+            this.paymentId = paymentId;
+            this.status = BatchPaymentResult.Item.SUBMITTED;
+        }
+
+        synchronized void submissionFailed(String error) {
+            this.status = BatchPaymentResult.Item.SUBMISSION_FAILED;
+            this.error = error;
+        }
+
+        synchronized BatchPaymentResult.Item toResult() {
+            return new BatchPaymentResult.Item(index, status, idempotencyKey, consentId, redirectUrl, paymentId, error);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.constants.OpenBankingConstants;
+
+/**
+ * Writes payment consent and payment submission bodies as compact JSON from templates. The
+ * constant parts of the bodies are encoded once; only the per-payment values are escaped and
+ * spliced in, into a buffer reused by each thread.
+ */
+final class PaymentBodyWriter {
+
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private static final String INSTRUCTION_ID = "{" + name(OpenBankingConstants.FIELD_INSTRUCTION_IDENTIFICATION)
+            + "\"";
+    private static final String END_TO_END_ID = "\"," + name(OpenBankingConstants.FIELD_END_TO_END_IDENTIFICATION)
+            + "\"";
+    private static final String AMOUNT = "\","
+            + name(OpenBankingConstants.FIELD_LOCAL_INSTRUMENT) + quote(OpenBankingConstants.LOCAL_INSTRUMENT_PAYM)
+            + ","
+            + name(OpenBankingConstants.FIELD_INSTRUCTED_AMOUNT) + "{"
+            + name(OpenBankingConstants.FIELD_AMOUNT) + "\"";
+    private static final String CURRENCY = "," + name(OpenBankingConstants.FIELD_CURRENCY) + "\"";
+    private static final String CREDITOR_ID = "},"
+            + name(OpenBankingConstants.FIELD_CREDITOR_ACCOUNT) + "{"
+            + name(OpenBankingConstants.FIELD_SCHEME_NAME) + quote(OpenBankingConstants.SCHEME_SORT_CODE_ACCOUNT_NUMBER)
+            + "," + name(OpenBankingConstants.FIELD_IDENTIFICATION) + "\"";
+    private static final String CREDITOR_NAME = "\"," + name(OpenBankingConstants.FIELD_NAME) + "\"";
+    private static final String DEBTOR_ID = "\","
+            + name(OpenBankingConstants.FIELD_SECONDARY_IDENTIFICATION)
+            + quote(OpenBankingConstants.PAYMENT_SECONDARY_ID_FIXED) + "},"
+            + name(OpenBankingConstants.FIELD_DEBTOR_ACCOUNT) + "{"
+            + name(OpenBankingConstants.FIELD_SCHEME_NAME) + quote(OpenBankingConstants.SCHEME_SORT_CODE_ACCOUNT_NUMBER)
+            + "," + name(OpenBankingConstants.FIELD_IDENTIFICATION) + "\"";
+    private static final String DEBTOR_NAME = "\"," + name(OpenBankingConstants.FIELD_NAME) + "\"";
+    private static final String DEBTOR_SECONDARY_ID = "\","
+            + name(OpenBankingConstants.FIELD_SECONDARY_IDENTIFICATION) + "\"";
+    private static final String REFERENCE = "\"}," + name(OpenBankingConstants.FIELD_REMITTANCE_INFORMATION) + "{"
+            + name(OpenBankingConstants.FIELD_REFERENCE) + "\"";
+    private static final String SUPPLEMENTARY_DATA = ","
+            + name(OpenBankingConstants.FIELD_SUPPLEMENTARY_DATA) + "{\"additionalProp1\":{}}}";
+
+    private static final String CONSENT_START = "{" + name(OpenBankingConstants.FIELD_DATA) + "{"
+            + name(OpenBankingConstants.FIELD_INITIATION);
+    private static final String SUBMISSION_START = "{" + name(OpenBankingConstants.FIELD_DATA) + "{"
+            + name(OpenBankingConstants.FIELD_CONSENT_ID) + "\"";
+    private static final String SUBMISSION_INITIATION = "\"," + name(OpenBankingConstants.FIELD_INITIATION);
+    private static final String BODY_END = "}," + name(OpenBankingConstants.FIELD_RISK) + "{}}";
+
+    private PaymentBodyWriter() {
+    }
+
+    /**
+     * Writes the initiation of a domestic payment. The result is embedded unchanged in both the
+     * consent body and the submission body, so the two carry byte-identical initiations.
+     *
+     * @param instructionId instruction identification
+     * @param endToEndId    end-to-end identification
+     * @param amount        formatted payment amount
+     * @param currency      payment currency code, or null to omit it
+     * @param creditorId    creditor account identification
+     * @param creditorName  creditor account name
+     * @param debtorId      debtor account identification
+     * @param debtorName    debtor account name
+     * @param reference     remittance reference, or null or blank to omit the remittance information
+     * @return initiation as a compact JSON object
+     */
+    static String initiation(String instructionId, String endToEndId, String amount, String currency,
+                             String creditorId, String creditorName, String debtorId, String debtorName,
+                             String reference) {
+        StringBuilder out = buffer();
+        out.append(INSTRUCTION_ID);
+        escape(out, instructionId);
+        out.append(END_TO_END_ID);
+        escape(out, endToEndId);
+        out.append(AMOUNT);
+        escape(out, amount);
+        out.append('"');
+        if (currency != null) {
+            out.append(CURRENCY);
+            escape(out, currency);
+            out.append('"');
+        }
+        out.append(CREDITOR_ID);
+        escape(out, creditorId);
+        out.append(CREDITOR_NAME);
+        escape(out, creditorName);
+        out.append(DEBTOR_ID);
+        escape(out, debtorId);
+        out.append(DEBTOR_NAME);
+        escape(out, debtorName);
+        out.append(DEBTOR_SECONDARY_ID);
+        escape(out, debtorId);
+        escape(out, OpenBankingConstants.PAYMENT_SECONDARY_ID_SUFFIX);
+        if (reference != null && !reference.trim().isEmpty()) {
+            out.append(REFERENCE);
+            escape(out, reference);
+        }
+        out.append("\"}").append(SUPPLEMENTARY_DATA);
+        return release(out);
+    }
+
+    /**
+     * Writes a payment consent body around an initiation.
+     *
+     * @param initiation initiation written by {@link #initiation}
+     * @return payment consent request body
+     */
+    static String consentBody(String initiation) {
+        StringBuilder out = buffer();
+        out.append(CONSENT_START).append(initiation).append(BODY_END);
+        return release(out);
+    }
+
+    /**
+     * Writes a payment submission body around an initiation.
+     *
+     * @param initiation initiation written by {@link #initiation}, identical to the consent's
+     * @param consentId  consent ID approved during the authorization step
+     * @return payment submission request body
+     */
+    static String submissionBody(String initiation, String consentId) {
+        StringBuilder out = buffer();
+        out.append(SUBMISSION_START);
+        escape(out, consentId);
+        out.append(SUBMISSION_INITIATION).append(initiation).append(BODY_END);
+        return release(out);
+    }
+
+    /**
+     * Appends a value as the contents of a JSON string, escaping quotes, backslashes, and control characters.
+     *
+     * @param out   buffer to append to
+     * @param value value to escape; null is written as an empty string
+     */
+    private static void escape(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        return out;
+    }
+
+    /**
+     * Returns the buffer contents, dropping the buffer if a large body made it grow beyond the retained size.
+     *
+     * @param out buffer holding a written body
+     * @return written body
+     */
+    private static String release(StringBuilder out) {
+        String body = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return body;
+    }
+
+    private static String name(String field) {
+        return quote(field) + ":";
+    }
+
+    private static String quote(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 2).append('"');
+        escape(out, value);
+        return out.append('"').toString();
+    }
+}
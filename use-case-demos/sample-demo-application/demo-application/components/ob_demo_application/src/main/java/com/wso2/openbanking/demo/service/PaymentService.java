@@ -20,26 +20,42 @@ package com.wso2.openbanking.demo.service;
 
 import com.wso2.openbanking.demo.constants.OpenBankingConstants;
 import com.wso2.openbanking.demo.exceptions.AuthorizationException;
+import com.wso2.openbanking.demo.exceptions.IdempotencyConflictException;
 import com.wso2.openbanking.demo.exceptions.PaymentException;
 import com.wso2.openbanking.demo.exceptions.SSLContextCreationException;
+import com.wso2.openbanking.demo.models.AuthFlow;
+import com.wso2.openbanking.demo.models.BatchPaymentResult;
 import com.wso2.openbanking.demo.models.Payment;
+import com.wso2.openbanking.demo.models.PaymentStatus;
 import com.wso2.openbanking.demo.utils.ConfigLoader;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /** Handles payment consent creation, authorization, and payment submission. */
 public final class PaymentService {
 
     private static final Random RANDOM = new Random();
+    private static final String PAYMENT_BANK_KEY = "payments";
     private final OAuthTokenService oauthService;
     private final HttpTlsClient client;
-    private Payment currentPayment;
-    private String currentConsentId;
+    private final ConcurrentAccountFetcher batchFetcher;
+    private final FlowStateStore<PaymentBatch> batches;
+    private final int maxBatchItems;
+    private final PaymentStatusPoller statusPoller;
+    private final FlowStateStore<String> statusHandles;
 
     /**
      * Creates a PaymentService with the given HTTP client and OAuth service.
@@ -50,6 +66,27 @@ public final class PaymentService {
     private PaymentService(HttpTlsClient client, OAuthTokenService oauthService) {
         this.client = client;
         this.oauthService = oauthService;
+        this.batchFetcher = new ConcurrentAccountFetcher(
+                ConfigLoader.getPaymentBatchThreads(), ConfigLoader.getPaymentBatchMaxConcurrency());
+        this.batches = new FlowStateStore<>(
+                ConfigLoader.getPaymentBatchTtlSeconds(), ConfigLoader.getPaymentBatchMaxBatches());
+        this.maxBatchItems = ConfigLoader.getPaymentBatchMaxItems();
+        this.statusPoller = ConfigLoader.isPaymentStatusPollingEnabled()
+                ? new PaymentStatusPoller(this::loadPaymentStatus, this::loadPaymentAccessToken,
+                        ConfigLoader.getPaymentStatusThreads(),
+                        ConfigLoader.getPaymentStatusTickMillis(),
+                        ConfigLoader.getPaymentStatusInitialIntervalSeconds(),
+                        ConfigLoader.getPaymentStatusMaxIntervalSeconds(),
+                        ConfigLoader.getPaymentStatusMaxAgeSeconds(),
+                        ConfigLoader.getPaymentStatusBatchSize(),
+                        ConfigLoader.getPaymentStatusRetentionSeconds(),
+                        ConfigLoader.getPaymentStatusMaxEntries())
+                : null;
+        this.statusHandles = statusPoller != null
+                ? new FlowStateStore<>(
+                        ConfigLoader.getPaymentStatusMaxAgeSeconds() + ConfigLoader.getPaymentStatusRetentionSeconds(),
+                        ConfigLoader.getPaymentStatusMaxEntries())
+                : null;
     }
 
     /**
@@ -68,23 +105,46 @@ public final class PaymentService {
     }
 
     /**
-     * Creates a payment consent and returns the OAuth authorization redirect URL.
+     * Creates a payment consent and returns the flow awaiting its authorization. The initiation is
+     * built once and kept on the flow, so the submission repeats it and the idempotency keys of
+     * both requests stay the same when they are retried. When the client supplies an idempotency
+     * key, the initiation identifiers and the consent key are derived from it, so a retried request
+     * for the same payment gets the consent already created instead of a second one.
      *
-     * @param payment payment details to create a consent for
-     * @return authorization redirect URL for the payment consent
+     * @param payment        payment details to create a consent for
+     * @param state          OAuth state identifying the new flow
+     * @param paymentHandle  unguessable handle the payment's status is read under once submitted
+     * @param idempotencyKey key chosen by the client for this payment, or null
+     * @return payment flow holding the consent ID, the payment, the initiation, and the authorization redirect URL
      * @throws AuthorizationException if consent creation or signing fails
+     * @throws PaymentException       if the idempotency key was already used for a different payment
      */
-    public String processPaymentRequest(Payment payment) throws AuthorizationException {
-        this.currentPayment = new Payment(payment);
+    public AuthFlow processPaymentRequest(Payment payment, String state, String paymentHandle,
+                                          String idempotencyKey)
+            throws AuthorizationException, PaymentException {
         try {
             String token = oauthService.getToken(OpenBankingConstants.SCOPE_PAYMENTS);
             String paymentUrl = ConfigLoader.getPaymentBaseUrl() + OpenBankingConstants.PATH_PAYMENT_CONSENTS;
-            String consentBody = createPaymentConsentBody(payment);
-            String consentResponse = oauthService.initializePaymentConsent(token, consentBody, paymentUrl);
-            this.currentConsentId = new JSONObject(consentResponse)
+            String initiation;
+            String consentKey;
+            if (idempotencyKey == null) {
+                initiation = createInitiation(payment, generateInstructionId(), generateEndToEndId(),
+                        generateNumericId(14));
+                consentKey = IdempotencyLedger.deriveKey(state, "consent", initiation);
+            } else {
+                consentKey = IdempotencyLedger.deriveKey("payment", idempotencyKey);
+                initiation = createKeyedInitiation(payment, consentKey);
+            }
+            String consentResponse = oauthService.initializePaymentConsent(token,
+                    PaymentBodyWriter.consentBody(initiation), paymentUrl, consentKey);
+            String consentId = new JSONObject(consentResponse)
                     .getJSONObject(OpenBankingConstants.FIELD_DATA)
                     .getString(OpenBankingConstants.FIELD_CONSENT_ID);
-            return oauthService.authorizeConsent(consentResponse, OpenBankingConstants.SCOPE_PAYMENTS);
+            String redirectUrl = oauthService.authorizeConsent(
+                    consentResponse, OpenBankingConstants.SCOPE_PAYMENTS, state);
+            return AuthFlow.forPayment(state, consentId, payment, redirectUrl, initiation, paymentHandle);
+        } catch (IdempotencyConflictException e) {
+            throw new PaymentException("Idempotency-Key was already used for a different payment", e);
         } catch (IOException e) {
             throw new AuthorizationException("Failed to contact payment consent endpoint", e);
         } catch (GeneralSecurityException e) {
@@ -93,137 +153,359 @@ public final class PaymentService {
     }
 
     /**
-     * Submits the current payment using the given access token.
+     * Submits the payment of an authorized flow using the given access token. The submission
+     * repeats the initiation stored on the flow, under a key derived from the consent ID and that
+     * initiation. The payment's status is then readable under the flow's payment handle.
      *
      * @param accessToken valid OAuth access token from the authorization callback
-     * @return true if payment was submitted successfully, false if no pending payment exists
+     * @param flow        payment flow whose consent was authorized
+     * @return true if payment was submitted successfully, false if the flow holds no payment
      * @throws PaymentException if the payment submission request fails
      */
-    public boolean processPaymentAuthorization(String accessToken) throws PaymentException {
+    public boolean processPaymentAuthorization(String accessToken, AuthFlow flow) throws PaymentException {
+        Payment payment = flow.getPayment();
+        if (payment == null || flow.getConsentId() == null) {
+            return false;
+        }
+        if (flow.getBatchId() != null) {
+            return submitBatchPayment(accessToken, flow);
+        }
+        if (flow.getInitiation() == null) {
+            return false;
+        }
         try {
-            if (currentPayment == null || currentConsentId == null) {
-                return false;
-            }
             String paymentUrl = ConfigLoader.getPaymentBaseUrl() + OpenBankingConstants.PATH_PAYMENTS;
-            String paymentBody = createPaymentSubmissionBody(currentPayment, currentConsentId);
-            client.postPayments(paymentUrl, paymentBody, accessToken);
+            String paymentBody = PaymentBodyWriter.submissionBody(flow.getInitiation(), flow.getConsentId());
+            String response = client.postPayments(paymentUrl, paymentBody, accessToken,
+                    IdempotencyLedger.deriveKey(flow.getConsentId(), "payment", flow.getInitiation()));
+            if (trackSubmission(flow.getConsentId(), response) != null && statusHandles != null
+                    && flow.getPaymentHandle() != null) {
+                statusHandles.put(flow.getPaymentHandle(), flow.getConsentId());
+            }
             return true;
         } catch (IOException e) {
             throw new PaymentException("Failed to submit payment to bank endpoint", e);
-        } finally {
-            currentPayment = null;
-            currentConsentId = null;
         }
     }
 
     /**
-     * Builds the JSON request body for a payment consent.
+     * Registers a new batch under the given ID before any of its consents are created, so the
+     * caller can hand the ID to the client even if creating the consents outlasts the request.
      *
-     * @param payment payment details to include in the consent body
-     * @return payment consent request body as a JSON string
+     * @param batchId  unguessable ID for the batch
+     * @param payments payments of the batch, in order
+     * @throws PaymentException if the batch is too large
      */
-    private String createPaymentConsentBody(Payment payment) {
-        String[] userAccount = parseAccountIdentifier(payment.getUserAccount());
-        String[] payeeAccount = parseAccountIdentifier(payment.getPayeeAccount());
-        JSONObject initiation = buildInitiation(
-                userAccount, payeeAccount,
-                payment.getAmount(), payment.getCurrency(), payment.getReference());
-        return new JSONObject()
-                .put(OpenBankingConstants.FIELD_DATA,
-                        new JSONObject().put(OpenBankingConstants.FIELD_INITIATION, initiation))
-                .put(OpenBankingConstants.FIELD_RISK, new JSONObject())
-                .toString(4);
+    public void openBatch(String batchId, List<Payment> payments) throws PaymentException {
+        if (payments.size() > maxBatchItems) {
+            throw new PaymentException("A batch may contain at most " + maxBatchItems + " payments");
+        }
+        batches.put(batchId, new PaymentBatch(batchId, payments));
     }
 
     /**
-     * Builds the JSON request body for submitting a payment.
+     * Creates a payment consent and authorization redirect for every payment of a batch. Consents
+     * are created concurrently, with at most the configured number in flight at once. The batch
+     * must have been opened with {@link #openBatch}, under an unguessable ID the caller must present
+     * to resubmit or read the batch. Each payment carries an idempotency key derived from that ID,
+     * its position, and its content, so resubmitting a batch reuses the consents already created
+     * and only retries the failed ones, while batches of different callers never share keys.
      *
-     * @param payment   payment details to submit
-     * @param consentId consent ID approved during the authorization step
-     * @return payment submission request body as a JSON string
+     * @param batchId  ID the batch was opened under
+     * @param payments payments of the batch, in order
+     * @param states   source of OAuth states for the new flows
+     * @param flows    receives the flow of every consent created
+     * @return outcome of every payment of the batch, or null if the given batch is unknown or has expired
+     * @throws PaymentException       if the batch is too large or the wait for the consents is interrupted
+     * @throws AuthorizationException if no token can be obtained for the consents
      */
-    private String createPaymentSubmissionBody(Payment payment, String consentId) {
-        String[] userAccount = parseAccountIdentifier(payment.getUserAccount());
-        String[] payeeAccount = parseAccountIdentifier(payment.getPayeeAccount());
-        JSONObject initiation = buildInitiation(
-                userAccount, payeeAccount,
-                payment.getAmount(), payment.getCurrency(), payment.getReference());
-        return new JSONObject()
-                .put(OpenBankingConstants.FIELD_DATA, new JSONObject()
-                        .put(OpenBankingConstants.FIELD_CONSENT_ID, consentId)
-                        .put(OpenBankingConstants.FIELD_INITIATION, initiation))
-                .put(OpenBankingConstants.FIELD_RISK, new JSONObject())
-                .toString(4);
+    public BatchPaymentResult processBatchPaymentRequest(String batchId, List<Payment> payments,
+                                                         Supplier<String> states, Consumer<AuthFlow> flows)
+            throws PaymentException, AuthorizationException {
+        if (payments.size() > maxBatchItems) {
+            throw new PaymentException("A batch may contain at most " + maxBatchItems + " payments");
+        }
+        PaymentBatch batch = batches.get(batchId);
+        if (batch == null) {
+            return null;
+        }
+
+        List<Integer> conflicts = new ArrayList<>();
+        List<PaymentBatch.Item> claimed = new ArrayList<>();
+        for (int i = 0; i < payments.size(); i++) {
+            PaymentBatch.Item item = batch.item(i);
+            if (item == null || !item.matches(payments.get(i))) {
+                conflicts.add(i);
+            } else if (item.claimConsentCreation()) {
+                claimed.add(item);
+            }
+        }
+        if (!claimed.isEmpty()) {
+            createBatchConsents(batch, claimed, states, flows);
+        }
+        return withConflicts(batch.toResult(), conflicts);
+    }
+
+    /**
+     * Returns the current outcome of every payment of a batch.
+     *
+     * @param batchId batch ID issued when the batch was first submitted
+     * @return batch result, or null if the batch is unknown or has expired
+     */
+    public BatchPaymentResult getBatchResult(String batchId) {
+        PaymentBatch batch = batches.get(batchId);
+        return batch == null ? null : batch.toResult();
     }
 
     /**
-     * Builds the payment initiation JSON object from account and payment details.
+     * Returns the last known bank status of a submitted payment. Statuses are read under the
+     * handle issued when the payment flow started, not under the bank's consent ID, so only the
+     * client that started the flow can read them.
      *
-     * @param userAccount  parsed debtor account parts (name and ID)
-     * @param payeeAccount parsed creditor account parts (name and ID)
-     * @param amount       payment amount as a string
-     * @param currency     payment currency code
-     * @param reference    optional remittance reference text
-     * @return payment initiation JSON object
+     * @param paymentHandle handle issued when the payment flow started
+     * @return payment status, or null if no payment is tracked under the handle
      */
-    private JSONObject buildInitiation(String[] userAccount, String[] payeeAccount,
-                                       String amount, String currency, String reference) {
-        JSONObject initiation = new JSONObject();
-        initiation.put(OpenBankingConstants.FIELD_INSTRUCTION_IDENTIFICATION, generateInstructionId());
-        initiation.put(OpenBankingConstants.FIELD_END_TO_END_IDENTIFICATION, generateEndToEndId());
-        initiation.put(OpenBankingConstants.FIELD_LOCAL_INSTRUMENT, OpenBankingConstants.LOCAL_INSTRUMENT_PAYM);
-        initiation.put(OpenBankingConstants.FIELD_INSTRUCTED_AMOUNT, buildAmount(amount, currency));
-        initiation.put(OpenBankingConstants.FIELD_CREDITOR_ACCOUNT, buildCreditorAccount(payeeAccount));
-        initiation.put(OpenBankingConstants.FIELD_DEBTOR_ACCOUNT, buildDebtorAccount(userAccount));
-        if (reference != null && !reference.trim().isEmpty()) {
-            initiation.put(OpenBankingConstants.FIELD_REMITTANCE_INFORMATION,
-                    new JSONObject().put(OpenBankingConstants.FIELD_REFERENCE, reference));
+    public PaymentStatus getPaymentStatus(String paymentHandle) {
+        String consentId = statusHandles == null ? null : statusHandles.get(paymentHandle);
+        return consentId == null ? null : statusPoller.getStatus(consentId);
+    }
+
+    /**
+     * Returns payment status polling statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public Map<String, Object> getStatusStats() {
+        return statusPoller == null ? Collections.singletonMap("enabled", false) : statusPoller.getStats();
+    }
+
+    /**
+     * Returns statistics of the tracked payment batches.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public Map<String, Object> getBatchStats() {
+        return batches.getStats();
+    }
+
+    /**
+     * Reads the payment ID and status from a payment submission response and starts polling the
+     * bank for the payment's final status.
+     *
+     * @param consentId consent the payment was submitted under
+     * @param response  payment submission response body
+     * @return bank payment ID, or null if the response carries none
+     */
+    private String trackSubmission(String consentId, String response) {
+        JSONObject data;
+        try {
+            data = new JSONObject(response).optJSONObject(OpenBankingConstants.FIELD_DATA);
+        } catch (JSONException e) {
+            return null;
+        }
+        String paymentId = data == null ? null : data.optString(OpenBankingConstants.FIELD_DOMESTIC_PAYMENT_ID, null);
+        if (paymentId != null && statusPoller != null) {
+            statusPoller.track(consentId, paymentId,
+                    data.optString(OpenBankingConstants.FIELD_PAYMENT_STATUS, PaymentStatus.PENDING));
         }
-        initiation.put(OpenBankingConstants.FIELD_SUPPLEMENTARY_DATA,
-                new JSONObject().put("additionalProp1", new JSONObject()));
-        return initiation;
+        return paymentId;
     }
 
     /**
-     * Builds a JSON object representing the instructed payment amount.
+     * Reads the current status of a payment from the bank.
      *
-     * @param amount   payment amount as a string
-     * @param currency payment currency code
-     * @return JSON object with amount and currency fields
+     * @param paymentId   bank payment ID
+     * @param accessToken client credentials access token for the payment API
+     * @return status reported by the bank
+     * @throws IOException if the request fails or the response carries no status
      */
-    private JSONObject buildAmount(String amount, String currency) {
-        return new JSONObject()
-                .put(OpenBankingConstants.FIELD_AMOUNT, formatAmount(amount))
-                .put(OpenBankingConstants.FIELD_CURRENCY, currency);
+    private String loadPaymentStatus(String paymentId, String accessToken) throws IOException {
+        String url = ConfigLoader.getPaymentBaseUrl() + OpenBankingConstants.PATH_PAYMENTS + "/" + paymentId;
+        JSONObject data = new JSONObject(client.getWithAuth(url, accessToken))
+                .optJSONObject(OpenBankingConstants.FIELD_DATA);
+        String status = data == null ? null : data.optString(OpenBankingConstants.FIELD_PAYMENT_STATUS, null);
+        if (status == null) {
+            throw new IOException("Payment status response for " + paymentId + " carries no status");
+        }
+        return status;
     }
 
     /**
-     * Builds the creditor (payee) account JSON object.
+     * Returns a client credentials access token for the payment API.
      *
-     * @param payeeAccount parsed payee account parts (name and ID)
-     * @return JSON object representing the creditor account
+     * @return access token
+     * @throws AuthorizationException if no token can be obtained
      */
-    private JSONObject buildCreditorAccount(String[] payeeAccount) {
-        return new JSONObject()
-                .put(OpenBankingConstants.FIELD_SCHEME_NAME, OpenBankingConstants.SCHEME_SORT_CODE_ACCOUNT_NUMBER)
-                .put(OpenBankingConstants.FIELD_IDENTIFICATION, generateNumericId(14))
-                .put(OpenBankingConstants.FIELD_NAME, payeeAccount[0])
-                .put(OpenBankingConstants.FIELD_SECONDARY_IDENTIFICATION, OpenBankingConstants.PAYMENT_SECONDARY_ID_FIXED);
+    private String loadPaymentAccessToken() throws AuthorizationException {
+        return new JSONObject(oauthService.getToken(OpenBankingConstants.SCOPE_PAYMENTS)).getString("access_token");
     }
 
     /**
-     * Builds the debtor (user) account JSON object.
+     * Creates the consents of the claimed payments concurrently and waits for all of them.
      *
-     * @param userAccount parsed user account parts (name and ID)
-     * @return JSON object representing the debtor account
+     * @param batch   batch the payments belong to
+     * @param claimed payments claimed for consent creation
+     * @param states  source of OAuth states for the new flows
+     * @param flows   receives the flow of every consent created
+     * @throws PaymentException       if the wait for the consents is interrupted
+     * @throws AuthorizationException if no token can be obtained for the consents
      */
-    private JSONObject buildDebtorAccount(String[] userAccount) {
-        return new JSONObject()
-                .put(OpenBankingConstants.FIELD_SCHEME_NAME, OpenBankingConstants.SCHEME_SORT_CODE_ACCOUNT_NUMBER)
-                .put(OpenBankingConstants.FIELD_IDENTIFICATION, userAccount[1])
-                .put(OpenBankingConstants.FIELD_NAME, userAccount[0])
-                .put(OpenBankingConstants.FIELD_SECONDARY_IDENTIFICATION,
-                        userAccount[1] + OpenBankingConstants.PAYMENT_SECONDARY_ID_SUFFIX);
+    private void createBatchConsents(PaymentBatch batch, List<PaymentBatch.Item> claimed,
+                                     Supplier<String> states, Consumer<AuthFlow> flows)
+            throws PaymentException, AuthorizationException {
+        String token;
+        try {
+            token = oauthService.getToken(OpenBankingConstants.SCOPE_PAYMENTS);
+        } catch (AuthorizationException e) {
+            for (PaymentBatch.Item item : claimed) {
+                item.consentFailed(e.getMessage());
+            }
+            throw e;
+        }
+        String paymentUrl = ConfigLoader.getPaymentBaseUrl() + OpenBankingConstants.PATH_PAYMENT_CONSENTS;
+        List<CompletableFuture<Void>> pending = new ArrayList<>(claimed.size());
+        for (PaymentBatch.Item item : claimed) {
+            pending.add(batchFetcher.submit(PAYMENT_BANK_KEY, () -> {
+                createBatchConsent(batch, item, token, paymentUrl, states.get(), flows);
+                return null;
+            }));
+        }
+        try {
+            for (CompletableFuture<Void> future : pending) {
+                batchFetcher.await(future);
+            }
+        } catch (IOException e) {
+            for (CompletableFuture<Void> future : pending) {
+                future.cancel(true);
+            }
+            throw new PaymentException("Interrupted while creating batch payment consents", e);
+        }
+    }
+
+    /**
+     * Creates the consent of one payment of a batch, recording the outcome on the payment.
+     * The initiation is built once, with identifiers derived from the payment's idempotency key,
+     * and reused for retries and for the payment submission.
+     *
+     * @param batch      batch the payment belongs to
+     * @param item       payment to create the consent for
+     * @param token      raw token response for the payment scope
+     * @param paymentUrl payment consent endpoint URL
+     * @param state      OAuth state identifying the new flow
+     * @param flows      receives the flow of the consent
+     */
+    private void createBatchConsent(PaymentBatch batch, PaymentBatch.Item item, String token, String paymentUrl,
+                                    String state, Consumer<AuthFlow> flows) {
+        try {
+            String initiation = item.getInitiation();
+            if (initiation == null) {
+                initiation = createKeyedInitiation(item.getPayment(), item.getIdempotencyKey());
+                item.setInitiation(initiation);
+            }
+            String consentBody = PaymentBodyWriter.consentBody(initiation);
+            String consentResponse = oauthService.initializePaymentConsent(
+                    token, consentBody, paymentUrl, item.getConsentKey());
+            String consentId = new JSONObject(consentResponse)
+                    .getJSONObject(OpenBankingConstants.FIELD_DATA)
+                    .getString(OpenBankingConstants.FIELD_CONSENT_ID);
+            String redirectUrl = oauthService.authorizeConsent(
+                    consentResponse, OpenBankingConstants.SCOPE_PAYMENTS, state);
+            item.consentCreated(consentId, redirectUrl);
+            flows.accept(AuthFlow.forBatchPayment(state, consentId, item.getPayment(), redirectUrl,
+                    batch.getBatchId(), item.getIndex()));
+        } catch (IOException | GeneralSecurityException | JSONException e) {
+            item.consentFailed(e.getMessage());
+        }
+    }
+
+    /**
+     * Submits an authorized payment of a batch under its idempotency key, repeating the
+     * initiation its consent was created with.
+     *
+     * @param accessToken valid OAuth access token from the authorization callback
+     * @param flow        batch payment flow whose consent was authorized
+     * @return true if the payment is submitted, false if another callback is submitting it
+     * @throws PaymentException if the batch is no longer tracked or the submission fails
+     */
+    private boolean submitBatchPayment(String accessToken, AuthFlow flow) throws PaymentException {
+        PaymentBatch batch = batches.get(flow.getBatchId());
+        PaymentBatch.Item item = batch == null ? null : batch.item(flow.getBatchIndex());
+        if (item == null || !flow.getConsentId().equals(item.getConsentId())) {
+            throw new PaymentException("Batch payment is no longer tracked");
+        }
+        if (!item.claimSubmission()) {
+            return item.isSubmitted();
+        }
+        try {
+            String paymentUrl = ConfigLoader.getPaymentBaseUrl() + OpenBankingConstants.PATH_PAYMENTS;
+            String paymentBody = PaymentBodyWriter.submissionBody(item.getInitiation(), item.getConsentId());
+            String response = client.postPayments(paymentUrl, paymentBody, accessToken, item.getSubmissionKey());
+            item.submitted(trackSubmission(item.getConsentId(), response));
+            return true;
+        } catch (IOException | JSONException e) {
+            item.submissionFailed(e.getMessage());
+            throw new PaymentException("Failed to submit batch payment to bank endpoint", e);
+        }
+    }
+
+    /**
+     * Marks the payments that do not match the batch first submitted under the same ID as conflicts.
+     *
+     * @param result    outcome of the tracked payments
+     * @param conflicts positions of the submitted payments that conflict
+     * @return result with the conflicting positions replaced or appended
+     */
+    private BatchPaymentResult withConflicts(BatchPaymentResult result, List<Integer> conflicts) {
+        if (conflicts.isEmpty()) {
+            return result;
+        }
+        List<BatchPaymentResult.Item> items = result.getItems();
+        for (int index : conflicts) {
+            if (index < items.size()) {
+                items.set(index, new BatchPaymentResult.Item(index, BatchPaymentResult.Item.CONFLICT,
+                        items.get(index).getIdempotencyKey(), null, null, null,
+                        "Payment differs from the one first submitted at this position"));
+            } else {
+                items.add(new BatchPaymentResult.Item(index, BatchPaymentResult.Item.CONFLICT, null, null, null,
+                        null, "Batch was first submitted without a payment at this position"));
+            }
+        }
+        return new BatchPaymentResult(result.getBatchId(), items);
+    }
+
+    /**
+     * Builds the initiation of a payment with identifiers derived from its idempotency key, so that
+     * a retry under the same key sends the same body.
+     *
+     * @param payment        payment details
+     * @param idempotencyKey key the payment consent is created under
+     * @return payment initiation as compact JSON
+     */
+    private String createKeyedInitiation(Payment payment, String idempotencyKey) {
+        String key = idempotencyKey.replace("-", "").toUpperCase(Locale.ROOT);
+        return createInitiation(payment,
+                OpenBankingConstants.PAYMENT_INSTRUCTION_PREFIX + key.substring(0, 8),
+                OpenBankingConstants.PAYMENT_END_TO_END_PREFIX + key.substring(8, 16),
+                toNumericId(key, 14));
+    }
+
+    /**
+     * Builds the payment initiation from the payment details.
+     *
+     * @param payment       payment details
+     * @param instructionId instruction identification
+     * @param endToEndId    end-to-end identification
+     * @param creditorId    creditor account identification
+     * @return payment initiation as compact JSON
+     */
+    private String createInitiation(Payment payment, String instructionId, String endToEndId, String creditorId) {
+        String[] userAccount = parseAccountIdentifier(payment.getUserAccount());
+        String[] payeeAccount = parseAccountIdentifier(payment.getPayeeAccount());
+        return PaymentBodyWriter.initiation(instructionId, endToEndId,
+                formatAmount(payment.getAmount()), payment.getCurrency(),
+                creditorId, payeeAccount[0],
+                userAccount[1], userAccount[0],
+                payment.getReference());
     }
 
     /**
@@ -292,9 +574,19 @@ public final class PaymentService {
      * @return numeric ID string of exactly the specified length
      */
     private String generateNumericId(int length) {
-        String uuid = UUID.randomUUID().toString().replace("-", "");
+        return toNumericId(UUID.randomUUID().toString().replace("-", ""), length);
+    }
+
+    /**
+     * Converts a hex string to a numeric-only ID string of the given length.
+     *
+     * @param hex    hex string to derive the digits from
+     * @param length desired length of the numeric ID
+     * @return numeric ID string of exactly the specified length, padded with random digits if the hex string is short
+     */
+    private String toNumericId(String hex, int length) {
         StringBuilder numericId = new StringBuilder();
-        for (char c : uuid.toCharArray()) {
+        for (char c : hex.toCharArray()) {
             if (numericId.length() >= length) break;
             numericId.append(hexCharToDigit(c));
         }
@@ -0,0 +1,335 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.exceptions.AuthorizationException;
+import com.wso2.openbanking.demo.models.PaymentStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls the bank for the status of submitted payments until they are settled or rejected.
+ * Outstanding payments wait in a queue ordered by their next poll time; on every tick the due
+ * payments are polled together under one access token on a small thread pool. A payment whose
+ * status has not changed is polled less and less often, up to a maximum interval, and polling
+ * stops once the payment reaches a final status or has been outstanding for too long.
+ */
+final class PaymentStatusPoller {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PaymentStatusPoller.class);
+
+    private static final int BACKOFF_FACTOR = 2;
+    private static final double JITTER = 0.1;
+
+    private final StatusLoader statusLoader;
+    private final TokenLoader tokenLoader;
+    private final FlowStateStore<TrackedPayment> payments;
+    private final PriorityBlockingQueue<TrackedPayment> due = new PriorityBlockingQueue<>(
+            64, Comparator.comparingLong(payment -> payment.nextPollAtMillis));
+    private final ScheduledExecutorService scheduler;
+    private final long initialIntervalMillis;
+    private final long maxIntervalMillis;
+    private final long maxAgeMillis;
+    private final int batchSize;
+
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong finalized = new AtomicLong();
+    private final AtomicLong abandoned = new AtomicLong();
+
+    /** Reads the current status of a payment from the bank. */
+    @FunctionalInterface
+    interface StatusLoader {
+
+        /**
+         * Requests the payment's status.
+         *
+         * @param paymentId   bank payment ID
+         * @param accessToken access token for the payment API
+         * @return status reported by the bank
+         * @throws IOException if the request fails
+         */
+        String load(String paymentId, String accessToken) throws IOException;
+    }
+
+    /** Obtains an access token for the payment API. */
+    @FunctionalInterface
+    interface TokenLoader {
+
+        /**
+         * Returns a valid access token.
+         *
+         * @return access token
+         * @throws AuthorizationException if no token can be obtained
+         */
+        String load() throws AuthorizationException;
+    }
+
+    /**
+     * Creates a poller and starts its scheduler.
+     *
+     * @param statusLoader           reads payment statuses from the bank
+     * @param tokenLoader            obtains access tokens for the status requests
+     * @param threads                number of threads polling the bank
+     * @param tickMillis             interval at which due payments are collected
+     * @param initialIntervalSeconds interval before the first poll and after every status change
+     * @param maxIntervalSeconds     longest interval between two polls of a payment
+     * @param maxAgeSeconds          time after submission at which polling a payment stops
+     * @param batchSize              maximum number of payments polled on one tick
+     * @param retentionSeconds       time a payment's status is kept after submission
+     * @param maxPayments            maximum number of payments whose status is kept
+     */
+    PaymentStatusPoller(StatusLoader statusLoader, TokenLoader tokenLoader, int threads, long tickMillis,
+                        long initialIntervalSeconds, long maxIntervalSeconds, long maxAgeSeconds, int batchSize,
+                        long retentionSeconds, int maxPayments) {
+        this.statusLoader = statusLoader;
+        this.tokenLoader = tokenLoader;
+        this.payments = new FlowStateStore<>(retentionSeconds, maxPayments);
+        this.initialIntervalMillis = TimeUnit.SECONDS.toMillis(initialIntervalSeconds);
+        this.maxIntervalMillis = Math.max(initialIntervalMillis, TimeUnit.SECONDS.toMillis(maxIntervalSeconds));
+        this.maxAgeMillis = TimeUnit.SECONDS.toMillis(maxAgeSeconds);
+        this.batchSize = batchSize;
+        AtomicInteger counter = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "payment-status-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+        this.scheduler.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts tracking a submitted payment. A payment whose submission response already carries a
+     * final status is recorded without being polled.
+     *
+     * @param consentId consent the payment was submitted under
+     * @param paymentId bank payment ID
+     * @param status    status returned with the submission
+     */
+    void track(String consentId, String paymentId, String status) {
+        TrackedPayment payment = new TrackedPayment(consentId, paymentId, status, System.currentTimeMillis());
+        payments.put(consentId, payment);
+        if (payment.finalStatus) {
+            finalized.incrementAndGet();
+            return;
+        }
+        payment.schedule(initialIntervalMillis);
+        due.add(payment);
+    }
+
+    /**
+     * Returns the last known status of the payment submitted under a consent.
+     *
+     * @param consentId consent the payment was submitted under
+     * @return payment status, or null if no payment is tracked for the consent
+     */
+    PaymentStatus getStatus(String consentId) {
+        TrackedPayment payment = payments.get(consentId);
+        return payment == null ? null : payment.toStatus();
+    }
+
+    /**
+     * Returns polling statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tracked",     payments.size());
+        stats.put("outstanding", due.size());
+        stats.put("polls",       polls.get());
+        stats.put("errors",      errors.get());
+        stats.put("finalized",   finalized.get());
+        stats.put("abandoned",   abandoned.get());
+        return stats;
+    }
+
+    /** Collects the payments that are due and polls them under a shared access token. */
+    private void tick() {
+        long now = System.currentTimeMillis();
+        List<TrackedPayment> batch = new ArrayList<>();
+        TrackedPayment head;
+        while (batch.size() < batchSize && (head = due.peek()) != null && head.nextPollAtMillis <= now) {
+            TrackedPayment payment = due.poll();
+            if (payment != null && payments.get(payment.consentId) == payment) {
+                batch.add(payment);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        String accessToken;
+        try {
+            accessToken = tokenLoader.load();
+        } catch (AuthorizationException | RuntimeException e) {
+            LOG.warn("Unable to obtain a token for payment status polling: {}", e.getMessage());
+            for (TrackedPayment payment : batch) {
+                reschedule(payment, now, e.getMessage());
+            }
+            return;
+        }
+        for (TrackedPayment payment : batch) {
+            scheduler.execute(() -> poll(payment, accessToken));
+        }
+    }
+
+    /**
+     * Polls one payment and schedules its next poll unless its status is final.
+     *
+     * @param payment     payment to poll
+     * @param accessToken access token for the payment API
+     */
+    private void poll(TrackedPayment payment, String accessToken) {
+        polls.incrementAndGet();
+        long now = System.currentTimeMillis();
+        try {
+            String status = statusLoader.load(payment.paymentId, accessToken);
+            if (payment.update(status, now)) {
+                finalized.incrementAndGet();
+                LOG.debug("Payment {} reached final status {}.", payment.paymentId, status);
+                return;
+            }
+            reschedule(payment, now, null);
+        } catch (IOException | RuntimeException e) {
+            errors.incrementAndGet();
+            reschedule(payment, now, e.getMessage());
+        }
+    }
+
+    /**
+     * Queues the next poll of a payment after its backed-off interval, or stops polling it once it
+     * has been outstanding for longer than the maximum age.
+     *
+     * @param payment payment to reschedule
+     * @param now     current time
+     * @param error   failure of the last attempt, or null
+     */
+    private void reschedule(TrackedPayment payment, long now, String error) {
+        if (error != null) {
+            payment.failed(error);
+        }
+        if (now - payment.submittedAtMillis >= maxAgeMillis) {
+            payment.abandon();
+            abandoned.incrementAndGet();
+            LOG.warn("Stopped polling payment {} after {} polls without a final status.",
+                    payment.paymentId, payment.polls);
+            return;
+        }
+        payment.schedule(payment.nextInterval(initialIntervalMillis, maxIntervalMillis));
+        due.add(payment);
+    }
+
+    /** Polling state of one submitted payment. */
+    private static final class TrackedPayment {
+
+        private final String consentId;
+        private final String paymentId;
+        private final long submittedAtMillis;
+        private String status;
+        private boolean finalStatus;
+        private boolean polling;
+        private int polls;
+        private long updatedAtMillis;
+        private long intervalMillis;
+        private boolean changed;
+        private String error;
+        private volatile long nextPollAtMillis;
+
+        private TrackedPayment(String consentId, String paymentId, String status, long submittedAtMillis) {
+            this.consentId = consentId;
+            this.paymentId = paymentId;
+            this.status = status;
+            this.finalStatus = PaymentStatus.isFinal(status);
+            this.polling = !finalStatus;
+            this.submittedAtMillis = submittedAtMillis;
+            this.updatedAtMillis = submittedAtMillis;
+        }
+
+        private synchronized void schedule(long interval) {
+            intervalMillis = interval;
+            double jitter = 1 + (ThreadLocalRandom.current().nextDouble() * 2 - 1) * JITTER;
+            nextPollAtMillis = System.currentTimeMillis() + (long) (interval * jitter);
+        }
+
+        /**
+         * Records a polled status.
+         *
+         * @param polled status reported by the bank
+         * @param now    time of the poll
+         * @return true if the status is final
+         */
+        private synchronized boolean update(String polled, long now) {
+            polls++;
+            updatedAtMillis = now;
+            error = null;
+            if (!polled.equals(status)) {
+                status = polled;
+                changed = true;
+            }
+            finalStatus = PaymentStatus.isFinal(polled);
+            polling = !finalStatus;
+            return finalStatus;
+        }
+
+        private synchronized void failed(String message) {
+            error = message;
+        }
+
+        /**
+         * Returns the interval before the next poll: the initial interval after a status change,
+         * otherwise the previous interval backed off up to the maximum.
+         *
+         * @param initialInterval interval used after a status change
+         * @param maxInterval     longest interval between two polls
+         * @return interval in milliseconds
+         */
+        private synchronized long nextInterval(long initialInterval, long maxInterval) {
+            long next = changed
+                    ? initialInterval
+                    : Math.min(maxInterval, Math.max(1L, intervalMillis) * BACKOFF_FACTOR);
+            changed = false;
+            return next;
+        }
+
+        private synchronized void abandon() {
+            polling = false;
+        }
+
+        private synchronized PaymentStatus toStatus() {
+            return new PaymentStatus(consentId, paymentId, status, finalStatus, polling, polls, updatedAtMillis,
+                    error);
+        }
+    }
+}
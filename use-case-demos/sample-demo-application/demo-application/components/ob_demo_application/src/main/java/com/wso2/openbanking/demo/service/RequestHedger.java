@@ -0,0 +1,429 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.http.HttpConnection;
+import com.wso2.openbanking.demo.http.HttpTransport;
+import com.wso2.openbanking.demo.http.LatencyHistogram;
+import com.wso2.openbanking.demo.http.OutboundCallScope;
+import com.wso2.openbanking.demo.http.TransportResponse;
+import com.wso2.openbanking.demo.utils.ConfigLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Hedges bank GET requests against slow responses. Latencies are tracked per endpoint; once an
+ * endpoint has enough samples, a request that has not been answered within the configured
+ * percentile of its recent latency is sent a second time, and whichever response arrives first is
+ * used while the other request is aborted. Hedges are paid for from a budget that grows with every
+ * request, which caps the extra load at a fixed share of the traffic.
+ */
+public final class RequestHedger {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RequestHedger.class);
+
+    private static final int MAX_ENDPOINTS = 256;
+    private static final double MAX_BUDGET = 10;
+    private static final String ID_SEGMENT = "{id}";
+    private static final Pattern VERSION_SEGMENT = Pattern.compile("v\\d+(\\.\\d+)*");
+
+    private static RequestHedger instance;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minSamples;
+    private final long minDelayMillis;
+    private final double budgetPerRequest;
+    private final long windowMillis;
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final ScheduledExecutorService timer;
+    private double budget = MAX_BUDGET;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedged = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+
+    /**
+     * Creates a hedger.
+     *
+     * @param enabled        whether requests are hedged at all
+     * @param percentile     latency percentile after which a request is hedged
+     * @param minSamples     latencies an endpoint needs before its requests are hedged
+     * @param minDelayMillis shortest wait before a hedge is sent
+     * @param budgetPercent  hedges allowed per hundred requests
+     * @param windowSeconds  length of one latency sampling window
+     * @param threads        threads sending hedges when virtual threads are unavailable
+     */
+    private RequestHedger(boolean enabled, double percentile, long minSamples, long minDelayMillis,
+                          double budgetPercent, long windowSeconds, int threads) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.minDelayMillis = minDelayMillis;
+        this.budgetPerRequest = budgetPercent / 100;
+        this.windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+        if (enabled) {
+            this.executor = ConcurrentAccountFetcher.createExecutor(threads, "request-hedge-");
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "request-hedge-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            this.timer = scheduler;
+        } else {
+            this.executor = null;
+            this.timer = null;
+        }
+    }
+
+    /**
+     * Returns the shared hedger, configured on first use.
+     *
+     * @return shared RequestHedger instance
+     */
+    public static synchronized RequestHedger getInstance() {
+        if (instance == null) {
+            instance = new RequestHedger(
+                    ConfigLoader.isRequestHedgingEnabled(),
+                    ConfigLoader.getRequestHedgePercentile(),
+                    ConfigLoader.getRequestHedgeMinSamples(),
+                    ConfigLoader.getRequestHedgeMinDelayMillis(),
+                    ConfigLoader.getRequestHedgeBudgetPercent(),
+                    ConfigLoader.getRequestHedgeWindowSeconds(),
+                    ConfigLoader.getRequestHedgeThreads());
+        }
+        return instance;
+    }
+
+    /**
+     * Sends a GET request, hedging it if it is slow. A request that is hedged is read into memory
+     * before the reader sees it; a request that is not hedged is streamed to the reader as usual.
+     *
+     * @param url     request URL, used to find the endpoint's latency histogram
+     * @param request fully configured GET request
+     * @param reader  reader consuming the response that arrived first
+     * @param <T>     type of the value read from the response
+     * @return value returned by the reader
+     * @throws IOException if every request sent failed or the response cannot be read
+     */
+    <T> T send(String url, HttpConnection request, HttpTransport.ResponseReader<T> reader) throws IOException {
+        if (!enabled) {
+            return request.executeAndRead(reader);
+        }
+        requests.incrementAndGet();
+        earn();
+        LatencyHistogram histogram = histogramFor(url);
+        long delay = histogram.count() >= minSamples ? Math.max(minDelayMillis, histogram.percentile(percentile)) : -1;
+        if (delay < 0) {
+            long start = System.nanoTime();
+            T result = request.executeAndRead(reader);
+            histogram.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return result;
+        }
+        TransportResponse response = race(request, histogram, delay);
+        return reader.read(response.getStatusCode(), response.getHeaders(),
+                new ByteArrayInputStream(response.getBody().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Returns hedging counters and the recent latencies of every endpoint.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> endpoints = new TreeMap<>();
+        histograms.forEach((endpoint, histogram) -> {
+            Map<String, Object> latency = histogram.toMap();
+            latency.put("hedgeAfterMillis", histogram.count() >= minSamples
+                    ? Math.max(minDelayMillis, histogram.percentile(percentile))
+                    : -1);
+            endpoints.put(endpoint, latency);
+        });
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled",         enabled);
+        stats.put("requests",        requests.get());
+        stats.put("hedged",          hedged.get());
+        stats.put("hedgeWins",       hedgeWins.get());
+        stats.put("budgetExhausted", budgetExhausted.get());
+        stats.put("endpoints",       endpoints);
+        return stats;
+    }
+
+    /**
+     * Sends the request on the calling thread and, if it has not completed after the hedge delay,
+     * a second copy on the hedge executor. Each copy runs in its own child of the caller's call
+     * scope, so the loser can be aborted without touching the caller's other requests.
+     *
+     * @param request   request to send
+     * @param histogram latency histogram of the request's endpoint
+     * @param delay     time after which the request is hedged
+     * @return first successfully received response
+     * @throws IOException if every copy sent failed
+     */
+    private TransportResponse race(HttpConnection request, LatencyHistogram histogram, long delay)
+            throws IOException {
+        OutboundCallScope parent = OutboundCallScope.current();
+        Race race = new Race(OutboundCallScope.childOf(parent));
+        ScheduledFuture<?> hedge = timer.schedule(() -> hedge(race, request, histogram, parent),
+                delay, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        try {
+            TransportResponse response = OutboundCallScope.callWithin(race.primary, request::executeForResponse);
+            hedge.cancel(false);
+            histogram.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            race.won(response, race.primary);
+        } catch (IOException e) {
+            hedge.cancel(false);
+            if (race.result.isDone()) {
+                // Aborted after the hedge won; the abort time is a lower bound of the primary's latency.
+                histogram.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            race.failed(e);
+        }
+        try {
+            return race.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            race.cancelAll();
+            throw new InterruptedIOException("Interrupted while waiting for a hedged request");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Sends the second copy of a request if the primary is still running and the budget allows.
+     *
+     * @param race      race between the copies of the request
+     * @param request   request to send
+     * @param histogram latency histogram of the request's endpoint
+     * @param parent    call scope of the caller
+     */
+    private void hedge(Race race, HttpConnection request, LatencyHistogram histogram, OutboundCallScope parent) {
+        if (race.result.isDone()) {
+            return;
+        }
+        if (!spend()) {
+            budgetExhausted.incrementAndGet();
+            return;
+        }
+        OutboundCallScope scope = OutboundCallScope.childOf(parent);
+        if (!race.enter(scope)) {
+            return;
+        }
+        hedged.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    TransportResponse response = OutboundCallScope.callWithin(scope, request::executeForResponse);
+                    histogram.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    if (race.won(response, scope)) {
+                        hedgeWins.incrementAndGet();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    LOG.debug("Hedged request failed: {}", e.getMessage());
+                    race.failed(e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            race.failed(new IOException("Hedged request rejected", e));
+        }
+    }
+
+    /**
+     * Returns the latency histogram of the endpoint a URL belongs to. The endpoint is the URL's host
+     * and path with identifier segments generalised; beyond a fixed number of endpoints, requests
+     * share a histogram per host.
+     *
+     * @param url request URL
+     * @return endpoint histogram
+     */
+    private LatencyHistogram histogramFor(String url) {
+        String endpoint = endpointOf(url);
+        LatencyHistogram histogram = histograms.get(endpoint);
+        if (histogram != null) {
+            return histogram;
+        }
+        if (histograms.size() >= MAX_ENDPOINTS) {
+            endpoint = hostOf(url);
+        }
+        return histograms.computeIfAbsent(endpoint, key -> new LatencyHistogram(windowMillis));
+    }
+
+    /**
+     * Generalises a URL to its endpoint: host and path, with every path segment that holds a
+     * digit, other than an API version, replaced by a placeholder.
+     *
+     * @param url request URL
+     * @return endpoint key
+     */
+    private static String endpointOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            StringBuilder endpoint = new StringBuilder(String.valueOf(uri.getAuthority()));
+            String path = uri.getRawPath();
+            if (path != null) {
+                for (String segment : path.split("/")) {
+                    if (segment.isEmpty()) {
+                        continue;
+                    }
+                    endpoint.append('/');
+                    boolean identifier = segment.chars().anyMatch(Character::isDigit)
+                            && !VERSION_SEGMENT.matcher(segment).matches();
+                    endpoint.append(identifier ? ID_SEGMENT : segment);
+                }
+            }
+            return endpoint.toString();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private static String hostOf(String url) {
+        try {
+            return String.valueOf(URI.create(url).getAuthority());
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    /** Adds the budget share every request earns towards a hedge. */
+    private synchronized void earn() {
+        budget = Math.min(MAX_BUDGET, budget + budgetPerRequest);
+    }
+
+    /**
+     * Takes one hedge from the budget.
+     *
+     * @return true if the budget allowed a hedge
+     */
+    private synchronized boolean spend() {
+        if (budget < 1) {
+            return false;
+        }
+        budget -= 1;
+        return true;
+    }
+
+    /** Copies of one request racing for the first response. */
+    private static final class Race {
+
+        private final CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+        private final OutboundCallScope primary;
+        private OutboundCallScope secondary;
+        private int running = 1;
+        private boolean closed;
+
+        private Race(OutboundCallScope primary) {
+            this.primary = primary;
+        }
+
+        /**
+         * Admits a second copy unless the race is already over.
+         *
+         * @param scope call scope of the second copy
+         * @return true if the copy should be sent
+         */
+        private synchronized boolean enter(OutboundCallScope scope) {
+            if (closed) {
+                return false;
+            }
+            secondary = scope;
+            running++;
+            return true;
+        }
+
+        /**
+         * Offers a response, aborting the other copy if this one is first.
+         *
+         * @param response response received
+         * @param scope    call scope of the copy that received it
+         * @return true if the response won the race
+         */
+        private boolean won(TransportResponse response, OutboundCallScope scope) {
+            OutboundCallScope other;
+            synchronized (this) {
+                running--;
+                closed = true;
+                if (!result.complete(response)) {
+                    return false;
+                }
+                other = scope == primary ? secondary : primary;
+            }
+            if (other != null) {
+                other.cancel();
+            }
+            return true;
+        }
+
+        /**
+         * Records a failed copy; the race fails once no copy is left running.
+         *
+         * @param failure failure of the copy
+         */
+        private synchronized void failed(IOException failure) {
+            running--;
+            if (running == 0) {
+                closed = true;
+                result.completeExceptionally(failure);
+            }
+        }
+
+        private void cancelAll() {
+            OutboundCallScope other;
+            synchronized (this) {
+                closed = true;
+                other = secondary;
+            }
+            primary.cancel();
+            if (other != null) {
+                other.cancel();
+            }
+        }
+    }
+}
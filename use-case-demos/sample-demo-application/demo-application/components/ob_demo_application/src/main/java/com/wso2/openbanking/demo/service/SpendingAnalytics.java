@@ -0,0 +1,410 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.models.Account;
+import com.wso2.openbanking.demo.models.Transaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spending analytics over the accounts loaded under a consent: per-day and per-month inflow and
+ * outflow, daily closing balances, and the top counterparties by spend, grouped by currency.
+ * Each account's transactions are folded into its ledger in a single pass, accounts are folded
+ * in parallel on a fork-join pool, and the ledgers are kept per consent so that a later load
+ * only folds the transactions not seen before.
+ */
+public final class SpendingAnalytics {
+
+    private static final String CREDIT = "Credit";
+    private static final String DEBIT = "Debit";
+    private static final int DATE_LENGTH = 10;
+    private static final int MONTH_LENGTH = 7;
+
+    private final ForkJoinPool pool;
+    private final FlowStateStore<ConsentLedgers> consents;
+    private final int topCounterparties;
+
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong transactionsFolded = new AtomicLong();
+    private final AtomicLong transactionsSkipped = new AtomicLong();
+    private final AtomicLong transactionsRejected = new AtomicLong();
+
+    /**
+     * Creates a SpendingAnalytics engine.
+     *
+     * @param parallelism       number of fork-join workers folding accounts
+     * @param ttlSeconds        time a consent's ledgers are kept after its last update
+     * @param maxConsents       maximum number of consents whose ledgers are kept at once
+     * @param topCounterparties number of counterparties listed per currency
+     */
+    public SpendingAnalytics(int parallelism, long ttlSeconds, int maxConsents, int topCounterparties) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.consents = new FlowStateStore<>(ttlSeconds, maxConsents);
+        this.topCounterparties = Math.max(0, topCounterparties);
+    }
+
+    /**
+     * Folds the transactions of the given accounts into the consent's ledgers and recomputes its
+     * report. Transactions already folded in an earlier update are skipped, and ledgers of accounts
+     * no longer returned under the consent are dropped.
+     *
+     * @param consentId consent the accounts were loaded under
+     * @param accounts  accounts with their balances and transactions
+     */
+    public void update(String consentId, List<Account> accounts) {
+        ConsentLedgers previous = consents.get(consentId);
+        ConsentLedgers state = new ConsentLedgers();
+        for (Account account : accounts) {
+            AccountLedger ledger = previous == null ? null : previous.accounts.get(account.getId());
+            state.accounts.put(account.getId(), ledger != null ? ledger : new AccountLedger());
+        }
+        Map<String, CurrencyLedger> combined = accounts.isEmpty()
+                ? new TreeMap<>()
+                : pool.invoke(new FoldTask(accounts, state.accounts, 0, accounts.size()));
+        state.report = buildReport(consentId, accounts.size(), combined);
+        consents.put(consentId, state);
+        updates.incrementAndGet();
+    }
+
+    /**
+     * Returns the latest report computed for a consent.
+     *
+     * @param consentId consent to report on
+     * @return report as an ordered map, or null if no accounts have been loaded under the consent
+     */
+    public Map<String, Object> getReport(String consentId) {
+        ConsentLedgers state = consents.get(consentId);
+        return state == null ? null : state.report;
+    }
+
+    /**
+     * Discards the ledgers and report of a consent.
+     *
+     * @param consentId consent whose analytics are discarded
+     */
+    public void invalidateConsent(String consentId) {
+        consents.take(consentId);
+    }
+
+    /**
+     * Returns analytics statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled",              true);
+        stats.put("parallelism",          pool.getParallelism());
+        stats.put("updates",              updates.get());
+        stats.put("transactionsFolded",   transactionsFolded.get());
+        stats.put("transactionsSkipped",  transactionsSkipped.get());
+        stats.put("transactionsRejected", transactionsRejected.get());
+        stats.put("consents",             consents.getStats());
+        return stats;
+    }
+
+    /**
+     * Builds the report of a consent from its combined per-currency ledgers.
+     *
+     * @param consentId    consent reported on
+     * @param accountCount number of accounts the ledgers cover
+     * @param combined     ledgers of all accounts, by currency
+     * @return report as an ordered map
+     */
+    private Map<String, Object> buildReport(String consentId, int accountCount, Map<String, CurrencyLedger> combined) {
+        Map<String, Object> currencies = new LinkedHashMap<>();
+        long transactions = 0;
+        for (Map.Entry<String, CurrencyLedger> entry : combined.entrySet()) {
+            CurrencyLedger ledger = entry.getValue();
+            transactions += ledger.total.count;
+            Map<String, Object> currency = ledger.total.toMap();
+            if (ledger.balance != null) {
+                currency.put("balance", ledger.balance);
+            }
+            currency.put("daily", dailyReport(ledger));
+            currency.put("monthly", periodReport(ledger.months, "month"));
+            currency.put("topCounterparties", counterpartyReport(ledger.counterparties));
+            currencies.put(entry.getKey(), currency);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("consentId",    consentId);
+        report.put("accounts",     accountCount);
+        report.put("transactions", transactions);
+        report.put("currencies",   currencies);
+        return report;
+    }
+
+    /**
+     * Lists the days of a ledger in date order with their flows and, when the current balance is
+     * known, the closing balance of each day worked back from it.
+     *
+     * @param ledger ledger of one currency
+     * @return one entry per day with transactions
+     */
+    private static List<Map<String, Object>> dailyReport(CurrencyLedger ledger) {
+        List<Map<String, Object>> days = periodReport(ledger.days, "date");
+        if (ledger.balance != null) {
+            BigDecimal closing = ledger.balance;
+            for (int i = days.size() - 1; i >= 0; i--) {
+                Map<String, Object> day = days.get(i);
+                day.put("balance", closing);
+                closing = closing.subtract((BigDecimal) day.get("net"));
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Lists the periods of a ledger in order with their flows.
+     *
+     * @param periods  flows keyed by period
+     * @param keyField name of the field holding the period key
+     * @return one entry per period
+     */
+    private static List<Map<String, Object>> periodReport(NavigableMap<String, Flow> periods, String keyField) {
+        List<Map<String, Object>> result = new ArrayList<>(periods.size());
+        for (Map.Entry<String, Flow> entry : periods.entrySet()) {
+            Map<String, Object> period = new LinkedHashMap<>();
+            period.put(keyField, entry.getKey());
+            period.putAll(entry.getValue().toMap());
+            result.add(period);
+        }
+        return result;
+    }
+
+    /**
+     * Lists the counterparties with the largest outflow.
+     *
+     * @param counterparties flows keyed by transaction reference
+     * @return up to {@code topCounterparties} entries, largest outflow first
+     */
+    private List<Map<String, Object>> counterpartyReport(Map<String, Flow> counterparties) {
+        List<Map.Entry<String, Flow>> ranked = new ArrayList<>(counterparties.entrySet());
+        ranked.sort(Comparator.<Map.Entry<String, Flow>, BigDecimal>comparing(entry -> entry.getValue().outflow)
+                .thenComparingLong(entry -> entry.getValue().count)
+                .reversed()
+                .thenComparing(Map.Entry::getKey));
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, Flow> entry : ranked.subList(0, Math.min(topCounterparties, ranked.size()))) {
+            Map<String, Object> counterparty = new LinkedHashMap<>();
+            counterparty.put("reference", entry.getKey());
+            counterparty.putAll(entry.getValue().toMap());
+            result.add(counterparty);
+        }
+        return result;
+    }
+
+    /** Ledgers of the accounts loaded under a consent, with the report computed from them. */
+    private static final class ConsentLedgers {
+
+        private final Map<String, AccountLedger> accounts = new ConcurrentHashMap<>();
+        private Map<String, Object> report;
+    }
+
+    /**
+     * Folds a range of accounts into their ledgers, splitting the range across workers, and
+     * returns the combined per-currency ledgers of the range.
+     */
+    private final class FoldTask extends RecursiveTask<Map<String, CurrencyLedger>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<Account> accounts;
+        private final transient Map<String, AccountLedger> ledgers;
+        private final int from;
+        private final int to;
+
+        private FoldTask(List<Account> accounts, Map<String, AccountLedger> ledgers, int from, int to) {
+            this.accounts = accounts;
+            this.ledgers = ledgers;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<String, CurrencyLedger> compute() {
+            if (to - from == 1) {
+                Account account = accounts.get(from);
+                return ledgers.get(account.getId()).fold(account);
+            }
+            int middle = (from + to) >>> 1;
+            FoldTask left = new FoldTask(accounts, ledgers, from, middle);
+            left.fork();
+            Map<String, CurrencyLedger> combined = new FoldTask(accounts, ledgers, middle, to).compute();
+            for (Map.Entry<String, CurrencyLedger> entry : left.join().entrySet()) {
+                CurrencyLedger existing = combined.putIfAbsent(entry.getKey(), entry.getValue());
+                if (existing != null) {
+                    existing.addAll(entry.getValue());
+                }
+            }
+            return combined;
+        }
+    }
+
+    /** Per-currency ledgers of one account and the IDs of the transactions already folded into them. */
+    private final class AccountLedger {
+
+        private final Map<String, CurrencyLedger> currencies = new HashMap<>();
+        private final Set<String> foldedIds = new HashSet<>();
+
+        /**
+         * Folds the account's transactions not seen before into its ledgers.
+         *
+         * @param account account with its current balance and transactions
+         * @return copy of the account's ledgers, with the current balance set on the ledger of the
+         *         currency the bank reported it in, whether or not that ledger has transactions
+         */
+        private synchronized Map<String, CurrencyLedger> fold(Account account) {
+            List<Transaction> transactions = account.getTransactions();
+            if (transactions != null) {
+                for (Transaction transaction : transactions) {
+                    if (transaction.getId() != null && !foldedIds.add(transaction.getId())) {
+                        transactionsSkipped.incrementAndGet();
+                    } else if (foldTransaction(transaction)) {
+                        transactionsFolded.incrementAndGet();
+                    } else {
+                        transactionsRejected.incrementAndGet();
+                    }
+                }
+            }
+            Map<String, CurrencyLedger> copy = new TreeMap<>();
+            for (Map.Entry<String, CurrencyLedger> entry : currencies.entrySet()) {
+                copy.put(entry.getKey(), entry.getValue().copy());
+            }
+            if (account.getBalanceCurrency() != null && account.getBalance() != null) {
+                copy.computeIfAbsent(account.getBalanceCurrency(), currency -> new CurrencyLedger()).balance =
+                        BigDecimal.valueOf(account.getBalance());
+            }
+            return copy;
+        }
+
+        /**
+         * Adds a single transaction to the ledger of its currency.
+         *
+         * @param transaction transaction to add
+         * @return false if the transaction lacks a usable amount, date, currency, or direction
+         */
+        private boolean foldTransaction(Transaction transaction) {
+            String date = transaction.getDate();
+            String direction = transaction.getCreditDebitStatus();
+            if (transaction.getCurrency() == null || transaction.getAmount() == null || date == null
+                    || date.length() != DATE_LENGTH || date.charAt(4) != '-' || date.charAt(7) != '-'
+                    || !(CREDIT.equals(direction) || DEBIT.equals(direction))) {
+                return false;
+            }
+            BigDecimal amount;
+            try {
+                amount = new BigDecimal(transaction.getAmount());
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            currencies.computeIfAbsent(transaction.getCurrency(), currency -> new CurrencyLedger())
+                    .add(date, transaction.getReference(), amount, CREDIT.equals(direction));
+            return true;
+        }
+    }
+
+    /** Flows of one currency by day, by month, and by counterparty, with the current balance if known. */
+    private static final class CurrencyLedger {
+
+        private final Flow total = new Flow();
+        private final NavigableMap<String, Flow> days = new TreeMap<>();
+        private final NavigableMap<String, Flow> months = new TreeMap<>();
+        private final Map<String, Flow> counterparties = new HashMap<>();
+        private BigDecimal balance;
+
+        private void add(String date, String reference, BigDecimal amount, boolean credit) {
+            total.add(amount, credit);
+            days.computeIfAbsent(date, key -> new Flow()).add(amount, credit);
+            months.computeIfAbsent(date.substring(0, MONTH_LENGTH), key -> new Flow()).add(amount, credit);
+            if (reference != null) {
+                counterparties.computeIfAbsent(reference, key -> new Flow()).add(amount, credit);
+            }
+        }
+
+        private void addAll(CurrencyLedger other) {
+            total.addAll(other.total);
+            addAll(days, other.days);
+            addAll(months, other.months);
+            addAll(counterparties, other.counterparties);
+            if (other.balance != null) {
+                balance = balance == null ? other.balance : balance.add(other.balance);
+            }
+        }
+
+        private static void addAll(Map<String, Flow> target, Map<String, Flow> source) {
+            for (Map.Entry<String, Flow> entry : source.entrySet()) {
+                target.computeIfAbsent(entry.getKey(), key -> new Flow()).addAll(entry.getValue());
+            }
+        }
+
+        private CurrencyLedger copy() {
+            CurrencyLedger copy = new CurrencyLedger();
+            copy.addAll(this);
+            return copy;
+        }
+    }
+
+    /** Inflow, outflow, and transaction count of a period or counterparty. */
+    private static final class Flow {
+
+        private BigDecimal inflow = BigDecimal.ZERO;
+        private BigDecimal outflow = BigDecimal.ZERO;
+        private long count;
+
+        private void add(BigDecimal amount, boolean credit) {
+            if (credit) {
+                inflow = inflow.add(amount);
+            } else {
+                outflow = outflow.add(amount);
+            }
+            count++;
+        }
+
+        private void addAll(Flow other) {
+            inflow = inflow.add(other.inflow);
+            outflow = outflow.add(other.outflow);
+            count += other.count;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("inflow",       inflow);
+            map.put("outflow",      outflow);
+            map.put("net",          inflow.subtract(outflow));
+            map.put("transactions", count);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,505 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.wso2.openbanking.demo.constants.OpenBankingConstants;
+import com.wso2.openbanking.demo.http.OutboundCallScope;
+import com.wso2.openbanking.demo.models.Transaction;
+import com.wso2.openbanking.demo.models.TransactionStore;
+import com.wso2.openbanking.demo.utils.BookingDateParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fetches the transactions of an account, following {@code Links.Next} across pages.
+ * When the bank reports the total page count and numbers its pages, several pages are requested
+ * at once. With delta sync enabled, the latest booking time seen for each account is remembered
+ * and later refreshes only request transactions booked from that time onwards, merging them
+ * into the transactions already known.
+ */
+final class TransactionFetcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionFetcher.class);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Pattern PAGE_PARAMETER = Pattern.compile("([?&]page=)(\\d+)");
+
+    private final AccountDataCache cache;
+    private final ConcurrentAccountFetcher fetcher;
+    private final int maxPages;
+    private final int pagesInFlight;
+    private final FlowStateStore<SyncState> syncStates;
+    private final AtomicLong pagesFetched = new AtomicLong();
+    private final AtomicLong fullSyncs = new AtomicLong();
+    private final AtomicLong deltaSyncs = new AtomicLong();
+    private final AtomicLong truncated = new AtomicLong();
+
+    /**
+     * Creates a TransactionFetcher.
+     *
+     * @param cache         read-through cache for the page calls
+     * @param fetcher       executor for concurrent bank calls
+     * @param maxPages      maximum number of pages read for one account
+     * @param pagesInFlight maximum number of pages of one account requested at once
+     * @param syncStates    store of per-account sync state, or null to disable delta sync
+     */
+    TransactionFetcher(AccountDataCache cache, ConcurrentAccountFetcher fetcher, int maxPages,
+                       int pagesInFlight, FlowStateStore<SyncState> syncStates) {
+        this.cache = cache;
+        this.fetcher = fetcher;
+        this.maxPages = Math.max(1, maxPages);
+        this.pagesInFlight = Math.max(1, pagesInFlight);
+        this.syncStates = syncStates;
+    }
+
+    /**
+     * Schedules the page calls for the transactions of an account. Must be called with the
+     * outbound call scope of the originating request bound to the current thread.
+     *
+     * @param baseUrl     account API base URL, also used as the bank key
+     * @param accountId   account ID to fetch transactions for
+     * @param accessToken access token issued for the consent
+     * @param consentId   consent ID the account is fetched under
+     * @return future completed with all transactions of the account
+     */
+    CompletableFuture<List<Transaction>> fetch(String baseUrl, String accountId, String accessToken,
+                                               String consentId) {
+        String syncKey = consentId + '|' + accountId;
+        SyncState previous = syncStates == null ? null : syncStates.get(syncKey);
+        String url = baseUrl + OpenBankingConstants.PATH_ACCOUNTS + accountId + OpenBankingConstants.PATH_TRANSACTIONS;
+        if (previous != null) {
+            url += "?" + OpenBankingConstants.PARAM_FROM_BOOKING_DATE_TIME + "="
+                    + URLEncoder.encode(previous.latestBookingDateTime, StandardCharsets.UTF_8);
+            deltaSyncs.incrementAndGet();
+        } else {
+            fullSyncs.incrementAndGet();
+        }
+        PageRequest request = new PageRequest(baseUrl, accountId, accessToken, consentId,
+                OutboundCallScope.current());
+        return fetchPage(request, url)
+                .thenCompose(first -> {
+                    // Pages may be held by the account data cache, so they are copied rather than appended to.
+                    TransactionBatch collected = new TransactionBatch(accountId);
+                    collected.append(first);
+                    return fetchRemainingPages(request, collected, first, 1);
+                })
+                .thenApply(fetched -> merge(syncKey, previous, fetched.seal()));
+    }
+
+    /**
+     * Returns paging and sync statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("deltaSyncEnabled", syncStates != null);
+        stats.put("pagesFetched",     pagesFetched.get());
+        stats.put("fullSyncs",        fullSyncs.get());
+        stats.put("deltaSyncs",       deltaSyncs.get());
+        stats.put("truncated",        truncated.get());
+        if (syncStates != null) {
+            stats.put("syncedAccounts", syncStates.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Requests the pages following the last one read, a window at a time, until no next page is linked.
+     *
+     * @param request   account the pages belong to
+     * @param collected transactions read so far
+     * @param last      last page read
+     * @param pageCount number of pages read so far
+     * @return future completed with the transactions of all pages
+     */
+    private CompletableFuture<TransactionBatch> fetchRemainingPages(PageRequest request, TransactionBatch collected,
+                                                                    TransactionBatch last, int pageCount) {
+        if (last.nextUrl == null) {
+            return CompletableFuture.completedFuture(collected);
+        }
+        if (pageCount >= maxPages) {
+            truncated.incrementAndGet();
+            LOG.warn("Stopped reading transactions of account {} after {} pages.", request.accountId, pageCount);
+            return CompletableFuture.completedFuture(collected);
+        }
+        List<CompletableFuture<TransactionBatch>> window = new ArrayList<>();
+        for (String url : pageWindow(last, maxPages - pageCount)) {
+            window.add(fetchPage(request, url));
+        }
+        return CompletableFuture.allOf(window.toArray(new CompletableFuture<?>[0])).thenCompose(ignored -> {
+            TransactionBatch page = null;
+            for (CompletableFuture<TransactionBatch> future : window) {
+                page = future.join();
+                collected.append(page);
+            }
+            return fetchRemainingPages(request, collected, page, pageCount + window.size());
+        });
+    }
+
+    /**
+     * Returns the URLs of the pages to request next. If the next link carries a page number and the
+     * total page count is known, up to {@code pagesInFlight} consecutive pages are returned;
+     * otherwise only the linked page is.
+     *
+     * @param last      last page read
+     * @param remaining number of pages that may still be read
+     * @return page URLs in page order
+     */
+    private List<String> pageWindow(TransactionBatch last, int remaining) {
+        List<String> urls = new ArrayList<>();
+        urls.add(last.nextUrl);
+        Matcher matcher = PAGE_PARAMETER.matcher(last.nextUrl);
+        if (pagesInFlight == 1 || last.totalPages <= 0 || !matcher.find()) {
+            return urls;
+        }
+        int nextPage = Integer.parseInt(matcher.group(2));
+        int lastPage = Math.min(last.totalPages, nextPage + Math.min(pagesInFlight, remaining) - 1);
+        for (int page = nextPage + 1; page <= lastPage; page++) {
+            urls.add(last.nextUrl.substring(0, matcher.start()) + matcher.group(1) + page
+                    + last.nextUrl.substring(matcher.end()));
+        }
+        return urls;
+    }
+
+    /**
+     * Schedules the call for a single page of transactions.
+     *
+     * @param request account the page belongs to
+     * @param url     page URL
+     * @return future completed with the parsed page
+     */
+    private CompletableFuture<TransactionBatch> fetchPage(PageRequest request, String url) {
+        return fetcher.submit(request.baseUrl, request.scope, () -> {
+            TransactionBatch page = cache.get(request.consentId, request.accountId,
+                    AccountDataCache.Resource.TRANSACTIONS, url, request.accessToken,
+                    body -> parsePage(body, url, request.accountId));
+            pagesFetched.incrementAndGet();
+            return page;
+        });
+    }
+
+    /**
+     * Parses a page of transactions together with its paging links, decoding each transaction
+     * as it is read from the stream rather than building a tree of the whole response.
+     *
+     * @param body      page response body
+     * @param url       URL the page was requested from, used to resolve a relative next link
+     * @param accountId account ID the transactions belong to
+     * @return parsed page
+     * @throws IOException if the body is not a valid transactions response
+     */
+    private TransactionBatch parsePage(InputStream body, String url, String accountId) throws IOException {
+        TransactionBatch page = new TransactionBatch(accountId);
+        String next = null;
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Transactions response is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (OpenBankingConstants.FIELD_DATA.equals(field) && value == JsonToken.START_OBJECT) {
+                    readData(parser, page, accountId);
+                } else if (OpenBankingConstants.FIELD_LINKS.equals(field) && value == JsonToken.START_OBJECT) {
+                    next = readObjectField(parser, OpenBankingConstants.FIELD_NEXT);
+                } else if (OpenBankingConstants.FIELD_META.equals(field) && value == JsonToken.START_OBJECT) {
+                    String totalPages = readObjectField(parser, OpenBankingConstants.FIELD_TOTAL_PAGES);
+                    page.totalPages = totalPages == null ? 0 : parseTotalPages(totalPages);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (next != null && !next.isEmpty()) {
+            String resolved = URI.create(url).resolve(next).toString();
+            page.nextUrl = resolved.equals(url) ? null : resolved;
+        }
+        return page.seal();
+    }
+
+    /**
+     * Reads the {@code Data} object, decoding every entry of its {@code Transaction} array.
+     *
+     * @param parser    parser positioned at the start of the object
+     * @param page      page to add the transactions to
+     * @param accountId account ID the transactions belong to
+     * @throws IOException if the object cannot be read
+     */
+    private void readData(JsonParser parser, TransactionBatch page, String accountId) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (OpenBankingConstants.FIELD_TRANSACTION.equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    readTransaction(parser, page, accountId);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Decodes a single transaction object into a row of the page's transaction store.
+     *
+     * @param parser    parser positioned at the start of the object
+     * @param page      page to add the transaction to
+     * @param accountId account ID the transaction belongs to
+     * @throws IOException if the object cannot be read or lacks a required field
+     */
+    private void readTransaction(JsonParser parser, TransactionBatch page, String accountId) throws IOException {
+        String id = null;
+        String bookingDateTime = null;
+        String information = null;
+        String amount = null;
+        String currency = null;
+        String creditDebitIndicator = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case OpenBankingConstants.FIELD_TRANSACTION_ID:
+                    id = parser.getValueAsString();
+                    break;
+                case OpenBankingConstants.FIELD_BOOKING_DATE_TIME:
+                    bookingDateTime = parser.getValueAsString();
+                    break;
+                case OpenBankingConstants.FIELD_TRANSACTION_INFORMATION:
+                    information = parser.getValueAsString();
+                    break;
+                case OpenBankingConstants.FIELD_CREDIT_DEBIT_INDICATOR:
+                    creditDebitIndicator = parser.getValueAsString();
+                    break;
+                case OpenBankingConstants.FIELD_AMOUNT:
+                    if (value == JsonToken.START_OBJECT) {
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String amountField = parser.getCurrentName();
+                            parser.nextToken();
+                            if (OpenBankingConstants.FIELD_AMOUNT.equals(amountField)) {
+                                amount = parser.getValueAsString();
+                            } else if (OpenBankingConstants.FIELD_CURRENCY.equals(amountField)) {
+                                currency = parser.getValueAsString();
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        page.rows.add(required(parser, id, OpenBankingConstants.FIELD_TRANSACTION_ID),
+                BookingDateParser.toDate(
+                        required(parser, bookingDateTime, OpenBankingConstants.FIELD_BOOKING_DATE_TIME)),
+                required(parser, information, OpenBankingConstants.FIELD_TRANSACTION_INFORMATION),
+                required(parser, amount, OpenBankingConstants.FIELD_AMOUNT),
+                required(parser, currency, OpenBankingConstants.FIELD_CURRENCY),
+                required(parser, creditDebitIndicator, OpenBankingConstants.FIELD_CREDIT_DEBIT_INDICATOR));
+        page.recordBooking(bookingDateTime);
+    }
+
+    /**
+     * Reads an object and returns the scalar value of one of its fields, skipping all others.
+     *
+     * @param parser parser positioned at the start of the object
+     * @param name   name of the field to return
+     * @return field value as text, or null if absent or not a scalar
+     * @throws IOException if the object cannot be read
+     */
+    private static String readObjectField(JsonParser parser, String name) throws IOException {
+        String result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (name.equals(field)) {
+                result = parser.getValueAsString();
+            }
+            parser.skipChildren();
+        }
+        return result;
+    }
+
+    /**
+     * Parses the total page count reported in {@code Meta}.
+     *
+     * @param value reported value
+     * @return page count, or 0 if it is not a number
+     */
+    private static int parseTotalPages(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns a required transaction field, failing if the bank omitted it.
+     *
+     * @param parser parser the value was read from, for error location
+     * @param value  field value
+     * @param name   field name
+     * @return the value
+     * @throws JsonParseException if the value is null
+     */
+    private static String required(JsonParser parser, String value, String name) throws JsonParseException {
+        if (value == null) {
+            throw new JsonParseException(parser, "Transaction is missing " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Combines newly fetched transactions with those already known for the account and records the
+     * latest booking time for the next delta sync. Transactions booked exactly at the previous sync
+     * point are returned again by the bank, so they are de-duplicated by transaction ID.
+     *
+     * @param syncKey  key of the account's sync state
+     * @param previous sync state before this fetch, or null for a full fetch
+     * @param fetched  transactions returned by this fetch
+     * @return all known transactions of the account, newest fetch first
+     */
+    private List<Transaction> merge(String syncKey, SyncState previous, TransactionBatch fetched) {
+        if (syncStates == null) {
+            return fetched.transactions.asList();
+        }
+        TransactionStore merged = fetched.transactions;
+        if (previous != null) {
+            TransactionStore.Builder builder = new TransactionStore.Builder(merged.getAccountId());
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < fetched.transactions.size(); i++) {
+                if (seen.add(fetched.transactions.getId(i))) {
+                    builder.add(fetched.transactions, i);
+                }
+            }
+            for (int i = 0; i < previous.transactions.size(); i++) {
+                if (seen.add(previous.transactions.getId(i))) {
+                    builder.add(previous.transactions, i);
+                }
+            }
+            merged = builder.build();
+            if (previous.latestBookingEpochMillis > fetched.latestBookingEpochMillis) {
+                fetched.latestBookingDateTime = previous.latestBookingDateTime;
+                fetched.latestBookingEpochMillis = previous.latestBookingEpochMillis;
+            }
+        }
+        if (fetched.latestBookingDateTime != null) {
+            syncStates.put(syncKey, new SyncState(fetched.latestBookingDateTime,
+                    fetched.latestBookingEpochMillis, merged));
+        }
+        return merged.asList();
+    }
+
+    /**
+     * Transactions read from one or more pages, with the paging links of the last page. Rows are
+     * added to {@code rows} while the batch is being filled and are readable from
+     * {@code transactions} once it is sealed.
+     */
+    private static final class TransactionBatch {
+
+        private TransactionStore.Builder rows;
+        private TransactionStore transactions;
+        private String latestBookingDateTime;
+        private long latestBookingEpochMillis = Long.MIN_VALUE;
+        private String nextUrl;
+        private int totalPages;
+
+        private TransactionBatch(String accountId) {
+            this.rows = new TransactionStore.Builder(accountId);
+        }
+
+        private void recordBooking(String bookingDateTime) {
+            long epochMillis = BookingDateParser.toEpochMillis(bookingDateTime);
+            if (epochMillis != Long.MIN_VALUE && epochMillis > latestBookingEpochMillis) {
+                latestBookingDateTime = bookingDateTime;
+                latestBookingEpochMillis = epochMillis;
+            }
+        }
+
+        private void append(TransactionBatch page) {
+            rows.addAll(page.transactions);
+            if (page.latestBookingDateTime != null && page.latestBookingEpochMillis > latestBookingEpochMillis) {
+                latestBookingDateTime = page.latestBookingDateTime;
+                latestBookingEpochMillis = page.latestBookingEpochMillis;
+            }
+        }
+
+        private TransactionBatch seal() {
+            transactions = rows.build();
+            rows = null;
+            return this;
+        }
+    }
+
+    /** Account whose pages are being read, with the scope its calls run in. */
+    private static final class PageRequest {
+
+        private final String baseUrl;
+        private final String accountId;
+        private final String accessToken;
+        private final String consentId;
+        private final OutboundCallScope scope;
+
+        private PageRequest(String baseUrl, String accountId, String accessToken, String consentId,
+                            OutboundCallScope scope) {
+            this.baseUrl = baseUrl;
+            this.accountId = accountId;
+            this.accessToken = accessToken;
+            this.consentId = consentId;
+            this.scope = scope;
+        }
+    }
+
+    /** Transactions known for an account and the latest booking time among them. */
+    static final class SyncState {
+
+        private final String latestBookingDateTime;
+        private final long latestBookingEpochMillis;
+        private final TransactionStore transactions;
+
+        private SyncState(String latestBookingDateTime, long latestBookingEpochMillis, TransactionStore transactions) {
+            this.latestBookingDateTime = latestBookingDateTime;
+            this.latestBookingEpochMillis = latestBookingEpochMillis;
+            this.transactions = transactions;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.utils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses Open Banking booking date-times such as {@code 2026-01-05T10:15:30+05:30},
+ * {@code 2026-01-05T10:15:30.123Z} or {@code 2026-01-05T10:15:30} by scanning the characters
+ * directly. Only input that does not match these shapes is handed to {@code java.time}, so the
+ * common case neither allocates parser state nor throws.
+ */
+public final class BookingDateParser {
+
+    private static final DateTimeFormatter ISO_DATETIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final int DATE_LENGTH = 10;
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long SECONDS_PER_DAY = 86400L;
+
+    private BookingDateParser() {
+        /* This utility class should not be instantiated */
+    }
+
+    /**
+     * Returns the calendar date of a booking date-time in the offset it was written in.
+     *
+     * @param isoDateTime ISO 8601 date-time string
+     * @return date string in yyyy-MM-dd format, or the original value if no date can be found
+     */
+    public static String toDate(String isoDateTime) {
+        if (hasDatePrefix(isoDateTime)) {
+            return isoDateTime.length() == DATE_LENGTH ? isoDateTime : isoDateTime.substring(0, DATE_LENGTH);
+        }
+        try {
+            return ZonedDateTime.parse(isoDateTime, ISO_DATETIME_FORMATTER).format(DATE_FORMATTER);
+        } catch (DateTimeParseException e1) {
+            try {
+                return LocalDateTime.parse(isoDateTime, DateTimeFormatter.ISO_LOCAL_DATE_TIME).format(DATE_FORMATTER);
+            } catch (DateTimeParseException e2) {
+                if (isoDateTime.length() >= DATE_LENGTH) {
+                    return isoDateTime.substring(0, DATE_LENGTH);
+                }
+                return isoDateTime;
+            }
+        }
+    }
+
+    /**
+     * Converts a booking date-time to epoch milliseconds, treating a date-time without an offset as UTC.
+     *
+     * @param isoDateTime ISO 8601 date-time string
+     * @return epoch milliseconds, or {@link Long#MIN_VALUE} if the value cannot be parsed
+     */
+    public static long toEpochMillis(String isoDateTime) {
+        long fast = parseEpochMillis(isoDateTime);
+        if (fast != Long.MIN_VALUE) {
+            return fast;
+        }
+        try {
+            return OffsetDateTime.parse(isoDateTime).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e1) {
+            try {
+                return LocalDateTime.parse(isoDateTime).toInstant(ZoneOffset.UTC).toEpochMilli();
+            } catch (DateTimeParseException e2) {
+                return Long.MIN_VALUE;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the value starts with a valid yyyy-MM-dd date that is either the whole value
+     * or is followed by a time separator.
+     *
+     * @param value value to check
+     * @return true if the first ten characters are the date
+     */
+    private static boolean hasDatePrefix(String value) {
+        if (value == null || value.length() < DATE_LENGTH) {
+            return false;
+        }
+        if (value.length() > DATE_LENGTH) {
+            char separator = value.charAt(DATE_LENGTH);
+            if (separator != 'T' && separator != 't' && separator != ' ') {
+                return false;
+            }
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        return year >= 0 && value.charAt(4) == '-' && value.charAt(7) == '-'
+                && month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month);
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm[:ss[.fraction]][Z|+hh:mm|-hh:mm]} into epoch milliseconds.
+     *
+     * @param value value to parse
+     * @return epoch milliseconds, or {@link Long#MIN_VALUE} if the value has a different shape
+     */
+    private static long parseEpochMillis(String value) {
+        if (!hasDatePrefix(value) || value.length() < 16 || value.charAt(DATE_LENGTH) == ' '
+                || value.charAt(13) != ':') {
+            return Long.MIN_VALUE;
+        }
+        int hour = digits(value, 11, 2);
+        int minute = digits(value, 14, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return Long.MIN_VALUE;
+        }
+        int pos = 16;
+        int second = 0;
+        int millis = 0;
+        if (pos < value.length() && value.charAt(pos) == ':') {
+            second = digits(value, pos + 1, 2);
+            if (second < 0 || second > 59) {
+                return Long.MIN_VALUE;
+            }
+            pos += 3;
+            if (pos < value.length() && value.charAt(pos) == '.') {
+                pos++;
+                int start = pos;
+                while (pos < value.length() && isDigit(value.charAt(pos))) {
+                    if (pos - start < 3) {
+                        millis = millis * 10 + (value.charAt(pos) - '0');
+                    }
+                    pos++;
+                }
+                int fractionDigits = pos - start;
+                if (fractionDigits == 0 || fractionDigits > 9) {
+                    return Long.MIN_VALUE;
+                }
+                for (int i = fractionDigits; i < 3; i++) {
+                    millis *= 10;
+                }
+            }
+        }
+        int offsetSeconds = parseOffsetSeconds(value, pos);
+        if (offsetSeconds == Integer.MIN_VALUE) {
+            return Long.MIN_VALUE;
+        }
+        long epochDay = LocalDate.of(digits(value, 0, 4), digits(value, 5, 2), digits(value, 8, 2)).toEpochDay();
+        long epochSecond = epochDay * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second - offsetSeconds;
+        return epochSecond * MILLIS_PER_SECOND + millis;
+    }
+
+    /**
+     * Parses the zone offset at the end of a date-time. A missing offset is read as UTC.
+     *
+     * @param value value to parse
+     * @param pos   index of the offset
+     * @return offset in seconds, or {@link Integer#MIN_VALUE} if the remainder is not an offset
+     */
+    private static int parseOffsetSeconds(String value, int pos) {
+        int remaining = value.length() - pos;
+        if (remaining == 0) {
+            return 0;
+        }
+        char sign = value.charAt(pos);
+        if (remaining == 1 && (sign == 'Z' || sign == 'z')) {
+            return 0;
+        }
+        if (remaining != 6 || (sign != '+' && sign != '-') || value.charAt(pos + 3) != ':') {
+            return Integer.MIN_VALUE;
+        }
+        int hours = digits(value, pos + 1, 2);
+        int minutes = digits(value, pos + 4, 2);
+        if (hours < 0 || hours > 18 || minutes < 0 || minutes > 59) {
+            return Integer.MIN_VALUE;
+        }
+        int seconds = hours * 3600 + minutes * 60;
+        return sign == '-' ? -seconds : seconds;
+    }
+
+    /**
+     * Reads a fixed-width unsigned decimal number.
+     *
+     * @param value  string to read from
+     * @param start  index of the first digit
+     * @param length number of digits
+     * @return parsed number, or -1 if any character is not a digit or the string is too short
+     */
+    private static int digits(String value, int start, int length) {
+        if (start + length > value.length()) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = start; i < start + length; i++) {
+            char c = value.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+}
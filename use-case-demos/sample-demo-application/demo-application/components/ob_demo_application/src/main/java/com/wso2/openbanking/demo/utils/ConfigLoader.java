@@ -18,35 +18,358 @@
 
 package com.wso2.openbanking.demo.utils;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
-/** ConfigLoader implementation. */
+/**
+ * ConfigLoader implementation. Properties are read from an immutable {@link ConfigSnapshot} held
+ * in a volatile field, so lookups take no lock. Every setting is checked against the keys declared
+ * below when the file is loaded: at startup a failure stops the application, and a changed file is
+ * only swapped in if it still has every required key and well-formed integer and boolean values. The
+ * client identity is fixed for the life of the process: cached tokens, signed assertions, and shared
+ * TLS contexts are built from it, so a changed file that alters it is rejected until a restart.
+ */
 public class ConfigLoader {
 
-    private static final Properties prop = new Properties();
+    private static final Logger LOG = LoggerFactory.getLogger(ConfigLoader.class);
+
+    private static final String CONFIG_FILE = "application.properties";
+
+    /** Keys that have no default and must be set. */
+    private static final List<String> REQUIRED_KEYS = Arrays.asList(
+            "oauth.client.id", "oauth.client.kid", "oauth.algorithm", "oauth.token.type", "oauth.token.url",
+            "oauth.authorize.url", "oauth.redirect.uri", "oauth.nonce", "oauth.prompt", "oauth.response.type",
+            "openbanking.account.base.url", "openbanking.payment.base.url", "openbanking.fapi.financial.id",
+            "ssl.certificate.path", "ssl.key.path", "ssl.truststore.path", "ssl.truststore.password",
+            "frontend.home.url", "backend.base.url", "cors.allowed.origin", "is.base.url");
+
+    /** Keys read as integers, besides the per-endpoint and per-bank keys added by {@link #intKeys}. */
+    private static final List<String> INT_KEYS = Arrays.asList(
+            "config.reload.debounce.millis", "oauth.flow.ttl.seconds", "oauth.flow.max.entries", "api.async.threads",
+            "api.async.max.in.flight", "api.request.timeout.seconds", "ssl.session.cache.size",
+            "ssl.session.timeout.seconds", "http.pool.max.total", "http.pool.max.per.route",
+            "http.pool.idle.timeout.seconds", "http.keepalive.seconds", "http.connect.timeout.millis",
+            "http.read.timeout.millis", "http.retry.max.attempts", "http.retry.initial.backoff.millis",
+            "http.retry.max.backoff.millis", "http.breaker.failure.threshold", "http.breaker.open.seconds",
+            "http.metrics.window.seconds", "openbanking.hedge.percentile", "openbanking.hedge.min.samples",
+            "openbanking.hedge.min.delay.millis", "openbanking.hedge.budget.percent",
+            "openbanking.hedge.window.seconds", "openbanking.hedge.threads", "oauth.token.cache.safety.margin.seconds",
+            "oauth.token.cache.refresh.ahead.seconds", "oauth.client.assertion.pool.min.size",
+            "oauth.client.assertion.pool.max.size", "oauth.client.assertion.pool.validity.seconds",
+            "oauth.client.assertion.pool.min.remaining.seconds", "oauth.client.assertion.pool.adjust.seconds",
+            "openbanking.account.fetch.threads", "openbanking.account.fetch.max.concurrency.per.bank",
+            "openbanking.transactions.max.pages", "openbanking.transactions.pages.in.flight",
+            "openbanking.transactions.sync.ttl.seconds", "openbanking.transactions.sync.max.accounts",
+            "openbanking.account.cache.max.entries", "openbanking.account.cache.ttl.account.seconds",
+            "openbanking.account.cache.ttl.balances.seconds", "openbanking.account.cache.ttl.transactions.seconds",
+            "openbanking.analytics.parallelism", "openbanking.analytics.ttl.seconds",
+            "openbanking.analytics.max.consents", "openbanking.analytics.top.counterparties",
+            "openbanking.payment.batch.max.items", "openbanking.payment.batch.threads",
+            "openbanking.payment.batch.max.concurrency", "openbanking.payment.batch.ttl.seconds",
+            "openbanking.payment.batch.max.batches", "openbanking.idempotency.ledger.compaction.threshold",
+            "openbanking.idempotency.ttl.seconds", "openbanking.payment.status.threads",
+            "openbanking.payment.status.tick.millis", "openbanking.payment.status.initial.interval.seconds",
+            "openbanking.payment.status.max.interval.seconds", "openbanking.payment.status.max.age.seconds",
+            "openbanking.payment.status.batch.size", "openbanking.payment.status.retention.seconds",
+            "openbanking.payment.status.max.entries", "openbanking.bank.timeout.seconds",
+            "openbanking.bank.aggregate.threads", "openbanking.bank.session.ttl.seconds",
+            "openbanking.bank.session.max.entries");
+
+    /** Keys read as booleans. */
+    private static final List<String> BOOLEAN_KEYS = Arrays.asList(
+            "config.reload.enabled", "ssl.context.registry.enabled", "http.breaker.enabled", "http.metrics.enabled",
+            "openbanking.hedge.enabled", "oauth.client.assertion.pool.enabled",
+            "openbanking.transactions.delta.sync.enabled", "openbanking.account.cache.enabled",
+            "openbanking.analytics.enabled", "openbanking.idempotency.ledger.enabled",
+            "openbanking.idempotency.ledger.fsync", "openbanking.payment.status.enabled");
+
+    /** Outbound endpoints whose timeouts can be overridden under http.&lt;endpoint&gt;. */
+    private static final List<String> HTTP_ENDPOINTS = Arrays.asList(
+            "token", "consent", "accounts", "payments", "revoke");
+
+    private static final List<Consumer<ConfigSnapshot>> RELOAD_LISTENERS = new CopyOnWriteArrayList<>();
+
+    /** Keys that token caches, signed client assertions, and TLS contexts are built from. */
+    private static final List<String> RESTART_KEYS = Arrays.asList(
+            "oauth.client.id", "oauth.client.kid", "oauth.algorithm", "oauth.token.url",
+            "ssl.certificate.path", "ssl.key.path", "ssl.truststore.path", "ssl.truststore.password",
+            "ssl.context.registry.enabled", "ssl.session.cache.size", "ssl.session.timeout.seconds");
+
+    private static final AtomicLong RELOADS = new AtomicLong();
+    private static final AtomicLong REJECTED_RELOADS = new AtomicLong();
+    private static volatile String lastReloadError;
+    private static volatile Path watchedFile;
+
+    private static volatile ConfigSnapshot snapshot;
 
     static {
-        try (InputStream inputStream = ConfigLoader.class.getClassLoader()
-                .getResourceAsStream("application.properties")) {
+        Properties properties = new Properties();
+        try (InputStream inputStream = ConfigLoader.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
             if (inputStream == null) {
                 throw new RuntimeException("Unable to find application.properties");
             }
-            prop.load(inputStream);
+            properties.load(inputStream);
         } catch (IOException e) {
             throw new RuntimeException("Error loading application.properties", e);
         }
+        snapshot = new ConfigSnapshot(properties, 1);
+        List<String> errors = validate(snapshot);
+        if (!errors.isEmpty()) {
+            throw new RuntimeException("Invalid application.properties: " + String.join("; ", errors));
+        }
+        if (isConfigReloadEnabled()) {
+            startWatcher();
+        }
     }
 
     public static String getProperty(String key) {
-        String value = prop.getProperty(key);
+        String value = snapshot.get(key);
         if (value == null) {
             throw new RuntimeException("Property not found: " + key);
         }
         return value;
     }
 
+    public static String getProperty(String key, String defaultValue) {
+        return snapshot.get(key, defaultValue);
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        try {
+            return snapshot.getInt(key, defaultValue);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    public static boolean getBooleanProperty(String key, boolean defaultValue) {
+        try {
+            return snapshot.getBoolean(key, defaultValue);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the configuration snapshot currently in use.
+     *
+     * @return current snapshot
+     */
+    public static ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Registers a callback run after a changed configuration file has been swapped in.
+     *
+     * @param listener callback receiving the new snapshot
+     */
+    public static void addReloadListener(Consumer<ConfigSnapshot> listener) {
+        RELOAD_LISTENERS.add(listener);
+    }
+
+    /**
+     * Returns configuration reload statistics.
+     *
+     * @return ordered map of statistic names to values
+     */
+    public static Map<String, Object> getConfigStats() {
+        ConfigSnapshot current = snapshot;
+        Path file = watchedFile;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("version",         current.getVersion());
+        stats.put("loadedAtMillis",  current.getLoadedAtMillis());
+        stats.put("watching",        file != null);
+        stats.put("file",            file == null ? null : file.toString());
+        stats.put("reloads",         RELOADS.get());
+        stats.put("rejectedReloads", REJECTED_RELOADS.get());
+        stats.put("lastReloadError", lastReloadError);
+        return stats;
+    }
+
+    public static boolean isConfigReloadEnabled() {
+        return getBooleanProperty("config.reload.enabled", true);
+    }
+
+    public static int getConfigReloadDebounceMillis() {
+        return getIntProperty("config.reload.debounce.millis", 250);
+    }
+
+    /**
+     * Checks a snapshot against the declared keys, reporting every missing or malformed setting at once.
+     *
+     * @param candidate snapshot to check
+     * @return one message per problem found, empty if the snapshot is valid
+     */
+    private static List<String> validate(ConfigSnapshot candidate) {
+        return candidate.validate(REQUIRED_KEYS, intKeys(candidate), BOOLEAN_KEYS);
+    }
+
+    /**
+     * Lists the integer keys of a snapshot: the declared ones, the timeouts of every outbound
+     * endpoint, and the timeout of every bank the snapshot configures.
+     *
+     * @param candidate snapshot whose banks are listed
+     * @return integer keys to check
+     */
+    private static List<String> intKeys(ConfigSnapshot candidate) {
+        List<String> keys = new ArrayList<>(INT_KEYS);
+        for (String endpoint : HTTP_ENDPOINTS) {
+            keys.add("http." + endpoint + ".connect.timeout.millis");
+            keys.add("http." + endpoint + ".read.timeout.millis");
+        }
+        for (String bankId : parseBankIds(candidate.get("openbanking.banks", ""))) {
+            keys.add("openbanking.bank." + bankId + ".timeout.seconds");
+        }
+        return keys;
+    }
+
+    /**
+     * Watches the configuration file for changes when it is a plain file rather than an entry in
+     * an archive. The watcher runs on a daemon thread for the lifetime of the application.
+     */
+    private static void startWatcher() {
+        URL resource = ConfigLoader.class.getClassLoader().getResource(CONFIG_FILE);
+        if (resource == null || !"file".equals(resource.getProtocol())) {
+            LOG.info("Configuration reload disabled: {} is not a plain file.", CONFIG_FILE);
+            return;
+        }
+        Path file;
+        WatchService watchService;
+        try {
+            file = Paths.get(resource.toURI()).toAbsolutePath();
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (Exception e) {
+            LOG.warn("Configuration reload disabled: unable to watch {}: {}", CONFIG_FILE, e.getMessage());
+            return;
+        }
+        watchedFile = file;
+        long debounceMillis = getConfigReloadDebounceMillis();
+        Thread watcher = new Thread(() -> watch(watchService, file, debounceMillis), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Waits for changes to the configuration file and reloads it. Events arriving within the
+     * debounce interval are coalesced, since editors often write a file in several steps.
+     *
+     * @param watchService   watch service registered on the file's directory
+     * @param file           configuration file
+     * @param debounceMillis time to wait for further events before reloading
+     */
+    private static void watch(WatchService watchService, Path file, long debounceMillis) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = concerns(key, file);
+                while (changed && (key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    concerns(key, file);
+                }
+                if (changed) {
+                    reload(file);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            LOG.debug("Configuration watcher closed.");
+        }
+    }
+
+    /**
+     * Drains a watch key and resets it.
+     *
+     * @param key  signalled watch key
+     * @param file configuration file
+     * @return true if any of the key's events refer to the configuration file
+     */
+    private static boolean concerns(WatchKey key, Path file) {
+        boolean match = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (file.getFileName().equals(event.context())) {
+                match = true;
+            }
+        }
+        key.reset();
+        return match;
+    }
+
+    /**
+     * Loads the configuration file and swaps it in if it differs from the current snapshot and is
+     * valid. An invalid file is logged and the current snapshot stays in use.
+     *
+     * @param file configuration file
+     */
+    private static void reload(Path file) {
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            properties.load(inputStream);
+        } catch (IOException | IllegalArgumentException e) {
+            rejectReload("Error loading " + file + ": " + e.getMessage());
+            return;
+        }
+        ConfigSnapshot current = snapshot;
+        if (current.matches(properties)) {
+            return;
+        }
+        ConfigSnapshot candidate = new ConfigSnapshot(properties, current.getVersion() + 1);
+        List<String> errors = validate(candidate);
+        for (String key : RESTART_KEYS) {
+            if (!Objects.equals(current.get(key), candidate.get(key))) {
+                errors.add("Property cannot change without a restart: " + key);
+            }
+        }
+        if (!errors.isEmpty()) {
+            rejectReload(String.join("; ", errors));
+            return;
+        }
+        snapshot = candidate;
+        RELOADS.incrementAndGet();
+        lastReloadError = null;
+        LOG.info("Reloaded {} as configuration version {}.", CONFIG_FILE, candidate.getVersion());
+        for (Consumer<ConfigSnapshot> listener : RELOAD_LISTENERS) {
+            try {
+                listener.accept(candidate);
+            } catch (RuntimeException e) {
+                LOG.warn("Configuration reload listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static void rejectReload(String error) {
+        REJECTED_RELOADS.incrementAndGet();
+        lastReloadError = error;
+        LOG.error("Rejected changed {}, keeping configuration version {}: {}",
+                CONFIG_FILE, snapshot.getVersion(), error);
+    }
+
     public static String getClientId() {
         return getProperty("oauth.client.id");
     }
@@ -75,8 +398,12 @@ public class ConfigLoader {
         return getProperty("oauth.redirect.uri");
     }
 
-    public static String getOAuthState() {
-        return getProperty("oauth.state");
+    public static long getAuthFlowTtlSeconds() {
+        return getIntProperty("oauth.flow.ttl.seconds", 600);
+    }
+
+    public static int getAuthFlowMaxEntries() {
+        return getIntProperty("oauth.flow.max.entries", 10000);
     }
 
     public static String getOAuthNonce() {
@@ -111,6 +438,30 @@ public class ConfigLoader {
         return getProperty("ssl.key.path");
     }
 
+    public static int getApiAsyncThreads() {
+        return getIntProperty("api.async.threads", 64);
+    }
+
+    public static int getApiAsyncMaxInFlight() {
+        return getIntProperty("api.async.max.in.flight", 256);
+    }
+
+    public static int getApiRequestTimeoutSeconds() {
+        return getIntProperty("api.request.timeout.seconds", 60);
+    }
+
+    public static boolean isSslContextRegistryEnabled() {
+        return getBooleanProperty("ssl.context.registry.enabled", true);
+    }
+
+    public static int getSslSessionCacheSize() {
+        return getIntProperty("ssl.session.cache.size", 1000);
+    }
+
+    public static int getSslSessionTimeoutSeconds() {
+        return getIntProperty("ssl.session.timeout.seconds", 3600);
+    }
+
     public static String getTruststorePath() {
         return getProperty("ssl.truststore.path");
     }
@@ -135,4 +486,319 @@ public class ConfigLoader {
     public static String getIsBaseUrl() {
         return getProperty("is.base.url");
     }
+
+    public static String getHttpTransport() {
+        return getProperty("http.transport", "pooled");
+    }
+
+    public static int getHttpPoolMaxTotal() {
+        return getIntProperty("http.pool.max.total", 50);
+    }
+
+    public static int getHttpPoolMaxPerRoute() {
+        return getIntProperty("http.pool.max.per.route", 10);
+    }
+
+    public static int getHttpPoolIdleTimeoutSeconds() {
+        return getIntProperty("http.pool.idle.timeout.seconds", 30);
+    }
+
+    public static int getHttpKeepAliveSeconds() {
+        return getIntProperty("http.keepalive.seconds", 60);
+    }
+
+    public static int getHttpConnectTimeoutMillis() {
+        return getIntProperty("http.connect.timeout.millis", 5000);
+    }
+
+    public static int getHttpReadTimeoutMillis() {
+        return getIntProperty("http.read.timeout.millis", 30000);
+    }
+
+    public static int getHttpConnectTimeoutMillis(String endpoint) {
+        return getIntProperty("http." + endpoint + ".connect.timeout.millis", getHttpConnectTimeoutMillis());
+    }
+
+    public static int getHttpReadTimeoutMillis(String endpoint) {
+        return getIntProperty("http." + endpoint + ".read.timeout.millis", getHttpReadTimeoutMillis());
+    }
+
+    public static int getHttpRetryMaxAttempts() {
+        return getIntProperty("http.retry.max.attempts", 3);
+    }
+
+    public static int getHttpRetryInitialBackoffMillis() {
+        return getIntProperty("http.retry.initial.backoff.millis", 200);
+    }
+
+    public static int getHttpRetryMaxBackoffMillis() {
+        return getIntProperty("http.retry.max.backoff.millis", 2000);
+    }
+
+    public static boolean isHttpCircuitBreakerEnabled() {
+        return getBooleanProperty("http.breaker.enabled", true);
+    }
+
+    public static int getHttpCircuitBreakerFailureThreshold() {
+        return getIntProperty("http.breaker.failure.threshold", 5);
+    }
+
+    public static int getHttpCircuitBreakerOpenSeconds() {
+        return getIntProperty("http.breaker.open.seconds", 30);
+    }
+
+    public static boolean isHttpInstrumentationEnabled() {
+        return getBooleanProperty("http.metrics.enabled", true);
+    }
+
+    public static int getHttpMetricsWindowSeconds() {
+        return getIntProperty("http.metrics.window.seconds", 60);
+    }
+
+    public static boolean isRequestHedgingEnabled() {
+        return getBooleanProperty("openbanking.hedge.enabled", false);
+    }
+
+    public static int getRequestHedgePercentile() {
+        return getIntProperty("openbanking.hedge.percentile", 95);
+    }
+
+    public static int getRequestHedgeMinSamples() {
+        return getIntProperty("openbanking.hedge.min.samples", 50);
+    }
+
+    public static int getRequestHedgeMinDelayMillis() {
+        return getIntProperty("openbanking.hedge.min.delay.millis", 50);
+    }
+
+    public static int getRequestHedgeBudgetPercent() {
+        return getIntProperty("openbanking.hedge.budget.percent", 5);
+    }
+
+    public static int getRequestHedgeWindowSeconds() {
+        return getIntProperty("openbanking.hedge.window.seconds", 60);
+    }
+
+    public static int getRequestHedgeThreads() {
+        return getIntProperty("openbanking.hedge.threads", 8);
+    }
+
+    public static int getTokenCacheSafetyMarginSeconds() {
+        return getIntProperty("oauth.token.cache.safety.margin.seconds", 30);
+    }
+
+    public static int getTokenCacheRefreshAheadSeconds() {
+        return getIntProperty("oauth.token.cache.refresh.ahead.seconds", 60);
+    }
+
+    public static boolean isClientAssertionPoolEnabled() {
+        return getBooleanProperty("oauth.client.assertion.pool.enabled", true);
+    }
+
+    public static int getClientAssertionPoolMinSize() {
+        return getIntProperty("oauth.client.assertion.pool.min.size", 2);
+    }
+
+    public static int getClientAssertionPoolMaxSize() {
+        return getIntProperty("oauth.client.assertion.pool.max.size", 32);
+    }
+
+    public static int getClientAssertionPoolValiditySeconds() {
+        return getIntProperty("oauth.client.assertion.pool.validity.seconds", 120);
+    }
+
+    public static int getClientAssertionPoolMinRemainingSeconds() {
+        return getIntProperty("oauth.client.assertion.pool.min.remaining.seconds", 60);
+    }
+
+    public static int getClientAssertionPoolAdjustSeconds() {
+        return getIntProperty("oauth.client.assertion.pool.adjust.seconds", 10);
+    }
+
+    public static int getAccountFetchThreads() {
+        return getIntProperty("openbanking.account.fetch.threads", 16);
+    }
+
+    public static int getAccountFetchMaxConcurrencyPerBank() {
+        return getIntProperty("openbanking.account.fetch.max.concurrency.per.bank", 8);
+    }
+
+    public static int getTransactionMaxPages() {
+        return getIntProperty("openbanking.transactions.max.pages", 100);
+    }
+
+    public static int getTransactionPagesInFlight() {
+        return getIntProperty("openbanking.transactions.pages.in.flight", 4);
+    }
+
+    public static boolean isTransactionDeltaSyncEnabled() {
+        return getBooleanProperty("openbanking.transactions.delta.sync.enabled", true);
+    }
+
+    public static long getTransactionSyncTtlSeconds() {
+        return getIntProperty("openbanking.transactions.sync.ttl.seconds", 86400);
+    }
+
+    public static int getTransactionSyncMaxAccounts() {
+        return getIntProperty("openbanking.transactions.sync.max.accounts", 10000);
+    }
+
+    public static boolean isAccountCacheEnabled() {
+        return getBooleanProperty("openbanking.account.cache.enabled", true);
+    }
+
+    public static int getAccountCacheMaxEntries() {
+        return getIntProperty("openbanking.account.cache.max.entries", 1000);
+    }
+
+    public static int getAccountCacheAccountTtlSeconds() {
+        return getIntProperty("openbanking.account.cache.ttl.account.seconds", 300);
+    }
+
+    public static int getAccountCacheBalancesTtlSeconds() {
+        return getIntProperty("openbanking.account.cache.ttl.balances.seconds", 30);
+    }
+
+    public static int getAccountCacheTransactionsTtlSeconds() {
+        return getIntProperty("openbanking.account.cache.ttl.transactions.seconds", 60);
+    }
+
+    public static boolean isAnalyticsEnabled() {
+        return getBooleanProperty("openbanking.analytics.enabled", true);
+    }
+
+    public static int getAnalyticsParallelism() {
+        return getIntProperty("openbanking.analytics.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+
+    public static int getAnalyticsTtlSeconds() {
+        return getIntProperty("openbanking.analytics.ttl.seconds", 3600);
+    }
+
+    public static int getAnalyticsMaxConsents() {
+        return getIntProperty("openbanking.analytics.max.consents", 1000);
+    }
+
+    public static int getAnalyticsTopCounterparties() {
+        return getIntProperty("openbanking.analytics.top.counterparties", 10);
+    }
+
+    public static int getPaymentBatchMaxItems() {
+        return getIntProperty("openbanking.payment.batch.max.items", 500);
+    }
+
+    public static int getPaymentBatchThreads() {
+        return getIntProperty("openbanking.payment.batch.threads", 16);
+    }
+
+    public static int getPaymentBatchMaxConcurrency() {
+        return getIntProperty("openbanking.payment.batch.max.concurrency", 8);
+    }
+
+    public static int getPaymentBatchTtlSeconds() {
+        return getIntProperty("openbanking.payment.batch.ttl.seconds", 86400);
+    }
+
+    public static int getPaymentBatchMaxBatches() {
+        return getIntProperty("openbanking.payment.batch.max.batches", 1000);
+    }
+
+    public static boolean isIdempotencyLedgerEnabled() {
+        return getBooleanProperty("openbanking.idempotency.ledger.enabled", true);
+    }
+
+    public static String getIdempotencyLedgerPath() {
+        String path = getProperty("openbanking.idempotency.ledger.path", "").trim();
+        return path.isEmpty() ? null : path;
+    }
+
+    public static boolean isIdempotencyLedgerFsync() {
+        return getBooleanProperty("openbanking.idempotency.ledger.fsync", true);
+    }
+
+    public static int getIdempotencyCompactionThreshold() {
+        return getIntProperty("openbanking.idempotency.ledger.compaction.threshold", 1000);
+    }
+
+    public static int getIdempotencyTtlSeconds() {
+        return getIntProperty("openbanking.idempotency.ttl.seconds", 86400);
+    }
+
+    public static boolean isPaymentStatusPollingEnabled() {
+        return getBooleanProperty("openbanking.payment.status.enabled", true);
+    }
+
+    public static int getPaymentStatusThreads() {
+        return getIntProperty("openbanking.payment.status.threads", 2);
+    }
+
+    public static int getPaymentStatusTickMillis() {
+        return getIntProperty("openbanking.payment.status.tick.millis", 1000);
+    }
+
+    public static int getPaymentStatusInitialIntervalSeconds() {
+        return getIntProperty("openbanking.payment.status.initial.interval.seconds", 2);
+    }
+
+    public static int getPaymentStatusMaxIntervalSeconds() {
+        return getIntProperty("openbanking.payment.status.max.interval.seconds", 60);
+    }
+
+    public static int getPaymentStatusMaxAgeSeconds() {
+        return getIntProperty("openbanking.payment.status.max.age.seconds", 3600);
+    }
+
+    public static int getPaymentStatusBatchSize() {
+        return getIntProperty("openbanking.payment.status.batch.size", 50);
+    }
+
+    public static int getPaymentStatusRetentionSeconds() {
+        return getIntProperty("openbanking.payment.status.retention.seconds", 86400);
+    }
+
+    public static int getPaymentStatusMaxEntries() {
+        return getIntProperty("openbanking.payment.status.max.entries", 10000);
+    }
+
+    public static List<String> getBankIds() {
+        return parseBankIds(getProperty("openbanking.banks", ""));
+    }
+
+    private static List<String> parseBankIds(String value) {
+        List<String> ids = new ArrayList<>();
+        for (String id : value.split(",")) {
+            if (!id.trim().isEmpty()) {
+                ids.add(id.trim());
+            }
+        }
+        return ids;
+    }
+
+    public static String getBankName(String bankId) {
+        return getProperty("openbanking.bank." + bankId + ".name", bankId);
+    }
+
+    public static String getBankAccountBaseUrl(String bankId) {
+        return getProperty("openbanking.bank." + bankId + ".account.base.url", getAccountBaseUrl());
+    }
+
+    public static int getBankTimeoutSeconds(String bankId) {
+        return getIntProperty("openbanking.bank." + bankId + ".timeout.seconds", getBankDefaultTimeoutSeconds());
+    }
+
+    public static int getBankDefaultTimeoutSeconds() {
+        return getIntProperty("openbanking.bank.timeout.seconds", 20);
+    }
+
+    public static int getBankAggregateThreads() {
+        return getIntProperty("openbanking.bank.aggregate.threads", 16);
+    }
+
+    public static int getBankSessionTtlSeconds() {
+        return getIntProperty("openbanking.bank.session.ttl.seconds", 3600);
+    }
+
+    public static int getBankSessionMaxEntries() {
+        return getIntProperty("openbanking.bank.session.max.entries", 10000);
+    }
 }
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable view of one version of the application properties. Integer and boolean values are
+ * parsed once when the snapshot is built, and lookups read plain maps that are never modified
+ * afterwards.
+ */
+public final class ConfigSnapshot {
+
+    private final Map<String, String> values;
+    private final Map<String, Integer> ints;
+    private final Map<String, String> invalidInts;
+    private final Map<String, Boolean> booleans;
+    private final Map<String, String> invalidBooleans;
+    private final long version;
+    private final long loadedAtMillis;
+
+    /**
+     * Builds a snapshot from loaded properties.
+     *
+     * @param properties properties read from the configuration file
+     * @param version    version number of the snapshot, increasing with every reload
+     */
+    ConfigSnapshot(Properties properties, long version) {
+        Map<String, String> strings = new HashMap<>();
+        Map<String, Integer> parsed = new HashMap<>();
+        Map<String, String> invalid = new HashMap<>();
+        Map<String, Boolean> flags = new HashMap<>();
+        Map<String, String> invalidFlags = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key);
+            strings.put(key, value);
+            String trimmed = value.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                parsed.put(key, Integer.parseInt(trimmed));
+            } catch (NumberFormatException e) {
+                invalid.put(key, trimmed);
+            }
+            if ("true".equalsIgnoreCase(trimmed) || "false".equalsIgnoreCase(trimmed)) {
+                flags.put(key, Boolean.valueOf(trimmed));
+            } else {
+                invalidFlags.put(key, trimmed);
+            }
+        }
+        this.values = Collections.unmodifiableMap(strings);
+        this.ints = Collections.unmodifiableMap(parsed);
+        this.invalidInts = Collections.unmodifiableMap(invalid);
+        this.booleans = Collections.unmodifiableMap(flags);
+        this.invalidBooleans = Collections.unmodifiableMap(invalidFlags);
+        this.version = version;
+        this.loadedAtMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns a property value.
+     *
+     * @param key property key
+     * @return value as written in the file, or null if the property is not set
+     */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Returns a property value, or the default if the property is not set.
+     *
+     * @param key          property key
+     * @param defaultValue value returned for a missing property
+     * @return value as written in the file, or the default
+     */
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Returns an integer property, or the default if the property is missing or blank.
+     *
+     * @param key          property key
+     * @param defaultValue value returned for a missing or blank property
+     * @return parsed value, or the default
+     * @throws IllegalArgumentException if the property is set to something other than an integer
+     */
+    public int getInt(String key, int defaultValue) {
+        Integer value = ints.get(key);
+        if (value != null) {
+            return value;
+        }
+        if (invalidInts.containsKey(key)) {
+            throw new IllegalArgumentException("Property is not a valid integer: " + key);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns a boolean property, or the default if the property is missing or blank.
+     *
+     * @param key          property key
+     * @param defaultValue value returned for a missing or blank property
+     * @return parsed value, or the default
+     * @throws IllegalArgumentException if the property is set to something other than true or false
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Boolean value = booleans.get(key);
+        if (value != null) {
+            return value;
+        }
+        if (invalidBooleans.containsKey(key)) {
+            throw new IllegalArgumentException("Property is not a valid boolean: " + key);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Checks the snapshot against the properties the application reads.
+     *
+     * @param requiredKeys keys that have no default and must be set
+     * @param intKeys      keys that are read as integers
+     * @param booleanKeys  keys that are read as booleans
+     * @return one message per problem found, empty if the snapshot is valid
+     */
+    List<String> validate(Collection<String> requiredKeys, Collection<String> intKeys,
+                          Collection<String> booleanKeys) {
+        List<String> errors = new ArrayList<>();
+        for (String key : requiredKeys) {
+            if (!values.containsKey(key)) {
+                errors.add("Property not found: " + key);
+            }
+        }
+        for (String key : intKeys) {
+            if (invalidInts.containsKey(key)) {
+                errors.add("Property is not a valid integer: " + key + "=" + invalidInts.get(key));
+            }
+        }
+        for (String key : booleanKeys) {
+            if (invalidBooleans.containsKey(key)) {
+                errors.add("Property is not a valid boolean: " + key + "=" + invalidBooleans.get(key));
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Returns whether this snapshot holds exactly the given properties.
+     *
+     * @param properties properties to compare with
+     * @return true if both have the same keys and values
+     */
+    boolean matches(Properties properties) {
+        if (properties.size() != values.size()) {
+            return false;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            if (!properties.getProperty(key).equals(values.get(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.controller;
+
+import com.wso2.openbanking.demo.constants.ApiConstants;
+import com.wso2.openbanking.demo.constants.OpenBankingConstants;
+import com.wso2.openbanking.demo.models.Account;
+import com.wso2.openbanking.demo.models.Transaction;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that {@link AccountsJsonWriter} writes the same accounts payload as the map and org.json
+ * builder it replaced in ApiController.
+ */
+public class AccountsJsonWriterTest {
+
+    private static final Pattern BALANCE = Pattern.compile("\"balance\":([^,}]+)");
+
+    @Test
+    public void accountsResponseMatchesMapBuilder() throws IOException {
+        List<Account> accounts = Arrays.asList(
+                account("a1", "Current", 1234.5, "c-1",
+                        transaction("t1", "2026-01-05", "Coffee", "a1", "3.50", "GBP", "Debit"),
+                        transaction("t2", "2026-01-06", "Quote \" back\\slash\nline", "a1", "-0.00", "GBP", "Credit")),
+                account("a2", "Savings é日", 100.0, "c-1"),
+                account("a3", null, null, null,
+                        transaction(null, null, null, null, null, null, null)),
+                account("a4", "Tiny", 0.1 + 0.2, "c-2"),
+                account("a5", "Large", 1.0E21, "c-2"),
+                account("a6", "Negative", -42.0, "c-2"),
+                account("a7", "Control \u0001 \u2028", 1.0E-7, "c-2"));
+        accounts.get(2).setTransactions(null);
+
+        String written = write(AccountsJsonWriter.accountsResponse(accounts, null));
+        String legacy = new JSONObject(legacyResponse(accounts)).toString();
+
+        assertTrue(written, new JSONObject(legacy).similar(new JSONObject(written)));
+        assertEquals(balances(legacy), balances(written));
+    }
+
+    @Test
+    public void emptyAccountListMatchesMapBuilder() throws IOException {
+        String written = write(AccountsJsonWriter.accountsResponse(Collections.emptyList(), null));
+
+        assertTrue(new JSONObject(legacyResponse(Collections.emptyList())).similar(new JSONObject(written)));
+    }
+
+    @Test
+    public void aggregationIdAndBankAreAddedWhenPresent() throws IOException {
+        Account account = account("a1", "Current", 10.0, "c-1");
+        account.setBank("bank-1");
+
+        JSONObject written = new JSONObject(write(
+                AccountsJsonWriter.accountsResponse(Collections.singletonList(account), "agg-1")));
+
+        assertEquals("agg-1", written.getString(ApiConstants.FIELD_AGGREGATION_ID));
+        assertEquals("bank-1", written.getJSONArray("accounts").getJSONObject(0).getString("bank"));
+        assertFalse(new JSONObject(write(AccountsJsonWriter.accountsResponse(
+                Collections.singletonList(account("a1", "Current", 10.0, "c-1")), null)))
+                .getJSONArray("accounts").getJSONObject(0).has("bank"));
+    }
+
+    @Test
+    public void responseIsASnapshotOfTheAccountList() throws IOException {
+        List<Account> accounts = new ArrayList<>();
+        accounts.add(account("a1", "Current", 10.0, "c-1"));
+        StreamingOutput output = AccountsJsonWriter.accountsResponse(accounts, null);
+        accounts.add(account("a2", "Savings", 20.0, "c-1"));
+
+        assertEquals(1, new JSONObject(write(output)).getJSONArray("accounts").length());
+    }
+
+    private static String write(StreamingOutput output) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        output.write(bytes);
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static List<String> balances(String json) {
+        List<String> balances = new ArrayList<>();
+        Matcher matcher = BALANCE.matcher(json);
+        while (matcher.find()) {
+            balances.add(matcher.group(1));
+        }
+        Collections.sort(balances);
+        return balances;
+    }
+
+    private static Map<String, Object> legacyResponse(List<Account> accounts) {
+        List<Map<String, Object>> accountsList = new ArrayList<>();
+        for (Account acc : accounts) {
+            List<Map<String, Object>> txnList = new ArrayList<>();
+            if (acc.getTransactions() != null) {
+                for (Transaction txn : acc.getTransactions()) {
+                    Map<String, Object> t = new LinkedHashMap<>();
+                    t.put(OpenBankingConstants.FIELD_TRANSACTION_ID,         txn.getId());
+                    t.put("date",                                             txn.getDate());
+                    t.put(OpenBankingConstants.FIELD_REFERENCE,              txn.getReference());
+                    t.put(OpenBankingConstants.FIELD_ACCOUNT,                txn.getAccount());
+                    t.put(OpenBankingConstants.FIELD_AMOUNT,                 txn.getAmount());
+                    t.put(OpenBankingConstants.FIELD_CURRENCY,               txn.getCurrency());
+                    t.put(OpenBankingConstants.FIELD_CREDIT_DEBIT_INDICATOR, txn.getCreditDebitStatus());
+                    txnList.add(t);
+                }
+            }
+            Map<String, Object> a = new LinkedHashMap<>();
+            a.put("id",                                  acc.getId());
+            a.put(OpenBankingConstants.FIELD_NAME,       acc.getName());
+            a.put("balance",                             acc.getBalance());
+            a.put(OpenBankingConstants.FIELD_CONSENT_ID, acc.getConsentId());
+            a.put("transactions",                        txnList);
+            a.put("consentId",                           acc.getConsentId());
+            accountsList.add(a);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put(ApiConstants.FIELD_TYPE,   ApiConstants.STATUS_ACCOUNTS);
+        response.put(ApiConstants.FIELD_STATUS, ApiConstants.VALUE_SUCCESS);
+        response.put("accounts",                accountsList);
+        return response;
+    }
+
+    private static Account account(String id, String name, Double balance, String consentId,
+                                   Transaction... transactions) {
+        Account account = new Account(id, name, balance, new ArrayList<>(Arrays.asList(transactions)));
+        account.setConsentId(consentId);
+        return account;
+    }
+
+    private static Transaction transaction(String id, String date, String reference, String account,
+                                           String amount, String currency, String indicator) {
+        Transaction transaction = new Transaction(id, date, reference, amount, currency, indicator);
+        transaction.setAccount(account);
+        return transaction;
+    }
+}
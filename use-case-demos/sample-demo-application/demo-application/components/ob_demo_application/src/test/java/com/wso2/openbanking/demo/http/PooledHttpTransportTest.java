@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that {@link PooledHttpTransport} keeps connections alive and reuses them across requests.
+ */
+public class PooledHttpTransportTest {
+
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final ExecutorService serverThreads = Executors.newFixedThreadPool(8);
+    private HttpServer server;
+    private PooledHttpTransport transport;
+    private Path keyStoreDir;
+
+    @After
+    public void tearDown() throws IOException {
+        if (transport != null) {
+            transport.close();
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+        serverThreads.shutdownNow();
+        if (keyStoreDir != null) {
+            for (File file : keyStoreDir.toFile().listFiles()) {
+                Files.delete(file.toPath());
+            }
+            Files.delete(keyStoreDir);
+        }
+    }
+
+    @Test
+    public void sequentialRequestsShareOneConnection() throws Exception {
+        String url = startServer(0);
+        transport = new PooledHttpTransport(SSLContext.getDefault(), 10, 5, 30, 30);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("/items/" + i, HttpConnection.get(url + "/items/" + i, transport).execute());
+        }
+
+        assertEquals(1, clientPorts.size());
+        PoolMetrics metrics = transport.getPoolMetrics();
+        assertEquals(0, metrics.getLeased());
+        assertEquals(1, metrics.getIdle());
+    }
+
+    @Test
+    public void connectionIsReusedWhenTheReaderLeavesTheBodyUnread() throws Exception {
+        String url = startServer(0);
+        transport = new PooledHttpTransport(SSLContext.getDefault(), 10, 5, 30, 30);
+
+        for (int i = 0; i < 5; i++) {
+            int status = HttpConnection.get(url + "/large", transport)
+                    .executeAndRead((statusCode, headers, body) -> statusCode);
+            assertEquals(200, status);
+        }
+
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void concurrentRequestsStayWithinThePerRouteLimit() throws Exception {
+        String url = startServer(20);
+        transport = new PooledHttpTransport(SSLContext.getDefault(), 10, 2, 30, 30);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < 8; t++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    int wrong = 0;
+                    for (int i = 0; i < 5; i++) {
+                        if (!"/slow".equals(HttpConnection.get(url + "/slow", transport).execute())) {
+                            wrong++;
+                        }
+                    }
+                    return wrong;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(Integer.valueOf(0), result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertTrue("opened " + clientPorts.size() + " connections", clientPorts.size() <= 2);
+    }
+
+    @Test
+    public void keptAliveTlsConnectionHandshakesOnce() throws Exception {
+        KeyStore keyStore = generateKeyStore();
+        Assume.assumeTrue("keytool is not available", keyStore != null);
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(keyStore, PASSWORD);
+        TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(keyStore);
+        SSLContext serverContext = SSLContext.getInstance("TLS");
+        serverContext.init(keyManagers.getKeyManagers(), null, null);
+        SSLContext clientContext = SSLContext.getInstance("TLS");
+        clientContext.init(null, trustManagers.getTrustManagers(), null);
+
+        HttpsServer httpsServer = HttpsServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        httpsServer.setHttpsConfigurator(new HttpsConfigurator(serverContext));
+        server = httpsServer;
+        String url = start(0).replace("http://127.0.0.1", "https://localhost");
+        transport = new PooledHttpTransport(clientContext, 10, 5, 30, 30);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("/secure/" + i, HttpConnection.get(url + "/secure/" + i, transport).execute());
+        }
+
+        assertEquals(1, clientPorts.size());
+        assertEquals(1L, transport.getPoolMetrics().getHandshakes());
+    }
+
+    private String startServer(long delayMillis) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        return start(delayMillis);
+    }
+
+    private String start(long delayMillis) {
+        server.setExecutor(serverThreads);
+        server.createContext("/", exchange -> respond(exchange, delayMillis));
+        server.start();
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void respond(HttpExchange exchange, long delayMillis) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        try (InputStream ignored = exchange.getRequestBody()) {
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String path = exchange.getRequestURI().getPath();
+        byte[] body = "/large".equals(path)
+                ? new byte[256 * 1024]
+                : path.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Generates a self-signed localhost key pair with the JDK keytool.
+     *
+     * @return key store holding the key pair, or null if keytool could not be run
+     */
+    private KeyStore generateKeyStore() throws Exception {
+        File keytool = new File(System.getProperty("java.home"), "bin" + File.separator + "keytool");
+        if (!keytool.canExecute()) {
+            return null;
+        }
+        keyStoreDir = Files.createTempDirectory("pooled-transport-test");
+        File file = keyStoreDir.resolve("server.p12").toFile();
+        Process process = new ProcessBuilder(keytool.getPath(), "-genkeypair", "-alias", "server",
+                "-keyalg", "RSA", "-keysize", "2048", "-validity", "1", "-dname", "CN=localhost",
+                "-ext", "SAN=dns:localhost,ip:127.0.0.1", "-storetype", "PKCS12",
+                "-keystore", file.getPath(), "-storepass", new String(PASSWORD))
+                .redirectErrorStream(true)
+                .start();
+        process.getInputStream().readAllBytes();
+        if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0) {
+            return null;
+        }
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = new FileInputStream(file)) {
+            keyStore.load(in, PASSWORD);
+        }
+        return keyStore;
+    }
+}
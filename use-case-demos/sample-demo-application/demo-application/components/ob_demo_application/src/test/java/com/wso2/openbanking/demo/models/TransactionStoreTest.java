@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.models;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that {@link TransactionStore} returns exactly the transactions it was given.
+ */
+public class TransactionStoreTest {
+
+    private static final String ACCOUNT = "acc-1";
+
+    @Test
+    public void regularTransactionsReadBackUnchanged() {
+        List<Transaction> given = Arrays.asList(
+                transaction("t1", "2026-01-05", "Coffee", "3.50", "GBP", "Debit"),
+                transaction("t2", "2026-01-06", "Salary", "2500.00", "GBP", "Credit"),
+                transaction("t3", "1970-01-01", "Coffee", "12", "EUR", "Debit"),
+                transaction("t4", "1969-12-31", "", "-4.125", "USD", "Credit"),
+                transaction("t5", "2024-02-29", "Café £ 日本", "0.01", "JPY", "Debit"),
+                transaction("t6", "9999-12-31", "Ref", "922337203685477580.7", "GBP", "Credit"));
+
+        TransactionStore store = TransactionStore.of(ACCOUNT, given);
+
+        assertSameTransactions(given, store.asList());
+        for (int i = 0; i < given.size(); i++) {
+            assertTrue("row " + i + " should be encoded", store.isEncoded(i));
+            assertEquals(given.get(i).getId(), store.getId(i));
+        }
+        assertEquals(350L, store.getAmountMinor(0));
+        assertEquals(2, store.getAmountScale(0));
+        assertEquals(0, store.getEpochDay(2));
+        assertEquals("EUR", store.getCurrency(2));
+        assertTrue(store.isCredit(1));
+        assertFalse(store.isCredit(0));
+    }
+
+    @Test
+    public void irregularTransactionsAreKeptAsGiven() {
+        Transaction foreign = transaction("t9", "2026-01-05", "Other", "1.00", "GBP", "Debit");
+        foreign.setAccount("acc-2");
+        Transaction noAccount = transaction("t10", "2026-01-05", "None", "1.00", "GBP", "Debit");
+        noAccount.setAccount(null);
+        List<Transaction> given = Arrays.asList(
+                transaction("t1", "2026-01-05", "Negative zero", "-0.00", "GBP", "Debit"),
+                transaction("t2", "2026-02-30", "Bad day", "1.00", "GBP", "Debit"),
+                transaction("t3", "2026-01-05T10:15:30", "Not a date", "1.00", "GBP", "Debit"),
+                transaction("t4", "2026-01-05", "Leading zero", "01.00", "GBP", "Debit"),
+                transaction("t5", "2026-01-05", "Plus sign", "+1.00", "GBP", "Debit"),
+                transaction("t6", "2026-01-05", "Trailing dot", "1.", "GBP", "Debit"),
+                transaction("t7", "2026-01-05", "Exponent", "1e3", "GBP", "Debit"),
+                transaction("t8", "2026-01-05", "Overflow", "92233720368547758080", "GBP", "Debit"),
+                foreign,
+                noAccount,
+                transaction("t11", "2026-01-05", "Pending", "1.00", "GBP", "Pending"),
+                transaction("t12", "2026-01-05", "No currency", "1.00", null, "Debit"),
+                transaction(null, null, null, null, null, null),
+                transaction("t14", "2026-01-05", "Empty amount", "", "GBP", "Debit"),
+                transaction("lone-\uD800-surrogate", "2026-01-05", "Broken \uDC00 text", "1.00", "GBP", "Debit"),
+                transaction("t16", "+10000-01-01", "Far future", "1.00", "GBP", "Debit"));
+
+        TransactionStore store = TransactionStore.of(ACCOUNT, given);
+
+        assertSameTransactions(given, store.asList());
+        for (int i = 0; i < given.size(); i++) {
+            assertEquals(given.get(i).getId(), store.getId(i));
+        }
+        assertFalse(store.isEncoded(0));
+        assertFalse(store.isEncoded(8));
+    }
+
+    @Test
+    public void copyingBetweenStoresKeepsEveryTransaction() {
+        List<Transaction> given = new ArrayList<>();
+        given.add(transaction("t1", "2026-01-05", "Coffee", "3.50", "GBP", "Debit"));
+        given.add(transaction("t2", "2026-01-05", "Negative zero", "-0.00", "GBP", "Debit"));
+        given.add(transaction("t3", "2026-01-06", "Coffee", "4.00", "EUR", "Credit"));
+        TransactionStore first = TransactionStore.of(ACCOUNT, given);
+
+        TransactionStore.Builder builder = new TransactionStore.Builder(ACCOUNT)
+                .add(transaction("t0", "2026-01-04", "Rent", "900.00", "USD", "Debit"));
+        builder.addAll(first);
+        builder.add(first, 0);
+        TransactionStore copy = builder.build();
+
+        List<Transaction> expected = new ArrayList<>();
+        expected.add(transaction("t0", "2026-01-04", "Rent", "900.00", "USD", "Debit"));
+        expected.addAll(given);
+        expected.add(given.get(0));
+        assertSameTransactions(expected, copy.asList());
+    }
+
+    @Test
+    public void currenciesBeyondTheCodeTableAreKeptAsGiven() {
+        List<Transaction> given = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            given.add(transaction("t" + i, "2026-01-05", "Ref", "1.00", String.format("C%02d", i), "Debit"));
+        }
+
+        TransactionStore store = TransactionStore.of(ACCOUNT, given);
+        TransactionStore copy = new TransactionStore.Builder(ACCOUNT).addAll(store).build();
+
+        assertSameTransactions(given, store.asList());
+        assertSameTransactions(given, copy.asList());
+    }
+
+    @Test
+    public void generatedTransactionsRoundTrip() {
+        Random random = new Random(42L);
+        String[] currencies = {"GBP", "EUR", "USD"};
+        String[] references = {"Coffee", "Rent", "Salary", "Groceries"};
+        List<Transaction> given = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String amount = (random.nextInt(10) == 0 ? "-" : "") + random.nextInt(100000)
+                    + (random.nextBoolean() ? String.format(".%02d", random.nextInt(100)) : "");
+            String date = java.time.LocalDate.ofEpochDay(18000 + random.nextInt(2000)).toString();
+            given.add(transaction("txn-" + i, date, references[random.nextInt(references.length)], amount,
+                    currencies[random.nextInt(currencies.length)], random.nextBoolean() ? "Credit" : "Debit"));
+        }
+
+        assertSameTransactions(given, TransactionStore.of(ACCOUNT, given).asList());
+    }
+
+    @Test
+    public void emptyStoreHasNoTransactions() {
+        assertEquals(0, TransactionStore.empty().size());
+        assertTrue(TransactionStore.empty().asList().isEmpty());
+        assertEquals(0, TransactionStore.of(ACCOUNT, Collections.emptyList()).size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getOutsideTheStoreFails() {
+        TransactionStore.of(ACCOUNT, Collections.singletonList(
+                transaction("t1", "2026-01-05", "Coffee", "3.50", "GBP", "Debit"))).get(1);
+    }
+
+    private static Transaction transaction(String id, String date, String reference, String amount,
+                                           String currency, String indicator) {
+        Transaction transaction = new Transaction(id, date, reference, amount, currency, indicator);
+        transaction.setAccount(ACCOUNT);
+        return transaction;
+    }
+
+    private static void assertSameTransactions(List<Transaction> expected, List<Transaction> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Transaction want = expected.get(i);
+            Transaction got = actual.get(i);
+            String row = "row " + i + ": ";
+            assertEquals(row + "id", want.getId(), got.getId());
+            assertEquals(row + "date", want.getDate(), got.getDate());
+            assertEquals(row + "reference", want.getReference(), got.getReference());
+            assertEquals(row + "amount", want.getAmount(), got.getAmount());
+            assertEquals(row + "currency", want.getCurrency(), got.getCurrency());
+            assertEquals(row + "indicator", want.getCreditDebitStatus(), got.getCreditDebitStatus());
+            assertEquals(row + "account", want.getAccount(), got.getAccount());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.http.HttpTransport;
+import com.wso2.openbanking.demo.http.OutboundCallScope;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests that concurrent misses of the same {@link AccountDataCache} entry share one bank call.
+ */
+public class AccountDataCacheTest {
+
+    private static final String URL = "https://bank.example/accounts/acc-1/balances";
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch firstCallStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstCall = new CountDownLatch(1);
+
+    @Test
+    public void concurrentMissesShareOneBankCall() throws Exception {
+        AccountDataCache cache = newCache();
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> read(cache));
+        assertTrue(firstCallStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> read(cache));
+        awaitCoalesced(cache);
+
+        releaseFirstCall.countDown();
+
+        assertEquals("body-1", first.get(5, TimeUnit.SECONDS));
+        assertEquals("body-1", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals("body-1", read(cache));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void waitingCallerLoadsTheEntryItselfWhenTheFirstCallerIsCancelled() throws Exception {
+        AccountDataCache cache = newCache();
+        OutboundCallScope cancelledScope = new OutboundCallScope();
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(
+                () -> OutboundCallScope.callWithin(cancelledScope, () -> read(cache)));
+        assertTrue(firstCallStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> read(cache));
+        awaitCoalesced(cache);
+
+        cancelledScope.cancel();
+        releaseFirstCall.countDown();
+
+        assertEquals("body-2", second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+        try {
+            first.get(5, TimeUnit.SECONDS);
+            fail("Cancelled caller should not receive a value");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().getCause() instanceof InterruptedIOException);
+        }
+    }
+
+    private AccountDataCache newCache() {
+        return new AccountDataCache(this::respond, true, 10,
+                Collections.singletonMap(AccountDataCache.Resource.BALANCES, 60));
+    }
+
+    private String read(AccountDataCache cache) {
+        try {
+            return cache.get("consent-1", "acc-1", AccountDataCache.Resource.BALANCES, URL, "token",
+                    body -> new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitCoalesced(AccountDataCache cache) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((long) cache.getStats().get("coalesced") == 0) {
+            if (System.nanoTime() - deadline > 0) {
+                fail("Second caller never joined the in-flight load");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private <T> T respond(String url, String accessToken, String etag, String lastModified,
+                          HttpTransport.ResponseReader<T> reader) throws IOException {
+        int call = calls.incrementAndGet();
+        if (call == 1) {
+            firstCallStarted.countDown();
+            try {
+                releaseFirstCall.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (OutboundCallScope.current() != null && OutboundCallScope.current().isCancelled()) {
+                throw new InterruptedIOException("Outbound call cancelled");
+            }
+        }
+        byte[] body = ("body-" + call).getBytes(StandardCharsets.UTF_8);
+        return reader.read(200, Collections.emptyMap(), new ByteArrayInputStream(body));
+    }
+}
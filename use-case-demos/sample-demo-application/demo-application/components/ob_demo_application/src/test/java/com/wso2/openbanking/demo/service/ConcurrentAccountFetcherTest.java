@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.wso2.openbanking.demo.service;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the per-bank concurrency limit of {@link ConcurrentAccountFetcher}.
+ */
+public class ConcurrentAccountFetcherTest {
+
+    private static final String BANK_A = "https://bank-a.example";
+    private static final String BANK_B = "https://bank-b.example";
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    public void callsOverOneBanksLimitDoNotHoldThreadsOtherBanksNeed() throws Exception {
+        ConcurrentAccountFetcher fetcher = new ConcurrentAccountFetcher(2, 1);
+        CompletableFuture<String> first = fetcher.submit(BANK_A, this::blockUntilReleased);
+        CompletableFuture<String> second = fetcher.submit(BANK_A, () -> "a-2");
+
+        CompletableFuture<String> other = fetcher.submit(BANK_B, () -> "b-1");
+
+        assertEquals("b-1", other.get(5, TimeUnit.SECONDS));
+        assertFalse(second.isDone());
+        release.countDown();
+        assertEquals("a-1", first.get(5, TimeUnit.SECONDS));
+        assertEquals("a-2", second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void callsOfOneBankNeverExceedTheLimit() throws Exception {
+        ConcurrentAccountFetcher fetcher = new ConcurrentAccountFetcher(8, 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[20];
+        for (int i = 0; i < calls.length; i++) {
+            calls[i] = fetcher.submit(BANK_A, () -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+                running.decrementAndGet();
+                return null;
+            });
+        }
+
+        CompletableFuture.allOf(calls).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, peak.get());
+    }
+
+    @Test
+    public void queuedCallCancelledBeforeItsTurnNeverRuns() throws Exception {
+        ConcurrentAccountFetcher fetcher = new ConcurrentAccountFetcher(2, 1);
+        AtomicInteger ran = new AtomicInteger();
+        CompletableFuture<String> first = fetcher.submit(BANK_A, this::blockUntilReleased);
+        CompletableFuture<Integer> queued = fetcher.submit(BANK_A, ran::incrementAndGet);
+        CompletableFuture<String> next = fetcher.submit(BANK_A, () -> "a-3");
+
+        assertTrue(queued.cancel(true));
+        release.countDown();
+
+        assertEquals("a-1", first.get(5, TimeUnit.SECONDS));
+        assertEquals("a-3", next.get(5, TimeUnit.SECONDS));
+        assertEquals(0, ran.get());
+    }
+
+    private String blockUntilReleased() throws IOException {
+        try {
+            if (!release.await(5, TimeUnit.SECONDS)) {
+                throw new IOException("Call was never released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        return "a-1";
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link FlowStateStore}.
+ */
+public class FlowStateStoreTest {
+
+    private static final int THREADS = 16;
+    private static final int FLOWS_PER_THREAD = 2000;
+
+    @Test
+    public void concurrentPutAndTakeReturnEachStateItsOwnFlow() throws Exception {
+        FlowStateStore<String> store = new FlowStateStore<>(60, THREADS * FLOWS_PER_THREAD);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                String prefix = "thread-" + t + "-";
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int mismatches = 0;
+                    for (int i = 0; i < FLOWS_PER_THREAD; i++) {
+                        String state = prefix + i;
+                        store.put(state, "flow-for-" + state);
+                    }
+                    for (int i = 0; i < FLOWS_PER_THREAD; i++) {
+                        String state = prefix + i;
+                        if (!("flow-for-" + state).equals(store.take(state))) {
+                            mismatches++;
+                        }
+                        if (store.take(state) != null) {
+                            mismatches++;
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(Integer.valueOf(0), result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, store.size());
+        assertEquals(0L, store.getStats().get("evicted"));
+    }
+
+    @Test
+    public void takeIsSingleUse() {
+        FlowStateStore<String> store = new FlowStateStore<>(60, 10);
+        store.put("state", "flow");
+
+        assertEquals("flow", store.get("state"));
+        assertEquals("flow", store.take("state"));
+        assertNull(store.take("state"));
+        assertNull(store.get("state"));
+    }
+
+    @Test
+    public void sizeCapEvictsOldestEntriesFirst() {
+        FlowStateStore<String> store = new FlowStateStore<>(60, 3);
+        for (int i = 0; i < 5; i++) {
+            store.put("state-" + i, "flow-" + i);
+        }
+
+        assertEquals(3, store.size());
+        assertNull(store.take("state-0"));
+        assertNull(store.take("state-1"));
+        assertEquals("flow-2", store.take("state-2"));
+        assertEquals("flow-4", store.take("state-4"));
+        assertEquals(2L, store.getStats().get("evicted"));
+    }
+
+    @Test
+    public void sizeCapHoldsUnderConcurrentPuts() throws Exception {
+        int maxEntries = 100;
+        FlowStateStore<String> store = new FlowStateStore<>(60, maxEntries);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                String prefix = "thread-" + t + "-";
+                results.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < FLOWS_PER_THREAD; i++) {
+                        store.put(prefix + i, "flow");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue("size " + store.size() + " exceeds cap", store.size() <= maxEntries);
+    }
+
+    @Test
+    public void expiredEntriesAreNotReturned() throws Exception {
+        FlowStateStore<String> store = new FlowStateStore<>(1, 10);
+        store.put("taken", "flow");
+        store.put("read", "flow");
+        store.put("purged", "flow");
+
+        Thread.sleep(1100);
+
+        assertNull(store.take("taken"));
+        assertNull(store.get("read"));
+        store.put("fresh", "flow");
+        assertEquals(1, store.size());
+        assertEquals("flow", store.take("fresh"));
+        assertEquals(3L, store.getStats().get("expired"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveTtl() {
+        new FlowStateStore<String>(0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveSizeCap() {
+        new FlowStateStore<String>(60, 0);
+    }
+}
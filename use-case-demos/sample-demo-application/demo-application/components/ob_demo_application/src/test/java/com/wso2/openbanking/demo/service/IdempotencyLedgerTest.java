@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.exceptions.IdempotencyConflictException;
+import com.wso2.openbanking.demo.http.TransportResponse;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests replay, conflict, and persistence behaviour of {@link IdempotencyLedger}.
+ */
+public class IdempotencyLedgerTest {
+
+    private static final String URL = "https://bank.example/payment-consents";
+
+    private final AtomicInteger sent = new AtomicInteger();
+
+    @Test
+    public void repeatedRequestIsReplayedWithoutSendingAgain() throws IOException {
+        IdempotencyLedger ledger = new IdempotencyLedger(null, 3600, false, 100);
+
+        assertEquals("consent-1", ledger.execute("key-1", URL, "{\"a\":1}", () -> respond(201, "consent-1")));
+        assertEquals("consent-1", ledger.execute("key-1", URL, "{\"a\":1}", () -> respond(201, "consent-2")));
+        assertEquals(1, sent.get());
+    }
+
+    @Test(expected = IdempotencyConflictException.class)
+    public void keyReusedForADifferentBodyIsAConflict() throws IOException {
+        IdempotencyLedger ledger = new IdempotencyLedger(null, 3600, false, 100);
+        ledger.execute("key-1", URL, "{\"a\":1}", () -> respond(201, "consent-1"));
+
+        ledger.execute("key-1", URL, "{\"a\":2}", () -> respond(201, "consent-2"));
+    }
+
+    @Test
+    public void failedResponseIsNotRecorded() throws IOException {
+        IdempotencyLedger ledger = new IdempotencyLedger(null, 3600, false, 100);
+
+        assertEquals("busy", ledger.execute("key-1", URL, "{}", () -> respond(503, "busy")));
+        assertEquals("consent-1", ledger.execute("key-1", URL, "{}", () -> respond(201, "consent-1")));
+        assertEquals(2, sent.get());
+    }
+
+    @Test
+    public void recordsSurviveReopeningTheLedgerFile() throws IOException {
+        Path dir = Files.createTempDirectory("ledger-test");
+        Path file = dir.resolve("ledger.log");
+        try {
+            new IdempotencyLedger(file, 3600, true, 100)
+                    .execute("key-1", URL, "{}", () -> respond(201, "consent-1"));
+
+            IdempotencyLedger reopened = new IdempotencyLedger(file, 3600, true, 100);
+
+            assertEquals("consent-1", reopened.execute("key-1", URL, "{}", () -> respond(201, "consent-2")));
+            assertEquals(1, sent.get());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void derivedKeysDependOnEveryPart() {
+        assertEquals(IdempotencyLedger.deriveKey("payment", "client-key"),
+                IdempotencyLedger.deriveKey("payment", "client-key"));
+        assertNotEquals(IdempotencyLedger.deriveKey("payment", "client-key"),
+                IdempotencyLedger.deriveKey("payment", "client-key2"));
+        assertNotEquals(IdempotencyLedger.deriveKey("ab", "c"), IdempotencyLedger.deriveKey("a", "bc"));
+    }
+
+    private TransportResponse respond(int status, String body) {
+        sent.incrementAndGet();
+        return new TransportResponse(status, Collections.emptyMap(), body);
+    }
+}
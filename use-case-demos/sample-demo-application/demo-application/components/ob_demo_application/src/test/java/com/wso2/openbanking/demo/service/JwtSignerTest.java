@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that {@link JwtSigner} produces PS256 tokens that verify with a freshly configured verifier.
+ */
+public class JwtSignerTest {
+
+    private static KeyPair keyPair;
+
+    @BeforeClass
+    public static void generateKey() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+    }
+
+    @Test
+    public void signedTokenVerifiesAndCarriesHeaderAndPayload() throws Exception {
+        JwtSigner signer = new JwtSigner(keyPair.getPrivate());
+        JwtHeader header = new JwtHeader("PS256", "kid-1", "JWT");
+        String payload = "{\"iss\":\"client\",\"aud\":\"https://bank/token\",\"exp\":1700000000}";
+
+        String[] parts = signer.sign(header, payload).split("\\.");
+
+        assertEquals(3, parts.length);
+        assertEquals(header.toJson(), decode(parts[0]));
+        assertEquals(payload, decode(parts[1]));
+        assertTrue(verify(keyPair.getPublic(), parts));
+    }
+
+    @Test
+    public void repeatedSignaturesFromPooledInstancesVerify() throws Exception {
+        JwtSigner signer = new JwtSigner(keyPair.getPrivate());
+        JwtHeader header = new JwtHeader("PS256", "kid-1", "JWT");
+
+        for (int i = 0; i < 50; i++) {
+            String[] parts = signer.sign(header, "{\"jti\":\"" + i + "\"}").split("\\.");
+            assertTrue("signature " + i + " did not verify", verify(keyPair.getPublic(), parts));
+        }
+    }
+
+    @Test
+    public void cachedHeadersAreKeptApartPerHeader() throws Exception {
+        JwtSigner signer = new JwtSigner(keyPair.getPrivate());
+        JwtHeader jwt = new JwtHeader("PS256", "kid-1", "JWT");
+        JwtHeader other = new JwtHeader("PS256", "kid-2", "JOSE");
+
+        String[] first = signer.sign(jwt, "{}").split("\\.");
+        String[] second = signer.sign(other, "{}").split("\\.");
+        String[] third = signer.sign(jwt, "{}").split("\\.");
+
+        assertEquals(jwt.toJson(), decode(first[0]));
+        assertEquals(other.toJson(), decode(second[0]));
+        assertEquals(first[0], third[0]);
+        assertTrue(verify(keyPair.getPublic(), second));
+    }
+
+    @Test
+    public void tamperedPayloadDoesNotVerify() throws Exception {
+        JwtSigner signer = new JwtSigner(keyPair.getPrivate());
+        String[] parts = signer.sign(new JwtHeader("PS256", "kid-1", "JWT"), "{\"amount\":\"10.00\"}").split("\\.");
+
+        parts[1] = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"amount\":\"99.00\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(verify(keyPair.getPublic(), parts));
+    }
+
+    @Test
+    public void concurrentSigningProducesVerifiableTokens() throws Exception {
+        JwtSigner signer = new JwtSigner(keyPair.getPrivate());
+        JwtHeader header = new JwtHeader("PS256", "kid-1", "JWT");
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int failures = 0;
+                    for (int i = 0; i < 25; i++) {
+                        String payload = "{\"jti\":\"" + thread + "-" + i + "\"}";
+                        String[] parts = signer.sign(header, payload).split("\\.");
+                        if (!payload.equals(decode(parts[1])) || !verify(keyPair.getPublic(), parts)) {
+                            failures++;
+                        }
+                    }
+                    return failures;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(Integer.valueOf(0), result.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static boolean verify(PublicKey publicKey, String[] parts) throws GeneralSecurityException {
+        Signature verifier = Signature.getInstance("RSASSA-PSS");
+        verifier.setParameter(new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, 1));
+        verifier.initVerify(publicKey);
+        verifier.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+        return verifier.verify(Base64.getUrlDecoder().decode(parts[2]));
+    }
+
+    private static String decode(String segment) {
+        return new String(Base64.getUrlDecoder().decode(segment), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.models.Account;
+import com.wso2.openbanking.demo.models.AggregatedAccounts;
+import com.wso2.openbanking.demo.models.BankProfile;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that {@link MultiBankAggregator} links consents only into live aggregations.
+ */
+public class MultiBankAggregatorTest {
+
+    private static final BankProfile BANK_A = new BankProfile("a", "Bank A", "https://a.example/", 5);
+    private static final BankProfile BANK_B = new BankProfile("b", "Bank B", "https://b.example/", 5);
+
+    private final MultiBankAggregator aggregator = new MultiBankAggregator(Arrays.asList(BANK_A, BANK_B), 2, 1, 10);
+
+    @Test
+    public void consentIsLinkedIntoALiveAggregation() throws Exception {
+        String aggregationId = aggregator.open();
+
+        assertTrue(aggregator.link(aggregationId, BANK_A, "token-a", "consent-a"));
+
+        assertTrue(aggregator.isLinked(aggregationId, "consent-a"));
+        AggregatedAccounts aggregated = aggregator.aggregate(aggregationId,
+                (bank, accessToken, consentId) -> Collections.singletonList(
+                        new Account(bank.getId() + "-1", consentId, 1.0, null)));
+        List<Account> accounts = aggregated.getAccounts();
+        assertEquals(1, accounts.size());
+        assertEquals("consent-a", accounts.get(0).getName());
+    }
+
+    @Test
+    public void unknownAggregationIsNotCreatedByLinking() {
+        assertFalse(aggregator.link("never-issued", BANK_A, "token-a", "consent-a"));
+
+        assertFalse(aggregator.isOpen("never-issued"));
+        assertFalse(aggregator.link(null, BANK_A, "token-a", "consent-a"));
+    }
+
+    @Test
+    public void expiredAggregationIsNotRevivedByLinking() throws Exception {
+        String aggregationId = aggregator.open();
+        Thread.sleep(1100);
+
+        assertFalse(aggregator.link(aggregationId, BANK_A, "token-a", "consent-a"));
+
+        assertFalse(aggregator.isOpen(aggregationId));
+        assertFalse(aggregator.isLinked(aggregationId, "consent-a"));
+        assertNull(aggregator.aggregate(aggregationId, (bank, accessToken, consentId) -> Collections.emptyList()));
+    }
+
+    @Test
+    public void unlinkedConsentIsNoLongerLinked() {
+        String aggregationId = aggregator.open();
+        aggregator.link(aggregationId, BANK_A, "token-a", "consent-a");
+        aggregator.link(aggregationId, BANK_B, "token-b", "consent-b");
+
+        aggregator.unlink("consent-a");
+
+        assertFalse(aggregator.isLinked(aggregationId, "consent-a"));
+        assertTrue(aggregator.isLinked(aggregationId, "consent-b"));
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.constants.OpenBankingConstants;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that {@link PaymentBodyWriter} writes the same JSON as the org.json builder it replaced in PaymentService.
+ */
+public class PaymentBodyWriterTest {
+
+    private static final String[][] PAYMENTS = {
+            {"ID-1", "E2E-1", "10.00", "GBP", "12345678901234", "Payee", "30080012345678", "User", "Rent"},
+            {"ID-2", "E2E-2", "0.50", "EUR", "1", "Payee", "2", "User", null},
+            {"ID-3", "E2E-3", "1.00", "GBP", "1", "Payee", "2", "User", "   "},
+            {"ID-4", "E2E-4", "1.00", "GBP", "1", "Quote \" mark", "2", "Back\\slash", "Line\nbreak\r\ttab"},
+            {"ID-5", "E2E-5", "1.00", "GBP", "1", "Ctrl \u0001\u001f", "2", "</script>", "Sep \u2028 \u2029"},
+            {"ID-6", "E2E-6", "1.00", "GBP", "1", "Café 日本 💷", "2", "", "\"quoted\""},
+            {"ID-7", "E2E-7", "abc", null, "1", "Payee", "", "User", "No currency"},
+    };
+
+    @Test
+    public void consentBodyMatchesOrgJsonBuilder() {
+        for (String[] p : PAYMENTS) {
+            String body = PaymentBodyWriter.consentBody(initiation(p));
+            JSONObject expected = legacyConsentBody(legacyInitiation(p));
+            assertTrue(p[0] + ": " + body, expected.similar(new JSONObject(body)));
+        }
+    }
+
+    @Test
+    public void submissionBodyMatchesOrgJsonBuilder() {
+        for (String[] p : PAYMENTS) {
+            String consentId = "consent-" + p[0] + "-\"x\"\\";
+            String body = PaymentBodyWriter.submissionBody(initiation(p), consentId);
+            JSONObject expected = legacySubmissionBody(legacyInitiation(p), consentId);
+            assertTrue(p[0] + ": " + body, expected.similar(new JSONObject(body)));
+        }
+    }
+
+    @Test
+    public void consentAndSubmissionCarryTheSameInitiationBytes() {
+        String initiation = initiation(PAYMENTS[3]);
+
+        assertTrue(PaymentBodyWriter.consentBody(initiation).contains(initiation));
+        assertTrue(PaymentBodyWriter.submissionBody(initiation, "c-1").contains(initiation));
+    }
+
+    @Test
+    public void blankReferenceOmitsRemittanceInformation() {
+        assertFalse(new JSONObject(initiation(PAYMENTS[1])).has(OpenBankingConstants.FIELD_REMITTANCE_INFORMATION));
+        assertFalse(new JSONObject(initiation(PAYMENTS[2])).has(OpenBankingConstants.FIELD_REMITTANCE_INFORMATION));
+        assertEquals("Rent", new JSONObject(initiation(PAYMENTS[0]))
+                .getJSONObject(OpenBankingConstants.FIELD_REMITTANCE_INFORMATION)
+                .getString(OpenBankingConstants.FIELD_REFERENCE));
+    }
+
+    @Test
+    public void controlCharactersAreEscaped() {
+        String initiation = initiation(PAYMENTS[4]);
+
+        for (char c : initiation.toCharArray()) {
+            assertTrue("unescaped character " + (int) c, c >= 0x20 && c != 0x2028 && c != 0x2029);
+        }
+    }
+
+    @Test
+    public void largeBodiesAreWrittenWhole() {
+        StringBuilder reference = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            reference.append("ref\"").append(i);
+        }
+        String[] p = PAYMENTS[0].clone();
+        p[8] = reference.toString();
+
+        String body = PaymentBodyWriter.consentBody(initiation(p));
+
+        assertTrue(legacyConsentBody(legacyInitiation(p)).similar(new JSONObject(body)));
+        assertTrue(legacyConsentBody(legacyInitiation(PAYMENTS[0]))
+                .similar(new JSONObject(PaymentBodyWriter.consentBody(initiation(PAYMENTS[0])))));
+    }
+
+    private static String initiation(String[] p) {
+        return PaymentBodyWriter.initiation(p[0], p[1], p[2], p[3], p[4], p[5], p[6], p[7], p[8]);
+    }
+
+    private static JSONObject legacyInitiation(String[] p) {
+        JSONObject initiation = new JSONObject();
+        initiation.put(OpenBankingConstants.FIELD_INSTRUCTION_IDENTIFICATION, p[0]);
+        initiation.put(OpenBankingConstants.FIELD_END_TO_END_IDENTIFICATION, p[1]);
+        initiation.put(OpenBankingConstants.FIELD_LOCAL_INSTRUMENT, OpenBankingConstants.LOCAL_INSTRUMENT_PAYM);
+        initiation.put(OpenBankingConstants.FIELD_INSTRUCTED_AMOUNT, new JSONObject()
+                .put(OpenBankingConstants.FIELD_AMOUNT, p[2])
+                .put(OpenBankingConstants.FIELD_CURRENCY, p[3]));
+        initiation.put(OpenBankingConstants.FIELD_CREDITOR_ACCOUNT, new JSONObject()
+                .put(OpenBankingConstants.FIELD_SCHEME_NAME, OpenBankingConstants.SCHEME_SORT_CODE_ACCOUNT_NUMBER)
+                .put(OpenBankingConstants.FIELD_IDENTIFICATION, p[4])
+                .put(OpenBankingConstants.FIELD_NAME, p[5])
+                .put(OpenBankingConstants.FIELD_SECONDARY_IDENTIFICATION,
+                        OpenBankingConstants.PAYMENT_SECONDARY_ID_FIXED));
+        initiation.put(OpenBankingConstants.FIELD_DEBTOR_ACCOUNT, new JSONObject()
+                .put(OpenBankingConstants.FIELD_SCHEME_NAME, OpenBankingConstants.SCHEME_SORT_CODE_ACCOUNT_NUMBER)
+                .put(OpenBankingConstants.FIELD_IDENTIFICATION, p[6])
+                .put(OpenBankingConstants.FIELD_NAME, p[7])
+                .put(OpenBankingConstants.FIELD_SECONDARY_IDENTIFICATION,
+                        p[6] + OpenBankingConstants.PAYMENT_SECONDARY_ID_SUFFIX));
+        if (p[8] != null && !p[8].trim().isEmpty()) {
+            initiation.put(OpenBankingConstants.FIELD_REMITTANCE_INFORMATION,
+                    new JSONObject().put(OpenBankingConstants.FIELD_REFERENCE, p[8]));
+        }
+        initiation.put(OpenBankingConstants.FIELD_SUPPLEMENTARY_DATA,
+                new JSONObject().put("additionalProp1", new JSONObject()));
+        return initiation;
+    }
+
+    private static JSONObject legacyConsentBody(JSONObject initiation) {
+        return new JSONObject(new JSONObject()
+                .put(OpenBankingConstants.FIELD_DATA,
+                        new JSONObject().put(OpenBankingConstants.FIELD_INITIATION, initiation))
+                .put(OpenBankingConstants.FIELD_RISK, new JSONObject())
+                .toString(4));
+    }
+
+    private static JSONObject legacySubmissionBody(JSONObject initiation, String consentId) {
+        return new JSONObject(new JSONObject()
+                .put(OpenBankingConstants.FIELD_DATA, new JSONObject()
+                        .put(OpenBankingConstants.FIELD_CONSENT_ID, consentId)
+                        .put(OpenBankingConstants.FIELD_INITIATION, initiation))
+                .put(OpenBankingConstants.FIELD_RISK, new JSONObject())
+                .toString(4));
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.models.Account;
+import com.wso2.openbanking.demo.models.Transaction;
+import org.junit.After;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that {@link SpendingAnalytics} reports balances in the currency the bank gave for them.
+ */
+public class SpendingAnalyticsTest {
+
+    private final SpendingAnalytics analytics = new SpendingAnalytics(2, 60, 10, 3);
+
+    @After
+    public void tearDown() {
+        analytics.invalidateConsent("c-1");
+    }
+
+    @Test
+    public void balanceIsReportedInItsOwnCurrencyNotTheFirstTransactions() {
+        Account account = account("a1", 250.0, "GBP",
+                transaction("t1", "2026-01-05", "Hotel", "80.00", "EUR", "Debit"),
+                transaction("t2", "2026-01-06", "Salary", "100.00", "GBP", "Credit"));
+
+        analytics.update("c-1", Collections.singletonList(account));
+
+        assertEquals(new BigDecimal("250.0"), currency("GBP").get("balance"));
+        assertFalse(currency("EUR").containsKey("balance"));
+    }
+
+    @Test
+    public void balanceIsReportedForAnAccountWithoutTransactions() {
+        analytics.update("c-1", Arrays.asList(
+                account("a1", 40.0, "GBP"),
+                account("a2", 10.0, "USD", transaction("t1", "bad-date", "Shop", "5.00", "USD", "Debit"))));
+
+        assertEquals(new BigDecimal("40.0"), currency("GBP").get("balance"));
+        assertEquals(new BigDecimal("10.0"), currency("USD").get("balance"));
+        assertTrue(((List<?>) currency("GBP").get("daily")).isEmpty());
+    }
+
+    @Test
+    public void balancesOfAccountsInTheSameCurrencyAreAdded() {
+        analytics.update("c-1", Arrays.asList(
+                account("a1", 40.0, "GBP", transaction("t1", "2026-01-05", "Shop", "5.00", "GBP", "Debit")),
+                account("a2", 60.0, "GBP")));
+
+        assertEquals(new BigDecimal("100.0"), currency("GBP").get("balance"));
+    }
+
+    @Test
+    public void balanceWithoutACurrencyIsLeftOut() {
+        analytics.update("c-1", Collections.singletonList(
+                account("a1", 40.0, null, transaction("t1", "2026-01-05", "Shop", "5.00", "GBP", "Debit"))));
+
+        assertFalse(currency("GBP").containsKey("balance"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> currency(String code) {
+        Map<String, Object> currencies = (Map<String, Object>) analytics.getReport("c-1").get("currencies");
+        assertTrue(code + " missing from " + currencies.keySet(), currencies.containsKey(code));
+        return (Map<String, Object>) currencies.get(code);
+    }
+
+    private static Account account(String id, Double balance, String currency, Transaction... transactions) {
+        Account account = new Account(id, "Account " + id, balance, new ArrayList<>(Arrays.asList(transactions)));
+        account.setBalanceCurrency(currency);
+        account.setConsentId("c-1");
+        return account;
+    }
+
+    private static Transaction transaction(String id, String date, String reference, String amount,
+                                           String currency, String indicator) {
+        return new Transaction(id, date, reference, amount, currency, indicator);
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.service;
+
+import com.wso2.openbanking.demo.http.HttpTransport;
+import com.wso2.openbanking.demo.models.Transaction;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests paging and delta-sync merging in {@link TransactionFetcher} against a stubbed bank.
+ */
+public class TransactionFetcherTest {
+
+    private static final String BANK = "https://bank.example";
+    private static final String ACCOUNT = "acc-1";
+    private static final String BASE = BANK + "/accounts/" + ACCOUNT + "/transactions";
+
+    private final Map<String, String> pages = new ConcurrentHashMap<>();
+    private final List<String> requested = Collections.synchronizedList(new ArrayList<>());
+    private ConcurrentAccountFetcher fetcher;
+
+    @Before
+    public void setUp() {
+        fetcher = new ConcurrentAccountFetcher(4, 4);
+    }
+
+    @Test
+    public void followsNextLinksInOrder() throws Exception {
+        pages.put(BASE, page(BASE + "?cursor=b", 0, txn("t1", "2026-01-01T09:00:00Z")));
+        pages.put(BASE + "?cursor=b", page("/accounts/acc-1/transactions?cursor=c", 0,
+                txn("t2", "2026-01-02T09:00:00Z")));
+        pages.put(BASE + "?cursor=c", page(null, 0, txn("t3", "2026-01-03T09:00:00Z")));
+
+        List<Transaction> transactions = fetch(newFetcher(10, 4, false));
+
+        assertEquals(Arrays.asList("t1", "t2", "t3"), ids(transactions));
+        assertEquals(Arrays.asList(BASE, BASE + "?cursor=b", BASE + "?cursor=c"), requested);
+    }
+
+    @Test
+    public void numberedPagesAreRequestedInWindowsAndKeptInPageOrder() throws Exception {
+        pages.put(BASE, page(BASE + "?page=2", 5, txn("p1", "2026-01-01T09:00:00Z")));
+        for (int p = 2; p <= 5; p++) {
+            pages.put(BASE + "?page=" + p, page(p < 5 ? BASE + "?page=" + (p + 1) : null, 5,
+                    txn("p" + p + "a", "2026-01-0" + p + "T09:00:00Z"),
+                    txn("p" + p + "b", "2026-01-0" + p + "T10:00:00Z")));
+        }
+        TransactionFetcher transactionFetcher = newFetcher(10, 3, false);
+
+        List<Transaction> transactions = fetch(transactionFetcher);
+
+        assertEquals(Arrays.asList("p1", "p2a", "p2b", "p3a", "p3b", "p4a", "p4b", "p5a", "p5b"),
+                ids(transactions));
+        assertEquals(5, requested.size());
+        assertEquals(5L, transactionFetcher.getStats().get("pagesFetched"));
+    }
+
+    @Test
+    public void stopsAtThePageLimit() throws Exception {
+        pages.put(BASE, page(BASE + "?page=2", 4, txn("p1", "2026-01-01T09:00:00Z")));
+        for (int p = 2; p <= 4; p++) {
+            pages.put(BASE + "?page=" + p, page(p < 4 ? BASE + "?page=" + (p + 1) : null, 4,
+                    txn("p" + p, "2026-01-0" + p + "T09:00:00Z")));
+        }
+        TransactionFetcher transactionFetcher = newFetcher(2, 4, false);
+
+        List<Transaction> transactions = fetch(transactionFetcher);
+
+        assertEquals(Arrays.asList("p1", "p2"), ids(transactions));
+        assertEquals(1L, transactionFetcher.getStats().get("truncated"));
+    }
+
+    @Test
+    public void nextLinkToTheSamePageEndsPaging() throws Exception {
+        pages.put(BASE, page(BASE, 0, txn("t1", "2026-01-01T09:00:00Z")));
+
+        assertEquals(Collections.singletonList("t1"), ids(fetch(newFetcher(10, 4, false))));
+        assertEquals(1, requested.size());
+    }
+
+    @Test
+    public void decodesTransactionFieldsAndIgnoresUnknownOnes() throws Exception {
+        pages.put(BASE, "{\"Data\":{\"Other\":[1,2],\"Transaction\":[{\"TransactionId\":\"t1\","
+                + "\"Extra\":{\"Nested\":[{}]},\"BookingDateTime\":\"2026-01-05T23:30:00-05:00\","
+                + "\"TransactionInformation\":\"Caf\\u00e9 \\\"x\\\"\","
+                + "\"Amount\":{\"Amount\":\"-0.00\",\"Currency\":\"GBP\",\"Other\":1},"
+                + "\"CreditDebitIndicator\":\"Debit\"}]},\"Risk\":{}}");
+
+        Transaction transaction = fetch(newFetcher(10, 4, false)).get(0);
+
+        assertEquals("t1", transaction.getId());
+        assertEquals("2026-01-05", transaction.getDate());
+        assertEquals("Café \"x\"", transaction.getReference());
+        assertEquals("-0.00", transaction.getAmount());
+        assertEquals("GBP", transaction.getCurrency());
+        assertEquals("Debit", transaction.getCreditDebitStatus());
+        assertEquals(ACCOUNT, transaction.getAccount());
+    }
+
+    @Test
+    public void missingRequiredFieldFailsTheFetch() throws Exception {
+        pages.put(BASE, "{\"Data\":{\"Transaction\":[{\"TransactionId\":\"t1\"}]}}");
+
+        assertFetchFails(newFetcher(10, 4, false));
+    }
+
+    @Test
+    public void errorStatusFailsTheFetch() throws Exception {
+        assertFetchFails(newFetcher(10, 4, false));
+    }
+
+    @Test
+    public void deltaSyncRequestsFromTheLatestBookingAndMergesNewestFirst() throws Exception {
+        TransactionFetcher transactionFetcher = newFetcher(10, 4, true);
+        pages.put(BASE, page(null, 0,
+                txn("t1", "2026-01-01T09:00:00+01:00"),
+                txn("t2", "2026-01-02T09:00:00+01:00")));
+        assertEquals(Arrays.asList("t1", "t2"), ids(fetch(transactionFetcher)));
+
+        String delta = BASE + "?fromBookingDateTime="
+                + URLEncoder.encode("2026-01-02T09:00:00+01:00", StandardCharsets.UTF_8);
+        pages.put(delta, page(null, 0,
+                txn("t2", "2026-01-02T09:00:00+01:00"),
+                txn("t3", "2026-01-03T09:00:00+01:00")));
+        assertEquals(Arrays.asList("t2", "t3", "t1"), ids(fetch(transactionFetcher)));
+        assertEquals(delta, requested.get(requested.size() - 1));
+
+        String nextDelta = BASE + "?fromBookingDateTime="
+                + URLEncoder.encode("2026-01-03T09:00:00+01:00", StandardCharsets.UTF_8);
+        pages.put(nextDelta, page(null, 0));
+        assertEquals(Arrays.asList("t2", "t3", "t1"), ids(fetch(transactionFetcher)));
+        assertEquals(nextDelta, requested.get(requested.size() - 1));
+        assertEquals(1L, transactionFetcher.getStats().get("fullSyncs"));
+        assertEquals(2L, transactionFetcher.getStats().get("deltaSyncs"));
+    }
+
+    @Test
+    public void withoutDeltaSyncEveryFetchIsFull() throws Exception {
+        TransactionFetcher transactionFetcher = newFetcher(10, 4, false);
+        pages.put(BASE, page(null, 0, txn("t1", "2026-01-01T09:00:00Z")));
+
+        fetch(transactionFetcher);
+        fetch(transactionFetcher);
+
+        assertEquals(Arrays.asList(BASE, BASE), requested);
+        assertEquals(2L, transactionFetcher.getStats().get("fullSyncs"));
+    }
+
+    private TransactionFetcher newFetcher(int maxPages, int pagesInFlight, boolean deltaSync) {
+        AccountDataCache cache = new AccountDataCache(this::respond, false, 0, Collections.emptyMap());
+        return new TransactionFetcher(cache, fetcher, maxPages, pagesInFlight,
+                deltaSync ? new FlowStateStore<>(60, 100) : null);
+    }
+
+    private <T> T respond(String url, String accessToken, String etag, String lastModified,
+                          HttpTransport.ResponseReader<T> reader)
+            throws IOException {
+        requested.add(url);
+        String body = pages.get(url);
+        int status = body == null ? 404 : 200;
+        byte[] bytes = (body == null ? "{}" : body).getBytes(StandardCharsets.UTF_8);
+        return reader.read(status, Collections.emptyMap(), new ByteArrayInputStream(bytes));
+    }
+
+    private List<Transaction> fetch(TransactionFetcher transactionFetcher) throws Exception {
+        return transactionFetcher.fetch(BANK, ACCOUNT, "token", "consent-1").get(10, TimeUnit.SECONDS);
+    }
+
+    private void assertFetchFails(TransactionFetcher transactionFetcher) throws Exception {
+        try {
+            fetch(transactionFetcher);
+            fail("fetch should fail");
+        } catch (ExecutionException e) {
+            assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof IOException);
+        }
+    }
+
+    private static List<String> ids(List<Transaction> transactions) {
+        List<String> ids = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            ids.add(transaction.getId());
+        }
+        return ids;
+    }
+
+    private static String page(String next, int totalPages, String... transactions) {
+        StringBuilder json = new StringBuilder("{\"Data\":{\"Transaction\":[")
+                .append(String.join(",", transactions)).append("]}");
+        if (next != null) {
+            json.append(",\"Links\":{\"Self\":\"x\",\"Next\":\"").append(next).append("\"}");
+        }
+        if (totalPages > 0) {
+            json.append(",\"Meta\":{\"TotalPages\":").append(totalPages).append('}');
+        }
+        return json.append('}').toString();
+    }
+
+    private static String txn(String id, String bookingDateTime) {
+        return "{\"TransactionId\":\"" + id + "\",\"BookingDateTime\":\"" + bookingDateTime + "\","
+                + "\"TransactionInformation\":\"Ref " + id + "\","
+                + "\"Amount\":{\"Amount\":\"1.00\",\"Currency\":\"GBP\"},\"CreditDebitIndicator\":\"Credit\"}";
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.demo.utils;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that {@link BookingDateParser} gives the same results as the {@code java.time} parse chain
+ * it replaced in TransactionFetcher.
+ */
+public class BookingDateParserTest {
+
+    private static final DateTimeFormatter ISO_DATETIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final List<String> EDGE_CASES = Arrays.asList(
+            "2026-01-05T10:15:30.123+05:30",
+            "2026-01-05T10:15:30.123Z",
+            "2026-01-05T10:15:30+05:30",
+            "2026-01-05T10:15:30-08:00",
+            "2026-01-05T10:15:30Z",
+            "2026-01-05T10:15:30z",
+            "2026-01-05T10:15:30",
+            "2026-01-05T10:15",
+            "2026-01-05T10:15Z",
+            "2026-01-05T10:15:30.1Z",
+            "2026-01-05T10:15:30.12+01:00",
+            "2026-01-05T10:15:30.123456789Z",
+            "2026-01-05T10:15:30.1234567891Z",
+            "2026-01-05T10:15:30.Z",
+            "2026-01-05T23:59:59.999-18:00",
+            "2026-01-05T00:00:00.000+18:00",
+            "2026-01-05T00:00:00+19:00",
+            "2026-01-05T00:00:00+05",
+            "2026-01-05T00:00:00+0530",
+            "2026-01-05T24:00:00Z",
+            "2026-01-05T10:60:00Z",
+            "2026-01-05T10:15:60Z",
+            "2026-01-05t10:15:30Z",
+            "2026-01-05 10:15:30",
+            "2026-01-05",
+            "2026-01-5T10:15:30Z",
+            "2026-13-05T10:15:30Z",
+            "2026-00-05T10:15:30Z",
+            "2026-02-29T10:15:30.000Z",
+            "2024-02-29T10:15:30.000Z",
+            "2100-02-29T10:15:30Z",
+            "2000-02-29T10:15:30Z",
+            "2026-04-31T10:15:30.000+00:00",
+            "2026-02-30T10:15:30",
+            "1969-12-31T23:59:59.999Z",
+            "1970-01-01T00:00:00Z",
+            "0001-01-01T00:00:00Z",
+            "9999-12-31T23:59:59.999Z",
+            "2026-01-05X10:15:30Z",
+            "2026/01/05T10:15:30Z",
+            "20260105T101530Z",
+            "not a date",
+            "2026-01",
+            "",
+            "   2026-01-05T10:15:30Z",
+            "2026-01-05T10:15:30Z[Europe/London]",
+            "2026-01-05T10:15:30+01:00[Europe/Paris]"
+    );
+
+    @Test
+    public void toDateMatchesJavaTimeOnEdgeCases() {
+        for (String value : EDGE_CASES) {
+            assertEquals(value, legacyToDate(value), BookingDateParser.toDate(value));
+        }
+    }
+
+    @Test
+    public void toEpochMillisMatchesJavaTimeOnEdgeCases() {
+        for (String value : EDGE_CASES) {
+            assertEquals(value, legacyToEpochMillis(value), BookingDateParser.toEpochMillis(value));
+        }
+    }
+
+    @Test
+    public void matchesJavaTimeOnGeneratedDateTimes() {
+        Random random = new Random(20260105L);
+        for (String value : generate(random, 20000)) {
+            assertEquals(value, legacyToDate(value), BookingDateParser.toDate(value));
+            assertEquals(value, legacyToEpochMillis(value), BookingDateParser.toEpochMillis(value));
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void toDateRejectsNullLikeJavaTime() {
+        BookingDateParser.toDate(null);
+    }
+
+    /**
+     * Builds date-times in the shapes banks send, plus single-character corruptions of them.
+     */
+    private static List<String> generate(Random random, int count) {
+        String[] offsets = {"Z", "+00:00", "+05:30", "-08:00", "+14:00", "-03:30", ""};
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int year = 1900 + random.nextInt(300);
+            int month = 1 + random.nextInt(12);
+            int day = 1 + random.nextInt(31);
+            StringBuilder value = new StringBuilder(String.format("%04d-%02d-%02dT%02d:%02d",
+                    year, month, day, random.nextInt(24), random.nextInt(60)));
+            if (random.nextInt(4) != 0) {
+                value.append(String.format(":%02d", random.nextInt(60)));
+                int fractionDigits = random.nextInt(5) == 0 ? 1 + random.nextInt(9) : 3;
+                if (random.nextBoolean()) {
+                    value.append('.');
+                    for (int d = 0; d < fractionDigits; d++) {
+                        value.append((char) ('0' + random.nextInt(10)));
+                    }
+                }
+            }
+            value.append(offsets[random.nextInt(offsets.length)]);
+            if (random.nextInt(5) == 0) {
+                int index = random.nextInt(value.length());
+                value.setCharAt(index, "0123456789-:T.Z+x "
+                        .charAt(random.nextInt(18)));
+            }
+            values.add(value.toString());
+        }
+        return values;
+    }
+
+    private static String legacyToDate(String isoDateTime) {
+        try {
+            return ZonedDateTime.parse(isoDateTime, ISO_DATETIME_FORMATTER).format(DATE_FORMATTER);
+        } catch (Exception e1) {
+            try {
+                return LocalDateTime.parse(isoDateTime, DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                        .format(DATE_FORMATTER);
+            } catch (Exception e2) {
+                if (isoDateTime.length() >= 10) {
+                    return isoDateTime.substring(0, 10);
+                }
+                return isoDateTime;
+            }
+        }
+    }
+
+    private static long legacyToEpochMillis(String bookingDateTime) {
+        try {
+            return OffsetDateTime.parse(bookingDateTime).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e1) {
+            try {
+                return LocalDateTime.parse(bookingDateTime).toInstant(ZoneOffset.UTC).toEpochMilli();
+            } catch (DateTimeParseException e2) {
+                return Long.MIN_VALUE;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.wso2.openbanking.demo.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that {@link ConfigSnapshot} parses typed values once and validates them against the declared keys.
+ */
+public class ConfigSnapshotTest {
+
+    @Test
+    public void typedValuesAreParsedWithDefaultsForMissingAndBlankKeys() {
+        ConfigSnapshot snapshot = snapshot("a.int", " 42 ", "a.flag", "TRUE ", "b.flag", "false", "blank", " ");
+
+        assertEquals(42, snapshot.getInt("a.int", 1));
+        assertEquals(7, snapshot.getInt("missing", 7));
+        assertEquals(7, snapshot.getInt("blank", 7));
+        assertTrue(snapshot.getBoolean("a.flag", false));
+        assertFalse(snapshot.getBoolean("b.flag", true));
+        assertTrue(snapshot.getBoolean("missing", true));
+        assertTrue(snapshot.getBoolean("blank", true));
+        assertEquals(" 42 ", snapshot.get("a.int"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void malformedIntegerIsRejectedOnRead() {
+        snapshot("a.int", "4x").getInt("a.int", 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void malformedBooleanIsRejectedOnRead() {
+        snapshot("a.flag", "yes").getBoolean("a.flag", false);
+    }
+
+    @Test
+    public void validationReportsEveryProblemOfTheDeclaredKeys() {
+        ConfigSnapshot snapshot = snapshot("a.int", "4x", "a.flag", "yes", "other", "not-checked");
+
+        List<String> errors = snapshot.validate(Arrays.asList("required", "other"),
+                Collections.singletonList("a.int"), Collections.singletonList("a.flag"));
+
+        assertEquals(Arrays.asList("Property not found: required",
+                "Property is not a valid integer: a.int=4x",
+                "Property is not a valid boolean: a.flag=yes"), errors);
+    }
+
+    @Test
+    public void shippedConfigurationPassesValidation() {
+        // ConfigLoader validates application.properties against its declared keys when it loads.
+        assertTrue(ConfigLoader.getSnapshot().getBoolean("config.reload.enabled", false));
+        assertEquals(20, ConfigLoader.getBankDefaultTimeoutSeconds());
+    }
+
+    private static ConfigSnapshot snapshot(String... keyValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        return new ConfigSnapshot(properties, 1);
+    }
+}